@@ -0,0 +1,255 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.bean;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.Introspector;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverterManagerBean;
+import jodd.util.ReflectUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Copy plan between two bean types, used by compiled {@link BeanCopy}.
+ * Property names, getters, setters and conversion kind are resolved
+ * once per source type, destination type and copy options; copying
+ * then just invokes getters and setters. Include/exclude rules and
+ * null values are still checked on each copy. Plans are immutable
+ * and attached to bean classes (using <code>ClassValue</code>), so they
+ * do not prevent class loaders from being garbage collected.
+ */
+final class BeanCopier {
+
+	private static final ClassValue<ClassValue<BeanCopier[]>> plansBySource = createPlansCache();
+	private static final ClassValue<ClassValue<BeanCopier[]>> plansByDestination = createPlansCache();
+
+	/**
+	 * Creates plans cache. Plans are stored in the class value of the second
+	 * type, under the key that is owned by the first type. Therefore, plans
+	 * keep the first type reachable from the second one.
+	 */
+	private static ClassValue<ClassValue<BeanCopier[]>> createPlansCache() {
+		return new ClassValue<ClassValue<BeanCopier[]>>() {
+			@Override
+			protected ClassValue<BeanCopier[]> computeValue(Class<?> firstType) {
+				return new ClassValue<BeanCopier[]>() {
+					@Override
+					protected BeanCopier[] computeValue(Class<?> secondType) {
+						// one plan for each combination of copy options
+						return new BeanCopier[4];
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns plans of given type pair. Plans are attached to the type that
+	 * is loaded by the same or child class loader of the other type, so
+	 * they never keep a class of a child class loader reachable from the
+	 * parent one. Returns <code>null</code> when types come from unrelated
+	 * class loaders, as plans can not be cached then.
+	 */
+	private static BeanCopier[] lookupPlans(Class sourceType, Class destinationType) {
+		ClassLoader sourceClassLoader = sourceType.getClassLoader();
+		ClassLoader destinationClassLoader = destinationType.getClassLoader();
+
+		if (isParentOrSame(sourceClassLoader, destinationClassLoader)) {
+			return plansBySource.get(sourceType).get(destinationType);
+		}
+		if (isParentOrSame(destinationClassLoader, sourceClassLoader)) {
+			return plansByDestination.get(destinationType).get(sourceType);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the first class loader is the same as
+	 * the second one or one of its parents. <code>null</code> stands
+	 * for the bootstrap class loader.
+	 */
+	private static boolean isParentOrSame(ClassLoader parent, ClassLoader classLoader) {
+		if (parent == null) {
+			return true;
+		}
+		while (classLoader != null) {
+			if (classLoader == parent) {
+				return true;
+			}
+			classLoader = classLoader.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns copy plan for given bean copy from the cache. Plan is
+	 * rebuild when introspector returns new class descriptors.
+	 */
+	static BeanCopier of(BeanCopy beanCopy, Class sourceType, Class destinationType) {
+		Introspector introspector = JoddBean.introspector;
+
+		ClassDescriptor sourceDescriptor = introspector.lookup(sourceType);
+		ClassDescriptor destinationDescriptor = introspector.lookup(destinationType);
+
+		BeanCopier[] plans = lookupPlans(sourceType, destinationType);
+		int index = (beanCopy.declared ? 1 : 0) + (beanCopy.includeFields ? 2 : 0);
+
+		BeanCopier beanCopier = plans != null ? plans[index] : null;
+
+		if (beanCopier == null
+				|| beanCopier.sourceDescriptor != sourceDescriptor
+				|| beanCopier.destinationDescriptor != destinationDescriptor) {
+
+			beanCopier = new BeanCopier(beanCopy, sourceDescriptor, destinationDescriptor);
+
+			if (plans != null) {
+				// plans are immutable, so racing threads may just overwrite each other
+				plans[index] = beanCopier;
+			}
+		}
+		return beanCopier;
+	}
+
+	final ClassDescriptor sourceDescriptor;
+	final ClassDescriptor destinationDescriptor;
+	final Entry[] entries;
+
+	/**
+	 * Resolves all copied properties. Only properties that exist in
+	 * both beans are part of the plan, since setting the missing
+	 * ones is silently ignored anyway.
+	 */
+	BeanCopier(BeanCopy beanCopy, ClassDescriptor sourceDescriptor, ClassDescriptor destinationDescriptor) {
+		this.sourceDescriptor = sourceDescriptor;
+		this.destinationDescriptor = destinationDescriptor;
+
+		boolean declared = beanCopy.declared;
+
+		String[] names = beanCopy.getAllBeanPropertyNames(sourceDescriptor.getType(), declared);
+
+		List<Entry> list = new ArrayList<>(names.length);
+
+		for (String name : names) {
+			PropertyDescriptor sourcePropertyDescriptor = sourceDescriptor.getPropertyDescriptor(name, true);
+			PropertyDescriptor destinationPropertyDescriptor = destinationDescriptor.getPropertyDescriptor(name, true);
+
+			if (sourcePropertyDescriptor == null || destinationPropertyDescriptor == null) {
+				continue;
+			}
+
+			Getter getter = sourcePropertyDescriptor.getGetter(declared);
+			Setter setter = destinationPropertyDescriptor.getSetter(declared);
+
+			if (getter == null || setter == null) {
+				continue;
+			}
+
+			list.add(new Entry(name, getter, setter));
+		}
+
+		this.entries = list.toArray(new Entry[list.size()]);
+	}
+
+	/**
+	 * Copies properties from the source to the destination. Getter exceptions
+	 * are thrown, while setter exceptions are ignored, as in {@link BeanCopy#copy()}.
+	 */
+	void copy(BeanCopy beanCopy, TypeConverterManagerBean typeConverterManager) {
+		Object source = beanCopy.source;
+		Object destination = beanCopy.destination;
+
+		for (Entry entry : entries) {
+			if (!beanCopy.rules.match(entry.name, beanCopy.blacklist)) {
+				continue;
+			}
+
+			Object value;
+
+			try {
+				value = entry.getter.invokeGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + entry.getter, ex);
+			}
+
+			if (value == null && beanCopy.ignoreNullValues) {
+				continue;
+			}
+
+			try {
+				switch (entry.conversion) {
+					case Entry.CONVERT:
+						value = typeConverterManager.convertType(value, entry.type);
+						break;
+					case Entry.CONVERT_COLLECTION:
+						value = typeConverterManager.convertToCollection(value, entry.type, entry.componentType);
+						break;
+				}
+
+				entry.setter.invokeSetter(destination, value);
+			} catch (Exception ignore) {
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- entry
+
+	/**
+	 * Single copied property with resolved getter, setter and type conversion.
+	 */
+	static final class Entry {
+
+		static final int NONE = 0;
+		static final int CONVERT = 1;
+		static final int CONVERT_COLLECTION = 2;
+
+		final String name;
+		final Getter getter;
+		final Setter setter;
+		final Class type;
+		final Class componentType;
+		final int conversion;
+
+		Entry(String name, Getter getter, Setter setter) {
+			this.name = name;
+			this.getter = getter;
+			this.setter = setter;
+			this.type = setter.getSetterRawType();
+			this.componentType = setter.getSetterRawComponentType();
+
+			if (type == Object.class) {
+				conversion = NONE;
+			} else if (ReflectUtil.isTypeOf(type, Collection.class)) {
+				conversion = CONVERT_COLLECTION;
+			} else {
+				conversion = CONVERT;
+			}
+		}
+	}
+}
@@ -25,6 +25,8 @@
 
 package jodd.bean;
 
+import jodd.typeconverter.TypeConverterManager;
+
 import java.util.Map;
 
 import static jodd.util.StringPool.LEFT_SQ_BRACKET;
@@ -42,6 +44,7 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 	protected boolean forced;
 	protected boolean declaredTarget;
 	protected boolean isTargetMap;
+	protected boolean compiled;
 
 	// ---------------------------------------------------------------- ctor
 
@@ -153,6 +156,17 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 		return this;
 	}
 
+	/**
+	 * Enables compiled copying between two POJO beans. Getters, setters and type
+	 * conversions are resolved once per source type, destination type and options
+	 * and then reused, so repeated copying of the same types is faster.
+	 * Copying from or to a <code>Map</code> is not affected.
+	 */
+	public BeanCopy compiled(boolean compiled) {
+		this.compiled = compiled;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- visitor
 
 	protected BeanUtil beanUtil;
@@ -161,6 +175,12 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 	 * Performs the copying.
 	 */
 	public void copy() {
+		if (compiled && isCompilable()) {
+			BeanCopier.of(this, source.getClass(), destination.getClass())
+					.copy(this, TypeConverterManager.getDefaultTypeConverterManager());
+			return;
+		}
+
 		beanUtil = new BeanUtilBean()
 						.declared(declared)
 						.forced(forced)
@@ -168,6 +188,21 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 		visit();
 	}
 
+	/**
+	 * Returns <code>true</code> if copying can be done using the
+	 * compiled plan, i.e. when neither source
+	 * nor destination is a <code>Map</code>.
+	 */
+	protected boolean isCompilable() {
+		if (isSourceMap || isTargetMap) {
+			return false;
+		}
+		if (source == null || destination == null) {
+			return false;
+		}
+		return !(source instanceof Map) && !(destination instanceof Map);
+	}
+
 	/**
 	 * Copies single property to the destination.
 	 * Exceptions are ignored, so copying continues if
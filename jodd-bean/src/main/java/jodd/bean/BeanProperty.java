@@ -47,12 +47,14 @@ class BeanProperty {
 		setBean(bean);
 		this.last = true;
 		this.first = true;
-		this.fullName = bean.getClass().getSimpleName() + '#' + propertyName;
+		this.rootType = bean.getClass();
+		this.propertyName = propertyName;
 	}
 
 	// ---------------------------------------------------------------- bean and descriptor
 
-	final String fullName;  // initial name
+	final Class rootType;		// initial bean type
+	final String propertyName;	// initial name
 	final Introspector introspector;
 	Object bean;
 	private ClassDescriptor cd;
@@ -69,6 +71,15 @@ class BeanProperty {
 		this.updateProperty = true;
 	}
 
+	/**
+	 * Sets current property name and index from the compiled path segment.
+	 */
+	void setSegment(PropertyPath.Segment segment) {
+		this.name = segment.name;
+		this.index = segment.index;
+		this.updateProperty = true;
+	}
+
 	/**
 	 * Sets new bean instance.
 	 */
@@ -131,6 +142,6 @@ class BeanProperty {
 
 	@Override
 	public String toString() {
-		return fullName + " (" + (bean != null ? bean.getClass().getSimpleName() : "?") + '#' + name + ')';
+		return rootType.getSimpleName() + '#' + propertyName + " (" + (bean != null ? bean.getClass().getSimpleName() : "?") + '#' + name + ')';
 	}
 }
\ No newline at end of file
@@ -125,6 +125,17 @@ public interface BeanUtil {
 	<T> T getSimpleProperty(Object bean, String property);
 
 
+	// ---------------------------------------------------------------- COMPILE
+
+	/**
+	 * Compiles property path into a reusable and thread-safe
+	 * {@link CompiledProperty}, for repeated access to the same property.
+	 * String paths are compiled as well, and cached.
+	 */
+	default CompiledProperty compile(String name) {
+		return new CompiledProperty(this, PropertyPath.of(name));
+	}
+
 	// ---------------------------------------------------------------- HAS
 
 	/**
@@ -31,6 +31,7 @@ import jodd.util.ReflectUtil;
 import jodd.util.StringUtil;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +67,33 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 
 	// ---------------------------------------------------------------- internal resolver
 
+	/**
+	 * Detects subclasses that override resolving hooks: {@link #resolveNestedProperties(BeanProperty)},
+	 * {@link #getIndexProperty(BeanProperty)} or {@link #setIndexProperty(BeanProperty, Object)}.
+	 * Their property paths are resolved using hooks, instead of compiled path segments.
+	 */
+	private static final ClassValue<Boolean> hooksOverridden = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class c = type; c != BeanUtilBean.class; c = c.getSuperclass()) {
+				for (Method method : c.getDeclaredMethods()) {
+					Class[] paramTypes = method.getParameterTypes();
+
+					if (paramTypes.length == 0 || paramTypes[0] != BeanProperty.class) {
+						continue;
+					}
+					switch (method.getName()) {
+						case "resolveNestedProperties":
+						case "getIndexProperty":
+						case "setIndexProperty":
+							return Boolean.TRUE;
+					}
+				}
+			}
+			return Boolean.FALSE;
+		}
+	};
+
 	/**
 	 * Resolves nested property name to the very last indexed property.
 	 * If forced, <code>null</code> or non-existing properties will be created.
@@ -83,6 +111,23 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 		bp.setName(name);
 	}
 
+	/**
+	 * Resolves nested properties of compiled path to the very last indexed property.
+	 * @see #resolveNestedProperties(BeanProperty)
+	 */
+	void resolveNestedProperties(BeanProperty bp, PropertyPath propertyPath) {
+		PropertyPath.Segment[] segments = propertyPath.segments;
+		int last = segments.length - 1;
+
+		for (int i = 0; i < last; i++) {
+			bp.last = false;
+			bp.setSegment(segments[i]);
+			bp.setBean(getIndexProperty(bp, segments[i]));
+		}
+		bp.last = true;
+		bp.setSegment(segments[last]);
+	}
+
 	protected boolean resolveExistingNestedProperties(BeanProperty bp) {
 		String name = bp.name;
 		int dotNdx;
@@ -287,6 +332,19 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 		return value;
 	}
 
+	/**
+	 * Get non-nested property value of compiled path segment.
+	 */
+	Object getIndexProperty(BeanProperty bp, PropertyPath.Segment segment) {
+		bp.indexString = segment.index;
+
+		Object value = _getIndexProperty(bp);
+
+		bp.indexString = null;
+
+		return value;
+	}
+
 	private Object _getIndexProperty(BeanProperty bp) {
 		Object resultBean = getSimpleProperty(bp);
 		Getter getter = bp.getGetter(isDeclared);
@@ -402,6 +460,17 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 		bp.indexString = null;
 	}
 
+	/**
+	 * Sets indexed or regular property of compiled path segment.
+	 */
+	void setIndexProperty(BeanProperty bp, PropertyPath.Segment segment, Object value) {
+		bp.indexString = segment.index;
+
+		_setIndexProperty(bp, value);
+
+		bp.indexString = null;
+	}
+
 	@SuppressWarnings({"unchecked"})
 	private void _setIndexProperty(BeanProperty bp, Object value) {
 		if (bp.indexString == null) {
@@ -468,21 +537,33 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 
 	@Override
 	public void setProperty(Object bean, String name, Object value) {
-		BeanProperty beanProperty = new BeanProperty(this, bean, name);
+		setProperty(bean, PropertyPath.of(name), value);
+	}
+
+	void setProperty(Object bean, PropertyPath propertyPath, Object value) {
+		BeanProperty beanProperty = new BeanProperty(this, bean, propertyPath.path);
 
 		if (!isSilent) {
-			resolveNestedProperties(beanProperty);
-			setIndexProperty(beanProperty, value);
+			_setProperty(beanProperty, propertyPath, value);
 		}
 		else {
 			try {
-				resolveNestedProperties(beanProperty);
-				setIndexProperty(beanProperty, value);
+				_setProperty(beanProperty, propertyPath, value);
 			}
 			catch (Exception ignore) {}
 		}
 	}
 
+	private void _setProperty(BeanProperty bp, PropertyPath propertyPath, Object value) {
+		if (hooksOverridden.get(getClass())) {
+			resolveNestedProperties(bp);
+			setIndexProperty(bp, value);
+			return;
+		}
+		resolveNestedProperties(bp, propertyPath);
+		setIndexProperty(bp, propertyPath.segments[propertyPath.segments.length - 1], value);
+	}
+
 	// ---------------------------------------------------------------- GET
 
 	/**
@@ -490,15 +571,18 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 	 */
 	@Override
 	public <T> T getProperty(Object bean, String name) {
-		BeanProperty beanProperty = new BeanProperty(this, bean, name);
+		return (T) getProperty(bean, PropertyPath.of(name));
+	}
+
+	Object getProperty(Object bean, PropertyPath propertyPath) {
+		BeanProperty beanProperty = new BeanProperty(this, bean, propertyPath.path);
+
 		if (!isSilent) {
-			resolveNestedProperties(beanProperty);
-			return (T) getIndexProperty(beanProperty);
+			return _getProperty(beanProperty, propertyPath);
 		}
 		else {
 			try {
-				resolveNestedProperties(beanProperty);
-				return (T) getIndexProperty(beanProperty);
+				return _getProperty(beanProperty, propertyPath);
 			}
 			catch (Exception ignore) {
 				return null;
@@ -506,6 +590,15 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 		}
 	}
 
+	private Object _getProperty(BeanProperty bp, PropertyPath propertyPath) {
+		if (hooksOverridden.get(getClass())) {
+			resolveNestedProperties(bp);
+			return getIndexProperty(bp);
+		}
+		resolveNestedProperties(bp, propertyPath);
+		return getIndexProperty(bp, propertyPath.segments[propertyPath.segments.length - 1]);
+	}
+
 	// ---------------------------------------------------------------- HAS
 
 	@Override
@@ -556,4 +649,4 @@ public class BeanUtilBean extends BeanUtilUtil implements BeanUtil {
 		return propertyName.substring(0, ndx);
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -201,29 +201,7 @@ abstract class BeanUtilUtil implements BeanUtil {
 	 * Returns <code>-1</code> when dot is not found.
 	 */
 	protected int indexOfDot(String name) {
-		int ndx = 0;
-		int len = name.length();
-
-		boolean insideBracket = false;
-
-		while (ndx < len) {
-			char c = name.charAt(ndx);
-
-			if (insideBracket) {
-				if (c == ']') {
-					insideBracket = false;
-				}
-			} else {
-				if (c == '.') {
-					return ndx;
-				}
-				if (c == '[') {
-					insideBracket = true;
-				}
-			}
-			ndx++;
-		}
-		return -1;
+		return PropertyPath.indexOfDot(name);
 	}
 
 
@@ -0,0 +1,79 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.bean;
+
+/**
+ * Compiled property path, created by {@link BeanUtil#compile(String)}.
+ * Path is parsed only once, so repeated access is faster then with string paths.
+ * Instances are immutable and thread-safe, and use flags and
+ * introspector of the {@link BeanUtil} that created them. Other
+ * <code>BeanUtil</code> implementations than {@link BeanUtilBean}
+ * are invoked with the string path.
+ */
+public class CompiledProperty {
+
+	protected final BeanUtil beanUtil;
+	protected final PropertyPath propertyPath;
+
+	CompiledProperty(BeanUtil beanUtil, PropertyPath propertyPath) {
+		this.beanUtil = beanUtil;
+		this.propertyPath = propertyPath;
+	}
+
+	/**
+	 * Returns property path.
+	 */
+	public String getPath() {
+		return propertyPath.path;
+	}
+
+	/**
+	 * Returns value of bean's property.
+	 * @see BeanUtil#getProperty(Object, String)
+	 */
+	public <T> T get(Object bean) {
+		if (beanUtil instanceof BeanUtilBean) {
+			return (T) ((BeanUtilBean) beanUtil).getProperty(bean, propertyPath);
+		}
+		return beanUtil.getProperty(bean, propertyPath.path);
+	}
+
+	/**
+	 * Sets bean's property.
+	 * @see BeanUtil#setProperty(Object, String, Object)
+	 */
+	public void set(Object bean, Object value) {
+		if (beanUtil instanceof BeanUtilBean) {
+			((BeanUtilBean) beanUtil).setProperty(bean, propertyPath, value);
+			return;
+		}
+		beanUtil.setProperty(bean, propertyPath.path, value);
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledProperty{" + propertyPath.path + '}';
+	}
+}
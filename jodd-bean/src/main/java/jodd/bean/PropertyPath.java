@@ -0,0 +1,141 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.bean;
+
+import jodd.cache.ConcurrentLRUCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed property path: nested property names with their optional indexes.
+ * Paths are immutable and shared through the cache, so each path is parsed
+ * only once. Paths do not refer to any bean type, property descriptors
+ * are looked up from the introspector.
+ */
+final class PropertyPath {
+
+	static final int CACHE_SIZE = 1000;
+
+	private static final ConcurrentLRUCache<String, PropertyPath> cache = new ConcurrentLRUCache<>(CACHE_SIZE);
+
+	/**
+	 * Returns parsed property path from the cache.
+	 */
+	static PropertyPath of(String path) {
+		PropertyPath propertyPath = cache.get(path);
+
+		if (propertyPath == null) {
+			propertyPath = new PropertyPath(path);
+			cache.put(path, propertyPath);
+		}
+		return propertyPath;
+	}
+
+	final String path;
+	final Segment[] segments;
+
+	PropertyPath(String path) {
+		this.path = path;
+
+		List<Segment> list = new ArrayList<>();
+
+		String name = path;
+		int dotNdx;
+		while ((dotNdx = indexOfDot(name)) != -1) {
+			list.add(Segment.of(name.substring(0, dotNdx)));
+			name = name.substring(dotNdx + 1);
+		}
+		list.add(Segment.of(name));
+
+		this.segments = list.toArray(new Segment[list.size()]);
+	}
+
+	/**
+	 * Finds the very first next dot. Ignores dots between index brackets.
+	 * Returns <code>-1</code> when dot is not found.
+	 */
+	static int indexOfDot(String name) {
+		int ndx = 0;
+		int len = name.length();
+
+		boolean insideBracket = false;
+
+		while (ndx < len) {
+			char c = name.charAt(ndx);
+
+			if (insideBracket) {
+				if (c == ']') {
+					insideBracket = false;
+				}
+			} else {
+				if (c == '.') {
+					return ndx;
+				}
+				if (c == '[') {
+					insideBracket = true;
+				}
+			}
+			ndx++;
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	// ---------------------------------------------------------------- segment
+
+	/**
+	 * Single non-nested property: name and optional index.
+	 */
+	static final class Segment {
+
+		/**
+		 * Parses non-nested property name and strips the index.
+		 */
+		static Segment of(String name) {
+			int lastNdx = name.length() - 1;
+
+			if (lastNdx >= 0 && name.charAt(lastNdx) == ']') {
+				int leftBracketNdx = name.lastIndexOf('[');
+				if (leftBracketNdx != -1) {
+					return new Segment(name.substring(0, leftBracketNdx), name.substring(leftBracketNdx + 1, lastNdx));
+				}
+			}
+			return new Segment(name, null);
+		}
+
+		final String name;
+		final String index;
+
+		Segment(String name, String index) {
+			this.name = name;
+			this.index = index;
+		}
+	}
+}
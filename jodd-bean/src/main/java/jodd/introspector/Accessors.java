@@ -0,0 +1,260 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.introspector;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Creates fast property accessors. Method accessors are generated
+ * with <code>LambdaMetafactory</code> and field accessors are
+ * method handles. When accessor can not be created, a <code>NO_*</code>
+ * marker is returned and descriptors fall back to reflection.
+ */
+final class Accessors {
+
+	static final Function<Object, Object> NO_GETTER = target -> null;
+	static final BiConsumer<Object, Object> NO_SETTER = (target, value) -> {};
+	static final MethodHandle NO_HANDLE = MethodHandles.constant(Object.class, null);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final Method PRIVATE_LOOKUP_IN;
+	private static final Constructor<MethodHandles.Lookup> LOOKUP_CTOR;
+
+	static {
+		Method privateLookupIn = null;
+		Constructor<MethodHandles.Lookup> lookupCtor = null;
+
+		try {
+			// java 9+
+			privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+		} catch (Exception ignore) {
+			try {
+				// java 8
+				lookupCtor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+				lookupCtor.setAccessible(true);
+			} catch (Exception ignore2) {
+				lookupCtor = null;
+			}
+		}
+
+		PRIVATE_LOOKUP_IN = privateLookupIn;
+		LOOKUP_CTOR = lookupCtor;
+	}
+
+	private Accessors() {
+	}
+
+	/**
+	 * Returns <code>true</code> when running on Java 9 or newer.
+	 */
+	static boolean isModernRuntime() {
+		return PRIVATE_LOOKUP_IN != null;
+	}
+
+	/**
+	 * Returns lookup with private access to given type or <code>null</code>.
+	 */
+	private static MethodHandles.Lookup privateLookup(Class type) {
+		try {
+			if (PRIVATE_LOOKUP_IN != null) {
+				return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, type, LOOKUP);
+			}
+			if (LOOKUP_CTOR != null) {
+				return LOOKUP_CTOR.newInstance(type, MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE
+						| MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE);
+			}
+		} catch (Exception ignore) {
+		}
+		return null;
+	}
+
+	// ---------------------------------------------------------------- methods
+
+	/**
+	 * Generates getter function for method without arguments.
+	 */
+	@SuppressWarnings("unchecked")
+	static Function<Object, Object> createGetter(Method method) {
+		if (!JoddIntrospector.generateAccessors
+				|| method.getParameterCount() != 0 || method.getReturnType() == void.class
+				|| Modifier.isStatic(method.getModifiers())) {
+			return NO_GETTER;
+		}
+
+		Class type = method.getDeclaringClass();
+		MethodHandles.Lookup lookup = privateLookup(type);
+
+		if (lookup == null) {
+			return NO_GETTER;
+		}
+
+		try {
+			MethodHandle methodHandle = lookup.unreflect(method);
+
+			CallSite callSite = LambdaMetafactory.metafactory(
+					lookup, "apply",
+					MethodType.methodType(Function.class),
+					GETTER_TYPE,
+					methodHandle,
+					MethodType.methodType(method.getReturnType(), type).wrap());
+
+			return (Function<Object, Object>) callSite.getTarget().invokeExact();
+		}
+		catch (Throwable ignore) {
+			return NO_GETTER;
+		}
+	}
+
+	/**
+	 * Generates setter function for method with single argument.
+	 */
+	@SuppressWarnings("unchecked")
+	static BiConsumer<Object, Object> createSetter(Method method) {
+		if (!JoddIntrospector.generateAccessors
+				|| method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+			return NO_SETTER;
+		}
+
+		Class type = method.getDeclaringClass();
+		MethodHandles.Lookup lookup = privateLookup(type);
+
+		if (lookup == null) {
+			return NO_SETTER;
+		}
+
+		try {
+			MethodHandle methodHandle = lookup.unreflect(method);
+
+			CallSite callSite = LambdaMetafactory.metafactory(
+					lookup, "accept",
+					MethodType.methodType(BiConsumer.class),
+					SETTER_TYPE,
+					methodHandle,
+					MethodType.methodType(void.class, type, wrap(method.getParameterTypes()[0])));
+
+			return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+		}
+		catch (Throwable ignore) {
+			return NO_SETTER;
+		}
+	}
+
+	// ---------------------------------------------------------------- fields
+
+	/**
+	 * Creates field getter handle of <code>(Object)Object</code> type.
+	 */
+	static MethodHandle createGetter(Field field) {
+		if (!JoddIntrospector.generateAccessors || Modifier.isStatic(field.getModifiers())) {
+			return NO_HANDLE;
+		}
+		try {
+			return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+		}
+		catch (Exception ignore) {
+			return NO_HANDLE;
+		}
+	}
+
+	/**
+	 * Creates field setter handle of <code>(Object,Object)void</code> type.
+	 */
+	static MethodHandle createSetter(Field field) {
+		if (!JoddIntrospector.generateAccessors
+				|| Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+			return NO_HANDLE;
+		}
+		try {
+			return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+		}
+		catch (Exception ignore) {
+			return NO_HANDLE;
+		}
+	}
+
+	// ---------------------------------------------------------------- types
+
+	/**
+	 * Returns <code>true</code> if value can be passed to an accessor of given type
+	 * without a conversion; otherwise reflection is used, as it widens primitives
+	 * and reports invalid arguments.
+	 */
+	static boolean isAssignable(Class type, Object value) {
+		if (value == null) {
+			return !type.isPrimitive();
+		}
+		if (type.isPrimitive()) {
+			return value.getClass() == wrap(type);
+		}
+		return type.isInstance(value);
+	}
+
+	/**
+	 * Returns wrapper type for primitives or the type itself.
+	 */
+	static Class wrap(Class type) {
+		if (!type.isPrimitive()) {
+			return type;
+		}
+		if (type == int.class) {
+			return Integer.class;
+		}
+		if (type == long.class) {
+			return Long.class;
+		}
+		if (type == boolean.class) {
+			return Boolean.class;
+		}
+		if (type == double.class) {
+			return Double.class;
+		}
+		if (type == float.class) {
+			return Float.class;
+		}
+		if (type == short.class) {
+			return Short.class;
+		}
+		if (type == byte.class) {
+			return Byte.class;
+		}
+		if (type == char.class) {
+			return Character.class;
+		}
+		return Void.class;
+	}
+}
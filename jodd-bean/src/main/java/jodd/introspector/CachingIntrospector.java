@@ -25,22 +25,22 @@
 
 package jodd.introspector;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Default {@link jodd.introspector.Introspector introspector} that caches all class descriptors.
  * It can examine either <b>accessible</b> or <b>supported</b> fields/methods/constructors.
  * <p>
- * It simply caches <b>all</b> class descriptors.
+ * It simply caches <b>all</b> class descriptors. Cache is thread-safe and lock-free
+ * on lookups. Descriptors are attached to their classes (using <code>ClassValue</code>),
+ * so they do not prevent class loaders from being garbage collected.
  */
 public class CachingIntrospector implements Introspector {
 
-	protected final Map<Class, ClassDescriptor> cache;
+	private volatile ClassValue<ClassDescriptor> cache;
 	protected final boolean scanAccessible;
 	protected final boolean enhancedProperties;
 	protected final boolean includeFieldsAsProperties;
 	protected final String[] propertyFieldPrefix;
+	protected final boolean countUsage;
 
 	/**
 	 * Default constructor.
@@ -55,11 +55,40 @@ public class CachingIntrospector implements Introspector {
 	 * constructors.
 	 */
 	public CachingIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
-		this.cache = new HashMap<>();
+		this(scanAccessible, enhancedProperties, includeFieldsAsProperties, propertyFieldPrefix, true);
+	}
+
+	/**
+	 * Creates new caching {@link Introspector} that may count
+	 * {@link ClassDescriptor#getUsageCount() descriptor usages}. Counting is
+	 * a write on every lookup, so it may be turned off for busy applications.
+	 */
+	public CachingIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix, boolean countUsage) {
 		this.scanAccessible = scanAccessible;
 		this.enhancedProperties = enhancedProperties;
 		this.includeFieldsAsProperties = includeFieldsAsProperties;
 		this.propertyFieldPrefix = propertyFieldPrefix;
+		this.countUsage = countUsage;
+		this.cache = createCache();
+	}
+
+	/**
+	 * Returns <code>true</code> if lookups are counted.
+	 */
+	public boolean isCountUsage() {
+		return countUsage;
+	}
+
+	/**
+	 * Creates new descriptors cache.
+	 */
+	protected ClassValue<ClassDescriptor> createCache() {
+		return new ClassValue<ClassDescriptor>() {
+			@Override
+			protected ClassDescriptor computeValue(Class<?> type) {
+				return describeClass(type);
+			}
+		};
 	}
 
 	/**
@@ -67,12 +96,9 @@ public class CachingIntrospector implements Introspector {
 	 */
 	public ClassDescriptor lookup(Class type) {
 		ClassDescriptor cd = cache.get(type);
-		if (cd != null) {
+		if (countUsage) {
 			cd.increaseUsageCount();
-			return cd;
 		}
-		cd = describeClass(type);
-		cache.put(type, cd);
 		return cd;
 	}
 
@@ -80,9 +106,9 @@ public class CachingIntrospector implements Introspector {
 	 * {@inheritDoc}
 	 */
 	public ClassDescriptor register(Class type) {
-		ClassDescriptor cd = describeClass(type);
-		cache.put(type, cd);
-		return cd;
+		ClassValue<ClassDescriptor> cache = this.cache;
+		cache.remove(type);
+		return cache.get(type);
 	}
 
 	/**
@@ -97,7 +123,7 @@ public class CachingIntrospector implements Introspector {
 	 * {@inheritDoc}
 	 */
 	public void reset() {
-		cache.clear();
+		cache = createCache();
 	}
 
-}
\ No newline at end of file
+}
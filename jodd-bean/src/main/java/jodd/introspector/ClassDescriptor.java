@@ -31,12 +31,14 @@ import java.util.Map;
 import java.util.List;
 import java.util.Set;
 import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A descriptor class for all methods/fields/properties/constructors of a class.
  * Static methods/fields are ignored.
  * <p>
  * Descriptors are 'lazy': various internal caches are created on first request.
+ * Descriptors are thread-safe and may be shared between threads.
  * <p>
  * Throughout this class, public members are defined as members
  * defined with "public" keyword and declared in a public type.
@@ -58,7 +60,7 @@ public class ClassDescriptor {
 	protected final String[] propertyFieldPrefix;
 	protected final Class[] interfaces;
 	protected final Class[] superclasses;
-	protected int usageCount;
+	private final LongAdder usageCount = new LongAdder();
 
 	public ClassDescriptor(Class type, boolean scanAccessible, boolean extendedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
 		this.type = type;
@@ -121,7 +123,7 @@ public class ClassDescriptor {
 	 * Increases usage count.
 	 */
 	protected void increaseUsageCount() {
-		usageCount++;
+		usageCount.increment();
 	}
 
 	/**
@@ -131,7 +133,7 @@ public class ClassDescriptor {
 	 * more frequently being used.
 	 */
 	public int getUsageCount() {
-		return usageCount;
+		return usageCount.intValue();
 	}
 
 	// ---------------------------------------------------------------- special
@@ -178,7 +180,7 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- fields
 
-	private Fields fields;
+	private volatile Fields fields;
 
 	/**
 	 * Returns {@link Fields fields collection}.
@@ -215,7 +217,7 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- methods
 
-	private Methods methods;
+	private volatile Methods methods;
 
 	/**
 	 * Returns methods collection.
@@ -271,7 +273,7 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- properties
 
-	private Properties properties;
+	private volatile Properties properties;
 
 	/**
 	 * Returns properties collection.
@@ -307,7 +309,7 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- ctors
 
-	private Ctors ctors;
+	private volatile Ctors ctors;
 
 	/**
 	 * Returns constructors collection.
@@ -27,6 +27,7 @@ package jodd.introspector;
 
 import jodd.util.ReflectUtil;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
@@ -112,7 +113,29 @@ public class FieldDescriptor extends Descriptor implements Getter, Setter {
 
 	// ---------------------------------------------------------------- getter/setter
 
+	private volatile MethodHandle getterHandle;
+	private volatile MethodHandle setterHandle;
+
+	/**
+	 * Reads field value using method handle.
+	 * Falls back to reflection when handle is not available.
+	 */
 	public Object invokeGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		MethodHandle getterHandle = this.getterHandle;
+
+		if (getterHandle == null) {
+			getterHandle = this.getterHandle = Accessors.createGetter(field);
+		}
+
+		if (getterHandle != Accessors.NO_HANDLE && field.getDeclaringClass().isInstance(target)) {
+			try {
+				return (Object) getterHandle.invokeExact(target);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
 		return field.get(target);
 	}
 
@@ -128,7 +151,30 @@ public class FieldDescriptor extends Descriptor implements Getter, Setter {
 		return getRawKeyComponentType();
 	}
 
+	/**
+	 * Writes field value using method handle.
+	 * Falls back to reflection when handle is not available or
+	 * when value has to be converted.
+	 */
 	public void invokeSetter(Object target, Object argument) throws IllegalAccessException {
+		MethodHandle setterHandle = this.setterHandle;
+
+		if (setterHandle == null) {
+			setterHandle = this.setterHandle = Accessors.createSetter(field);
+		}
+
+		if (setterHandle != Accessors.NO_HANDLE
+				&& field.getDeclaringClass().isInstance(target)
+				&& Accessors.isAssignable(field.getType(), argument)) {
+			try {
+				setterHandle.invokeExact(target, argument);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable throwable) {
+				throw new IllegalArgumentException(throwable);
+			}
+			return;
+		}
 		field.set(target, argument);
 	}
 
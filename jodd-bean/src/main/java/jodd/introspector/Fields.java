@@ -41,7 +41,7 @@ public class Fields {
 	protected final HashMap<String, FieldDescriptor> fieldsMap;
 
 	// cache
-	private FieldDescriptor[] allFields;
+	private volatile FieldDescriptor[] allFields;
 
 	/**
 	 * Creates new fields collection.
@@ -34,6 +34,14 @@ public class JoddIntrospector {
 	 */
 	public static Introspector introspector = new CachingIntrospector();
 
+	/**
+	 * When enabled, property getters and setters are invoked through
+	 * generated accessors instead of reflection. Accessors are created
+	 * lazily, on first invocation. Enabled by default on Java 9 and newer;
+	 * on Java 8 reflection already uses generated accessors and performs the same.
+	 */
+	public static boolean generateAccessors = Accessors.isModernRuntime();
+
 	// ---------------------------------------------------------------- module
 
 	static {
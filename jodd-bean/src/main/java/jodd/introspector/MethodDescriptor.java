@@ -30,6 +30,8 @@ import jodd.util.ReflectUtil;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Method descriptor. Holds additional method data,
@@ -141,7 +143,28 @@ public class MethodDescriptor extends Descriptor implements Getter, Setter {
 
 	// ---------------------------------------------------------------- getter/setter
 
+	private volatile Function<Object, Object> getterFunction;
+	private volatile BiConsumer<Object, Object> setterFunction;
+	private Class setterArgumentType;
+
+	/**
+	 * Invokes method as a getter using generated accessor.
+	 * Falls back to reflection when accessor is not available.
+	 */
 	public Object invokeGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		Function<Object, Object> getterFunction = this.getterFunction;
+
+		if (getterFunction == null) {
+			getterFunction = this.getterFunction = Accessors.createGetter(method);
+		}
+
+		if (getterFunction != Accessors.NO_GETTER && method.getDeclaringClass().isInstance(target)) {
+			try {
+				return getterFunction.apply(target);
+			} catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
 		return method.invoke(target, null);
 	}
 
@@ -157,7 +180,31 @@ public class MethodDescriptor extends Descriptor implements Getter, Setter {
 		return getRawReturnKeyComponentType();
 	}
 
+	/**
+	 * Invokes method as a setter using generated accessor.
+	 * Falls back to reflection when accessor is not available or
+	 * when argument has to be converted.
+	 */
 	public void invokeSetter(Object target, Object argument) throws IllegalAccessException, InvocationTargetException {
+		BiConsumer<Object, Object> setterFunction = this.setterFunction;
+
+		if (setterFunction == null) {
+			if (rawParameterTypes.length == 1) {
+				setterArgumentType = method.getParameterTypes()[0];
+			}
+			setterFunction = this.setterFunction = Accessors.createSetter(method);
+		}
+
+		if (setterFunction != Accessors.NO_SETTER
+				&& method.getDeclaringClass().isInstance(target)
+				&& Accessors.isAssignable(setterArgumentType, argument)) {
+			try {
+				setterFunction.accept(target, argument);
+			} catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+			return;
+		}
 		method.invoke(target, argument);
 	}
 
@@ -45,7 +45,7 @@ public class Methods {
 	protected final HashMap<String, MethodDescriptor[]> methodsMap;
 
 	// cache
-	private MethodDescriptor[] allMethods;
+	private volatile MethodDescriptor[] allMethods;
 
 	public Methods(ClassDescriptor classDescriptor) {
 		this.classDescriptor = classDescriptor;
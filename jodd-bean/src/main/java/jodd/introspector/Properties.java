@@ -49,7 +49,7 @@ public class Properties {
 	protected final HashMap<String, PropertyDescriptor> propertyDescriptors;
 
 	// cache
-	private PropertyDescriptor[] allProperties;
+	private volatile PropertyDescriptor[] allProperties;
 
 	public Properties(ClassDescriptor classDescriptor) {
 		this.classDescriptor = classDescriptor;
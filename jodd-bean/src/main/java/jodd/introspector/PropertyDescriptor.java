@@ -191,8 +191,8 @@ public class PropertyDescriptor extends Descriptor {
 
 	// ---------------------------------------------------------------- getters & setters
 
-	protected Getter[] getters;
-	protected Setter[] setters;
+	protected volatile Getter[] getters;
+	protected volatile Setter[] setters;
 
 	/**
 	 * Returns {@link Getter}. May return <code>null</code>
@@ -48,6 +48,7 @@ import jodd.typeconverter.impl.CollectionConverter;
 import jodd.typeconverter.impl.DateConverter;
 import jodd.typeconverter.impl.DoubleArrayConverter;
 import jodd.typeconverter.impl.DoubleConverter;
+import jodd.typeconverter.impl.EnumConverter;
 import jodd.typeconverter.impl.FileConverter;
 import jodd.typeconverter.impl.FloatArrayConverter;
 import jodd.typeconverter.impl.FloatConverter;
@@ -262,6 +263,7 @@ public class TypeConverterManagerBean {
 	public void register(Class type, TypeConverter typeConverter) {
 		convertBean.register(type, typeConverter);
 		converters.put(type, typeConverter);
+		resetDispatch();
 	}
 
 	/**
@@ -270,6 +272,7 @@ public class TypeConverterManagerBean {
 	public void unregister(Class type) {
 		convertBean.register(type, null);
 		converters.remove(type);
+		resetDispatch();
 	}
 
 	// ---------------------------------------------------------------- lookup
@@ -284,6 +287,92 @@ public class TypeConverterManagerBean {
 		return converters.get(type);
 	}
 
+	// ---------------------------------------------------------------- dispatch
+
+	private static final TypeConverter PASS_THROUGH = value -> value;
+
+	private volatile ClassValue<ClassValue<TypeConverter>> dispatch = createDispatch();
+
+	/**
+	 * Creates converters cache. Converter is stored in the class value of
+	 * the destination type, under the key that is owned by the source type.
+	 * Created converters refer only to the destination type, therefore
+	 * none of two types is kept reachable from the other one (e.g. application
+	 * class from a JDK class) and class loaders can be unloaded.
+	 */
+	private ClassValue<ClassValue<TypeConverter>> createDispatch() {
+		return new ClassValue<ClassValue<TypeConverter>>() {
+			@Override
+			protected ClassValue<TypeConverter> computeValue(Class<?> sourceType) {
+				return new ClassValue<TypeConverter>() {
+					@Override
+					protected TypeConverter computeValue(Class<?> destinationType) {
+						return createConverter(sourceType, destinationType);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Clears resolved converters, as registered converters are changed.
+	 */
+	protected void resetDispatch() {
+		dispatch = createDispatch();
+	}
+
+	/**
+	 * Resolves converter for values of source type to destination type.
+	 * Resolved converters are cached per type pair, so the destination type is
+	 * examined only once. Cache is cleared on each (un)registration.
+	 *
+	 * @see #convertType(Object, Class)
+	 */
+	public TypeConverter resolve(Class sourceType, Class destinationType) {
+		return dispatch.get(sourceType).get(destinationType);
+	}
+
+	/**
+	 * Creates converter for given type pair. Registered converter is used
+	 * when exists. Otherwise, converters for arrays, enums and collections
+	 * are created, or the value is passed when it is already of destination type.
+	 */
+	@SuppressWarnings("unchecked")
+	protected TypeConverter createConverter(Class sourceType, Class destinationType) {
+		if (destinationType == Object.class) {
+			return PASS_THROUGH;
+		}
+
+		TypeConverter converter = lookup(destinationType);
+
+		if (converter != null) {
+			return converter;
+		}
+
+		// no converter
+
+		if (destinationType.isArray()) {
+			return new ArrayConverter(this, destinationType.getComponentType());
+		}
+
+		if (destinationType.isEnum()) {
+			return new EnumConverter(destinationType);
+		}
+
+		if (destinationType.isAssignableFrom(sourceType)) {
+			return PASS_THROUGH;
+		}
+
+		if (ReflectUtil.isTypeOf(destinationType, Collection.class)) {
+			// component type is unknown because of Java's type-erasure
+			return new CollectionConverter(this, destinationType, Object.class);
+		}
+
+		return value -> {
+			throw new TypeConversionException("Conversion failed: " + destinationType.getName());
+		};
+	}
+
 	// ---------------------------------------------------------------- convert
 
 	/**
@@ -312,40 +401,9 @@ public class TypeConverterManagerBean {
 			return null;
 		}
 
-		// handle destination arrays
-		if (destinationType.isArray()) {
-			ArrayConverter<T> arrayConverter = new ArrayConverter(this, destinationType.getComponentType());
-
-			return (T) arrayConverter.convert(value);
-		}
-
-		// handle enums
-		if (destinationType.isEnum()) {
-			Object[] enums = destinationType.getEnumConstants();
-			String valStr = value.toString();
-			for (Object e : enums) {
-				if (e.toString().equals(valStr)) {
-					return (T) e;
-				}
-			}
-		}
-
-		// check same instances
-		if (ReflectUtil.isInstanceOf(value, destinationType)) {
-			return (T) value;
-		}
-
-		// collection
-		if (ReflectUtil.isTypeOf(destinationType, Collection.class)) {
-			// component type is unknown because of Java's type-erasure
-			CollectionConverter<T> collectionConverter =
-					new CollectionConverter(this, destinationType, Object.class);
-
-			return (T) collectionConverter.convert(value);
-		}
+		converter = resolve(value.getClass(), destinationType);
 
-		// fail
-		throw new TypeConversionException("Conversion failed: " + destinationType.getName());
+		return (T) converter.convert(value);
 	}
 
 	/**
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -111,11 +112,14 @@ public class CollectionConverter<T> implements TypeConverter<Collection<T>> {
 			throw new TypeConversionException("Unknown collection: " + collectionType.getName());
 		}
 		if (length > 0) {
-			try {
-				Constructor<Collection<T>> ctor = (Constructor<Collection<T>>) collectionType.getConstructor(int.class);
-				return ctor.newInstance(Integer.valueOf(length));
-			} catch (Exception ex) {
-				// ignore exception
+			Constructor<Collection<T>> ctor = resolveCapacityConstructor();
+
+			if (ctor != null) {
+				try {
+					return ctor.newInstance(Integer.valueOf(length));
+				} catch (Exception ex) {
+					// ignore exception
+				}
 			}
 		}
 
@@ -126,6 +130,26 @@ public class CollectionConverter<T> implements TypeConverter<Collection<T>> {
 		}
 	}
 
+	private static final ClassValue<Optional<Constructor>> CAPACITY_CONSTRUCTORS = new ClassValue<Optional<Constructor>>() {
+		@Override
+		protected Optional<Constructor> computeValue(Class<?> type) {
+			try {
+				return Optional.of(type.getConstructor(int.class));
+			} catch (Exception ex) {
+				return Optional.empty();
+			}
+		}
+	};
+
+	/**
+	 * Returns collection constructor with initial capacity or <code>null</code>
+	 * if it does not exist. Constructor is looked up only once per collection type.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Constructor<Collection<T>> resolveCapacityConstructor() {
+		return (Constructor<Collection<T>>) CAPACITY_CONSTRUCTORS.get(collectionType).orElse(null);
+	}
+
 	/**
 	 * Creates a collection with single element.
 	 */
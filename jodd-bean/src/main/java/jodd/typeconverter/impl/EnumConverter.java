@@ -0,0 +1,77 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.typeconverter.impl;
+
+import jodd.typeconverter.TypeConversionException;
+import jodd.typeconverter.TypeConverter;
+
+import java.util.HashMap;
+
+/**
+ * Converts given object to an enum. This converter is not registered
+ * to a type, but created when needed and cached by the manager.
+ * Conversion rules:
+ * <ul>
+ * <li><code>null</code> value is returned as <code>null</code></li>
+ * <li>enum constant with the same <code>toString</code> value is returned</li>
+ * <li>object of destination type is simply casted</li>
+ * </ul>
+ */
+public class EnumConverter<T> implements TypeConverter<T> {
+
+	protected final Class<T> enumType;
+	protected final HashMap<String, T> constants;
+
+	public EnumConverter(Class<T> enumType) {
+		this.enumType = enumType;
+
+		T[] enums = enumType.getEnumConstants();
+
+		this.constants = new HashMap<>(enums.length * 2);
+
+		for (T e : enums) {
+			constants.putIfAbsent(e.toString(), e);
+		}
+	}
+
+	public T convert(Object value) {
+		if (value == null) {
+			return null;
+		}
+
+		T e = constants.get(value.toString());
+
+		if (e != null) {
+			return e;
+		}
+
+		if (enumType.isInstance(value)) {
+			return (T) value;
+		}
+
+		throw new TypeConversionException("Conversion failed: " + enumType.getName());
+	}
+
+}
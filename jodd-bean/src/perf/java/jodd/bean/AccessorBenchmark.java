@@ -0,0 +1,84 @@
+package jodd.bean;
+
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.Getter;
+import jodd.introspector.JoddIntrospector;
+import jodd.introspector.Setter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generated property accessors with reflection.
+ * Run:
+ * <code>
+ * gw :jodd-bean:perf -PAccessorBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class AccessorBenchmark {
+
+	@Param({"true", "false"})
+	public boolean generateAccessors;
+
+	public static class Bean {
+		private int value;
+		private String name;
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			this.value = value;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	private Bean bean;
+	private Getter valueGetter;
+	private Setter valueSetter;
+	private Getter nameGetter;
+	private Setter nameSetter;
+	private Integer value;
+
+	@Setup
+	public void prepare() {
+		JoddIntrospector.generateAccessors = generateAccessors;
+
+		bean = new Bean();
+		value = 173;
+
+		valueGetter = ClassIntrospector.lookup(Bean.class).getPropertyDescriptor("value", true).getGetter(true);
+		valueSetter = ClassIntrospector.lookup(Bean.class).getPropertyDescriptor("value", true).getSetter(true);
+		nameGetter = ClassIntrospector.lookup(Bean.class).getPropertyDescriptor("name", true).getGetter(true);
+		nameSetter = ClassIntrospector.lookup(Bean.class).getPropertyDescriptor("name", true).getSetter(true);
+	}
+
+	@Benchmark
+	public Object primitiveProperty() throws Exception {
+		valueSetter.invokeSetter(bean, value);
+		return valueGetter.invokeGetter(bean);
+	}
+
+	@Benchmark
+	public Object objectProperty() throws Exception {
+		nameSetter.invokeSetter(bean, "jodd");
+		return nameGetter.invokeGetter(bean);
+	}
+}
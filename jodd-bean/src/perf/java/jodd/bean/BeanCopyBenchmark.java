@@ -0,0 +1,125 @@
+package jodd.bean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares bean-to-bean copying with and without compiled copy plans.
+ * Run:
+ * <code>
+ * gw :jodd-bean:perf -PBeanCopyBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Thread)
+public class BeanCopyBenchmark {
+
+	@Param({"true", "false"})
+	public boolean compiled;
+
+	public static class Source {
+		private String name;
+		private int number;
+		private Long total;
+		private String count;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(int number) {
+			this.number = number;
+		}
+
+		public Long getTotal() {
+			return total;
+		}
+
+		public void setTotal(Long total) {
+			this.total = total;
+		}
+
+		public String getCount() {
+			return count;
+		}
+
+		public void setCount(String count) {
+			this.count = count;
+		}
+	}
+
+	public static class Destination {
+		private String name;
+		private int number;
+		private long total;
+		private int count;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(int number) {
+			this.number = number;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+
+		public void setTotal(long total) {
+			this.total = total;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
+
+	private Source source;
+	private Destination destination;
+
+	@Setup
+	public void prepare() {
+		source = new Source();
+		source.setName("jodd");
+		source.setNumber(173);
+		source.setTotal(Long.valueOf(2013));
+		source.setCount("7");
+
+		destination = new Destination();
+	}
+
+	@Benchmark
+	public Object copy() {
+		BeanCopy.beans(source, destination).compiled(compiled).copy();
+		return destination;
+	}
+}
@@ -0,0 +1,84 @@
+package jodd.bean;
+
+import jodd.introspector.CachingIntrospector;
+import jodd.introspector.JoddIntrospector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures <code>BeanUtil.getProperty</code> under contention,
+ * with and without introspector usage counting, and
+ * compares string property paths with compiled ones.
+ * Run:
+ * <code>
+ * gw :jodd-bean:perf -PBeanUtilBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BeanUtilBenchmark {
+
+	@Param({"true", "false"})
+	public boolean countUsage;
+
+	public static class Bean {
+		private int value;
+		private Bean inner;
+
+		public Bean getInner() {
+			return inner;
+		}
+
+		public void setInner(Bean inner) {
+			this.inner = inner;
+		}
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			this.value = value;
+		}
+	}
+
+	private Bean bean;
+	private CompiledProperty innerValue;
+
+	@Setup
+	public void prepare() {
+		JoddIntrospector.introspector = new CachingIntrospector(true, true, true, null, countUsage);
+
+		bean = new Bean();
+		bean.setValue(173);
+		bean.setInner(new Bean());
+		bean.getInner().setValue(7);
+
+		innerValue = BeanUtil.pojo.compile("inner.value");
+	}
+
+	@Benchmark
+	public Object getProperty() {
+		return BeanUtil.pojo.getProperty(bean, "value");
+	}
+
+	@Benchmark
+	public Object getNestedProperty() {
+		return BeanUtil.pojo.getProperty(bean, "inner.value");
+	}
+
+	@Benchmark
+	public Object getCompiledProperty() {
+		return innerValue.get(bean);
+	}
+}
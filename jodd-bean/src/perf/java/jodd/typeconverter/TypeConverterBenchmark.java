@@ -0,0 +1,72 @@
+package jodd.typeconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures conversions to registered and not registered types.
+ * Run:
+ * <code>
+ * gw :jodd-bean:perf -PTypeConverterBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Thread)
+public class TypeConverterBenchmark {
+
+	public enum Color {
+		RED, GREEN, BLUE, CYAN, MAGENTA, YELLOW, BLACK, WHITE
+	}
+
+	private TypeConverterManagerBean typeConverterManager;
+	private String[] numbers;
+	private List<String> list;
+
+	@Setup
+	public void prepare() {
+		typeConverterManager = TypeConverterManager.getDefaultTypeConverterManager();
+		numbers = new String[] {"1", "2", "3", "4", "5", "6", "7", "8"};
+		list = Arrays.asList(numbers);
+	}
+
+	@Benchmark
+	public Object stringToInt() {
+		return typeConverterManager.convertType("173", int.class);
+	}
+
+	@Benchmark
+	public Object stringToEnum() {
+		return typeConverterManager.convertType("WHITE", Color.class);
+	}
+
+	@Benchmark
+	public Object stringsToIntArray() {
+		return typeConverterManager.convertType(numbers, int[].class);
+	}
+
+	@Benchmark
+	public Object stringsToEnumArray() {
+		return typeConverterManager.convertType(new String[] {"RED", "WHITE"}, Color[].class);
+	}
+
+	@Benchmark
+	public Object listToArrayList() {
+		return typeConverterManager.convertType(list, ArrayList.class);
+	}
+
+	@Benchmark
+	public Object stringsToIntegerList() {
+		return typeConverterManager.convertToCollection(numbers, List.class, Integer.class);
+	}
+}
@@ -30,6 +30,7 @@ import jodd.bean.data.FooBeanString;
 import jodd.util.Wildcard;
 import org.junit.Test;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -577,6 +578,90 @@ public class BeanCopyTest {
 		assertEquals("100", map.get("nick").toString());
 	}
 
+	@Test
+	public void testCompiled() {
+		FooBean fb = createFooBean();
+		FooBean dest = new FooBean();
+		BeanCopy.beans(fb, dest).compiled(true).copy();
+
+		assertEquals(201, dest.getFooInteger().intValue());
+		assertEquals(202, dest.getFooint());
+		assertEquals('8', dest.getFoochar());
+		assertEquals("213", dest.getFooString());
+		assertSame(fb.getFooStringA(), dest.getFooStringA());
+
+		BeanCopy.beans(new FooBean(), dest).compiled(true).ignoreNulls(true).copy();
+		assertEquals(201, dest.getFooInteger().intValue());
+		assertEquals(0, dest.getFooint());
+
+		BeanCopy.beans(new FooBean(), dest).compiled(true).copy();
+		assertNull(dest.getFooInteger());
+		assertNull(dest.getFooStringA());
+
+		// conversion
+
+		Less less = new Less();
+		less.data = "data";
+		less.number = Integer.valueOf(2);
+		More more = new More();
+		BeanCopy.beans(less, more).declared(true).compiled(true).copy();
+		assertEquals("data", more.data);
+		assertEquals("2", more.number);
+
+		more.number = "17";
+		BeanCopy.beans(more, less).declared(true).compiled(true).copy();
+		assertEquals(17, less.number.intValue());
+
+		// rules, same plan
+
+		Moo moo = new Moo();
+		Moo mooDest = new Moo();
+		mooDest.name = "dog";
+		mooDest.nick = 1;
+
+		BeanCopy.beans(moo, mooDest).exclude("name").compiled(true).copy();
+		assertEquals("dog", mooDest.name);
+		assertEquals(100, mooDest.nick);
+
+		BeanCopy.beans(moo, mooDest).excludeAll().include("name").compiled(true).copy();
+		assertEquals("cow", mooDest.name);
+
+		// fields
+
+		PropertyBean beanSource = new PropertyBean();
+		beanSource.number = 42;
+		PropertyBean beanDest = new PropertyBean();
+
+		BeanCopy.fromBean(beanSource).toBean(beanDest).compiled(true).copy();
+		assertEquals(0, beanDest.number);
+
+		BeanCopy.fromBean(beanSource).toBean(beanDest).includeFields(true).compiled(true).copy();
+		assertEquals(42, beanDest.number);
+
+		// maps are not compiled
+
+		HashMap map = new HashMap();
+		BeanCopy.beans(moo, map).compiled(true).copy();
+		assertEquals(3, map.size());
+		assertEquals("cow", map.get("name"));
+	}
+
+	@Test
+	public void testCompiledPlansCache() {
+		BeanCopy beanCopy = BeanCopy.beans(new Less(), new More());
+
+		BeanCopier beanCopier = BeanCopier.of(beanCopy, Less.class, More.class);
+		assertSame(beanCopier, BeanCopier.of(beanCopy, Less.class, More.class));
+
+		// other direction and options have own plans
+		assertNotSame(beanCopier, BeanCopier.of(beanCopy, More.class, Less.class));
+		assertNotSame(beanCopier, BeanCopier.of(beanCopy.declared(true), Less.class, More.class));
+
+		// bean from the bootstrap class loader
+		assertSame(BeanCopier.of(beanCopy, Less.class, Date.class), BeanCopier.of(beanCopy, Less.class, Date.class));
+		assertSame(BeanCopier.of(beanCopy, Date.class, Less.class), BeanCopier.of(beanCopy, Date.class, Less.class));
+	}
+
 	// ---------------------------------------------------------------- special test
 
 	public static class PropertyBean {
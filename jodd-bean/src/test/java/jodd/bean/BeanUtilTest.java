@@ -37,6 +37,8 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -1441,4 +1443,70 @@ public class BeanUtilTest {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testCompile() {
+		Dummy dummy = new Dummy();
+
+		CompiledProperty fooProp = BeanUtil.pojo.compile("fb.data[2].bbean.abean.fooProp");
+		assertEquals("fb.data[2].bbean.abean.fooProp", fooProp.getPath());
+		assertEquals("zzz", fooProp.get(dummy));
+
+		fooProp.set(dummy, "ZZZ");
+		assertEquals("ZZZ", fooProp.get(dummy));
+		assertEquals("ZZZ", BeanUtil.pojo.getProperty(dummy, "fb.data[2].bbean.abean.fooProp"));
+
+		// same path, different root types
+
+		FooBean4 fb4 = new FooBean4();
+		CompiledProperty data = BeanUtil.pojo.compile("data[1].bbean.abean.fooProp");
+		assertEquals("yyy", data.get(fb4));
+		assertEquals("yyy", data.get(dummy.getFb()));
+
+		Map map = new HashMap();
+		map.put("data", dummy.getFb().getData());
+		assertEquals("yyy", data.get(map));
+
+		// flags of the creator
+
+		XBean x = new XBean();
+		try {
+			BeanUtil.pojo.compile("y.foo").set(x, "yyy");
+			fail();
+		} catch (Exception ignored) {
+		}
+		BeanUtil.forced.compile("y.foo").set(x, "yyy");
+		assertEquals("yyy", x.getY().getFoo());
+
+		assertNull(BeanUtil.silent.compile("notexisting.foo").get(x));
+	}
+
+	@Test
+	public void testOverriddenHooks() {
+		final List<String> names = new ArrayList<>();
+
+		BeanUtilBean beanUtil = new BeanUtilBean() {
+			@Override
+			protected Object getIndexProperty(BeanProperty bp) {
+				names.add(bp.name);
+				return super.getIndexProperty(bp);
+			}
+
+			@Override
+			protected void setIndexProperty(BeanProperty bp, Object value) {
+				names.add(bp.name);
+				super.setIndexProperty(bp, value);
+			}
+		};
+
+		Dummy dummy = new Dummy();
+
+		assertEquals("zzz", beanUtil.getProperty(dummy, "fb.data[2].bbean.abean.fooProp"));
+		assertEquals(Arrays.asList("fb", "data[2]", "bbean", "abean", "fooProp"), names);
+
+		names.clear();
+		beanUtil.compile("fb.data[2].bbean.abean.fooProp").set(dummy, "ZZZ");
+		assertEquals(Arrays.asList("fb", "data[2]", "bbean", "abean", "fooProp"), names);
+		assertEquals("ZZZ", BeanUtil.pojo.getProperty(dummy, "fb.data[2].bbean.abean.fooProp"));
+	}
+
+}
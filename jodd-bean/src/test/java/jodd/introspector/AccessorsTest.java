@@ -0,0 +1,152 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.introspector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class AccessorsTest {
+
+	private static class Bean {
+		private long number;
+		private String text;
+		public int count;
+
+		public long getNumber() {
+			return number;
+		}
+
+		public void setNumber(long number) {
+			this.number = number;
+		}
+
+		private String getText() {
+			return text;
+		}
+
+		private void setText(String text) {
+			this.text = text;
+		}
+
+		public String getFail() {
+			throw new IllegalStateException("fail");
+		}
+	}
+
+	private boolean generateAccessors;
+
+	@Before
+	public void setUp() {
+		generateAccessors = JoddIntrospector.generateAccessors;
+		JoddIntrospector.generateAccessors = true;
+	}
+
+	@After
+	public void tearDown() {
+		JoddIntrospector.generateAccessors = generateAccessors;
+	}
+
+	@Test
+	public void testGenerated() throws Exception {
+		ClassDescriptor cd = new ClassDescriptor(Bean.class, false, true, true, null);
+
+		MethodDescriptor getNumber = cd.getMethodDescriptor("getNumber", true);
+		MethodDescriptor setText = cd.getMethodDescriptor("setText", true);
+
+		assertNotSame(Accessors.NO_GETTER, Accessors.createGetter(getNumber.getMethod()));
+		assertNotSame(Accessors.NO_SETTER, Accessors.createSetter(setText.getMethod()));
+		assertNotSame(Accessors.NO_HANDLE, Accessors.createGetter(cd.getFieldDescriptor("count", true).getField()));
+		assertSame(Accessors.NO_GETTER, Accessors.createGetter(setText.getMethod()));
+	}
+
+	@Test
+	public void testMethods() throws Exception {
+		ClassDescriptor cd = new ClassDescriptor(Bean.class, false, true, true, null);
+		Bean bean = new Bean();
+
+		MethodDescriptor setNumber = cd.getMethodDescriptor("setNumber", true);
+		MethodDescriptor getNumber = cd.getMethodDescriptor("getNumber", true);
+
+		setNumber.invokeSetter(bean, Long.valueOf(173));
+		assertEquals(Long.valueOf(173), getNumber.invokeGetter(bean));
+
+		// widening is done by reflection
+		setNumber.invokeSetter(bean, Integer.valueOf(7));
+		assertEquals(Long.valueOf(7), getNumber.invokeGetter(bean));
+
+		try {
+			setNumber.invokeSetter(bean, null);
+			fail();
+		} catch (IllegalArgumentException ignore) {
+		}
+
+		cd.getMethodDescriptor("setText", true).invokeSetter(bean, "jodd");
+		assertEquals("jodd", cd.getMethodDescriptor("getText", true).invokeGetter(bean));
+
+		try {
+			cd.getMethodDescriptor("getFail", true).invokeGetter(bean);
+			fail();
+		} catch (InvocationTargetException itex) {
+			assertEquals("fail", itex.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testFields() throws Exception {
+		ClassDescriptor cd = new ClassDescriptor(Bean.class, false, true, true, null);
+		Bean bean = new Bean();
+
+		FieldDescriptor count = cd.getFieldDescriptor("count", true);
+		FieldDescriptor text = cd.getFieldDescriptor("text", true);
+
+		count.invokeSetter(bean, Integer.valueOf(3));
+		assertEquals(Integer.valueOf(3), count.invokeGetter(bean));
+
+		text.invokeSetter(bean, "jodd");
+		assertEquals("jodd", text.invokeGetter(bean));
+
+		try {
+			count.invokeSetter(bean, "3");
+			fail();
+		} catch (IllegalArgumentException ignore) {
+		}
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		JoddIntrospector.generateAccessors = false;
+
+		ClassDescriptor cd = new ClassDescriptor(Bean.class, false, true, true, null);
+		MethodDescriptor getNumber = cd.getMethodDescriptor("getNumber", true);
+
+		assertSame(Accessors.NO_GETTER, Accessors.createGetter(getNumber.getMethod()));
+		assertEquals(Long.valueOf(0), getNumber.invokeGetter(new Bean()));
+	}
+}
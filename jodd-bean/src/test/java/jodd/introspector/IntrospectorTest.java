@@ -42,6 +42,11 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -425,6 +430,63 @@ public class IntrospectorTest {
 	}
 
 
+	@Test
+	public void testUsageCount() {
+		CachingIntrospector introspector = new CachingIntrospector();
+		ClassDescriptor cd = introspector.lookup(Abean.class);
+		introspector.lookup(Abean.class);
+		assertEquals(2, cd.getUsageCount());
+
+		introspector = new CachingIntrospector(true, true, true, null, false);
+		cd = introspector.lookup(Abean.class);
+		introspector.lookup(Abean.class);
+		assertFalse(introspector.isCountUsage());
+		assertEquals(0, cd.getUsageCount());
+	}
+
+	@Test
+	public void testRegisterAndReset() {
+		CachingIntrospector introspector = new CachingIntrospector();
+		ClassDescriptor cd = introspector.lookup(Abean.class);
+		assertSame(cd, introspector.lookup(Abean.class));
+
+		ClassDescriptor cd2 = introspector.register(Abean.class);
+		assertNotSame(cd, cd2);
+		assertSame(cd2, introspector.lookup(Abean.class));
+
+		introspector.reset();
+		assertNotSame(cd2, introspector.lookup(Abean.class));
+	}
+
+	@Test
+	public void testConcurrentLookup() throws Exception {
+		final CachingIntrospector introspector = new CachingIntrospector();
+		final int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		Future<ClassDescriptor>[] futures = new Future[threads];
+
+		for (int i = 0; i < threads; i++) {
+			futures[i] = executorService.submit(() -> {
+				start.await();
+				ClassDescriptor cd = introspector.lookup(Bbean.class);
+				assertEquals(cd.getAllPropertyDescriptors().length, cd.getAllPropertyDescriptors().length);
+				return cd;
+			});
+		}
+		start.countDown();
+
+		ClassDescriptor cd = futures[0].get();
+		for (Future<ClassDescriptor> future : futures) {
+			assertSame(cd, future.get());
+		}
+		assertEquals(threads, cd.getUsageCount());
+
+		executorService.shutdown();
+		assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
 	MethodDescriptor getPropertySetterDescriptor(ClassDescriptor cd, String name, boolean declared) {
 		PropertyDescriptor propertyDescriptor = cd.getPropertyDescriptor(name, true);
 
@@ -28,6 +28,8 @@ package jodd.typeconverter;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class EnumTest {
 
@@ -35,6 +37,21 @@ public class EnumTest {
 		ONE, TWO
 	}
 
+	public enum Named {
+		FIRST("1st"), SECOND("2nd");
+
+		private final String name;
+
+		Named(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
 	@Test
 	public void testCastEnums() {
 		En en = TypeConverterManager.convertType("ONE", En.class);
@@ -43,4 +60,17 @@ public class EnumTest {
 		assertEquals(En.TWO, en);
 	}
 
+	@Test
+	public void testCastEnumsByToString() {
+		assertSame(Named.SECOND, TypeConverterManager.convertType("2nd", Named.class));
+		assertSame(Named.FIRST, TypeConverterManager.convertType(Named.FIRST, Named.class));
+		assertSame(Named.FIRST, TypeConverterManager.convertType(new StringBuilder("1st"), Named.class));
+
+		try {
+			TypeConverterManager.convertType("SECOND", Named.class);
+			fail();
+		} catch (TypeConversionException ignore) {
+		}
+	}
+
 }
\ No newline at end of file
@@ -25,13 +25,24 @@
 
 package jodd.typeconverter.impl;
 
+import jodd.typeconverter.TypeConverter;
 import jodd.typeconverter.TypeConverterManager;
+import jodd.typeconverter.TypeConverterManagerBean;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TypeConverterManagerTest {
 
@@ -42,4 +53,53 @@ public class TypeConverterManagerTest {
 		assertNotNull(fileTypeConverter);
 		assertNull(fileTypeConverter.addonFileConverters);
 	}
+
+	public enum Level {
+		LOW, HIGH
+	}
+
+	@Test
+	public void testResolve() {
+		TypeConverterManagerBean typeConverterManagerBean = new TypeConverterManagerBean();
+
+		TypeConverter integerConverter = typeConverterManagerBean.resolve(String.class, Integer.class);
+		assertSame(typeConverterManagerBean.lookup(Integer.class), integerConverter);
+
+		TypeConverter levelConverter = typeConverterManagerBean.resolve(String.class, Level.class);
+		assertTrue(levelConverter instanceof EnumConverter);
+		assertSame(levelConverter, typeConverterManagerBean.resolve(String.class, Level.class));
+		assertEquals(Level.HIGH, typeConverterManagerBean.convertType("HIGH", Level.class));
+
+		// registration clears resolved converters
+		typeConverterManagerBean.register(Level.class, value -> Level.LOW);
+		assertNotSame(levelConverter, typeConverterManagerBean.resolve(String.class, Level.class));
+		assertEquals(Level.LOW, typeConverterManagerBean.convertType("HIGH", Level.class));
+
+		typeConverterManagerBean.unregister(Level.class);
+		assertEquals(Level.HIGH, typeConverterManagerBean.convertType("HIGH", Level.class));
+	}
+
+	@Test
+	public void testResolveCollections() {
+		TypeConverterManagerBean typeConverterManagerBean = new TypeConverterManagerBean();
+
+		List<String> list = Arrays.asList("1", "2");
+
+		assertSame(list, typeConverterManagerBean.convertType(list, List.class));
+
+		LinkedList linkedList = typeConverterManagerBean.convertType(list, LinkedList.class);
+		assertEquals(list, linkedList);
+
+		ArrayList arrayList = typeConverterManagerBean.convertType(list, ArrayList.class);
+		assertEquals(list, arrayList);
+
+		Collection<Integer> integers = typeConverterManagerBean.convertToCollection(list, ArrayList.class, Integer.class);
+		assertEquals(Arrays.asList(1, 2), integers);
+		integers = typeConverterManagerBean.convertToCollection(new String[] {"3"}, ArrayList.class, Integer.class);
+		assertEquals(Arrays.asList(3), integers);
+
+		Level[] levels = typeConverterManagerBean.convertType(new String[] {"LOW", "HIGH"}, Level[].class);
+		assertEquals(2, levels.length);
+		assertSame(Level.HIGH, levels[1]);
+	}
 }
@@ -138,7 +138,10 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 			if (isReallyFull(key)) {
 				pruneCache();
 			}
-			cacheMap.put(key, co);
+			CacheObject<K,V> oldCo = cacheMap.put(key, co);
+			if (oldCo != null) {
+				onRemoval(oldCo, RemovalCause.REPLACED);
+			}
 		}
 		finally {
 			writeLock.unlock();
@@ -148,49 +151,73 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 
 	// ---------------------------------------------------------------- get
 
-	protected int hitCount;
-	protected int missCount;
+	protected final CacheStats stats = new CacheStats();
 
 	/**
 	 * Returns hit count.
 	 */
-	public int getHitCount() {
-		return hitCount;
+	public long getHitCount() {
+		return stats.getHitCount();
 	}
 
 	/**
 	 * Returns miss count.
 	 */
-	public int getMissCount() {
-		return missCount;
+	public long getMissCount() {
+		return stats.getMissCount();
+	}
+
+	/**
+	 * Returns cache statistics.
+	 */
+	public CacheStats getStats() {
+		return stats;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public V get(K key) {
+		CacheObject<K,V> co;
+
 		readLock.lock();
 
 		try {
-			CacheObject<K,V> co = cacheMap.get(key);
+			co = cacheMap.get(key);
 			if (co == null) {
-				missCount++;
+				stats.recordMiss();
 				return null;
 			}
-			if (co.isExpired()) {
-				// remove(key);		// can't upgrade the lock
-				cacheMap.remove(key);
-
-				missCount++;
-				return null;
+			if (!co.isExpired()) {
+				stats.recordHit();
+				return co.getObject();
 			}
-
-			hitCount++;
-			return co.getObject();
 		}
 		finally {
 			readLock.unlock();
 		}
+
+		// expired object is removed under the write lock
+		// since it is not possible to upgrade the read lock
+		stats.recordMiss();
+		removeExpired(co);
+		return null;
+	}
+
+	/**
+	 * Removes expired cache object, if it is still in the cache.
+	 */
+	private void removeExpired(CacheObject<K,V> co) {
+		writeLock.lock();
+		try {
+			if (cacheMap.get(co.key) == co) {
+				cacheMap.remove(co.key);
+				onRemoval(co, RemovalCause.EXPIRED);
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
 	}
 
 	/**
@@ -220,6 +247,28 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 		}
 	}
 
+	// ---------------------------------------------------------------- removal
+
+	protected RemovalListener<K,V> removalListener;
+
+	/**
+	 * Sets listener that is notified when an object is removed from the cache.
+	 */
+	public void setRemovalListener(RemovalListener<K,V> removalListener) {
+		this.removalListener = removalListener;
+	}
+
+	/**
+	 * Records removal of cache object and notifies the listener.
+	 * Should be called by implementations for each removed object.
+	 */
+	protected void onRemoval(CacheObject<K,V> co, RemovalCause cause) {
+		stats.recordRemoval(cause);
+		if (removalListener != null) {
+			removalListener.onRemoval(co.key, co.cachedObject, cause);
+		}
+	}
+
 	// ---------------------------------------------------------------- common
 
 	/**
@@ -250,7 +299,10 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 	public void remove(K key) {
 		writeLock.lock();
 		try {
-			cacheMap.remove(key);
+			CacheObject<K,V> co = cacheMap.remove(key);
+			if (co != null) {
+				onRemoval(co, RemovalCause.EXPLICIT);
+			}
 		}
 		finally {
 			writeLock.unlock();
@@ -263,6 +315,9 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 	public void clear() {
 		writeLock.lock();
 		try {
+			for (CacheObject<K,V> co : cacheMap.values()) {
+				onRemoval(co, RemovalCause.EXPLICIT);
+			}
 			cacheMap.clear();
 		}
 		finally {
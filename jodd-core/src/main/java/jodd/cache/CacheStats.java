@@ -0,0 +1,241 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache statistics. Counters are <code>LongAdder</code>s, so recording
+ * from many threads is cheap and does not require any cache lock.
+ * Load times are recorded in a histogram with power-of-two buckets,
+ * measured in microseconds.
+ */
+public class CacheStats {
+
+	/**
+	 * Number of load time histogram buckets.
+	 */
+	public static final int LOAD_TIME_BUCKETS = 32;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder totalLoadTime = new LongAdder();
+	private final LongAdder[] removalCounts;
+	private final LongAdder[] loadTimeHistogram;
+
+	public CacheStats() {
+		removalCounts = new LongAdder[RemovalCause.values().length];
+		for (int i = 0; i < removalCounts.length; i++) {
+			removalCounts[i] = new LongAdder();
+		}
+		loadTimeHistogram = new LongAdder[LOAD_TIME_BUCKETS];
+		for (int i = 0; i < loadTimeHistogram.length; i++) {
+			loadTimeHistogram[i] = new LongAdder();
+		}
+	}
+
+	// ---------------------------------------------------------------- record
+
+	/**
+	 * Records a cache hit.
+	 */
+	public void recordHit() {
+		hitCount.increment();
+	}
+
+	/**
+	 * Records a cache miss.
+	 */
+	public void recordMiss() {
+		missCount.increment();
+	}
+
+	/**
+	 * Records removal of cached object.
+	 */
+	public void recordRemoval(RemovalCause cause) {
+		removalCounts[cause.ordinal()].increment();
+	}
+
+	/**
+	 * Records successful load that lasted given number of nanoseconds.
+	 */
+	public void recordLoadSuccess(long loadTime) {
+		loadSuccessCount.increment();
+		recordLoadTime(loadTime);
+	}
+
+	/**
+	 * Records failed load that lasted given number of nanoseconds.
+	 */
+	public void recordLoadFailure(long loadTime) {
+		loadFailureCount.increment();
+		recordLoadTime(loadTime);
+	}
+
+	private void recordLoadTime(long loadTime) {
+		totalLoadTime.add(loadTime);
+		loadTimeHistogram[loadTimeBucket(loadTime)].increment();
+	}
+
+	/**
+	 * Returns histogram bucket for given load time in nanoseconds.
+	 * Bucket <code>i</code> holds times less then <code>2^i</code> microseconds.
+	 */
+	static int loadTimeBucket(long loadTime) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(loadTime);
+		int bucket = Long.SIZE - Long.numberOfLeadingZeros(micros);
+		return bucket < LOAD_TIME_BUCKETS ? bucket : LOAD_TIME_BUCKETS - 1;
+	}
+
+	// ---------------------------------------------------------------- get
+
+	/**
+	 * Returns number of cache hits.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns number of cache misses.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Returns total number of cache requests.
+	 */
+	public long getRequestCount() {
+		return getHitCount() + getMissCount();
+	}
+
+	/**
+	 * Returns ratio of hits and requests, or <code>1.0</code> when
+	 * there were no requests.
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long requests = hits + getMissCount();
+		return requests == 0 ? 1.0 : (double) hits / requests;
+	}
+
+	/**
+	 * Returns number of removals with given cause.
+	 */
+	public long getRemovalCount(RemovalCause cause) {
+		return removalCounts[cause.ordinal()].sum();
+	}
+
+	/**
+	 * Returns number of objects that cache removed by itself,
+	 * either because it was full or because they expired.
+	 */
+	public long getEvictionCount() {
+		return getRemovalCount(RemovalCause.SIZE) + getRemovalCount(RemovalCause.EXPIRED);
+	}
+
+	/**
+	 * Returns number of successful loads.
+	 */
+	public long getLoadSuccessCount() {
+		return loadSuccessCount.sum();
+	}
+
+	/**
+	 * Returns number of failed loads.
+	 */
+	public long getLoadFailureCount() {
+		return loadFailureCount.sum();
+	}
+
+	/**
+	 * Returns total load time in nanoseconds.
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime.sum();
+	}
+
+	/**
+	 * Returns average load time in nanoseconds.
+	 */
+	public double getAverageLoadTime() {
+		long loads = getLoadSuccessCount() + getLoadFailureCount();
+		return loads == 0 ? 0.0 : (double) getTotalLoadTime() / loads;
+	}
+
+	/**
+	 * Returns load time histogram. Element <code>i</code> is the number of
+	 * loads that lasted less then <code>2^i</code> microseconds (and not less
+	 * then <code>2^(i-1)</code> microseconds). The last bucket holds all
+	 * longer loads.
+	 */
+	public long[] getLoadTimeHistogram() {
+		long[] histogram = new long[LOAD_TIME_BUCKETS];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = loadTimeHistogram[i].sum();
+		}
+		return histogram;
+	}
+
+	/**
+	 * Resets all counters.
+	 */
+	public void reset() {
+		hitCount.reset();
+		missCount.reset();
+		loadSuccessCount.reset();
+		loadFailureCount.reset();
+		totalLoadTime.reset();
+		for (LongAdder removalCount : removalCounts) {
+			removalCount.reset();
+		}
+		for (LongAdder bucket : loadTimeHistogram) {
+			bucket.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CacheStats{hits=").append(getHitCount())
+			.append(", misses=").append(getMissCount());
+
+		for (RemovalCause cause : RemovalCause.values()) {
+			sb.append(", ").append(cause.name().toLowerCase()).append('=').append(getRemovalCount(cause));
+		}
+
+		sb.append(", loads=").append(getLoadSuccessCount())
+			.append(", loadFailures=").append(getLoadFailureCount())
+			.append(", totalLoadTime=").append(getTotalLoadTime())
+			.append('}');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,571 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent LRU (least recently used) cache.
+ * <p>
+ * Unlike {@link LRUCache}, this cache does not serialize operations on
+ * a single lock. Values are stored in a <code>ConcurrentHashMap</code>,
+ * so {@link #get(Object)} never blocks. The LRU ordering is maintained
+ * on the side: reads are recorded in striped, lossy ring buffers and
+ * writes in a concurrent queue. Buffers are drained (and the eviction
+ * policy applied) in batches, by whichever thread manages to acquire
+ * the eviction lock with <code>tryLock</code>. Therefore, the cache
+ * may temporarily hold few elements more then its size, and the LRU
+ * ordering is approximate under heavy load.
+ * <p>
+ * Timeouts have the same meaning as in {@link AbstractCacheMap}: an object
+ * expires when it is not accessed during its timeout.
+ * <p>
+ * Summary for concurrent LRU: fast, non-blocking reads, approximate LRU.
+ */
+public class ConcurrentLRUCache<K, V> implements Cache<K, V> {
+
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Number of read buffers, power of two.
+	 */
+	private static final int READ_BUFFERS_COUNT = ceilingPowerOfTwo(NCPU);
+	private static final int READ_BUFFERS_MASK = READ_BUFFERS_COUNT - 1;
+
+	/**
+	 * Size of each read buffer, power of two.
+	 */
+	private static final int READ_BUFFER_SIZE = 64;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+	/**
+	 * Number of recorded reads in one buffer after which the drain is attempted.
+	 */
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+	private static final int READ_BUFFER_DRAIN_MASK = READ_BUFFER_DRAIN_THRESHOLD - 1;
+
+	private static int ceilingPowerOfTwo(int x) {
+		return 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(x - 1));
+	}
+
+	/**
+	 * Cached entry. Entries are immutable regarding the key and the value,
+	 * each put creates a new entry. Links are guarded by the eviction lock.
+	 */
+	static final class Node<K, V> {
+		final K key;
+		final V value;
+		final long ttl;					// objects timeout (time-to-live), 0 = no timeout
+		volatile long lastAccess;		// time of last access
+		volatile boolean retired;		// removed from the map
+
+		Node<K, V> prev;
+		Node<K, V> next;
+		boolean linked;
+
+		Node(K key, V value, long ttl) {
+			this.key = key;
+			this.value = value;
+			this.ttl = ttl;
+			this.lastAccess = System.currentTimeMillis();
+		}
+
+		boolean isExpired() {
+			if (ttl == 0) {
+				return false;
+			}
+			return lastAccess + ttl < System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Lossy ring buffer of accessed nodes. Writers never block; when buffer
+	 * is not drained in time, older records are simply overwritten.
+	 */
+	static final class ReadBuffer<K, V> {
+		final AtomicLong writeCount = new AtomicLong();
+		final AtomicReferenceArray<Node<K, V>> nodes = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+		long readCount;			// guarded by the eviction lock
+
+		/**
+		 * Records the access and returns the number of recorded accesses.
+		 */
+		long record(Node<K, V> node) {
+			long count = writeCount.getAndIncrement();
+			nodes.lazySet((int) (count & READ_BUFFER_MASK), node);
+			return count;
+		}
+	}
+
+	protected final int cacheSize;		// max cache size, 0 = no limit
+	protected final long timeout;		// default timeout, 0 = no timeout
+
+	protected final ConcurrentHashMap<K, Node<K, V>> cacheMap;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final ReadBuffer<K, V>[] readBuffers;
+	private final Queue<Node<K, V>> writeBuffer = new ConcurrentLinkedQueue<>();
+
+	protected final CacheStats stats = new CacheStats();
+	protected RemovalListener<K, V> removalListener;
+
+	// guarded by the eviction lock
+	private Node<K, V> head;		// least recently used
+	private Node<K, V> tail;		// most recently used
+	private int linkedSize;
+
+	public ConcurrentLRUCache(int cacheSize) {
+		this(cacheSize, 0);
+	}
+
+	/**
+	 * Creates a new concurrent LRU cache.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentLRUCache(int cacheSize, long timeout) {
+		this.cacheSize = cacheSize;
+		this.timeout = timeout;
+		this.cacheMap = new ConcurrentHashMap<>(cacheSize == 0 ? 16 : cacheSize + 1, 0.75f, NCPU);
+		this.readBuffers = new ReadBuffer[READ_BUFFERS_COUNT];
+		for (int i = 0; i < READ_BUFFERS_COUNT; i++) {
+			readBuffers[i] = new ReadBuffer<>();
+		}
+	}
+
+	// ---------------------------------------------------------------- properties
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getCacheTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns cache statistics.
+	 */
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Sets listener that is notified when an object is removed from the cache.
+	 * Evictions are reported by the thread that drains the buffers.
+	 */
+	public void setRemovalListener(RemovalListener<K, V> removalListener) {
+		this.removalListener = removalListener;
+	}
+
+	// ---------------------------------------------------------------- put
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void put(K key, V object) {
+		put(key, object, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Eviction of the least recently used objects is performed
+	 * after the object is added, once the buffers are drained.
+	 */
+	public void put(K key, V object, long timeout) {
+		Node<K, V> node = new Node<>(key, object, timeout);
+
+		Node<K, V> oldNode = cacheMap.put(key, node);
+
+		if (oldNode != null) {
+			oldNode.retired = true;
+			onRemoval(oldNode, RemovalCause.REPLACED);
+		}
+
+		writeBuffer.add(node);
+
+		if (oldNode != null) {
+			writeBuffer.add(oldNode);
+		}
+
+		tryToDrainBuffers();
+	}
+
+	// ---------------------------------------------------------------- get
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public V get(K key) {
+		Node<K, V> node = cacheMap.get(key);
+
+		if (node == null) {
+			stats.recordMiss();
+			return null;
+		}
+
+		if (node.isExpired()) {
+			stats.recordMiss();
+			removeNode(node, RemovalCause.EXPIRED);
+			return null;
+		}
+
+		stats.recordHit();
+
+		if (node.ttl != 0) {
+			node.lastAccess = System.currentTimeMillis();
+		}
+
+		recordRead(node);
+
+		return node.value;
+	}
+
+	/**
+	 * Records the access in the read buffer of current thread.
+	 * Drain is attempted once enough of reads is recorded.
+	 */
+	private void recordRead(Node<K, V> node) {
+		int index = (int) Thread.currentThread().getId() & READ_BUFFERS_MASK;
+
+		long count = readBuffers[index].record(node);
+
+		if ((count & READ_BUFFER_DRAIN_MASK) == READ_BUFFER_DRAIN_MASK) {
+			tryToDrainBuffers();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Iterator<V> iterator() {
+		return new ValuesIterator();
+	}
+
+	// ---------------------------------------------------------------- prune
+
+	/**
+	 * Drains the buffers and prunes expired objects. Least recently used
+	 * objects are evicted automatically, so they are not counted.
+	 * Returns the number of removed objects.
+	 */
+	public int prune() {
+		evictionLock.lock();
+		try {
+			drainBuffers();
+
+			int count = 0;
+			Node<K, V> node = head;
+			while (node != null) {
+				Node<K, V> next = node.next;
+				if (node.isExpired()) {
+					if (cacheMap.remove(node.key, node)) {
+						onRemoval(node, RemovalCause.EXPIRED);
+						count++;
+					}
+					node.retired = true;
+					unlink(node);
+				}
+				node = next;
+			}
+			return count;
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+
+	// ---------------------------------------------------------------- common
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isFull() {
+		if (cacheSize == 0) {
+			return false;
+		}
+		return cacheMap.size() >= cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove(K key) {
+		Node<K, V> node = cacheMap.remove(key);
+
+		if (node != null) {
+			node.retired = true;
+			onRemoval(node, RemovalCause.EXPLICIT);
+			writeBuffer.add(node);
+			tryToDrainBuffers();
+		}
+	}
+
+	/**
+	 * Removes given node if it is still mapped.
+	 */
+	private void removeNode(Node<K, V> node, RemovalCause cause) {
+		if (cacheMap.remove(node.key, node)) {
+			node.retired = true;
+			onRemoval(node, cause);
+			writeBuffer.add(node);
+			tryToDrainBuffers();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void clear() {
+		evictionLock.lock();
+		try {
+			drainBuffers();
+
+			Node<K, V> node = head;
+			while (node != null) {
+				Node<K, V> next = node.next;
+				if (cacheMap.remove(node.key, node)) {
+					onRemoval(node, RemovalCause.EXPLICIT);
+				}
+				node.retired = true;
+				unlink(node);
+				node = next;
+			}
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int size() {
+		return cacheMap.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEmpty() {
+		return cacheMap.isEmpty();
+	}
+
+	// ---------------------------------------------------------------- drain
+
+	/**
+	 * Drains buffers if eviction lock is available. When lock is released,
+	 * write buffer is checked again, so writes that were added while lock
+	 * was held do not remain pending.
+	 */
+	private void tryToDrainBuffers() {
+		while (evictionLock.tryLock()) {
+			try {
+				drainBuffers();
+			}
+			finally {
+				evictionLock.unlock();
+			}
+			if (writeBuffer.isEmpty()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Applies recorded reads and writes and evicts the least recently used
+	 * objects while cache is over the limit. Must be called under eviction lock.
+	 */
+	private void drainBuffers() {
+		for (ReadBuffer<K, V> readBuffer : readBuffers) {
+			drainReadBuffer(readBuffer);
+		}
+
+		Node<K, V> node;
+		while ((node = writeBuffer.poll()) != null) {
+			if (node.retired) {
+				unlink(node);
+			}
+			else if (!node.linked) {
+				linkLast(node);
+			}
+		}
+
+		if (cacheSize == 0) {
+			return;
+		}
+		while (linkedSize > cacheSize) {
+			Node<K, V> eldest = head;
+			if (cacheMap.remove(eldest.key, eldest)) {
+				onRemoval(eldest, RemovalCause.SIZE);
+			}
+			eldest.retired = true;
+			unlink(eldest);
+		}
+	}
+
+	private void drainReadBuffer(ReadBuffer<K, V> readBuffer) {
+		long writeCount = readBuffer.writeCount.get();
+
+		if (writeCount - readBuffer.readCount > READ_BUFFER_SIZE) {
+			// buffer was overwritten, skip lost records
+			readBuffer.readCount = writeCount - READ_BUFFER_SIZE;
+		}
+
+		while (readBuffer.readCount < writeCount) {
+			int index = (int) (readBuffer.readCount & READ_BUFFER_MASK);
+			Node<K, V> node = readBuffer.nodes.get(index);
+			if (node == null) {
+				// record is not yet published
+				break;
+			}
+			readBuffer.nodes.lazySet(index, null);
+			readBuffer.readCount++;
+
+			if (node.linked && !node.retired) {
+				moveToLast(node);
+			}
+		}
+	}
+
+	/**
+	 * Records removal of the node and notifies the listener.
+	 */
+	private void onRemoval(Node<K, V> node, RemovalCause cause) {
+		stats.recordRemoval(cause);
+		if (removalListener != null) {
+			removalListener.onRemoval(node.key, node.value, cause);
+		}
+	}
+
+	// ---------------------------------------------------------------- linked list
+
+	private void linkLast(Node<K, V> node) {
+		node.prev = tail;
+		node.next = null;
+		if (tail == null) {
+			head = node;
+		}
+		else {
+			tail.next = node;
+		}
+		tail = node;
+		node.linked = true;
+		linkedSize++;
+	}
+
+	private void unlink(Node<K, V> node) {
+		if (!node.linked) {
+			return;
+		}
+		Node<K, V> prev = node.prev;
+		Node<K, V> next = node.next;
+
+		if (prev == null) {
+			head = next;
+		}
+		else {
+			prev.next = next;
+		}
+		if (next == null) {
+			tail = prev;
+		}
+		else {
+			next.prev = prev;
+		}
+		node.prev = null;
+		node.next = null;
+		node.linked = false;
+		linkedSize--;
+	}
+
+	private void moveToLast(Node<K, V> node) {
+		if (node == tail) {
+			return;
+		}
+		unlink(node);
+		linkLast(node);
+	}
+
+	// ---------------------------------------------------------------- iterator
+
+	/**
+	 * Iterator over non-expired values. It is weakly consistent,
+	 * as the underlying <code>ConcurrentHashMap</code> iterator is.
+	 */
+	class ValuesIterator implements Iterator<V> {
+		private final Iterator<Node<K, V>> iterator = cacheMap.values().iterator();
+		private Node<K, V> nextNode;
+		private Node<K, V> currentNode;
+
+		ValuesIterator() {
+			nextNode();
+		}
+
+		private void nextNode() {
+			while (iterator.hasNext()) {
+				nextNode = iterator.next();
+				if (!nextNode.isExpired()) {
+					return;
+				}
+			}
+			nextNode = null;
+		}
+
+		public boolean hasNext() {
+			return nextNode != null;
+		}
+
+		public V next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			currentNode = nextNode;
+			nextNode();
+			return currentNode.value;
+		}
+
+		public void remove() {
+			if (currentNode == null) {
+				throw new IllegalStateException();
+			}
+			removeNode(currentNode, RemovalCause.EXPLICIT);
+			currentNode = null;
+		}
+	}
+}
@@ -70,7 +70,9 @@ public class FIFOCache<K, V> extends AbstractCacheMap<K, V> {
 			CacheObject<K,V> co = values.next();
 			if (co.isExpired()) {
 				values.remove();
+				onRemoval(co, RemovalCause.EXPIRED);
 				count++;
+				continue;
 			}
 			if (first == null) {
 				first = co;
@@ -79,6 +81,7 @@ public class FIFOCache<K, V> extends AbstractCacheMap<K, V> {
 		if (isFull()) {
 			if (first != null) {
 				cacheMap.remove(first.key);
+				onRemoval(first, RemovalCause.SIZE);
 				count++;
 			}
 		}
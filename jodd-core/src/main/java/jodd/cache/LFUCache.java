@@ -73,6 +73,7 @@ public class LFUCache<K,V> extends AbstractCacheMap<K,V> {
 			if (co.isExpired()) {
 				values.remove();
 				onRemove(co.key, co.cachedObject);
+				onRemoval(co, RemovalCause.EXPIRED);
 				count++;
 				continue;
 			}
@@ -101,7 +102,8 @@ public class LFUCache<K,V> extends AbstractCacheMap<K,V> {
 				if (co.accessCount <= 0) {
 					values.remove();
 					onRemove(co.key, co.cachedObject);
-					count++;					
+					onRemoval(co, RemovalCause.SIZE);
+					count++;
 				}
 			}
 		}
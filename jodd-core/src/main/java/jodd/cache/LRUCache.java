@@ -43,8 +43,8 @@ import java.util.Iterator;
  * unlikely to be reaccessed soon; in particular, it can become useless in the face of scanning type accesses.
  * Nonetheless, this is by far the most frequently used caching algorithm.
  * <p>
- * Implementation note: unfortunately, it was not possible to have <code>onRemove</code> callback method,
- * since <code>LinkedHashMap</code> has its removal methods private.
+ * Implementation note: <code>LinkedHashMap</code> has its removal methods private, so evictions
+ * are reported to the removal listener from the <code>removeEldestEntry</code> hook.
  * <p>
  * Summary for LRU: fast, adaptive, not scan resistant.
  */
@@ -62,8 +62,12 @@ public class LRUCache<K, V> extends AbstractCacheMap<K, V> {
 		this.timeout = timeout;
 		cacheMap = new LinkedHashMap<K, CacheObject<K,V>>(cacheSize + 1, 1.0f, true) {
 			@Override
-			protected boolean removeEldestEntry(Map.Entry eldest) {
-				return LRUCache.this.removeEldestEntry(size());
+			protected boolean removeEldestEntry(Map.Entry<K, CacheObject<K,V>> eldest) {
+				if (LRUCache.this.removeEldestEntry(size())) {
+					onRemoval(eldest.getValue(), RemovalCause.SIZE);
+					return true;
+				}
+				return false;
 			}
 		};
 	}
@@ -94,6 +98,7 @@ public class LRUCache<K, V> extends AbstractCacheMap<K, V> {
 			CacheObject<K,V> co = values.next();
 			if (co.isExpired()) {
 				values.remove();
+				onRemoval(co, RemovalCause.EXPIRED);
 				count++;
 			}
 		}
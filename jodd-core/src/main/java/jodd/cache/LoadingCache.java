@@ -0,0 +1,564 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Loading cache wraps any {@link Cache} and loads missing values on demand.
+ * Concurrent misses of the same key share a single load (single-flight),
+ * so expensive loads are not repeated by each thread that missed.
+ * <p>
+ * When {@link #refreshAfterWrite(long) refresh timeout} is set, a value older
+ * than the timeout is still returned, but a reload is started in the background.
+ * Expiration and eviction remain the job of wrapped cache; e.g. use
+ * {@link TimedCache#schedulePrune(long)} to periodically remove expired values.
+ * <p>
+ * Wrapped cache stores {@link LoadedValue loaded values}, so it is usually
+ * created using the diamond operator:
+ * <pre>
+ * LoadingCache&lt;String, User&gt; cache = new LoadingCache&lt;&gt;(new LRUCache&lt;&gt;(100), this::loadUser);
+ * </pre>
+ * <code>null</code> values are never cached.
+ * <p>
+ * Loader must not load the same key recursively, as it would wait
+ * for its own load forever; such recursive load is detected and
+ * <code>IllegalStateException</code> is thrown instead.
+ */
+public class LoadingCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * Value stored in the wrapped cache.
+	 */
+	public static final class LoadedValue<V> {
+		final V value;
+		final long loadTime;
+
+		LoadedValue(V value) {
+			this.value = value;
+			this.loadTime = System.currentTimeMillis();
+		}
+
+		/**
+		 * Returns the value.
+		 */
+		public V getValue() {
+			return value;
+		}
+
+		/**
+		 * Returns the time when value has been loaded or put in the cache.
+		 */
+		public long getLoadTime() {
+			return loadTime;
+		}
+	}
+
+	protected final Cache<K, LoadedValue<V>> cache;
+	protected final Function<K, V> loader;
+	protected final ConcurrentHashMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+	protected final CacheStats stats = new CacheStats();
+
+	protected long refreshTimeout;
+	protected Executor refreshExecutor = ForkJoinPool.commonPool();
+
+	/**
+	 * Creates loading cache without default loader. Values
+	 * are loaded only by {@link #get(Object, Function)}.
+	 */
+	public LoadingCache(Cache<K, LoadedValue<V>> cache) {
+		this(cache, null);
+	}
+
+	/**
+	 * Creates loading cache with default loader, used by {@link #get(Object)}.
+	 */
+	public LoadingCache(Cache<K, LoadedValue<V>> cache, Function<K, V> loader) {
+		this.cache = cache;
+		this.loader = loader;
+	}
+
+	/**
+	 * Future of a running load, aware of the thread that invokes the loader.
+	 */
+	protected static class Load<V> extends CompletableFuture<V> {
+		volatile Thread thread;
+
+		Load(Thread thread) {
+			this.thread = thread;
+		}
+	}
+
+	// ---------------------------------------------------------------- config
+
+	/**
+	 * Sets the time after the write when value becomes stale and
+	 * gets reloaded in the background. <code>0</code> disables the refresh.
+	 */
+	public LoadingCache<K, V> refreshAfterWrite(long refreshTimeout) {
+		this.refreshTimeout = refreshTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets executor for background refresh. By default, the common
+	 * fork-join pool is used.
+	 */
+	public LoadingCache<K, V> refreshExecutor(Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+		return this;
+	}
+
+	/**
+	 * Returns wrapped cache.
+	 */
+	public Cache<K, LoadedValue<V>> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns statistics of this loading cache: hits, misses and loads.
+	 * Removals are recorded by the wrapped cache.
+	 */
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	// ---------------------------------------------------------------- load
+
+	/**
+	 * Retrieves an object from the cache. If default loader is
+	 * set, missing objects are loaded.
+	 */
+	public V get(K key) {
+		if (loader != null) {
+			return get(key, loader);
+		}
+		LoadedValue<V> loadedValue = cache.get(key);
+		if (loadedValue == null) {
+			return null;
+		}
+		return loadedValue.value;
+	}
+
+	/**
+	 * Returns cached object or loads it with given loader if it is missing.
+	 * Only one thread loads the value for the same key, while others wait
+	 * for its result. Exception thrown by the loader is re-thrown to all
+	 * waiting threads, nothing is cached then.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		LoadedValue<V> loadedValue = cache.get(key);
+
+		if (loadedValue != null) {
+			stats.recordHit();
+			if (isStale(loadedValue)) {
+				refresh(key, loader);
+			}
+			return loadedValue.value;
+		}
+
+		stats.recordMiss();
+
+		CompletableFuture<V> future = new Load<>(Thread.currentThread());
+		CompletableFuture<V> existingFuture = loads.putIfAbsent(key, future);
+
+		if (existingFuture != null) {
+			checkRecursiveLoad(key, existingFuture);
+			return join(existingFuture);
+		}
+
+		try {
+			// value may be loaded in the meantime
+			loadedValue = cache.get(key);
+
+			V value;
+			if (loadedValue != null) {
+				value = loadedValue.value;
+			}
+			else {
+				value = load(key, loader);
+				if (value != null) {
+					cache.put(key, new LoadedValue<>(value));
+				}
+			}
+			future.complete(value);
+			return value;
+		}
+		catch (Throwable throwable) {
+			// loader may throw checked exceptions, too
+			future.completeExceptionally(throwable);
+			throw throwable;
+		}
+		finally {
+			loads.remove(key, future);
+		}
+	}
+
+	/**
+	 * Returns a map of cached or loaded objects for given keys, in the order of keys.
+	 * Keys without the value are not in the map.
+	 */
+	public Map<K, V> getAll(Collection<? extends K> keys, Function<? super K, ? extends V> loader) {
+		Map<K, V> result = new LinkedHashMap<>(keys.size());
+
+		for (K key : keys) {
+			V value = get(key, loader);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a map of cached or loaded objects for given keys, in the order of keys.
+	 * All missing keys are loaded with a single call of bulk loader.
+	 * Keys that are already being loaded by other threads are not
+	 * loaded again, their loads are awaited instead.
+	 */
+	public Map<K, V> getAllBulk(Collection<? extends K> keys, BulkLoader<K, V> bulkLoader) {
+		Map<K, V> values = new HashMap<>(keys.size());
+		Map<K, CompletableFuture<V>> ownLoads = new LinkedHashMap<>();
+		Map<K, CompletableFuture<V>> otherLoads = new HashMap<>();
+
+		for (K key : keys) {
+			LoadedValue<V> loadedValue = cache.get(key);
+
+			if (loadedValue != null) {
+				stats.recordHit();
+				values.put(key, loadedValue.value);
+				continue;
+			}
+
+			stats.recordMiss();
+
+			CompletableFuture<V> future = new Load<>(Thread.currentThread());
+			CompletableFuture<V> existingFuture = loads.putIfAbsent(key, future);
+
+			if (existingFuture == null) {
+				ownLoads.put(key, future);
+			}
+			else {
+				otherLoads.put(key, existingFuture);
+			}
+		}
+
+		if (!ownLoads.isEmpty()) {
+			try {
+				List<K> missingKeys = new ArrayList<>(ownLoads.keySet());
+				Map<K, V> loadedValues;
+
+				long start = System.nanoTime();
+				try {
+					loadedValues = bulkLoader.loadAll(missingKeys);
+				}
+				catch (Throwable throwable) {
+					stats.recordLoadFailure(System.nanoTime() - start);
+					throw throwable;
+				}
+				stats.recordLoadSuccess(System.nanoTime() - start);
+
+				for (Map.Entry<K, CompletableFuture<V>> entry : ownLoads.entrySet()) {
+					K key = entry.getKey();
+					V value = loadedValues.get(key);
+
+					if (value != null) {
+						cache.put(key, new LoadedValue<>(value));
+						values.put(key, value);
+					}
+					entry.getValue().complete(value);
+				}
+			}
+			catch (Throwable throwable) {
+				for (CompletableFuture<V> future : ownLoads.values()) {
+					future.completeExceptionally(throwable);
+				}
+				throw throwable;
+			}
+			finally {
+				for (Map.Entry<K, CompletableFuture<V>> entry : ownLoads.entrySet()) {
+					loads.remove(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		for (Map.Entry<K, CompletableFuture<V>> entry : otherLoads.entrySet()) {
+			checkRecursiveLoad(entry.getKey(), entry.getValue());
+			V value = join(entry.getValue());
+			if (value != null) {
+				values.put(entry.getKey(), value);
+			}
+		}
+
+		Map<K, V> result = new LinkedHashMap<>(values.size());
+		for (K key : keys) {
+			V value = values.get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Loads many values at once.
+	 */
+	@FunctionalInterface
+	public interface BulkLoader<K, V> {
+
+		/**
+		 * Loads values for given keys. Keys without a value
+		 * may be omitted from the returned map.
+		 */
+		Map<K, V> loadAll(List<K> keys);
+	}
+
+	// ---------------------------------------------------------------- refresh
+
+	/**
+	 * Returns <code>true</code> if value should be refreshed.
+	 */
+	protected boolean isStale(LoadedValue<V> loadedValue) {
+		if (refreshTimeout == 0) {
+			return false;
+		}
+		return loadedValue.loadTime + refreshTimeout < System.currentTimeMillis();
+	}
+
+	/**
+	 * Reloads the value in the background using the default loader.
+	 * @see #refresh(Object, Function)
+	 */
+	public CompletableFuture<V> refresh(K key) {
+		if (loader == null) {
+			throw new IllegalStateException("Default loader not set");
+		}
+		return refresh(key, loader);
+	}
+
+	/**
+	 * Reloads the value in the background, while the current value remains
+	 * available. If the key is already being loaded, returns future of
+	 * the running load. On failure, current value stays in the cache.
+	 */
+	public CompletableFuture<V> refresh(K key, Function<? super K, ? extends V> loader) {
+		Load<V> future = new Load<>(null);
+		CompletableFuture<V> existingFuture = loads.putIfAbsent(key, future);
+
+		if (existingFuture != null) {
+			return existingFuture;
+		}
+
+		try {
+			refreshExecutor.execute(() -> {
+				future.thread = Thread.currentThread();
+				try {
+					V value = load(key, loader);
+					if (value != null) {
+						cache.put(key, new LoadedValue<>(value));
+					}
+					future.complete(value);
+				}
+				catch (Throwable throwable) {
+					future.completeExceptionally(throwable);
+				}
+				finally {
+					loads.remove(key, future);
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			// rejected
+			loads.remove(key, future);
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	/**
+	 * Invokes the loader and records the load time.
+	 */
+	protected V load(K key, Function<? super K, ? extends V> loader) {
+		long start = System.nanoTime();
+		V value;
+		try {
+			value = loader.apply(key);
+		}
+		catch (Throwable throwable) {
+			stats.recordLoadFailure(System.nanoTime() - start);
+			throw throwable;
+		}
+		stats.recordLoadSuccess(System.nanoTime() - start);
+		return value;
+	}
+
+	/**
+	 * Throws an exception if the running load of the key has been started
+	 * by the current thread, since waiting for it would never end.
+	 */
+	protected void checkRecursiveLoad(K key, CompletableFuture<V> future) {
+		if (future instanceof Load && ((Load) future).thread == Thread.currentThread()) {
+			throw new IllegalStateException("Recursive load of the key: " + key);
+		}
+	}
+
+	/**
+	 * Waits for a load started by other thread and re-throws its exception.
+	 */
+	protected V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+	}
+
+	// ---------------------------------------------------------------- delegates
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getCacheSize() {
+		return cache.getCacheSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getCacheTimeout() {
+		return cache.getCacheTimeout();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since <code>null</code> values are not cached, putting
+	 * <code>null</code> removes the existing value.
+	 */
+	public void put(K key, V object) {
+		if (object == null) {
+			cache.remove(key);
+			return;
+		}
+		cache.put(key, new LoadedValue<>(object));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since <code>null</code> values are not cached, putting
+	 * <code>null</code> removes the existing value.
+	 */
+	public void put(K key, V object, long timeout) {
+		if (object == null) {
+			cache.remove(key);
+			return;
+		}
+		cache.put(key, new LoadedValue<>(object), timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Iterator<V> iterator() {
+		final Iterator<LoadedValue<V>> iterator = cache.iterator();
+
+		return new Iterator<V>() {
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			public V next() {
+				return iterator.next().value;
+			}
+
+			public void remove() {
+				iterator.remove();
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int prune() {
+		return cache.prune();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isFull() {
+		return cache.isFull();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove(K key) {
+		cache.remove(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEmpty() {
+		return cache.isEmpty();
+	}
+}
@@ -0,0 +1,283 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.io.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Files LFU cache that stores files content outside of the Java heap,
+ * so large amount of cached content does not increase GC pauses.
+ * Content is stored either in direct byte buffers (file is copied) or
+ * in memory-mapped buffers (content is paged in by the OS). Mapped
+ * buffers should be used only for files that are not modified in place
+ * while being cached, e.g. static assets.
+ * <p>
+ * Cached content is invalidated when file's last modification time or
+ * size changes. Returned buffers are read-only views of the cached content,
+ * so they can be written to channels without copying.
+ * @see FileLFUCache
+ */
+public class OffHeapFileLFUCache {
+
+	/**
+	 * Cached file content and file attributes used for validation.
+	 */
+	protected static class FileContent {
+		protected final ByteBuffer buffer;
+		protected final long lastModified;
+		protected final int length;
+
+		protected FileContent(ByteBuffer buffer, long lastModified) {
+			this.buffer = buffer;
+			this.lastModified = lastModified;
+			this.length = buffer.capacity();
+		}
+
+		/**
+		 * Returns <code>true</code> if cached content still matches the file.
+		 */
+		protected boolean isValid(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+
+	protected final LFUCache<File, FileContent> cache;
+	protected final long maxSize;
+	protected final int maxFileSize;
+	protected final boolean mapped;
+
+	protected final AtomicLong usedSize = new AtomicLong();
+
+	/**
+	 * Creates off-heap file LFU cache with specified size. Sets
+	 * {@link #maxFileSize max available file size} to half of this value.
+	 */
+	public OffHeapFileLFUCache(int maxSize) {
+		this(maxSize, maxSize / 2, 0, false);
+	}
+
+	public OffHeapFileLFUCache(long maxSize, int maxFileSize) {
+		this(maxSize, maxFileSize, 0, false);
+	}
+
+	/**
+	 * Creates new off-heap file LFU cache.
+	 * @param maxSize total cache size in bytes
+	 * @param maxFileSize max available file size in bytes, may be 0
+	 * @param timeout timeout, may be 0
+	 * @param mapped if <code>true</code> memory-mapped buffers are used, otherwise direct buffers
+	 */
+	public OffHeapFileLFUCache(long maxSize, int maxFileSize, long timeout, boolean mapped) {
+		this.cache = new LFUCache<File, FileContent>(0, timeout) {
+			@Override
+			public boolean isFull() {
+				return usedSize.get() > OffHeapFileLFUCache.this.maxSize;
+			}
+
+			@Override
+			protected boolean isReallyFull(File file) {
+				return isFull();
+			}
+
+			@Override
+			protected void onRemoval(CacheObject<File, FileContent> co, RemovalCause cause) {
+				// invoked for each removed or replaced content
+				usedSize.addAndGet(-co.cachedObject.length);
+				super.onRemoval(co, cause);
+			}
+
+		};
+		this.maxSize = maxSize;
+		this.maxFileSize = maxFileSize;
+		this.mapped = mapped;
+	}
+
+	// ---------------------------------------------------------------- properties
+
+	/**
+	 * Returns max cache size in bytes.
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns actually used size in bytes.
+	 */
+	public long getUsedSize() {
+		return usedSize.get();
+	}
+
+	/**
+	 * Returns maximum allowed file size that can be added to the cache.
+	 * Files larger than this value will be not added, even if there is
+	 * enough room.
+	 */
+	public int getMaxFileSize() {
+		return maxFileSize;
+	}
+
+	/**
+	 * Returns <code>true</code> if content is stored in memory-mapped buffers.
+	 */
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * Returns number of cached files.
+	 */
+	public int getCachedFilesCount() {
+		return cache.size();
+	}
+
+	/**
+	 * Returns timeout.
+	 */
+	public long getCacheTimeout() {
+		return cache.getCacheTimeout();
+	}
+
+	/**
+	 * Clears the cache.
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	// ---------------------------------------------------------------- get
+
+	public ByteBuffer getFileBuffer(String fileName) throws IOException {
+		return getFileBuffer(new File(fileName));
+	}
+
+	/**
+	 * Returns read-only buffer of cached file content. Each call returns
+	 * a new buffer instance with its own position, so it is safe to consume it.
+	 * Files larger then max file size are not cached and are returned
+	 * in heap buffer.
+	 */
+	public ByteBuffer getFileBuffer(File file) throws IOException {
+		FileContent content = cache.get(file);
+
+		if (content != null) {
+			if (content.isValid(file)) {
+				return content.buffer.duplicate();
+			}
+			invalidate(file, content);
+		}
+
+		if ((maxFileSize != 0) && (file.length() > maxFileSize)) {
+			// don't cache files that size exceed max allowed file size
+			return ByteBuffer.wrap(FileUtil.readBytes(file)).asReadOnlyBuffer();
+		}
+
+		content = readContent(file);
+
+		usedSize.addAndGet(content.length);
+
+		// put file into cache
+		// if used size > total, purge() will be invoked
+		// content loaded concurrently for the same file is replaced and its size released
+		cache.put(file, content);
+
+		return content.buffer.duplicate();
+	}
+
+	/**
+	 * Returns a copy of cached file content.
+	 */
+	public byte[] getFileBytes(File file) throws IOException {
+		ByteBuffer buffer = getFileBuffer(file);
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Writes cached file content to the target channel and returns the number
+	 * of written bytes. For socket and file channels this avoids copying the
+	 * content to the heap.
+	 */
+	public long transferTo(File file, WritableByteChannel target) throws IOException {
+		ByteBuffer buffer = getFileBuffer(file);
+		long count = 0;
+		while (buffer.hasRemaining()) {
+			count += target.write(buffer);
+		}
+		return count;
+	}
+
+	/**
+	 * Removes outdated content, if it is still cached.
+	 */
+	protected synchronized void invalidate(File file, FileContent content) {
+		if (cache.get(file) == content) {
+			cache.remove(file);
+		}
+	}
+
+	/**
+	 * Reads file content into direct or memory-mapped buffer.
+	 */
+	protected FileContent readContent(File file) throws IOException {
+		long lastModified = file.lastModified();
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large: " + file);
+			}
+
+			ByteBuffer buffer;
+
+			if (mapped) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			else {
+				buffer = ByteBuffer.allocateDirect((int) size);
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) == -1) {
+						break;
+					}
+				}
+				buffer.flip();
+			}
+
+			return new FileContent(buffer.asReadOnlyBuffer(), lastModified);
+		}
+	}
+
+}
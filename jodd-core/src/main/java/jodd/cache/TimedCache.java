@@ -53,9 +53,10 @@ public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
         int count = 0;
 		Iterator<CacheObject<K,V>> values = cacheMap.values().iterator();
 		while (values.hasNext()) {
-			CacheObject co = values.next();
+			CacheObject<K,V> co = values.next();
 			if (co.isExpired()) {
 				values.remove();
+				onRemoval(co, RemovalCause.EXPIRED);
 				count++;
 			}
 		}
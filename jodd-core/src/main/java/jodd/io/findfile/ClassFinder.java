@@ -36,6 +36,8 @@ import jodd.io.StreamUtil;
 import jodd.io.ZipUtil;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipEntry;
 import java.util.Enumeration;
@@ -222,6 +224,27 @@ public abstract class ClassFinder {
 		this.ignoreException = ignoreException;
 	}
 
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Optional class path index.
+	 */
+	protected ClassPathIndex classPathIndex;
+
+	public ClassPathIndex getClassPathIndex() {
+		return classPathIndex;
+	}
+
+	/**
+	 * Sets {@link ClassPathIndex class path index} used for scanning. When set,
+	 * paths are listed in parallel by the index and already listed
+	 * paths are not listed again. The same index may be shared between
+	 * several finders.
+	 */
+	public void setClassPathIndex(ClassPathIndex classPathIndex) {
+		this.classPathIndex = classPathIndex;
+	}
+
 	// ---------------------------------------------------------------- scan
 
 	/**
@@ -229,6 +252,21 @@ public abstract class ClassFinder {
 	 * per one URL will be ignored and loops continues. 
 	 */
 	protected void scanUrls(URL... urls) {
+		if (classPathIndex != null) {
+			List<File> files = new ArrayList<>(urls.length);
+			for (URL url : urls) {
+				File file = FileUtil.toFile(url);
+				if (file == null) {
+					if (!ignoreException) {
+						throw new FindFileException("URL is not a valid file: " + url);
+					}
+					continue;
+				}
+				files.add(file);
+			}
+			scanPaths(files.toArray(new File[files.size()]));
+			return;
+		}
 		for (URL path : urls) {
 			scanUrl(path);
 		}
@@ -251,12 +289,24 @@ public abstract class ClassFinder {
 
 
 	protected void scanPaths(File... paths) {
+		if (classPathIndex != null) {
+			scanIndex(paths);
+			return;
+		}
 		for (File path : paths) {
 			scanPath(path);
 		}
 	}
 
 	protected void scanPaths(String... paths) {
+		if (classPathIndex != null) {
+			File[] files = new File[paths.length];
+			for (int i = 0; i < paths.length; i++) {
+				files[i] = new File(paths[i]);
+			}
+			scanIndex(files);
+			return;
+		}
 		for (String path : paths) {
 			scanPath(path);
 		}
@@ -293,6 +343,75 @@ public abstract class ClassFinder {
 		}
 	}
 
+	/**
+	 * Scans paths using the {@link #classPathIndex class path index}.
+	 * Accepted jars and directories are listed by the index in parallel,
+	 * while entries are scanned in the class path order.
+	 */
+	protected void scanIndex(File... paths) {
+		List<File> accepted = new ArrayList<>(paths.length);
+
+		for (File file : paths) {
+			if (StringUtil.endsWithIgnoreCase(file.getAbsolutePath(), JAR_FILE_EXT)) {
+				if (acceptJar(file)) {
+					accepted.add(file);
+				}
+			} else if (file.isDirectory()) {
+				accepted.add(file);
+			}
+		}
+
+		ClassPathIndex.Element[] elements = classPathIndex.scan(accepted.toArray(new File[accepted.size()]));
+
+		for (ClassPathIndex.Element element : elements) {
+			scanElement(element);
+		}
+	}
+
+	/**
+	 * Scans entries of single {@link ClassPathIndex.Element index element}.
+	 * Jar is opened only if some entry content is read.
+	 */
+	protected void scanElement(ClassPathIndex.Element element) {
+		if (element.getError() != null) {
+			if (!ignoreException) {
+				throw new FindFileException("Invalid zip: " + element.getFile().getName(), element.getError());
+			}
+			return;
+		}
+
+		ElementSource source = new ElementSource(element);
+		String[] names = element.getNames();
+
+		try {
+			for (int i = 0; i < names.length; i++) {
+				String name = names[i];
+				try {
+					if (StringUtil.endsWithIgnoreCase(name, CLASS_FILE_EXT)) {
+						scanElementEntry(source, i, prepareEntryName(name, true));
+					} else if (includeResources) {
+						scanElementEntry(source, i, prepareEntryName(name, false));
+					}
+				} catch (RuntimeException rex) {
+					if (!ignoreException) {
+						throw rex;
+					}
+				}
+			}
+		} finally {
+			source.close();
+		}
+	}
+
+	protected void scanElementEntry(ElementSource source, int index, String entryName) {
+		EntryData entryData = new EntryData(entryName, source, index);
+		try {
+			scanEntry(entryData);
+		} finally {
+			entryData.closeInputStreamIfOpen();
+		}
+	}
+
 	// ---------------------------------------------------------------- internal
 
 	/**
@@ -463,6 +582,27 @@ public abstract class ClassFinder {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if entry contains {@link #getTypeSignatureBytes(Class) type signature}.
+	 * When entry comes from the {@link #classPathIndex class path index}, the result is
+	 * remembered in the index and entry content is not read again.
+	 */
+	protected boolean isTypeSignatureInUse(EntryData entryData, byte[] bytes) {
+		if (entryData.source == null) {
+			return isTypeSignatureInUse(entryData.openInputStream(), bytes);
+		}
+
+		byte[] flags = entryData.source.element.signatureFlags(bytes);
+		int index = entryData.index;
+
+		if (flags[index] == ClassPathIndex.SIGNATURE_UNKNOWN) {
+			boolean found = isTypeSignatureInUse(entryData.openInputStream(), bytes);
+
+			flags[index] = found ? ClassPathIndex.SIGNATURE_FOUND : ClassPathIndex.SIGNATURE_MISSING;
+		}
+		return flags[index] == ClassPathIndex.SIGNATURE_FOUND;
+	}
+
 	// ---------------------------------------------------------------- class loading
 
 	/**
@@ -488,6 +628,38 @@ public abstract class ClassFinder {
 
 	// ---------------------------------------------------------------- provider
 
+	/**
+	 * Content source of single index element. Jar is opened lazily,
+	 * on first entry read, and closed once the element is scanned.
+	 */
+	protected static class ElementSource {
+
+		private final ClassPathIndex.Element element;
+		private ZipFile zipFile;
+
+		ElementSource(ClassPathIndex.Element element) {
+			this.element = element;
+		}
+
+		ZipFile zipFile() {
+			if (zipFile == null) {
+				try {
+					zipFile = new ZipFile(element.getFile());
+				} catch (IOException ioex) {
+					throw new FindFileException("Invalid zip: " + element.getFile().getName(), ioex);
+				}
+			}
+			return zipFile;
+		}
+
+		void close() {
+			if (zipFile != null) {
+				ZipUtil.close(zipFile);
+				zipFile = null;
+			}
+		}
+	}
+
 	/**
 	 * Provides input stream on demand. Input stream is not open until get().
 	 */
@@ -497,12 +669,16 @@ public abstract class ClassFinder {
 		private final ZipFile zipFile;
 		private final ZipEntry zipEntry;
 		private final String name;
+		private final ElementSource source;
+		private final int index;
 
 		EntryData(String name, ZipFile zipFile, ZipEntry zipEntry) {
 			this.name = name;
 			this.zipFile = zipFile;
 			this.zipEntry = zipEntry;
 			this.file = null;
+			this.source = null;
+			this.index = -1;
 			inputStream = null;
 		}
 		EntryData(String name, File file) {
@@ -510,6 +686,21 @@ public abstract class ClassFinder {
 			this.file = file;
 			this.zipEntry = null;
 			this.zipFile = null;
+			this.source = null;
+			this.index = -1;
+			inputStream = null;
+		}
+		EntryData(String name, ElementSource source, int index) {
+			this.name = name;
+			this.source = source;
+			this.index = index;
+			this.zipEntry = null;
+			this.zipFile = null;
+			if (source.element.isArchive()) {
+				this.file = null;
+			} else {
+				this.file = new File(source.element.getFile(), source.element.getNames()[index]);
+			}
 			inputStream = null;
 		}
 
@@ -526,7 +717,7 @@ public abstract class ClassFinder {
 		 * Returns <code>true</code> if archive.
 		 */
 		public boolean isArchive() {
-			return zipFile != null;
+			return zipFile != null || (source != null && source.element.isArchive());
 		}
 
 		/**
@@ -536,6 +727,9 @@ public abstract class ClassFinder {
 			if (zipFile != null) {
 				return zipFile.getName(); 
 			}
+			if (source != null && source.element.isArchive()) {
+				return source.element.getFile().getPath();
+			}
 			return null;
 		}
 
@@ -543,6 +737,21 @@ public abstract class ClassFinder {
 		 * Opens zip entry or plain file and returns its input stream.
 		 */
 		public InputStream openInputStream() {
+			if (source != null && source.element.isArchive()) {
+				ZipFile zipFile = source.zipFile();
+				String entryName = source.element.getNames()[index];
+				try {
+					ZipEntry zipEntry = zipFile.getEntry(entryName);
+					if (zipEntry == null) {
+						throw new FindFileException("Entry not found: '" + zipFile.getName() + "', entry: '" + entryName + "'.");
+					}
+					inputStream = zipFile.getInputStream(zipEntry);
+					return inputStream;
+				} catch (IOException ioex) {
+					throw new FindFileException("Input stream error: '" + zipFile.getName()
+							+ "', entry: '" + entryName + "'." , ioex);
+				}
+			}
 			if (zipFile != null) {
 				try {
 					inputStream = zipFile.getInputStream(zipEntry);
@@ -0,0 +1,416 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.io.findfile;
+
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import jodd.io.ZipUtil;
+import jodd.util.StringUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of class path elements: jars and directories with the names of all
+ * their entries. Elements are listed in parallel, one fork-join task per jar
+ * or directory, and once listed they are kept, so several {@link ClassFinder}s
+ * (e.g. Petite, DbOom and Madvoc configurators) may share a single scan
+ * by using the same index.
+ * <p>
+ * Index may be stored in a cache file. Jars are restored from the cache when
+ * their path, last modification time and size did not change; directories are
+ * always listed again. Besides entry names, index also stores results of
+ * {@link ClassFinder#isTypeSignatureInUse(ClassFinder.EntryData, byte[]) type signature}
+ * searches, so unchanged jar classes are not read on restart.
+ */
+public class ClassPathIndex {
+
+	private static final String JAR_FILE_EXT = ".jar";
+	private static final int CACHE_VERSION = 1;
+
+	static final byte SIGNATURE_UNKNOWN = 0;
+	static final byte SIGNATURE_MISSING = 1;
+	static final byte SIGNATURE_FOUND = 2;
+
+	protected final Map<File, Element> elements = new ConcurrentHashMap<>();
+	protected final Map<String, Element> cachedElements = new ConcurrentHashMap<>();
+	protected File cacheFile;
+	protected boolean parallel = true;
+
+	public ClassPathIndex() {
+	}
+
+	/**
+	 * Creates index that is {@link #load(File) loaded} from
+	 * and {@link #save() saved} to the given cache file.
+	 */
+	public ClassPathIndex(File cacheFile) {
+		this.cacheFile = cacheFile;
+		load(cacheFile);
+	}
+
+	/**
+	 * Returns cache file or <code>null</code> if not set.
+	 */
+	public File getCacheFile() {
+		return cacheFile;
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Specifies if class path elements are listed in parallel.
+	 */
+	public ClassPathIndex setParallel(boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- scan
+
+	/**
+	 * Returns index elements of given class path, in the same order.
+	 * Elements not listed so far are listed now, in parallel.
+	 */
+	public Element[] scan(File... paths) {
+		if (parallel && paths.length > 1) {
+			return Arrays.stream(paths).parallel().map(this::element).toArray(Element[]::new);
+		}
+
+		Element[] result = new Element[paths.length];
+
+		for (int i = 0; i < paths.length; i++) {
+			result[i] = element(paths[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns index element of single jar or directory.
+	 */
+	public Element element(File path) {
+		File file = path.getAbsoluteFile();
+
+		Element element = elements.get(file);
+
+		if (element != null) {
+			return element;
+		}
+
+		element = list(file);
+
+		Element existing = elements.putIfAbsent(file, element);
+
+		return existing != null ? existing : element;
+	}
+
+	/**
+	 * Lists entries of single jar or directory.
+	 * Unchanged jars are restored from the cache.
+	 */
+	protected Element list(File file) {
+		if (StringUtil.endsWithIgnoreCase(file.getPath(), JAR_FILE_EXT)) {
+			Element cached = cachedElements.get(file.getPath());
+
+			if (cached != null && cached.lastModified == file.lastModified() && cached.length == file.length()) {
+				return cached;
+			}
+			return listJarFile(file);
+		}
+		return listClassPath(file);
+	}
+
+	protected Element listJarFile(File file) {
+		List<String> names = new ArrayList<>();
+
+		ZipFile zipFile;
+		try {
+			zipFile = new ZipFile(file);
+		} catch (IOException ioex) {
+			return new Element(file, true, ioex);
+		}
+
+		try {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				names.add(entries.nextElement().getName());
+			}
+		} finally {
+			ZipUtil.close(zipFile);
+		}
+
+		return new Element(file, true, file.lastModified(), file.length(), names.toArray(new String[names.size()]));
+	}
+
+	protected Element listClassPath(File root) {
+		List<String> names = new ArrayList<>();
+
+		if (root.isDirectory()) {
+			String rootPath = root.getAbsolutePath();
+			if (!rootPath.endsWith(File.separator)) {
+				rootPath += File.separatorChar;
+			}
+
+			FindFile ff = new FindFile().setIncludeDirs(false).setRecursive(true).searchPath(rootPath);
+			File file;
+			while ((file = ff.nextFile()) != null) {
+				String filePath = file.getAbsolutePath();
+
+				if (StringUtil.startsWithIgnoreCase(filePath, rootPath)) {
+					names.add(filePath.substring(rootPath.length()));
+				}
+			}
+		}
+
+		return new Element(root, false, root.lastModified(), 0, names.toArray(new String[names.size()]));
+	}
+
+	// ---------------------------------------------------------------- cache
+
+	/**
+	 * Loads jar elements from the cache file. Missing or
+	 * invalid cache file is ignored.
+	 */
+	public void load(File file) {
+		if (!file.exists()) {
+			return;
+		}
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+			if (in.readInt() != CACHE_VERSION) {
+				return;
+			}
+
+			Map<String, Element> loaded = new HashMap<>();
+
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = in.readUTF();
+				long lastModified = in.readLong();
+				long length = in.readLong();
+
+				String[] names = new String[in.readInt()];
+				for (int j = 0; j < names.length; j++) {
+					names[j] = in.readUTF();
+				}
+
+				Element element = new Element(new File(path), true, lastModified, length, names);
+
+				int signaturesCount = in.readInt();
+				for (int j = 0; j < signaturesCount; j++) {
+					byte[] signature = new byte[in.readInt()];
+					in.readFully(signature);
+
+					byte[] flags = new byte[names.length];
+					in.readFully(flags);
+
+					element.signatures.put(new Signature(signature), flags);
+				}
+
+				loaded.put(path, element);
+			}
+
+			cachedElements.putAll(loaded);
+		}
+		catch (IOException ignore) {
+		}
+		finally {
+			StreamUtil.close(in);
+		}
+	}
+
+	/**
+	 * Saves all listed jar elements to the {@link #getCacheFile() cache file}.
+	 * Does nothing if cache file is not set.
+	 */
+	public void save() {
+		if (cacheFile == null) {
+			return;
+		}
+
+		List<Element> jars = new ArrayList<>();
+		for (Element element : elements.values()) {
+			if (element.archive && element.error == null) {
+				jars.add(element);
+			}
+		}
+
+		DataOutputStream out = null;
+		try {
+			FileUtil.mkdirs(cacheFile.getAbsoluteFile().getParentFile());
+
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)));
+
+			out.writeInt(CACHE_VERSION);
+			out.writeInt(jars.size());
+
+			for (Element element : jars) {
+				out.writeUTF(element.file.getPath());
+				out.writeLong(element.lastModified);
+				out.writeLong(element.length);
+
+				out.writeInt(element.names.length);
+				for (String name : element.names) {
+					out.writeUTF(name);
+				}
+
+				Map<Signature, byte[]> signatures = new HashMap<>(element.signatures);
+
+				out.writeInt(signatures.size());
+				for (Map.Entry<Signature, byte[]> entry : signatures.entrySet()) {
+					out.writeInt(entry.getKey().bytes.length);
+					out.write(entry.getKey().bytes);
+					out.write(entry.getValue());
+				}
+			}
+		}
+		catch (IOException ioex) {
+			throw new FindFileException("Unable to save class path index: " + cacheFile, ioex);
+		}
+		finally {
+			StreamUtil.close(out);
+		}
+	}
+
+	// ---------------------------------------------------------------- element
+
+	/**
+	 * Single class path element, jar or directory, with the
+	 * names of all its entries.
+	 */
+	public static class Element {
+
+		protected final File file;
+		protected final boolean archive;
+		protected final long lastModified;
+		protected final long length;
+		protected final String[] names;
+		protected final IOException error;
+		protected final Map<Signature, byte[]> signatures = new ConcurrentHashMap<>();
+
+		Element(File file, boolean archive, long lastModified, long length, String[] names) {
+			this.file = file;
+			this.archive = archive;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.names = names;
+			this.error = null;
+		}
+
+		Element(File file, boolean archive, IOException error) {
+			this.file = file;
+			this.archive = archive;
+			this.lastModified = 0;
+			this.length = 0;
+			this.names = new String[0];
+			this.error = error;
+		}
+
+		/**
+		 * Returns jar file or class path directory.
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * Returns <code>true</code> if element is a jar.
+		 */
+		public boolean isArchive() {
+			return archive;
+		}
+
+		/**
+		 * Returns entry names: zip entry names for jars
+		 * and relative file paths for directories.
+		 */
+		public String[] getNames() {
+			return names;
+		}
+
+		/**
+		 * Returns an error if jar could not be read,
+		 * otherwise returns <code>null</code>.
+		 */
+		public IOException getError() {
+			return error;
+		}
+
+		/**
+		 * Returns type signature search results for all entries.
+		 */
+		byte[] signatureFlags(byte[] signature) {
+			return signatures.computeIfAbsent(new Signature(signature), s -> new byte[names.length]);
+		}
+
+		@Override
+		public String toString() {
+			return "Element{" + file + '}';
+		}
+	}
+
+	/**
+	 * Type signature bytes as a map key.
+	 */
+	static final class Signature {
+		final byte[] bytes;
+		final int hash;
+
+		Signature(byte[] bytes) {
+			this.bytes = bytes;
+			this.hash = Arrays.hashCode(bytes);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Signature && Arrays.equals(bytes, ((Signature) o).bytes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
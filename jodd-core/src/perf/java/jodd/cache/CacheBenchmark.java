@@ -0,0 +1,62 @@
+package jodd.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares caches under concurrent load: 90% of reads, 10% of writes.
+ * Run:
+ * <code>
+ * gw :jodd-core:perf -PCacheBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+	private static final int CACHE_SIZE = 1000;
+	private static final int KEYS_COUNT = 2000;
+
+	@Param({"lru", "lfu", "fifo", "concurrentLru"})
+	public String type;
+
+	private Cache<Integer, Integer> cache;
+
+	@Setup
+	public void prepare() {
+		switch (type) {
+			case "lru": cache = new LRUCache<>(CACHE_SIZE); break;
+			case "lfu": cache = new LFUCache<>(CACHE_SIZE); break;
+			case "fifo": cache = new FIFOCache<>(CACHE_SIZE); break;
+			case "concurrentLru": cache = new ConcurrentLRUCache<>(CACHE_SIZE); break;
+			default: throw new IllegalArgumentException(type);
+		}
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			cache.put(i, i);
+		}
+	}
+
+	@Benchmark
+	public Integer getOrPut() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer key = random.nextInt(KEYS_COUNT);
+
+		if (random.nextInt(10) == 0) {
+			cache.put(key, key);
+			return key;
+		}
+		return cache.get(key);
+	}
+}
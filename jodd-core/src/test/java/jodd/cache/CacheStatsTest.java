@@ -0,0 +1,189 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.util.ThreadUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CacheStatsTest {
+
+	private static class Removals<K, V> implements RemovalListener<K, V> {
+		final List<String> removals = new ArrayList<>();
+
+		public void onRemoval(K key, V value, RemovalCause cause) {
+			removals.add(key + ":" + value + ":" + cause);
+		}
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		LRUCache<String, String> cache = new LRUCache<>(3);
+		cache.put("1", "1");
+
+		assertNotNull(cache.get("1"));
+		assertNotNull(cache.get("1"));
+		assertNull(cache.get("2"));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		CacheStats stats = cache.getStats();
+		assertEquals(3, stats.getRequestCount());
+		assertEquals(2.0 / 3, stats.getHitRate(), 0.0001);
+
+		stats.reset();
+		assertEquals(0, stats.getRequestCount());
+		assertEquals(1.0, stats.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void testLRURemovals() {
+		LRUCache<String, String> cache = new LRUCache<>(2);
+		Removals<String, String> listener = new Removals<>();
+		cache.setRemovalListener(listener);
+
+		cache.put("1", "1");
+		cache.put("2", "2");
+		cache.put("2", "two");
+		cache.put("3", "3");
+		cache.remove("2");
+		cache.put("4", "4", 10);
+
+		ThreadUtil.sleep(50);
+		assertNull(cache.get("4"));
+		cache.clear();
+
+		assertEquals("[2:2:REPLACED, 1:1:SIZE, 2:two:EXPLICIT, 4:4:EXPIRED, 3:3:EXPLICIT]", listener.removals.toString());
+
+		CacheStats stats = cache.getStats();
+		assertEquals(1, stats.getRemovalCount(RemovalCause.SIZE));
+		assertEquals(1, stats.getRemovalCount(RemovalCause.EXPIRED));
+		assertEquals(2, stats.getRemovalCount(RemovalCause.EXPLICIT));
+		assertEquals(2, stats.getEvictionCount());
+	}
+
+	@Test
+	public void testLFUAndFIFORemovals() {
+		LFUCache<String, String> lfuCache = new LFUCache<>(2);
+		Removals<String, String> lfuListener = new Removals<>();
+		lfuCache.setRemovalListener(lfuListener);
+
+		lfuCache.put("1", "1");
+		lfuCache.put("2", "2");
+		lfuCache.get("2");
+		lfuCache.put("3", "3");
+
+		assertEquals("[1:1:SIZE]", lfuListener.removals.toString());
+
+		FIFOCache<String, String> fifoCache = new FIFOCache<>(2);
+		Removals<String, String> fifoListener = new Removals<>();
+		fifoCache.setRemovalListener(fifoListener);
+
+		fifoCache.put("1", "1", 10);
+		fifoCache.put("2", "2");
+		ThreadUtil.sleep(50);
+		fifoCache.put("3", "3");
+		fifoCache.put("4", "4");
+
+		assertEquals("[1:1:EXPIRED, 2:2:SIZE]", fifoListener.removals.toString());
+	}
+
+	@Test
+	public void testTimedRemovals() {
+		TimedCache<String, String> cache = new TimedCache<>(10);
+		Removals<String, String> listener = new Removals<>();
+		cache.setRemovalListener(listener);
+
+		cache.put("1", "1");
+		ThreadUtil.sleep(50);
+
+		assertEquals(1, cache.prune());
+		assertEquals("[1:1:EXPIRED]", listener.removals.toString());
+		assertEquals(1, cache.getStats().getEvictionCount());
+	}
+
+	@Test
+	public void testConcurrentLRURemovals() {
+		ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(2);
+		Removals<String, String> listener = new Removals<>();
+		cache.setRemovalListener(listener);
+
+		cache.put("1", "1");
+		cache.put("2", "2");
+		cache.put("2", "two");
+		cache.put("3", "3");
+		cache.remove("2");
+		assertNull(cache.get("2"));
+		assertNotNull(cache.get("3"));
+
+		assertEquals("[2:2:REPLACED, 1:1:SIZE, 2:two:EXPLICIT]", listener.removals.toString());
+		assertEquals(1, cache.getStats().getHitCount());
+		assertEquals(1, cache.getStats().getMissCount());
+	}
+
+	@Test
+	public void testLoadStats() {
+		LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2));
+
+		cache.get("1", key -> key);
+		cache.get("1", key -> key);
+		try {
+			cache.get("2", key -> {
+				throw new IllegalArgumentException();
+			});
+			fail();
+		}
+		catch (IllegalArgumentException ignore) {
+		}
+
+		CacheStats stats = cache.getStats();
+		assertEquals(1, stats.getHitCount());
+		assertEquals(2, stats.getMissCount());
+		assertEquals(1, stats.getLoadSuccessCount());
+		assertEquals(1, stats.getLoadFailureCount());
+
+		long total = 0;
+		for (long count : stats.getLoadTimeHistogram()) {
+			total += count;
+		}
+		assertEquals(2, total);
+	}
+
+	@Test
+	public void testLoadTimeBucket() {
+		assertEquals(0, CacheStats.loadTimeBucket(999));
+		assertEquals(1, CacheStats.loadTimeBucket(1000));
+		assertEquals(2, CacheStats.loadTimeBucket(2000));
+		assertEquals(2, CacheStats.loadTimeBucket(3999));
+		assertEquals(3, CacheStats.loadTimeBucket(4000));
+		assertEquals(CacheStats.LOAD_TIME_BUCKETS - 1, CacheStats.loadTimeBucket(Long.MAX_VALUE));
+	}
+}
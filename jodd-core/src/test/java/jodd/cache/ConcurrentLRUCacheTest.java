@@ -0,0 +1,171 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.util.ThreadUtil;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentLRUCacheTest {
+
+	@Test
+	public void testCache() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(3);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		assertFalse(cache.isFull());
+		cache.put("3", "3");
+		assertTrue(cache.isFull());
+
+		assertNotNull(cache.get("1"));
+		assertNotNull(cache.get("2"));
+		cache.put("4", "4");
+		assertNull(cache.get("3"));
+		assertNotNull(cache.get("1"));
+		assertNotNull(cache.get("2"));
+		cache.put("3", "3");
+		assertNull(cache.get("4"));
+	}
+
+	@Test
+	public void testCacheTime() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(3);
+		cache.put("3", "3");
+		cache.put("2", "2");
+		assertNotNull(cache.get("2"));
+		cache.put("1", "1", 50);
+		assertNotNull(cache.get("1"));
+		assertTrue(cache.isFull());
+
+		ThreadUtil.sleep(100);
+		assertNull(cache.get("1"));     // expired
+		assertFalse(cache.isFull());
+	}
+
+	@Test
+	public void testPrune() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(3, 50);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		cache.put("3", "3", 0);
+
+		assertEquals(0, cache.prune());
+		assertEquals(3, cache.size());
+
+		cache.put("4", "4");
+		assertEquals(3, cache.size());
+
+		ThreadUtil.sleep(100);
+		assertEquals(2, cache.prune());
+		assertEquals(1, cache.size());
+		assertEquals("3", cache.get("3"));
+	}
+
+	@Test
+	public void testReplaceAndRemove() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(2);
+		cache.put("1", "1");
+		cache.put("1", "one");
+		cache.put("2", "2");
+		assertEquals(2, cache.size());
+		assertEquals("one", cache.get("1"));
+
+		cache.remove("1");
+		assertNull(cache.get("1"));
+		cache.put("3", "3");
+		assertEquals(2, cache.size());
+		assertEquals("2", cache.get("2"));
+
+		Iterator<String> iterator = cache.iterator();
+		int count = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			count++;
+		}
+		assertEquals(2, count);
+		assertTrue(cache.isEmpty());
+
+		cache.put("1", "1");
+		cache.clear();
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void testEndless() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(0);
+		assertFalse(cache.isFull());
+		for (int i = 0; i < 1000; i++) {
+			cache.put(String.valueOf(i), "1");
+		}
+		assertEquals(1000, cache.size());
+		assertFalse(cache.isFull());
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException {
+		final Cache<Integer, Integer> cache = new ConcurrentLRUCache<>(100);
+		final int threadsCount = 8;
+		final CountDownLatch latch = new CountDownLatch(threadsCount);
+		final AtomicInteger errors = new AtomicInteger();
+
+		for (int t = 0; t < threadsCount; t++) {
+			final int seed = t;
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 20000; i++) {
+							int key = (i * 31 + seed) % 300;
+							Integer value = cache.get(key);
+							if (value == null) {
+								cache.put(key, key);
+							}
+							else if (value != key) {
+								errors.incrementAndGet();
+							}
+						}
+					}
+					catch (Exception ex) {
+						errors.incrementAndGet();
+					}
+					latch.countDown();
+				}
+			}.start();
+		}
+
+		latch.await();
+
+		assertEquals(0, errors.get());
+		cache.prune();
+		assertTrue(cache.size() <= 100);
+	}
+}
@@ -0,0 +1,240 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.exception.ExceptionUtil;
+import jodd.util.ThreadUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LoadingCacheTest {
+
+	@Test
+	public void testLoad() {
+		AtomicInteger loadsCount = new AtomicInteger();
+		LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2), key -> {
+			loadsCount.incrementAndGet();
+			return key.equals("null") ? null : "value" + key;
+		});
+
+		assertEquals("value1", cache.get("1"));
+		assertEquals("value1", cache.get("1"));
+		assertEquals(1, loadsCount.get());
+
+		assertNull(cache.get("null"));
+		assertNull(cache.get("null"));
+		assertEquals(3, loadsCount.get());
+		assertEquals(1, cache.size());
+
+		cache.put("2", "two");
+		assertEquals("two", cache.get("2"));
+		assertEquals("other", cache.get("3", key -> "other"));
+		assertEquals(2, cache.size());
+		assertEquals(3, loadsCount.get());
+	}
+
+	@Test
+	public void testNoLoader() {
+		LoadingCache<String, String> cache = new LoadingCache<>(new LFUCache<>(2));
+
+		assertNull(cache.get("1"));
+		assertEquals("value", cache.get("1", key -> "value"));
+		assertEquals("value", cache.get("1"));
+		assertEquals("value", cache.iterator().next());
+	}
+
+	@Test
+	public void testLoaderException() {
+		LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2));
+
+		try {
+			cache.get("1", key -> {
+				throw new IllegalStateException();
+			});
+			fail();
+		}
+		catch (IllegalStateException ignore) {
+		}
+
+		assertTrue(cache.isEmpty());
+		assertEquals("1", cache.get("1", key -> key));
+	}
+
+	@Test
+	public void testLoaderCheckedException() throws InterruptedException {
+		final LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2));
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch waiterDone = new CountDownLatch(1);
+		final AtomicInteger waiterErrors = new AtomicInteger();
+
+		new Thread(() -> {
+			try {
+				loading.await();
+				cache.get("1", key -> "other");
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof IOException) {
+					waiterErrors.incrementAndGet();
+				}
+			}
+			catch (InterruptedException ignore) {
+			}
+			waiterDone.countDown();
+		}).start();
+
+		try {
+			cache.get("1", key -> {
+				loading.countDown();
+				ThreadUtil.sleep(100);
+				ExceptionUtil.throwException(new IOException());
+				return null;
+			});
+			fail();
+		}
+		catch (Exception ex) {
+			assertTrue(ex instanceof IOException);
+		}
+
+		assertTrue(waiterDone.await(5, TimeUnit.SECONDS));
+		assertEquals(1, waiterErrors.get());
+		assertEquals("1", cache.get("1", key -> key));
+	}
+
+	@Test
+	public void testRecursiveLoad() {
+		final LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2));
+
+		try {
+			cache.get("1", key -> cache.get("1", k -> "inner"));
+			fail();
+		}
+		catch (IllegalStateException ignore) {
+		}
+
+		assertEquals("value", cache.get("1", key -> "value"));
+	}
+
+	@Test
+	public void testPutNull() {
+		LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(2));
+
+		cache.put("1", "one");
+		assertEquals(1, cache.size());
+
+		cache.put("1", null);
+		assertTrue(cache.isEmpty());
+		assertNull(cache.get("1"));
+
+		cache.put("2", null, 1000);
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void testSingleFlight() throws InterruptedException {
+		final AtomicInteger loadsCount = new AtomicInteger();
+		final LoadingCache<String, String> cache = new LoadingCache<>(new LRUCache<>(10), key -> {
+			loadsCount.incrementAndGet();
+			ThreadUtil.sleep(100);
+			return "value";
+		});
+
+		int threadsCount = 10;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(threadsCount);
+		final AtomicInteger errors = new AtomicInteger();
+
+		for (int i = 0; i < threadsCount; i++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					if (!"value".equals(cache.get("key"))) {
+						errors.incrementAndGet();
+					}
+				}
+				catch (InterruptedException ignore) {
+				}
+				end.countDown();
+			}).start();
+		}
+
+		start.countDown();
+		end.await();
+
+		assertEquals(0, errors.get());
+		assertEquals(1, loadsCount.get());
+	}
+
+	@Test
+	public void testRefreshAfterWrite() {
+		AtomicInteger loadsCount = new AtomicInteger();
+		LoadingCache<String, Integer> cache = new LoadingCache<>(new TimedCache<>(0), key -> loadsCount.incrementAndGet());
+		cache.refreshAfterWrite(50).refreshExecutor(Runnable::run);
+
+		assertEquals(1, cache.get("1").intValue());
+		assertEquals(1, cache.get("1").intValue());
+
+		ThreadUtil.sleep(100);
+
+		// stale value is returned, while the new value is loaded
+		assertEquals(1, cache.get("1").intValue());
+		assertEquals(2, cache.get("1").intValue());
+		assertEquals(2, loadsCount.get());
+	}
+
+	@Test
+	public void testGetAll() {
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LRUCache<>(10));
+		cache.put(2, "two");
+
+		Map<Integer, String> values = cache.getAllBulk(Arrays.asList(1, 2, 3, 4), keys -> {
+			assertEquals(Arrays.asList(1, 3, 4), keys);
+			Map<Integer, String> map = new HashMap<>();
+			map.put(1, "one");
+			map.put(3, "three");
+			return map;
+		});
+
+		assertEquals(3, values.size());
+		assertArrayEquals(new Integer[] {1, 2, 3}, values.keySet().toArray());
+		assertEquals("three", values.get(3));
+		assertEquals("three", cache.get(3));
+		assertEquals(3, cache.size());
+
+		values = cache.getAll(Arrays.asList(3, 5), key -> "v" + key);
+		assertEquals("three", values.get(3));
+		assertEquals("v5", values.get(5));
+	}
+}
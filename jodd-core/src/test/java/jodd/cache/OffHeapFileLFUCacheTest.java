@@ -0,0 +1,181 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.io.FileUtil;
+import jodd.util.SystemUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class OffHeapFileLFUCacheTest {
+
+	private File tempFolder = new File(SystemUtil.tempDir());
+
+	private File file(String fileName, int size) throws IOException {
+		byte[] bytes = new byte[size];
+		for (int i = 0; i < size; i++) {
+			bytes[i] = (byte) i;
+		}
+
+		File file = new File(tempFolder, fileName);
+		file.deleteOnExit();
+
+		FileUtil.writeBytes(file, bytes);
+
+		return file;
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		OffHeapFileLFUCache cache = new OffHeapFileLFUCache(25);
+
+		assertEquals(25, cache.getMaxSize());
+		assertEquals(12, cache.getMaxFileSize());
+
+		File a = file("oha", 10);
+		File b = file("ohb", 9);
+		File c = file("ohc", 7);
+
+		cache.getFileBuffer(a);
+		cache.getFileBuffer(a);
+		cache.getFileBuffer(a);
+		cache.getFileBuffer(b);
+
+		assertEquals(2, cache.getCachedFilesCount());
+		assertEquals(19, cache.getUsedSize());
+
+		cache.getFileBuffer(c);        // b is out, a(2), c(1)
+
+		assertEquals(2, cache.getCachedFilesCount());
+		assertEquals(17, cache.getUsedSize());
+
+		cache.getFileBuffer(c);
+		cache.getFileBuffer(c);
+		cache.getFileBuffer(c);
+
+		cache.getFileBuffer(b);        // a is out
+
+		assertEquals(2, cache.getCachedFilesCount());
+		assertEquals(16, cache.getUsedSize());
+	}
+
+	@Test
+	public void testContent() throws IOException {
+		OffHeapFileLFUCache cache = new OffHeapFileLFUCache(100, 20, 0, true);
+		File a = file("ohd", 10);
+		File big = file("ohe", 30);
+
+		ByteBuffer buffer = cache.getFileBuffer(a);
+		assertTrue(buffer.isReadOnly());
+		assertEquals(10, buffer.remaining());
+		assertEquals(9, buffer.get(9));
+		buffer.get();
+
+		// each call returns new buffer
+		buffer = cache.getFileBuffer(a);
+		assertEquals(0, buffer.position());
+		assertArrayEquals(FileUtil.readBytes(a), cache.getFileBytes(a));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(10, cache.transferTo(a, Channels.newChannel(out)));
+		assertArrayEquals(FileUtil.readBytes(a), out.toByteArray());
+
+		// big file is not cached
+		assertEquals(30, cache.getFileBuffer(big).remaining());
+		assertEquals(1, cache.getCachedFilesCount());
+		assertEquals(10, cache.getUsedSize());
+	}
+
+	@Test
+	public void testInvalidate() throws IOException {
+		OffHeapFileLFUCache cache = new OffHeapFileLFUCache(100);
+		File a = file("ohf", 10);
+
+		assertEquals(10, cache.getFileBuffer(a).remaining());
+		assertEquals(10, cache.getUsedSize());
+
+		file("ohf", 15);
+
+		assertEquals(15, cache.getFileBuffer(a).remaining());
+		assertEquals(1, cache.getCachedFilesCount());
+		assertEquals(15, cache.getUsedSize());
+
+		cache.clear();
+		assertEquals(0, cache.getCachedFilesCount());
+		assertEquals(0, cache.getUsedSize());
+	}
+	@Test
+	public void testConcurrentMiss() throws Exception {
+		OffHeapFileLFUCache cache = new OffHeapFileLFUCache(1000, 100);
+
+		File[] files = new File[] {file("ohcm1", 10), file("ohcm2", 20), file("ohcm3", 30)};
+
+		for (int round = 0; round < 20; round++) {
+			cache.clear();
+
+			CountDownLatch start = new CountDownLatch(1);
+			List<Thread> threads = new ArrayList<>();
+
+			for (int i = 0; i < 8; i++) {
+				Thread thread = new Thread(() -> {
+					try {
+						start.await();
+						for (File file : files) {
+							cache.getFileBuffer(file);
+						}
+					} catch (Exception ex) {
+						throw new RuntimeException(ex);
+					}
+				});
+				thread.start();
+				threads.add(thread);
+			}
+
+			start.countDown();
+
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			assertEquals(3, cache.getCachedFilesCount());
+			assertEquals(60, cache.getUsedSize());
+		}
+
+		cache.clear();
+		assertEquals(0, cache.getUsedSize());
+	}
+
+}
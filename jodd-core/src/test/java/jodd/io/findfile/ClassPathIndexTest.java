@@ -0,0 +1,187 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.io.findfile;
+
+import jodd.io.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ClassPathIndexTest {
+
+	private static final byte[] SIGNATURE = "Ljodd/Marker;".getBytes();
+
+	protected File root;
+	protected File jar;
+	protected File dir;
+
+	@Before
+	public void setUp() throws IOException {
+		root = FileUtil.createTempDirectory("jodd", "index");
+
+		jar = new File(root, "lib.jar");
+		writeJar(jar, "a/One.class", "a/Two.class", "a/res.txt");
+
+		dir = new File(root, "classes");
+		FileUtil.mkdirs(new File(dir, "b"));
+		FileUtil.writeString(new File(dir, "b/Three.class"), "Ljodd/Marker;");
+		FileUtil.writeString(new File(dir, "b/Four.class"), "none");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FileUtil.deleteDir(root);
+	}
+
+	@Test
+	public void testSameEntries() {
+		EntryScanner plain = new EntryScanner();
+		plain.setIncludeResources(true);
+		plain.scan(jar, dir);
+
+		ClassPathIndex classPathIndex = new ClassPathIndex();
+
+		EntryScanner indexed = new EntryScanner();
+		indexed.setIncludeResources(true);
+		indexed.setClassPathIndex(classPathIndex);
+		indexed.scan(jar, dir);
+
+		assertEquals(plain.names, indexed.names);
+		assertEquals(plain.found, indexed.found);
+		assertEquals("[a.One, b.Three]", indexed.found.toString());
+
+		assertSame(classPathIndex.element(jar), classPathIndex.element(jar));
+	}
+
+	@Test
+	public void testSharedIndex() {
+		ClassPathIndex classPathIndex = new ClassPathIndex();
+
+		EntryScanner first = new EntryScanner();
+		first.setClassPathIndex(classPathIndex);
+		first.scan(jar, dir);
+
+		assertEquals(4, first.reads);
+
+		EntryScanner second = new EntryScanner();
+		second.setClassPathIndex(classPathIndex);
+		second.scan(jar, dir);
+
+		assertEquals(first.names, second.names);
+		assertEquals(first.found, second.found);
+		assertEquals(0, second.reads);
+	}
+
+	@Test
+	public void testCacheFile() throws IOException {
+		File cacheFile = new File(root, "index.bin");
+
+		ClassPathIndex classPathIndex = new ClassPathIndex(cacheFile);
+		EntryScanner scanner = new EntryScanner();
+		scanner.setClassPathIndex(classPathIndex);
+		scanner.scan(jar, dir);
+		classPathIndex.save();
+
+		assertTrue(cacheFile.exists());
+
+		// unchanged jar is restored
+
+		classPathIndex = new ClassPathIndex(cacheFile);
+		scanner = new EntryScanner();
+		scanner.setClassPathIndex(classPathIndex);
+		scanner.scan(jar, dir);
+
+		assertEquals("[a.One, b.Three]", scanner.found.toString());
+		assertEquals(2, scanner.reads);		// directory only
+
+		// changed jar is scanned again
+
+		writeJar(jar, "a/One.class", "a/Five.class");
+		jar.setLastModified(jar.lastModified() + 2000);
+
+		classPathIndex = new ClassPathIndex(cacheFile);
+		scanner = new EntryScanner();
+		scanner.setClassPathIndex(classPathIndex);
+		scanner.scan(jar);
+
+		assertEquals("[a.One, a.Five]", scanner.names.toString());
+		assertEquals(2, scanner.reads);
+	}
+
+	@Test
+	public void testInvalidCacheFile() throws IOException {
+		File cacheFile = new File(root, "index.bin");
+		FileUtil.writeString(cacheFile, "invalid");
+
+		ClassPathIndex classPathIndex = new ClassPathIndex(cacheFile);
+		assertEquals(3, classPathIndex.element(jar).getNames().length);
+	}
+
+	// ---------------------------------------------------------------- util
+
+	private static void writeJar(File file, String... names) throws IOException {
+		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+			for (String name : names) {
+				zos.putNextEntry(new ZipEntry(name));
+				zos.write(name.startsWith("a/One") ? SIGNATURE : name.getBytes());
+				zos.closeEntry();
+			}
+		}
+	}
+
+	static class EntryScanner extends ClassScanner {
+		final List<String> names = new ArrayList<>();
+		final List<String> found = new ArrayList<>();
+		int reads;
+
+		@Override
+		protected void onEntry(EntryData entryData) {
+			names.add(entryData.getName());
+			if (entryData.getName().startsWith("/")) {
+				return;
+			}
+			if (isTypeSignatureInUse(entryData, SIGNATURE)) {
+				found.add(entryData.getName());
+			}
+		}
+
+		@Override
+		protected boolean isTypeSignatureInUse(InputStream inputStream, byte[] bytes) {
+			reads++;
+			return super.isTypeSignatureInUse(inputStream, bytes);
+		}
+	}
+}
@@ -25,9 +25,15 @@
 
 package jodd.db;
 
+import jodd.cache.CacheStats;
 import jodd.db.connection.ConnectionProvider;
 import jodd.db.querymap.QueryMap;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Db manager. Holds default Db configuration.
  */
@@ -210,4 +216,99 @@ public class DbManager {
 	public void setQueryMap(QueryMap queryMap) {
 		this.queryMap = queryMap;
 	}
+
+	// ---------------------------------------------------------------- statement cache
+
+	protected int statementCacheSize = 0;
+	protected final CacheStats statementCacheStats = new CacheStats();
+	protected final Map<Connection, DbStatementCache> statementCaches = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns max number of idle prepared statements cached per connection.
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Sets max number of idle prepared statements cached per connection.
+	 * Cached statements are reused by queries with the same SQL and
+	 * statement arguments on the same (e.g. pooled) connection.
+	 * Statement cache is disabled when set to 0 (default) and in debug mode.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Returns statement cache of a connection, creating one if needed.
+	 * Returns <code>null</code> when statement cache is disabled.
+	 * Before a new cache is created, caches of closed connections
+	 * (e.g. retired by the pool) are removed.
+	 */
+	public DbStatementCache lookupStatementCache(Connection connection) {
+		if (statementCacheSize <= 0) {
+			return null;
+		}
+
+		DbStatementCache statementCache = statementCaches.get(connection);
+
+		if (statementCache == null) {
+			removeClosedStatementCaches();
+
+			statementCache = statementCaches.computeIfAbsent(connection, c -> new DbStatementCache(statementCacheSize, statementCacheStats));
+		}
+		return statementCache;
+	}
+
+	/**
+	 * Removes statement cache of a connection and closes its statements.
+	 * Invoked when connection is closed; cached statements
+	 * reference the connection, so the cache must not outlive it.
+	 */
+	public void removeStatementCache(Connection connection) {
+		DbStatementCache statementCache = statementCaches.remove(connection);
+
+		if (statementCache != null) {
+			statementCache.clear();
+		}
+	}
+
+	/**
+	 * Removes statement caches of all closed connections.
+	 */
+	protected void removeClosedStatementCaches() {
+		for (Connection connection : statementCaches.keySet()) {
+			boolean closed;
+			try {
+				closed = connection.isClosed();
+			} catch (SQLException ignore) {
+				closed = true;
+			}
+			if (closed) {
+				removeStatementCache(connection);
+			}
+		}
+	}
+
+	/**
+	 * Returns number of connections with statement cache.
+	 */
+	public int getStatementCacheCount() {
+		return statementCaches.size();
+	}
+
+	/**
+	 * Returns hit/miss statistics of all statement caches.
+	 */
+	public CacheStats getStatementCacheStats() {
+		return statementCacheStats;
+	}
+
+	/**
+	 * Returns hit/miss statistics of the global cache of parsed SQL queries.
+	 */
+	public CacheStats getSqlParserCacheStats() {
+		return DbQueryParser.cache.getStats();
+	}
 }
@@ -28,6 +28,7 @@ package jodd.db;
 import jodd.db.debug.LoggablePreparedStatementFactory;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
+import jodd.util.collection.IntArrayList;
 
 import java.sql.Statement;
 import java.sql.PreparedStatement;
@@ -148,6 +149,8 @@ abstract class DbQueryBase implements AutoCloseable {
 
 	protected Statement statement;
 	protected PreparedStatement preparedStatement;
+	protected DbStatementCache statementCache;
+	protected DbStatementCache.Key statementKey;
 	protected Set<ResultSet> resultSets;
 	protected DbQueryParser query;
 
@@ -226,7 +229,7 @@ abstract class DbQueryBase implements AutoCloseable {
 			connection = session.getConnection();
 		}
 
-		this.query = new DbQueryParser(sqlString);
+		this.query = DbQueryParser.parse(sqlString);
 
 		// statement
 		if ((!forcePreparedStatement) && (!query.prepared)) {
@@ -243,6 +246,20 @@ abstract class DbQueryBase implements AutoCloseable {
 		}
 
 		// prepared statement
+		if (!debug) {
+			statementCache = dbManager.lookupStatementCache(connection);
+
+			if (statementCache != null) {
+				statementKey = new DbStatementCache.Key(query.sql, type, concurrencyType, holdability, generatedColumns);
+				statement = statementCache.take(statementKey);
+
+				if (statement != null) {
+					preparedStatement = (PreparedStatement) statement;
+					return;
+				}
+			}
+		}
+
 		try {
 			if (debug) {
 				if (generatedColumns != null) {
@@ -349,6 +366,14 @@ abstract class DbQueryBase implements AutoCloseable {
 	 */
 	protected SQLException closeQuery() {
 		SQLException sqlException = closeQueryResultSets();
+		if (statementKey != null && preparedStatement != null) {
+			if (resetStatement()) {
+				statementCache.offer(statementKey, preparedStatement);
+				statement = null;
+			}
+			statementKey = null;
+			statementCache = null;
+		}
 		if (statement != null) {
 			try {
 				statement.close();
@@ -366,6 +391,29 @@ abstract class DbQueryBase implements AutoCloseable {
 		return sqlException;
 	}
 
+	/**
+	 * Resets cached prepared statement before it is returned to the
+	 * statement cache. Returns <code>false</code> if statement can not be reused.
+	 */
+	protected boolean resetStatement() {
+		try {
+			preparedStatement.clearParameters();
+			if (batchCount != 0) {
+				preparedStatement.clearBatch();
+				batchCount = 0;
+			}
+			if (maxRows != 0) {
+				preparedStatement.setMaxRows(0);
+			}
+			if (fetchSize != 0) {
+				preparedStatement.setFetchSize(0);
+			}
+			return true;
+		} catch (SQLException sex) {
+			return false;
+		}
+	}
+
 	/**
 	 * Closes the query and all created results sets and detaches itself from the session.
 	 */
@@ -757,6 +805,142 @@ abstract class DbQueryBase implements AutoCloseable {
 		}
 	}
 
+	// ---------------------------------------------------------------- jdbc batch
+
+	protected int batchSize;
+	protected int batchCount;
+	protected IntArrayList batchUpdateCounts;
+	protected List<Long> batchGeneratedKeys;
+
+	/**
+	 * Returns number of rows after which batch is automatically executed.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets number of rows after which batch is automatically executed,
+	 * so the driver does not have to hold all rows. When set to 0,
+	 * batch is executed only by {@link #executeBatch()}.
+	 */
+	public void setBatchSize(int batchSize) {
+		checkNotClosed();
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Adds current set of parameters to the batch of commands. After
+	 * adding, set parameters for the next row. Works only with
+	 * prepared statements.
+	 * @see PreparedStatement#addBatch()
+	 */
+	public void addBatch() {
+		init();
+		if (preparedStatement == null) {
+			throw new DbSqlException(this, "Batch requires prepared statement");
+		}
+		try {
+			preparedStatement.addBatch();
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Unable to add batch", sex);
+		}
+		batchCount++;
+
+		if (batchSize > 0 && batchCount >= batchSize) {
+			flushBatch();
+		}
+	}
+
+	/**
+	 * Executes remaining batch commands and returns update counts
+	 * of all rows added since the previous invocation. Query is not
+	 * closed afterwards unless {@link #autoClose() auto close mode} is set.
+	 * Generated keys, if {@link #setGeneratedKey() requested}, are
+	 * available from {@link #getGeneratedBatchKeys()}.
+	 * @see Statement#executeBatch()
+	 */
+	public int[] executeBatch() {
+		init();
+
+		flushBatch();
+
+		int[] result = batchUpdateCounts == null ? new int[0] : batchUpdateCounts.toArray();
+
+		batchUpdateCounts = null;
+
+		if (autoClose) {
+			close();
+		}
+		return result;
+	}
+
+	/**
+	 * Executes added batch commands, collecting update counts and generated keys.
+	 */
+	protected void flushBatch() {
+		if (batchCount == 0) {
+			return;
+		}
+
+		start = System.currentTimeMillis();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Executing batch of " + batchCount + ": " + getQueryString());
+		}
+
+		int[] counts;
+		try {
+			counts = preparedStatement.executeBatch();
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Batch execution failed", sex);
+		} finally {
+			batchCount = 0;
+		}
+
+		if (batchUpdateCounts == null) {
+			batchUpdateCounts = new IntArrayList(counts.length);
+		}
+		batchUpdateCounts.addAll(counts);
+
+		if (generatedColumns != null) {
+			if (batchGeneratedKeys == null) {
+				batchGeneratedKeys = new ArrayList<>(counts.length);
+			}
+			ResultSet rs = null;
+			try {
+				rs = statement.getGeneratedKeys();
+				while (rs.next()) {
+					batchGeneratedKeys.add(Long.valueOf(rs.getLong(1)));
+				}
+			} catch (SQLException sex) {
+				throw new DbSqlException(this, "No generated keys", sex);
+			} finally {
+				DbUtil.close(rs);
+			}
+		}
+
+		elapsed = System.currentTimeMillis() - start;
+		if (log.isDebugEnabled()) {
+			log.debug("execution time: " + elapsed + "ms");
+		}
+	}
+
+	/**
+	 * Returns keys generated by all executed batch commands, in the order of rows.
+	 * Returns an empty array if no key has been generated.
+	 */
+	public long[] getGeneratedBatchKeys() {
+		if (batchGeneratedKeys == null) {
+			return new long[0];
+		}
+		long[] keys = new long[batchGeneratedKeys.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = batchGeneratedKeys.get(i).longValue();
+		}
+		return keys;
+	}
+
 	// ---------------------------------------------------------------- result set mapper
 
 	/**
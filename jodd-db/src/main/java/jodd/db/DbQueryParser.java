@@ -25,6 +25,7 @@
 
 package jodd.db;
 
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.CharUtil;
 import jodd.util.StringUtil;
 import jodd.util.collection.IntArrayList;
@@ -43,6 +44,29 @@ class DbQueryParser {
 	boolean prepared;
 	String sql;
 
+	// ---------------------------------------------------------------- cache
+
+	/**
+	 * Max number of parsed queries kept in the global cache.
+	 */
+	static final int CACHE_SIZE = 1000;
+
+	static final ConcurrentLRUCache<String, DbQueryParser> cache = new ConcurrentLRUCache<>(CACHE_SIZE);
+
+	/**
+	 * Returns parsed SQL query from the global cache. Parsed queries
+	 * are not modified after parsing, so they are shared between queries.
+	 */
+	static DbQueryParser parse(String sql) {
+		DbQueryParser dbQueryParser = cache.get(sql);
+
+		if (dbQueryParser == null) {
+			dbQueryParser = new DbQueryParser(sql);
+			cache.put(sql, dbQueryParser);
+		}
+		return dbQueryParser;
+	}
+
 	// ---------------------------------------------------------------- ctors
 
 	DbQueryParser() {
@@ -108,6 +108,7 @@ public class DbSession implements AutoCloseable {
 				throw new DbSqlException("TX was not closed before closing the session");
 			}
 			connectionProvider.closeConnection(connection);
+			removeClosedStatementCache(connection);
 			connection = null;
 		}
 		queries = null;
@@ -116,6 +117,20 @@ public class DbSession implements AutoCloseable {
 		}
 	}
 
+	/**
+	 * Removes statement cache of a connection that was closed
+	 * and not just returned to the pool.
+	 */
+	protected void removeClosedStatementCache(Connection connection) {
+		try {
+			if (!connection.isClosed()) {
+				return;
+			}
+		} catch (SQLException ignore) {
+		}
+		dbManager.removeStatementCache(connection);
+	}
+
 	@Override
 	public void close() throws Exception {
 		closeSession();
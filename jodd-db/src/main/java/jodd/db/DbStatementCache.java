@@ -0,0 +1,179 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db;
+
+import jodd.cache.CacheStats;
+import jodd.cache.RemovalCause;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of idle prepared statements of a single connection. Statements are
+ * taken from the cache when query is initialized and returned back when
+ * query is closed, so the same statement is never used by two queries.
+ * Least recently used statements are closed when cache is full.
+ * Statements are keyed by the SQL and all statement creation arguments.
+ */
+public class DbStatementCache {
+
+	protected final int cacheSize;
+	protected final CacheStats stats;
+	protected final LinkedHashMap<Key, PreparedStatement> statements;
+
+	public DbStatementCache(int cacheSize, CacheStats stats) {
+		this.cacheSize = cacheSize;
+		this.stats = stats;
+		this.statements = new LinkedHashMap<>(cacheSize, 0.75f, true);
+	}
+
+	/**
+	 * Statement key.
+	 */
+	public static class Key {
+		protected final String sql;
+		protected final int type;
+		protected final int concurrencyType;
+		protected final int holdability;
+		protected final String[] generatedColumns;
+		protected final int hashCode;
+
+		public Key(String sql, int type, int concurrencyType, int holdability, String[] generatedColumns) {
+			this.sql = sql;
+			this.type = type;
+			this.concurrencyType = concurrencyType;
+			this.holdability = holdability;
+			this.generatedColumns = generatedColumns;
+
+			int result = sql.hashCode();
+			result = 31 * result + type;
+			result = 31 * result + concurrencyType;
+			result = 31 * result + holdability;
+			result = 31 * result + (generatedColumns == null ? -1 : Arrays.hashCode(generatedColumns));
+			this.hashCode = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+
+			return hashCode == key.hashCode &&
+				type == key.type &&
+				concurrencyType == key.concurrencyType &&
+				holdability == key.holdability &&
+				sql.equals(key.sql) &&
+				(generatedColumns == null ? key.generatedColumns == null : Arrays.equals(generatedColumns, key.generatedColumns));
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * Takes statement from the cache. Returns <code>null</code>
+	 * if there is no idle statement for given key.
+	 */
+	public synchronized PreparedStatement take(Key key) {
+		PreparedStatement preparedStatement = statements.remove(key);
+
+		if (preparedStatement != null) {
+			try {
+				if (!preparedStatement.isClosed()) {
+					stats.recordHit();
+					return preparedStatement;
+				}
+			} catch (SQLException ignore) {
+			}
+			stats.recordRemoval(RemovalCause.EXPIRED);
+
+			// connection is probably closed, drop the other statements too
+			clear();
+		}
+
+		stats.recordMiss();
+		return null;
+	}
+
+	/**
+	 * Returns statement to the cache. Statement is closed if
+	 * another idle statement with the same key exists. Least recently
+	 * used statement is closed if cache is full.
+	 */
+	public void offer(Key key, PreparedStatement preparedStatement) {
+		PreparedStatement toClose = null;
+		PreparedStatement evicted = null;
+
+		synchronized (this) {
+			if (statements.containsKey(key)) {
+				toClose = preparedStatement;
+			}
+			else {
+				statements.put(key, preparedStatement);
+
+				if (statements.size() > cacheSize) {
+					Iterator<Map.Entry<Key, PreparedStatement>> iterator = statements.entrySet().iterator();
+					evicted = iterator.next().getValue();
+					iterator.remove();
+					stats.recordRemoval(RemovalCause.SIZE);
+				}
+			}
+		}
+
+		DbUtil.close(toClose);
+		DbUtil.close(evicted);
+	}
+
+	/**
+	 * Returns number of idle statements.
+	 */
+	public synchronized int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Closes all idle statements.
+	 */
+	public synchronized void clear() {
+		for (PreparedStatement preparedStatement : statements.values()) {
+			DbUtil.close(preparedStatement);
+			stats.recordRemoval(RemovalCause.EXPLICIT);
+		}
+		statements.clear();
+	}
+
+}
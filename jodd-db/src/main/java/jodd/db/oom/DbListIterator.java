@@ -66,6 +66,7 @@ class DbListIterator<T> implements Iterator<T> {
 	protected T newElement;
 	protected int count;
 	protected boolean last;
+	protected boolean closed;
 	protected Boolean hasNext;
 
 	public void remove() {
@@ -110,18 +111,34 @@ class DbListIterator<T> implements Iterator<T> {
 	}
 
 
+	/**
+	 * Closes the result set or the whole query, depending on the
+	 * <code>closeOnEnd</code> flag. Iterator is closed automatically
+	 * when the last element is reached, so this method is needed only
+	 * when iteration is stopped earlier. Can be invoked more than once.
+	 */
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		last = true;
+		hasNext = Boolean.FALSE;
+
+		if (closeOnEnd) {
+			query.close();
+		} else {
+			query.closeResultSet(resultSetMapper.getResultSet());
+		}
+	}
+
 	/**
 	 * Moves to next element.
 	 */
 	private boolean moveToNext() {
 		if (last) {
 			// last has been set to true, so no more rows to iterate - close everything
-
-			if (closeOnEnd) {
-				query.close();
-			} else {
-				query.closeResultSet(resultSetMapper.getResultSet());
-			}
+			close();
 
 			return false;
 		}
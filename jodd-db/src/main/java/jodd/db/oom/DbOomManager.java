@@ -25,6 +25,11 @@
 
 package jodd.db.oom;
 
+import jodd.cache.CacheStats;
+import jodd.cache.ConcurrentLRUCache;
+import jodd.db.oom.mapper.CompiledResultSetMapper;
+import jodd.db.oom.mapper.CompiledResultSetMapper.MappingPlan;
+import jodd.db.oom.mapper.CompiledResultSetMapper.PlanKey;
 import jodd.db.oom.naming.ColumnNamingStrategy;
 import jodd.db.oom.naming.TableNamingStrategy;
 import jodd.util.StringUtil;
@@ -33,6 +38,7 @@ import jodd.log.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * DbOom manager. Contains various global settings, DB-OOM (database - object-oriented)
@@ -188,6 +194,7 @@ public class DbOomManager {
 	 */
 	public <E> DbEntityDescriptor<E> registerType(Class<E> type) {
 		DbEntityDescriptor<E> ded = createDbEntityDescriptor(type);
+		mappingPlans.clear();
 		DbEntityDescriptor<E> existing = descriptorsMap.put(type, ded);
 
 		if (log.isDebugEnabled()) {
@@ -245,6 +252,7 @@ public class DbOomManager {
 		}
 		entityNamesMap.remove(ded.getEntityName());
 		tableNamesMap.remove(ded.getTableName());
+		mappingPlans.clear();
 		return ded;
 	}
 
@@ -281,14 +289,15 @@ public class DbOomManager {
 	}
 
 	/**
-	 * Resets the manager and clears descriptors maps.
-	 * The configuration is not changed, just table-related
+	 * Resets the manager and clears descriptors maps and
+	 * cached mapping plans. The configuration is not changed, just table-related
 	 * data is cleared. To reset all, call {@link #resetAll()}.
 	 */
 	public void reset() {
 		descriptorsMap.clear();
 		entityNamesMap.clear();
 		tableNamesMap.clear();
+		mappingPlans.clear();
 	}
 
 
@@ -362,6 +371,85 @@ public class DbOomManager {
 		this.cacheEntitiesInResultSet = cacheEntitiesInResultSet;
 	}
 
+	protected boolean compiledResultSetMapper;
+
+	public boolean isCompiledResultSetMapper() {
+		return compiledResultSetMapper;
+	}
+
+	/**
+	 * Enables {@link CompiledResultSetMapper} that resolves the mapping
+	 * of columns to entity properties only once per result set layout.
+	 */
+	public void setCompiledResultSetMapper(boolean compiledResultSetMapper) {
+		this.compiledResultSetMapper = compiledResultSetMapper;
+	}
+
+	protected static final int MAPPING_PLANS_CACHE_SIZE = 1000;
+
+	protected final ConcurrentLRUCache<PlanKey, MappingPlan> mappingPlans = new ConcurrentLRUCache<>(MAPPING_PLANS_CACHE_SIZE);
+
+	/**
+	 * Lookups for cached mapping plan of {@link CompiledResultSetMapper}.
+	 * If plan does not exist, it is compiled and cached.
+	 * Cached plans are dropped on each entity registration, removal or {@link #reset()}.
+	 */
+	public MappingPlan lookupMappingPlan(PlanKey key, Function<PlanKey, MappingPlan> compiler) {
+		MappingPlan mappingPlan = mappingPlans.get(key);
+
+		if (mappingPlan == null) {
+			mappingPlan = compiler.apply(key);
+			mappingPlans.put(key, mappingPlan);
+		}
+		return mappingPlan;
+	}
+
+	/**
+	 * Returns hit/miss statistics of mapping plans cache.
+	 */
+	public CacheStats getMappingPlansCacheStats() {
+		return mappingPlans.getStats();
+	}
+
+	/**
+	 * Returns total number of cached mapping plans.
+	 */
+	public int getTotalMappingPlans() {
+		return mappingPlans.size();
+	}
+
+	// ---------------------------------------------------------------- stream
+
+	protected int streamFetchSize = 1000;
+	protected int streamEntitiesCacheSize = 1000;
+
+	public int getStreamFetchSize() {
+		return streamFetchSize;
+	}
+
+	/**
+	 * Defines default fetch size of streaming queries, used when
+	 * query fetch size is not set. Set to <code>0</code> to use
+	 * the driver defaults.
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	public int getStreamEntitiesCacheSize() {
+		return streamEntitiesCacheSize;
+	}
+
+	/**
+	 * Defines the max number of entities cached in result set while
+	 * streaming, so the memory stays constant regardless of the number
+	 * of rows. Used only when entities {@link #setCacheEntitiesInResultSet(boolean) caching}
+	 * is enabled. Set to <code>0</code> for unbounded cache.
+	 */
+	public void setStreamEntitiesCacheSize(int streamEntitiesCacheSize) {
+		this.streamEntitiesCacheSize = streamEntitiesCacheSize;
+	}
+
 	// ---------------------------------------------------------------- db list
 
 	protected boolean entityAwareMode;
@@ -28,6 +28,7 @@ package jodd.db.oom;
 import jodd.db.DbQuery;
 import jodd.db.DbSession;
 import jodd.db.DbUtil;
+import jodd.db.oom.mapper.CompiledResultSetMapper;
 import jodd.db.oom.mapper.DefaultResultSetMapper;
 import jodd.db.oom.mapper.ResultSetMapper;
 import jodd.db.oom.sqlgen.ParameterValue;
@@ -46,6 +47,11 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.Map;
 
 import static jodd.db.oom.DbOomUtil.initialCollectionSize;
@@ -146,6 +152,18 @@ public class DbOomQuery extends DbQuery {
 			}
 		}
 		// insert parameters
+		setQueryParameters(sqlgen);
+	}
+
+	/**
+	 * Sets query parameters of given SQL generator. Generator must
+	 * be {@link DbSqlGenerator#generateQuery() generated} and its query
+	 * has to be the same as this query. Used for {@link #addBatch() batching}
+	 * rows of the same query generated for different entities.
+	 */
+	public void setQueryParameters(DbSqlGenerator sqlgen) {
+		init();
+
 		Map<String, ParameterValue> parameters = sqlgen.getQueryParameters();
 		if (parameters == null) {
 			return;
@@ -239,6 +257,18 @@ public class DbOomQuery extends DbQuery {
 		return this;
 	}
 
+	protected int entitiesCacheSize;
+
+	/**
+	 * Limits the number of entities cached in {@link ResultSetMapper}, so only
+	 * the most recently used entities are kept. By default (<code>0</code>)
+	 * cache is not limited.
+	 */
+	public DbOomQuery entitiesCacheSize(int entitiesCacheSize) {
+		this.entitiesCacheSize = entitiesCacheSize;
+		return this;
+	}
+
 	/**
 	 * Executes the query and returns {@link #createResultSetMapper(java.sql.ResultSet) builded ResultSet mapper}.
 	 */
@@ -254,7 +284,10 @@ public class DbOomQuery extends DbQuery {
 	protected ResultSetMapper createResultSetMapper(ResultSet resultSet) {
 		Map<String, ColumnData> columnAliases = sqlgen != null ? sqlgen.getColumnData() : null;
 
-		return new DefaultResultSetMapper(resultSet, columnAliases, cacheEntities, this);
+		if (dbOomManager.isCompiledResultSetMapper()) {
+			return new CompiledResultSetMapper(resultSet, columnAliases, cacheEntities, entitiesCacheSize, this);
+		}
+		return new DefaultResultSetMapper(resultSet, columnAliases, cacheEntities, entitiesCacheSize, this);
 	}
 
 	// ---------------------------------------------------------------- db list
@@ -285,6 +318,65 @@ public class DbOomQuery extends DbQuery {
 		return new DbListIterator<>(this, types, close);
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	public <T> Stream<T> stream(Class... types) {
+		return stream(types, autoClose);
+	}
+	public <T> Stream<T> stream() {
+		return stream(null, autoClose);
+	}
+	/**
+	 * Returns lazy stream of mapped rows, with constant memory consumption.
+	 * Rows are fetched in chunks of {@link DbOomManager#getStreamFetchSize() stream fetch size}
+	 * (unless query fetch size is set) and entity cache is limited to
+	 * {@link DbOomManager#getStreamEntitiesCacheSize() stream entities cache size}.
+	 * Result set (or the whole query, if <code>close</code> is set) is closed
+	 * when stream is consumed or when stream is closed, so use it
+	 * in try-with-resources block.
+	 */
+	protected <T> Stream<T> stream(Class[] types, boolean close) {
+		prepareStreaming();
+
+		DbListIterator<T> iterator = new DbListIterator<>(this, types, close);
+
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+		return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+	}
+
+	/**
+	 * Iterates result set and passes each mapped row to the consumer.
+	 * Same as {@link #stream(Class[])}, but result set (or query) is
+	 * always closed at the end, even when consumer throws an exception.
+	 */
+	public <T> void forEach(Consumer<T> consumer, Class... types) {
+		prepareStreaming();
+
+		DbListIterator<T> iterator = new DbListIterator<>(this, types, autoClose);
+
+		try {
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+			}
+		}
+		finally {
+			iterator.close();
+		}
+	}
+
+	/**
+	 * Applies streaming defaults, unless they are explicitly set on this query.
+	 */
+	protected void prepareStreaming() {
+		if (fetchSize == 0 && dbOomManager.getStreamFetchSize() != 0) {
+			setFetchSize(dbOomManager.getStreamFetchSize());
+		}
+		if (entitiesCacheSize == 0) {
+			entitiesCacheSize = dbOomManager.getStreamEntitiesCacheSize();
+		}
+	}
+
 	// ---------------------------------------------------------------- list
 
 	public <T> List<T> list(Class... types) {
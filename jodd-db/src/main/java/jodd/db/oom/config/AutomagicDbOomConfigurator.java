@@ -34,7 +34,6 @@ import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 
 import java.io.File;
-import java.io.InputStream;
 
 /**
  * Auto-magically scans classpath for domain objects annotated with DbOom annotations.
@@ -102,8 +101,7 @@ public class AutomagicDbOomConfigurator extends ClassFinder {
 	@Override
 	protected void onEntry(EntryData entryData) {
 		String entryName = entryData.getName();
-		InputStream inputStream = entryData.openInputStream();
-		if (!isTypeSignatureInUse(inputStream, dbTableAnnotationBytes)) {
+		if (!isTypeSignatureInUse(entryData, dbTableAnnotationBytes)) {
 			return;
 		}
 
@@ -30,10 +30,14 @@ import jodd.db.DbQuery;
 import jodd.db.oom.DbEntityDescriptor;
 import jodd.db.oom.DbOomException;
 import jodd.db.oom.DbOomManager;
+import jodd.db.oom.DbOomQuery;
+import jodd.db.oom.DbSqlGenerator;
 import jodd.db.oom.sqlgen.DbEntitySql;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import static jodd.db.oom.DbOomQuery.query;
 import static jodd.db.oom.sqlgen.DbEntitySql.findByColumn;
@@ -63,6 +67,78 @@ public class GenericDao {
 		this.keysGeneratedByDatabase = keysGeneratedByDatabase;
 	}
 
+	protected int batchSize = 100;
+
+	/**
+	 * Returns number of rows sent to the database in one JDBC batch.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Specifies number of rows sent to the database in one JDBC batch
+	 * by bulk operations. When less then 2, bulk operations execute
+	 * one statement per entity.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	// ---------------------------------------------------------------- batch
+
+	/**
+	 * Executes queries generated for each entity in JDBC batches. Consecutive
+	 * entities that generate the same SQL are sent in the same batch.
+	 * Returns update counts, in the order of entities.
+	 */
+	protected int[] executeBatch(Collection entities, Function<Object, DbSqlGenerator> sqlgenFunction) {
+		int[] result = new int[entities.size()];
+		int count = 0;
+
+		DbOomQuery q = null;
+		String batchSql = null;
+
+		try {
+			for (Object entity : entities) {
+				DbSqlGenerator sqlgen = sqlgenFunction.apply(entity);
+				String sql = sqlgen.generateQuery();
+
+				if (q != null && !sql.equals(batchSql)) {
+					count = appendCounts(result, count, q.executeBatch());
+					q.close();
+					q = null;
+				}
+
+				if (q == null) {
+					q = query(sql);
+					q.forcePreparedStatement();
+					q.setBatchSize(batchSize);
+					batchSql = sql;
+				}
+
+				q.setQueryParameters(sqlgen);
+				q.addBatch();
+			}
+
+			if (q != null) {
+				count = appendCounts(result, count, q.executeBatch());
+			}
+		}
+		finally {
+			if (q != null) {
+				q.close();
+			}
+		}
+
+		return result;
+	}
+
+	private static int appendCounts(int[] result, int count, int[] counts) {
+		System.arraycopy(counts, 0, result, count, counts.length);
+		return count + counts.length;
+	}
+
 	// ---------------------------------------------------------------- store
 
 	/**
@@ -140,13 +216,17 @@ public class GenericDao {
 	}
 
 	/**
-	 * Inserts bunch of objects into the database.
+	 * Inserts bunch of objects into the database, using JDBC batches.
 	 * @see #save(Object)
 	 */
 	public void saveAll(Collection entities) {
-		for (Object entity: entities) {
-			save(entity);
+		if (batchSize < 2) {
+			for (Object entity : entities) {
+				save(entity);
+			}
+			return;
 		}
+		executeBatch(entities, DbEntitySql::insert);
 	}
 
 	// ---------------------------------------------------------------- update
@@ -159,13 +239,17 @@ public class GenericDao {
 	}
 
 	/**
-	 * Updates all entities.
+	 * Updates all entities, using JDBC batches.
 	 * @see #update(Object)
 	 */
 	public void updateAll(Collection entities) {
-		for (Object entity : entities) {
-			update(entity);
+		if (batchSize < 2) {
+			for (Object entity : entities) {
+				update(entity);
+			}
+			return;
 		}
+		executeBatch(entities, DbEntitySql::updateAll);
 	}
 
 	/**
@@ -253,11 +337,35 @@ public class GenericDao {
 	}
 
 	/**
-	 * Deletes all objects by their id.
+	 * Deletes all objects by their id, using JDBC batches.
+	 * Resets ID values of deleted entities.
 	 */
 	public void deleteAllById(Collection objects) {
+		if (batchSize < 2) {
+			for (Object entity : objects) {
+				deleteById(entity);
+			}
+			return;
+		}
+
+		List<Object> entities = new ArrayList<>(objects.size());
 		for (Object entity : objects) {
-			deleteById(entity);
+			if (entity != null) {
+				entities.add(entity);
+			}
+		}
+
+		int[] result = executeBatch(entities, DbEntitySql::deleteById);
+
+		DbOomManager dboom = DbOomManager.getInstance();
+
+		for (int i = 0; i < result.length; i++) {
+			if (result[i] != 0) {
+				Object entity = entities.get(i);
+				DbEntityDescriptor ded = dboom.lookupType(entity.getClass());
+
+				setEntityId(ded, entity, 0);
+			}
 		}
 	}
 
@@ -0,0 +1,473 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.db.oom.mapper;
+
+import jodd.bean.BeanUtil;
+import jodd.db.oom.ColumnData;
+import jodd.db.oom.DbEntityColumnDescriptor;
+import jodd.db.oom.DbEntityDescriptor;
+import jodd.db.oom.DbOomException;
+import jodd.db.oom.DbOomQuery;
+import jodd.db.type.DoubleSqlType;
+import jodd.db.type.IntegerSqlType;
+import jodd.db.type.LongSqlType;
+import jodd.db.type.SqlType;
+import jodd.db.type.SqlTypeManager;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.MethodDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverterManager;
+import jodd.util.ReflectUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link DefaultResultSetMapper} that resolves column-to-property mapping only once
+ * per column layout and entity types. Resolved {@link MappingPlan mapping plan}
+ * reads columns by index, using primitive getters where possible, and sets
+ * properties using method handles. Plans are cached in
+ * {@link jodd.db.oom.DbOomManager}, so they are shared between queries
+ * with the same result set layout.
+ */
+public class CompiledResultSetMapper extends DefaultResultSetMapper {
+
+	public CompiledResultSetMapper(ResultSet resultSet, Map<String, ColumnData> columnAliases, boolean cacheEntities, int entitiesCacheSize, DbOomQuery dbOomQuery) {
+		super(resultSet, columnAliases, cacheEntities, entitiesCacheSize, dbOomQuery);
+	}
+
+	protected Class[] planTypes;
+	protected MappingPlan plan;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] parseObjects(Class... types) {
+		if (plan == null || !Arrays.equals(planTypes, types)) {
+			PlanKey key = new PlanKey(columnNames, tableNames, columnDbSqlTypes, types);
+
+			plan = dbOomManager.lookupMappingPlan(key, k -> compile(types));
+			planTypes = types.clone();
+		}
+
+		Object[] result = plan.map(this);
+
+		if (cacheEntities) {
+			resolveDbEntityDescriptors(types);
+			cacheResultSetEntities(result);
+		}
+
+		return result;
+	}
+
+	// ---------------------------------------------------------------- compile
+
+	/**
+	 * Compiles mapping plan for given types. Follows the same
+	 * matching rules as {@link DefaultResultSetMapper#parseObjects(Class[])},
+	 * without reading any value.
+	 */
+	protected MappingPlan compile(Class[] types) {
+		int totalTypes = types.length;
+		DbEntityDescriptor[] dbEntityDescriptors = resolveDbEntityDescriptors(types);
+		String[] typesTableNames = resolveTypesTableNames(types);
+		String[][] mappedNames = resolveMappedTypesTableNames(types);
+
+		Object[] prototypes = new Object[totalTypes];
+		List<ColumnMapping> mappings = new ArrayList<>(totalColumns);
+		Set<String> usedColumns = new HashSet<>();
+
+		int currentResult = 0;
+		int colNdx = 0;
+		while (colNdx < totalColumns) {
+
+			if (currentResult >= totalTypes) {
+				break;
+			}
+
+			Class currentType = types[currentResult];
+			if (currentType == null) {
+				colNdx++;
+				currentResult++;
+				usedColumns.clear();
+				continue;
+			}
+
+			String columnName = columnNames[colNdx];
+			int columnDbSqlType = columnDbSqlTypes[colNdx];
+			String tableName = tableNames[colNdx];
+			String resultTableName = typesTableNames[currentResult];
+
+			if (resultTableName == null) {
+				// match: simple type
+				SqlType sqlType = SqlTypeManager.lookup(currentType);
+				mappings.add(new ColumnMapping(currentResult, colNdx, null, currentType, sqlType, columnDbSqlType, null, null));
+				colNdx++;
+				currentResult++;
+				usedColumns.clear();
+				continue;
+			}
+
+			boolean tableMatched = false;
+
+			if (tableName == null) {
+				tableMatched = true;
+			} else if (resultTableName.equals(tableName)) {
+				tableMatched = true;
+			} else {
+				String[] mapped = mappedNames[currentResult];
+				if (mapped != null) {
+					for (String m : mapped) {
+						if (m.equals(tableName)) {
+							tableMatched = true;
+							break;
+						}
+					}
+				}
+			}
+
+			if (tableMatched && !usedColumns.contains(columnName)) {
+				DbEntityDescriptor ded = dbEntityDescriptors[currentResult];
+
+				DbEntityColumnDescriptor dec = ded.findByColumnName(columnName);
+				String propertyName = (dec == null ? null : dec.getPropertyName());
+
+				if (propertyName != null) {
+					if (prototypes[currentResult] == null) {
+						prototypes[currentResult] = dbOomManager.createEntityInstance(currentType);
+					}
+
+					Class type = BeanUtil.declared.getPropertyType(prototypes[currentResult], propertyName);
+					if (type != null) {
+						// match: entity
+						dec.updateDbSqlType(columnDbSqlType);
+
+						Class<? extends SqlType> sqlTypeClass = dec.getSqlTypeClass();
+						SqlType sqlType = sqlTypeClass != null ?
+								SqlTypeManager.lookupSqlType(sqlTypeClass) : SqlTypeManager.lookup(type);
+
+						mappings.add(new ColumnMapping(
+								currentResult, colNdx, currentType, type, sqlType, columnDbSqlType,
+								propertyName, resolveSetter(currentType, propertyName, type)));
+
+						colNdx++;
+						usedColumns.add(columnName);
+						continue;
+					}
+				}
+			}
+
+			// go to next type, i.e. result
+			currentResult++;
+			usedColumns.clear();
+		}
+
+		return new MappingPlan(totalTypes, mappings.toArray(new ColumnMapping[mappings.size()]));
+	}
+
+	/**
+	 * Resolves method handle that sets the property. Returns <code>null</code>
+	 * when property can not be set directly, so it has to be set by {@link BeanUtil}.
+	 */
+	protected MethodHandle resolveSetter(Class entityType, String propertyName, Class propertyType) {
+		PropertyDescriptor pd = ClassIntrospector.lookup(entityType).getPropertyDescriptor(propertyName, true);
+		if (pd == null) {
+			return null;
+		}
+
+		Setter setter = pd.getSetter(true);
+		if (setter == null || setter.getSetterRawType() != propertyType) {
+			return null;
+		}
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle methodHandle;
+
+		try {
+			if (setter instanceof MethodDescriptor) {
+				Method method = ((MethodDescriptor) setter).getMethod();
+				ReflectUtil.forceAccess(method);
+				methodHandle = lookup.unreflect(method);
+			}
+			else if (setter instanceof FieldDescriptor) {
+				Field field = ((FieldDescriptor) setter).getField();
+				ReflectUtil.forceAccess(field);
+				methodHandle = lookup.unreflectSetter(field);
+			}
+			else {
+				return null;
+			}
+		} catch (IllegalAccessException | SecurityException ignore) {
+			return null;
+		}
+
+		return methodHandle.asType(MethodType.methodType(void.class, Object.class, propertyType.isPrimitive() ? propertyType : Object.class));
+	}
+
+	// ---------------------------------------------------------------- plan
+
+	/**
+	 * Mapping plan: list of column mappings, in the order of columns.
+	 */
+	public static class MappingPlan {
+		protected final int totalTypes;
+		protected final ColumnMapping[] mappings;
+
+		public MappingPlan(int totalTypes, ColumnMapping[] mappings) {
+			this.totalTypes = totalTypes;
+			this.mappings = mappings;
+		}
+
+		/**
+		 * Maps current row of mapper result set.
+		 */
+		protected Object[] map(CompiledResultSetMapper rsm) {
+			ResultSet resultSet = rsm.resultSet;
+			Object[] result = new Object[totalTypes];
+			boolean[] resultUsage = new boolean[totalTypes];
+
+			for (ColumnMapping mapping : mappings) {
+				int resultNdx = mapping.resultNdx;
+
+				try {
+					if (mapping.entityType == null) {
+						result[resultNdx] = mapping.readValue(resultSet);
+						resultUsage[resultNdx] = true;
+						continue;
+					}
+
+					Object entity = result[resultNdx];
+					if (entity == null) {
+						entity = rsm.dbOomManager.createEntityInstance(mapping.entityType);
+						result[resultNdx] = entity;
+					}
+
+					if (mapping.inject(resultSet, entity)) {
+						resultUsage[resultNdx] = true;
+					}
+				}
+				catch (SQLException sex) {
+					throw new DbOomException(rsm.dbOomQuery, "Invalid value for column #" + (mapping.colNdx + 1), sex);
+				}
+			}
+
+			for (int i = 0; i < totalTypes; i++) {
+				if (!resultUsage[i]) {
+					result[i] = null;
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Mapping of a single column to simple type result or to the entity property.
+	 */
+	protected static class ColumnMapping {
+		protected static final int KIND_VALUE = 0;
+		protected static final int KIND_INT = 1;
+		protected static final int KIND_LONG = 2;
+		protected static final int KIND_DOUBLE = 3;
+
+		protected final int resultNdx;
+		protected final int colNdx;
+		protected final int index;
+		protected final Class entityType;
+		protected final Class type;
+		protected final SqlType sqlType;
+		protected final int dbSqlType;
+		protected final String propertyName;
+		protected final MethodHandle setter;
+		protected final int kind;
+
+		protected ColumnMapping(
+				int resultNdx, int colNdx, Class entityType, Class type, SqlType sqlType, int dbSqlType,
+				String propertyName, MethodHandle setter) {
+
+			this.resultNdx = resultNdx;
+			this.colNdx = colNdx;
+			this.index = colNdx + 1;
+			this.entityType = entityType;
+			this.type = type;
+			this.sqlType = sqlType;
+			this.dbSqlType = dbSqlType;
+			this.propertyName = propertyName;
+			this.setter = setter;
+			this.kind = resolveKind();
+		}
+
+		/**
+		 * Primitive properties with default sql types are read
+		 * using primitive getters, without boxing and conversion.
+		 */
+		private int resolveKind() {
+			if (setter == null || sqlType == null) {
+				return KIND_VALUE;
+			}
+			Class sqlTypeClass = sqlType.getClass();
+
+			if (type == int.class && sqlTypeClass == IntegerSqlType.class) {
+				return KIND_INT;
+			}
+			if (type == long.class && sqlTypeClass == LongSqlType.class) {
+				return KIND_LONG;
+			}
+			if (type == double.class && sqlTypeClass == DoubleSqlType.class) {
+				return KIND_DOUBLE;
+			}
+			return KIND_VALUE;
+		}
+
+		/**
+		 * Reads column value converted to the target type.
+		 */
+		@SuppressWarnings("unchecked")
+		protected Object readValue(ResultSet resultSet) throws SQLException {
+			if (sqlType != null) {
+				return sqlType.readValue(resultSet, index, type, dbSqlType);
+			}
+			return TypeConverterManager.convertType(resultSet.getObject(index), type);
+		}
+
+		/**
+		 * Reads column value and injects it into the entity.
+		 * Returns <code>false</code> if value is <code>null</code>.
+		 */
+		protected boolean inject(ResultSet resultSet, Object entity) throws SQLException {
+			try {
+				switch (kind) {
+					case KIND_INT: {
+						int value = resultSet.getInt(index);
+						if (resultSet.wasNull()) {
+							return false;
+						}
+						setter.invokeExact(entity, value);
+						return true;
+					}
+					case KIND_LONG: {
+						long value = resultSet.getLong(index);
+						if (resultSet.wasNull()) {
+							return false;
+						}
+						setter.invokeExact(entity, value);
+						return true;
+					}
+					case KIND_DOUBLE: {
+						double value = resultSet.getDouble(index);
+						if (resultSet.wasNull()) {
+							return false;
+						}
+						setter.invokeExact(entity, value);
+						return true;
+					}
+				}
+
+				Object value = readValue(resultSet);
+				if (value == null) {
+					return false;
+				}
+
+				if (setter == null) {
+					BeanUtil.declared.setProperty(entity, propertyName, value);
+				}
+				else if (type.isPrimitive()) {
+					setter.invoke(entity, value);
+				}
+				else {
+					setter.invokeExact(entity, value);
+				}
+				return true;
+			}
+			catch (SQLException | RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable throwable) {
+				throw new DbOomException("Unable to set property: " + entityType.getName() + '#' + propertyName, throwable);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- key
+
+	/**
+	 * Mapping plan key: result set column layout and entity types.
+	 */
+	public static final class PlanKey {
+		private final String[] columnNames;
+		private final String[] tableNames;
+		private final int[] columnDbSqlTypes;
+		private final Class[] types;
+		private final int hashCode;
+
+		public PlanKey(String[] columnNames, String[] tableNames, int[] columnDbSqlTypes, Class[] types) {
+			this.columnNames = columnNames;
+			this.tableNames = tableNames;
+			this.columnDbSqlTypes = columnDbSqlTypes;
+			this.types = types.clone();
+
+			int h = Arrays.hashCode(columnNames);
+			h = 31 * h + Arrays.hashCode(tableNames);
+			h = 31 * h + Arrays.hashCode(columnDbSqlTypes);
+			h = 31 * h + Arrays.hashCode(types);
+			this.hashCode = h;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey key = (PlanKey) o;
+
+			return hashCode == key.hashCode &&
+					Arrays.equals(types, key.types) &&
+					Arrays.equals(columnNames, key.columnNames) &&
+					Arrays.equals(tableNames, key.tableNames) &&
+					Arrays.equals(columnDbSqlTypes, key.columnDbSqlTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -41,6 +41,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.List;
@@ -90,6 +91,7 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 	protected final DbOomManager dbOomManager;
 	protected final DbOomQuery dbOomQuery;
 	protected final boolean cacheEntities;
+	protected final int entitiesCacheSize;
 	protected final int totalColumns;			// total number of columns
 	protected final String[] columnNames;		// list of all column names
 	protected final int[] columnDbSqlTypes;		// list of all column db types
@@ -107,10 +109,23 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 	 * @param dbOomQuery query that created this mapper.
 	 */
 	public DefaultResultSetMapper(ResultSet resultSet, Map<String, ColumnData> columnAliases, boolean cacheEntities, DbOomQuery dbOomQuery) {
+		this(resultSet, columnAliases, cacheEntities, 0, dbOomQuery);
+	}
+
+	/**
+	 * Reads <code>ResultSet</code> meta-data for column and table names.
+	 * @param resultSet JDBC result set
+	 * @param columnAliases alias names for columns, if exist
+	 * @param cacheEntities flag if entities should be cached
+	 * @param entitiesCacheSize max number of cached entities, <code>0</code> for unbounded cache
+	 * @param dbOomQuery query that created this mapper.
+	 */
+	public DefaultResultSetMapper(ResultSet resultSet, Map<String, ColumnData> columnAliases, boolean cacheEntities, int entitiesCacheSize, DbOomQuery dbOomQuery) {
 		super(resultSet);
 		this.dbOomQuery = dbOomQuery;
 		this.dbOomManager = dbOomQuery.getManager();
 		this.cacheEntities = cacheEntities;
+		this.entitiesCacheSize = entitiesCacheSize;
 
 		//this.resultColumns = new HashSet<String>();
 		try {
@@ -470,12 +485,28 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 
 	protected HashMap<Object, Object> entitiesCache;
 
+	/**
+	 * Creates entities cache. When cache size is limited, cache
+	 * holds only the most recently used entities.
+	 */
+	protected HashMap<Object, Object> createEntitiesCache() {
+		if (entitiesCacheSize <= 0) {
+			return new HashMap<>();
+		}
+		return new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+				return size() > entitiesCacheSize;
+			}
+		};
+	}
+
 	/**
 	 * Caches returned entities. Replaces new instances with existing ones.
 	 */
 	protected void cacheResultSetEntities(Object[] result) {
 		if (entitiesCache == null) {
-			entitiesCache = new HashMap<>();
+			entitiesCache = createEntitiesCache();
 		}
 
 		for (int i = 0; i < result.length; i++) {
@@ -25,6 +25,7 @@
 
 package jodd.db.oom.sqlgen;
 
+import jodd.cache.CacheStats;
 import jodd.db.oom.ColumnData;
 import jodd.db.oom.ColumnAliasType;
 import jodd.db.oom.DbSqlGenerator;
@@ -131,6 +132,13 @@ public class DbSqlBuilder extends TemplateData implements DbSqlGenerator {
 	protected int totalChunks;
 	protected static final TemplateParser templateParser = new TemplateParser();
 
+	/**
+	 * Returns hit/miss statistics of the global cache of parsed templates.
+	 */
+	public static CacheStats getTemplateCacheStats() {
+		return templateParser.getCacheStats();
+	}
+
 	/**
 	 * Appends chunk to the list. Chunks <b>must</b> be added using this method.
 	 */
@@ -25,8 +25,13 @@
 
 package jodd.db.oom.sqlgen;
 
+import jodd.cache.CacheStats;
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.StringUtil;
 import jodd.util.StringPool;
+
+import java.util.Arrays;
+
 import static jodd.util.CharUtil.*;
 
 /**
@@ -34,6 +39,62 @@ import static jodd.util.CharUtil.*;
  */
 class TemplateParser {
 
+	// ---------------------------------------------------------------- cache
+
+	protected static final int CACHE_SIZE = 1000;
+
+	protected final ConcurrentLRUCache<String, ParsedTemplate> cache = new ConcurrentLRUCache<>(CACHE_SIZE);
+
+	/**
+	 * Returns hit/miss statistics of the parsed templates cache.
+	 */
+	public CacheStats getCacheStats() {
+		return cache.getStats();
+	}
+
+	protected static final int RAW = 0;
+	protected static final int TABLE = 1;
+	protected static final int COLUMN = 2;
+	protected static final int MATCH = 3;
+	protected static final int VALUE = 4;
+	protected static final int REFERENCE = 5;
+
+	/**
+	 * Scanned template: raw text and macros in the order of appearance.
+	 * Parsed template is immutable once scanned and is applied on each
+	 * new sql builder by invoking template handlers.
+	 */
+	protected static class ParsedTemplate {
+		protected int[] kinds = new int[8];
+		protected String[] values = new String[8];
+		protected int size;
+
+		protected void add(int kind, String value) {
+			if (size == kinds.length) {
+				kinds = Arrays.copyOf(kinds, size << 1);
+				values = Arrays.copyOf(values, size << 1);
+			}
+			kinds[size] = kind;
+			values[size] = value;
+			size++;
+		}
+
+		protected void apply(TemplateParser templateParser, DbSqlBuilder sqlBuilder) {
+			for (int i = 0; i < size; i++) {
+				String value = values[i];
+
+				switch (kinds[i]) {
+					case RAW: sqlBuilder.appendRaw(value); break;
+					case TABLE: templateParser.onTable(sqlBuilder, value); break;
+					case COLUMN: templateParser.onColumn(sqlBuilder, value); break;
+					case MATCH: templateParser.onMatch(sqlBuilder, value); break;
+					case VALUE: templateParser.onValue(sqlBuilder, value); break;
+					case REFERENCE: templateParser.onReference(sqlBuilder, value); break;
+				}
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- parsing
 
 	protected static final char ESCAPE_CHARACTER = '\\';	
@@ -44,15 +105,31 @@ class TemplateParser {
 
 	/**
 	 * Parses template and returns generated sql builder.
+	 * Parsed templates are cached, so each template is scanned only once.
 	 */
 	public void parse(DbSqlBuilder sqlBuilder, String template) {
+		ParsedTemplate parsedTemplate = cache.get(template);
+
+		if (parsedTemplate == null) {
+			parsedTemplate = scan(template);
+			cache.put(template, parsedTemplate);
+		}
+
+		parsedTemplate.apply(this, sqlBuilder);
+	}
+
+	/**
+	 * Scans the template into the list of raw text and macros.
+	 */
+	protected ParsedTemplate scan(String template) {
+		ParsedTemplate parsedTemplate = new ParsedTemplate();
 		int length = template.length();
 		int last = 0;
 		while (true) {
 			int mark = template.indexOf('$', last);
 			if (mark == -1) {
 				if (last < length) {
-					sqlBuilder.appendRaw(template.substring(last));
+					parsedTemplate.add(RAW, template.substring(last));
 				}
 				break;
 			}
@@ -61,13 +138,13 @@ class TemplateParser {
 			if (escapesCount > 0) {
 				boolean isEscaped = escapesCount % 2 != 0;
 				int escapesToAdd = escapesCount >> 1;
-				sqlBuilder.appendRaw(template.substring(last, mark - escapesCount + escapesToAdd) + '$');
+				parsedTemplate.add(RAW, template.substring(last, mark - escapesCount + escapesToAdd) + '$');
 				if (isEscaped) {
 					last = mark + 1;
 					continue;
 				}
 			} else {
-				sqlBuilder.appendRaw(template.substring(last, mark));
+				parsedTemplate.add(RAW, template.substring(last, mark));
 			}
 
 			int end;
@@ -75,19 +152,19 @@ class TemplateParser {
 			if (template.startsWith(MACRO_TABLE, mark)) {
 				mark += MACRO_TABLE.length();
 				end = findMacroEnd(template, mark);
-				onTable(sqlBuilder, template.substring(mark, end));
+				parsedTemplate.add(TABLE, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_COLUMN, mark)) {
 				mark += MACRO_COLUMN.length();
 				end = findMacroEnd(template, mark);
-				onColumn(sqlBuilder, template.substring(mark, end));
+				parsedTemplate.add(COLUMN, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_MATCH, mark)) {
 				mark += MACRO_MATCH.length();
 				end = findMacroEnd(template, mark);
-				onMatch(sqlBuilder, template.substring(mark, end));
+				parsedTemplate.add(MATCH, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_VALUE, mark)) {
 				mark += MACRO_VALUE.length();
 				end = findMacroEnd(template, mark);
-				onValue(sqlBuilder, template.substring(mark, end));
+				parsedTemplate.add(VALUE, template.substring(mark, end));
 			} else {
 				mark++;           // reference found
 				end = mark;       // find macro end
@@ -97,12 +174,13 @@ class TemplateParser {
 					}
 					end++;
 				}
-				onReference(sqlBuilder, template.substring(mark, end));
+				parsedTemplate.add(REFERENCE, template.substring(mark, end));
 				end--;
 			}
 			end++;
 			last = end;
 		}
+		return parsedTemplate;
 	}
 
 	protected static boolean isReferenceChar(String template, int index) {
@@ -0,0 +1,734 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.DbSqlException;
+import jodd.db.connection.ConnectionProvider;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+import jodd.util.ThreadFactoryBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * High-throughput connection pool without a global pool monitor.
+ * <p>
+ * Idle connections are kept in a concurrent deque and reused in LIFO order.
+ * Number of borrowed connections is bounded by a fair semaphore, so waiting
+ * threads get connections in the arrival order, within the
+ * {@link #setConnectionTimeout(long) connection timeout}. New connections
+ * are opened and validated by the requesting thread, without holding any lock.
+ * <p>
+ * Background housekeeping evicts idle connections, retires connections older
+ * than {@link #setMaxLifetime(long) max lifetime}, keeps the
+ * {@link #setMinConnections(int) minimal number} of connections open and
+ * reports possible connection leaks.
+ */
+public class ConcurrentConnectionPool implements ConnectionProvider {
+
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentConnectionPool.class);
+
+	// ---------------------------------------------------------------- properties
+
+	private static final String DEFAULT_VALIDATION_QUERY = "select 1";
+
+	private String driver;
+	private String url;
+	private String user;
+	private String password;
+	private int maxConnections = 10;
+	private int minConnections = 5;
+	private long connectionTimeout = 30000L;		// 30 seconds
+	private boolean validateConnection = true;
+	private long validationTimeout = 30000L;		// 30 seconds
+	private String validationQuery;
+	private long idleTimeout = 600000L;			// 10 minutes
+	private long maxLifetime = 1800000L;			// 30 minutes
+	private long leakDetectionThreshold;
+	private long housekeepingPeriod = 30000L;		// 30 seconds
+
+	public String getDriver() {
+		return driver;
+	}
+
+	/**
+	 * Specifies driver class name.
+	 */
+	public void setDriver(String driver) {
+		this.driver = driver;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Specifies JDBC url.
+	 */
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getUser() {
+		return user;
+	}
+
+	/**
+	 * Specifies db username.
+	 */
+	public void setUser(String user) {
+		this.user = user;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	/**
+	 * Specifies db password.
+	 */
+	public void setPassword(String password) {
+		this.password = password;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Sets max number of connections.
+	 */
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getMinConnections() {
+		return minConnections;
+	}
+
+	/**
+	 * Sets minimum number of open connections.
+	 */
+	public void setMinConnections(int minConnections) {
+		this.minConnections = minConnections;
+	}
+
+	public long getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+	/**
+	 * Sets max number of milliseconds to wait for a connection.
+	 * When set to 0, exception is thrown immediately when
+	 * all connections are busy.
+	 */
+	public void setConnectionTimeout(long connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	public boolean isValidateConnection() {
+		return validateConnection;
+	}
+
+	/**
+	 * Specifies if connections should be validated before returned.
+	 */
+	public void setValidateConnection(boolean validateConnection) {
+		this.validateConnection = validateConnection;
+	}
+
+	public long getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * Specifies number of milliseconds from the last usage
+	 * when connection is considered as valid without validation.
+	 */
+	public void setValidationTimeout(long validationTimeout) {
+		this.validationTimeout = validationTimeout;
+	}
+
+	public String getValidationQuery() {
+		return validationQuery;
+	}
+
+	/**
+	 * Specifies query to be used for validating connections.
+	 * If set to <code>null</code> validation will be performed
+	 * by invoking <code>Connection#isClosed</code> method.
+	 */
+	public void setValidationQuery(String validationQuery) {
+		this.validationQuery = validationQuery;
+	}
+
+	/**
+	 * Sets default validation query (select 1);
+	 */
+	public void setDefaultValidationQuery() {
+		this.validationQuery = DEFAULT_VALIDATION_QUERY;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Sets number of milliseconds after which idle connection is closed,
+	 * while there are more than minimal number of connections.
+	 * Set to 0 to disable idle eviction.
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * Sets max number of milliseconds a connection stays in the pool.
+	 * Borrowed connections are retired when returned.
+	 * Set to 0 to disable.
+	 */
+	public void setMaxLifetime(long maxLifetime) {
+		this.maxLifetime = maxLifetime;
+	}
+
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Sets number of milliseconds after which borrowed connection
+	 * is reported as a possible leak, with the stack trace of the borrower.
+	 * Set to 0 (default) to disable leak detection.
+	 */
+	public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	public long getHousekeepingPeriod() {
+		return housekeepingPeriod;
+	}
+
+	/**
+	 * Sets period of the background housekeeping in milliseconds.
+	 * Set to 0 to disable housekeeping.
+	 */
+	public void setHousekeepingPeriod(long housekeepingPeriod) {
+		this.housekeepingPeriod = housekeepingPeriod;
+	}
+
+	// ---------------------------------------------------------------- init
+
+	private static final int IDLE = 0;
+	private static final int BUSY = 1;
+	private static final int REMOVED = 2;
+
+	private final Map<Connection, PooledConnection> connections = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger totalCount = new AtomicInteger();
+	private final AtomicInteger busyCount = new AtomicInteger();
+	private Semaphore permits;
+	private ScheduledExecutorService housekeeper;
+	private volatile boolean closed;
+
+	private final LongAdder acquireCount = new LongAdder();
+	private final LongAdder waitTime = new LongAdder();
+	private final LongAdder timeoutCount = new LongAdder();
+	private final LongAdder leakCount = new LongAdder();
+
+	/**
+	 * {@inheritDoc}
+	 * Does nothing if pool is already initialized. Closed pool
+	 * can not be initialized again.
+	 */
+	public synchronized void init() {
+		if (closed) {
+			throw new DbSqlException("Connection pool is closed");
+		}
+		if (permits != null) {
+			return;
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Concurrent connection pool initialization");
+		}
+		if (driver != null) {
+			try {
+				Class.forName(driver);
+			} catch (ClassNotFoundException cnfex) {
+				throw new DbSqlException("Database driver not found: " + driver, cnfex);
+			}
+		}
+		if (minConnections > maxConnections) {
+			minConnections = maxConnections;
+		}
+
+		permits = new Semaphore(maxConnections, true);
+
+		for (int i = 0; i < minConnections; i++) {
+			PooledConnection pooledConnection = addConnection();
+
+			if (pooledConnection == null) {
+				break;
+			}
+			release(pooledConnection);
+		}
+
+		if (housekeepingPeriod > 0) {
+			housekeeper = Executors.newSingleThreadScheduledExecutor(
+				ThreadFactoryBuilder.newThreadFactory()
+					.setNameFormat("jodd-db-pool-%d")
+					.setDaemon(true)
+					.build());
+
+			housekeeper.scheduleWithFixedDelay(
+				this::housekeeping, housekeepingPeriod, housekeepingPeriod, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// ---------------------------------------------------------------- get/close
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Connection getConnection() {
+		if (permits == null) {
+			throw new DbSqlException("Connection pool is not initialized");
+		}
+		if (closed) {
+			throw new DbSqlException("Connection pool is closed");
+		}
+
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+
+		try {
+			if (!permits.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS)) {
+				timeoutCount.increment();
+				throw new DbSqlException("Connection not available within " + connectionTimeout + "ms, limit: " + maxConnections);
+			}
+		} catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new DbSqlException("Interrupted while waiting for connection", iex);
+		}
+
+		PooledConnection pooledConnection;
+
+		try {
+			pooledConnection = borrow(deadline);
+		}
+		catch (RuntimeException rex) {
+			permits.release();
+			throw rex;
+		}
+
+		acquireCount.increment();
+		waitTime.add(System.nanoTime() - start);
+
+		return pooledConnection.connection;
+	}
+
+	/**
+	 * Borrows idle connection or opens a new one. Invoked when permit is acquired.
+	 */
+	private PooledConnection borrow(long deadline) {
+		while (true) {
+			PooledConnection pooledConnection = idleConnections.pollFirst();
+
+			if (pooledConnection != null) {
+				if (!pooledConnection.state.compareAndSet(IDLE, BUSY)) {
+					// evicted in the meantime
+					continue;
+				}
+
+				long now = System.currentTimeMillis();
+
+				if (isExpired(pooledConnection, now) || !isConnectionValid(pooledConnection, now)) {
+					if (log.isDebugEnabled()) {
+						log.debug("Pooled connection not valid, resetting");
+					}
+					removeConnection(pooledConnection);
+					continue;
+				}
+				return markBusy(pooledConnection, now);
+			}
+
+			pooledConnection = addConnection();
+
+			if (pooledConnection != null) {
+				return markBusy(pooledConnection, System.currentTimeMillis());
+			}
+
+			// pool is full, but some connection is just being returned
+
+			if (System.nanoTime() - deadline > 0) {
+				timeoutCount.increment();
+				throw new DbSqlException("Connection not available, limit: " + maxConnections);
+			}
+			LockSupport.parkNanos(1000L);
+		}
+	}
+
+	private PooledConnection markBusy(PooledConnection pooledConnection, long now) {
+		pooledConnection.lastUsed = now;
+		pooledConnection.borrowed = now;
+		pooledConnection.leakReported = false;
+
+		if (leakDetectionThreshold > 0) {
+			pooledConnection.borrower = new Exception("Connection borrowed by: " + Thread.currentThread().getName());
+		}
+
+		busyCount.incrementAndGet();
+		return pooledConnection;
+	}
+
+	/**
+	 * Opens new busy connection if the limit is not reached.
+	 * Returns <code>null</code> if the pool is full.
+	 */
+	private PooledConnection addConnection() {
+		while (true) {
+			int total = totalCount.get();
+
+			if (total >= maxConnections) {
+				return null;
+			}
+			if (totalCount.compareAndSet(total, total + 1)) {
+				break;
+			}
+		}
+
+		Connection connection;
+		try {
+			connection = DriverManager.getConnection(url, user, password);
+		} catch (SQLException sex) {
+			totalCount.decrementAndGet();
+			throw new DbSqlException("No database connection", sex);
+		}
+
+		PooledConnection pooledConnection = new PooledConnection(connection);
+
+		connections.put(connection, pooledConnection);
+
+		return pooledConnection;
+	}
+
+	/**
+	 * Returns busy connection to the pool.
+	 */
+	private void release(PooledConnection pooledConnection) {
+		long now = System.currentTimeMillis();
+
+		if (closed || isExpired(pooledConnection, now)) {
+			removeConnection(pooledConnection);
+			return;
+		}
+
+		pooledConnection.lastUsed = now;
+		pooledConnection.borrower = null;
+		pooledConnection.state.set(IDLE);
+
+		idleConnections.offerFirst(pooledConnection);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void closeConnection(Connection connection) {
+		PooledConnection pooledConnection = connections.get(connection);
+
+		if (pooledConnection == null || pooledConnection.state.get() != BUSY) {
+			throw new DbSqlException("Connection is not borrowed from this pool");
+		}
+
+		busyCount.decrementAndGet();
+
+		release(pooledConnection);
+
+		permits.release();
+	}
+
+	/**
+	 * Removes connection from the pool and closes it.
+	 */
+	private void removeConnection(PooledConnection pooledConnection) {
+		pooledConnection.state.set(REMOVED);
+
+		if (connections.remove(pooledConnection.connection) != null) {
+			totalCount.decrementAndGet();
+		}
+
+		try {
+			pooledConnection.connection.close();
+		} catch (SQLException ignore) {
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if connection lived longer then max lifetime.
+	 */
+	private boolean isExpired(PooledConnection pooledConnection, long now) {
+		return maxLifetime > 0 && now - pooledConnection.created > maxLifetime;
+	}
+
+	/**
+	 * Checks if existing connection is valid and available. It may happens
+	 * that if connection is not used for a while it becomes inactive,
+	 * although not technically closed.
+	 */
+	private boolean isConnectionValid(PooledConnection pooledConnection, long now) {
+		if (!validateConnection) {
+			return true;
+		}
+
+		if (now < pooledConnection.lastUsed + validationTimeout) {
+			return true;
+		}
+
+		Connection conn = pooledConnection.connection;
+
+		if (validationQuery == null) {
+			try {
+				return !conn.isClosed();
+			} catch (SQLException sex) {
+				return false;
+			}
+		}
+
+		boolean valid = true;
+		Statement st = null;
+		try {
+			st = conn.createStatement();
+			st.execute(validationQuery);
+		} catch (SQLException sex) {
+			valid = false;
+		} finally {
+			if (st != null) {
+				try {
+					st.close();
+				} catch (SQLException ignore) {
+				}
+			}
+		}
+		return valid;
+	}
+
+	// ---------------------------------------------------------------- housekeeping
+
+	/**
+	 * Evicts idle and expired connections, reports leaks and
+	 * opens connections up to the minimal number.
+	 */
+	protected void housekeeping() {
+		if (closed) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+
+		for (PooledConnection pooledConnection : connections.values()) {
+			int state = pooledConnection.state.get();
+
+			if (state == IDLE) {
+				boolean evict = isExpired(pooledConnection, now) ||
+					(idleTimeout > 0 && now - pooledConnection.lastUsed > idleTimeout && totalCount.get() > minConnections);
+
+				if (evict && pooledConnection.state.compareAndSet(IDLE, REMOVED)) {
+					idleConnections.remove(pooledConnection);
+					removeConnection(pooledConnection);
+				}
+			}
+			else if (state == BUSY && leakDetectionThreshold > 0) {
+				if (!pooledConnection.leakReported && now - pooledConnection.borrowed > leakDetectionThreshold) {
+					pooledConnection.leakReported = true;
+					leakCount.increment();
+
+					log.warn("Possible connection leak, borrowed " + (now - pooledConnection.borrowed) + "ms ago", pooledConnection.borrower);
+				}
+			}
+		}
+
+		try {
+			while (!closed && totalCount.get() < minConnections) {
+				PooledConnection pooledConnection = addConnection();
+
+				if (pooledConnection == null) {
+					break;
+				}
+				release(pooledConnection);
+			}
+		}
+		catch (DbSqlException dsex) {
+			log.warn("Unable to open minimal number of connections", dsex);
+		}
+	}
+
+	// ---------------------------------------------------------------- close
+
+	/**
+	 * Closes all idle connections and stops housekeeping.
+	 * Borrowed connections are closed when returned.
+	 */
+	public synchronized void close() {
+		if (log.isInfoEnabled()) {
+			log.info("Concurrent connection pool shutdown");
+		}
+		closed = true;
+
+		if (housekeeper != null) {
+			housekeeper.shutdownNow();
+			housekeeper = null;
+		}
+
+		PooledConnection pooledConnection;
+
+		while ((pooledConnection = idleConnections.pollFirst()) != null) {
+			removeConnection(pooledConnection);
+		}
+	}
+
+	// ---------------------------------------------------------------- pooled connection
+
+	/**
+	 * Pooled connection with its state and timestamps.
+	 */
+	static class PooledConnection {
+		final Connection connection;
+		final long created;
+		final AtomicInteger state = new AtomicInteger(BUSY);
+		volatile long lastUsed;
+		volatile long borrowed;
+		volatile boolean leakReported;
+		volatile Exception borrower;
+
+		PooledConnection(Connection connection) {
+			this.connection = connection;
+			this.created = System.currentTimeMillis();
+			this.lastUsed = created;
+		}
+	}
+
+	// ---------------------------------------------------------------- metrics
+
+	/**
+	 * Returns number of borrowed connections.
+	 */
+	public int getActiveCount() {
+		return busyCount.get();
+	}
+
+	/**
+	 * Returns number of idle connections.
+	 */
+	public int getIdleCount() {
+		return Math.max(0, totalCount.get() - busyCount.get());
+	}
+
+	/**
+	 * Returns total number of open connections.
+	 */
+	public int getTotalCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * Returns estimated number of threads waiting for a connection.
+	 */
+	public int getPendingCount() {
+		return permits == null ? 0 : permits.getQueueLength();
+	}
+
+	/**
+	 * Returns number of successfully borrowed connections.
+	 */
+	public long getAcquireCount() {
+		return acquireCount.sum();
+	}
+
+	/**
+	 * Returns total time spent in getting connections, in nanoseconds.
+	 */
+	public long getTotalWaitTime() {
+		return waitTime.sum();
+	}
+
+	/**
+	 * Returns average time of getting a connection, in nanoseconds.
+	 */
+	public long getAverageWaitTime() {
+		long count = acquireCount.sum();
+		return count == 0 ? 0 : waitTime.sum() / count;
+	}
+
+	/**
+	 * Returns number of timed out connection requests.
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	/**
+	 * Returns number of reported connection leaks.
+	 */
+	public long getLeakCount() {
+		return leakCount.sum();
+	}
+
+	/**
+	 * Returns connection stats.
+	 */
+	public CoreConnectionPool.SizeSnapshot getConnectionsCount() {
+		int busy = busyCount.get();
+		return new CoreConnectionPool.SizeSnapshot(Math.max(0, totalCount.get() - busy), busy);
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentConnectionPool{total=" + getTotalCount() +
+				", active=" + getActiveCount() +
+				", idle=" + getIdleCount() +
+				", pending=" + getPendingCount() +
+				", acquired=" + getAcquireCount() +
+				", avgWait=" + getAverageWaitTime() + "ns" +
+				", timeouts=" + getTimeoutCount() + '}';
+	}
+
+}
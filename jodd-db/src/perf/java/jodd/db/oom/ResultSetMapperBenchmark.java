@@ -0,0 +1,86 @@
+package jodd.db.oom;
+
+import jodd.db.DbSession;
+import jodd.db.pool.CoreConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Compares default and compiled result set mappers on wide entities.
+ * Run:
+ * <code>
+ * gw :jodd-db:perf -PResultSetMapperBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ResultSetMapperBenchmark {
+
+	private static final int ROWS = 1000;
+
+	public static class Wide {
+		public long id;
+		public int i1, i2, i3, i4, i5, i6;
+		public long l1, l2, l3, l4;
+		public double d1, d2, d3, d4;
+		public String s1, s2, s3, s4, s5;
+	}
+
+	@Param({"default", "compiled"})
+	public String mapper;
+
+	private CoreConnectionPool cp;
+	private DbSession session;
+
+	@Setup
+	public void prepare() {
+		cp = new CoreConnectionPool();
+		cp.setDriver("org.hsqldb.jdbcDriver");
+		cp.setUrl("jdbc:hsqldb:mem:perf");
+		cp.setUser("sa");
+		cp.setPassword("");
+		cp.init();
+
+		DbOomManager.resetAll();
+		DbOomManager dbOomManager = DbOomManager.getInstance();
+		dbOomManager.registerEntity(Wide.class);
+		dbOomManager.setCompiledResultSetMapper(mapper.equals("compiled"));
+
+		session = new DbSession(cp);
+
+		new DbOomQuery(session, "drop table WIDE if exists").autoClose().executeUpdate();
+		new DbOomQuery(session, "create table WIDE (ID bigint primary key, " +
+				"I1 integer, I2 integer, I3 integer, I4 integer, I5 integer, I6 integer, " +
+				"L1 bigint, L2 bigint, L3 bigint, L4 bigint, " +
+				"D1 double, D2 double, D3 double, D4 double, " +
+				"S1 varchar(20), S2 varchar(20), S3 varchar(20), S4 varchar(20), S5 varchar(20))").autoClose().executeUpdate();
+
+		for (int i = 0; i < ROWS; i++) {
+			new DbOomQuery(session, "insert into WIDE values (" + i + ", " +
+					"1, 2, 3, 4, 5, 6, 10, 20, 30, 40, 1.5, 2.5, 3.5, 4.5, " +
+					"'one', 'two', 'three', 'four', 'five')").autoClose().executeUpdate();
+		}
+	}
+
+	@TearDown
+	public void close() {
+		session.closeSession();
+		cp.close();
+	}
+
+	@Benchmark
+	public List<Wide> list() {
+		return new DbOomQuery(session, "select * from WIDE").autoClose().list(Wide.class);
+	}
+}
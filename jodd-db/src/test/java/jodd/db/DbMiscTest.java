@@ -25,11 +25,15 @@
 
 package jodd.db;
 
+import jodd.db.connection.DriverManagerConnectionProvider;
 import org.junit.Test;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -164,4 +168,133 @@ public class DbMiscTest extends DbHsqldbTestCase {
 		}
 	}
 
+	@Test
+	public void testBatch() {
+		DbSession session = new DbSession(cp);
+
+		executeUpdate(session, "drop table BATCH if exists");
+		executeUpdate(session, "create table BATCH (ID integer generated by default as identity (start with 1) primary key, NAME varchar(20))");
+
+		DbQuery dbQuery = new DbQuery(session, "insert into BATCH (NAME) values (:name)");
+		dbQuery.setGeneratedKey();
+		dbQuery.setBatchSize(4);
+
+		for (int i = 0; i < 10; i++) {
+			dbQuery.setString("name", "n" + i);
+			dbQuery.addBatch();
+		}
+
+		int[] counts = dbQuery.executeBatch();
+		assertEquals(10, counts.length);
+		for (int count : counts) {
+			assertEquals(1, count);
+		}
+
+		long[] keys = dbQuery.getGeneratedBatchKeys();
+		assertEquals(10, keys.length);
+		assertEquals(1, keys[0]);
+		assertEquals(10, keys[9]);
+
+		assertEquals(0, dbQuery.executeBatch().length);
+		dbQuery.close();
+
+		assertEquals(10, executeCount(session, "select count(*) from BATCH"));
+
+		dbQuery = new DbQuery(session, "update BATCH set NAME = 'x' where ID > ?");
+		dbQuery.setInteger(1, 5);
+		dbQuery.addBatch();
+		dbQuery.setInteger(1, 8);
+		dbQuery.addBatch();
+
+		counts = dbQuery.autoClose().executeBatch();
+		assertEquals(5, counts[0]);
+		assertEquals(2, counts[1]);
+		assertTrue(dbQuery.isClosed());
+
+		session.closeSession();
+	}
+
+	@Test
+	public void testStatementCache() {
+		DbManager dbManager = DbManager.getInstance();
+		dbManager.setStatementCacheSize(2);
+
+		try {
+			DbSession session = new DbSession(cp);
+
+			long hits = dbManager.getStatementCacheStats().getHitCount();
+			long parserHits = dbManager.getSqlParserCacheStats().getHitCount();
+
+			for (int i = 0; i < 3; i++) {
+				DbQuery dbQuery = new DbQuery(session, "select count(*) from GIRL where ID > :id");
+				dbQuery.setInteger("id", i);
+				assertEquals(0, dbQuery.autoClose().executeCount());
+			}
+
+			assertEquals(hits + 2, dbManager.getStatementCacheStats().getHitCount());
+			assertTrue(dbManager.getSqlParserCacheStats().getHitCount() >= parserHits + 2);
+
+			// statement with different settings is cached separately
+			DbQuery dbQuery = new DbQuery(session, "select count(*) from GIRL where ID > :id");
+			dbQuery.setType(DbQuery.TYPE_SCROLL_INSENSITIVE);
+			dbQuery.setInteger("id", 1);
+			assertEquals(0, dbQuery.autoClose().executeCount());
+			assertEquals(hits + 2, dbManager.getStatementCacheStats().getHitCount());
+
+			session.closeSession();
+		}
+		finally {
+			dbManager.setStatementCacheSize(0);
+		}
+	}
+
+	@Test
+	public void testStatementCacheOfClosedConnections() throws Exception {
+		DbManager dbManager = DbManager.getInstance();
+		dbManager.setStatementCacheSize(2);
+
+		DriverManagerConnectionProvider connectionProvider =
+			new DriverManagerConnectionProvider("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:test", "sa", "");
+
+		try {
+			int count = dbManager.getStatementCacheCount();
+
+			// connections closed by the session
+			for (int i = 0; i < 20; i++) {
+				DbSession session = new DbSession(connectionProvider);
+				assertEquals(0, new DbQuery(session, "select count(*) from GIRL").autoClose().executeCount());
+				session.closeSession();
+			}
+
+			assertEquals(count, dbManager.getStatementCacheCount());
+
+			// connections closed elsewhere, e.g. retired by the pool
+			List<Connection> connections = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				Connection connection = connectionProvider.getConnection();
+				assertNotNull(dbManager.lookupStatementCache(connection));
+				connections.add(connection);
+			}
+
+			assertEquals(count + 20, dbManager.getStatementCacheCount());
+
+			for (Connection connection : connections) {
+				connection.close();
+			}
+
+			Connection connection = connectionProvider.getConnection();
+			dbManager.lookupStatementCache(connection);
+
+			assertEquals(count + 1, dbManager.getStatementCacheCount());
+
+			connection.close();
+			dbManager.removeStatementCache(connection);
+
+			assertEquals(count, dbManager.getStatementCacheCount());
+		}
+		finally {
+			dbManager.setStatementCacheSize(0);
+		}
+	}
+
 }
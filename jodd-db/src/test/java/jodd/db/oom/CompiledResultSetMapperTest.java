@@ -0,0 +1,129 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.db.oom;
+
+import jodd.db.DbHsqldbTestCase;
+import jodd.db.DbSession;
+import jodd.db.oom.tst.Boy;
+import jodd.db.oom.tst.Girl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static jodd.db.oom.sqlgen.DbSqlBuilder.sql;
+import static org.junit.Assert.*;
+
+public class CompiledResultSetMapperTest extends DbHsqldbTestCase {
+
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+
+		DbOomManager.resetAll();
+		DbOomManager dbOom = DbOomManager.getInstance();
+		dbOom.registerEntity(Girl.class);
+		dbOom.registerEntity(Boy.class);
+
+		DbSession session = new DbSession(cp);
+		executeUpdate(session, "insert into GIRL values(1, 'Anna', 'swim')");
+		executeUpdate(session, "insert into GIRL values(2, 'Sandra', null)");
+		executeUpdate(session, "insert into BOY values(1, 1, 'John')");
+		executeUpdate(session, "insert into BOY values(2, null, 'Mark')");
+		executeUpdate(session, "insert into BOY values(3, 2, null)");
+		session.closeSession();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		DbOomManager.resetAll();
+		super.tearDown();
+	}
+
+	@Test
+	public void testCompiledMapper() {
+		List<Object[]> expected = listBoysAndGirls();
+
+		DbOomManager.getInstance().setCompiledResultSetMapper(true);
+
+		List<Object[]> compiled = listBoysAndGirls();
+		assertEquals(expected.size(), compiled.size());
+
+		for (int i = 0; i < expected.size(); i++) {
+			Object[] expectedRow = expected.get(i);
+			Object[] compiledRow = compiled.get(i);
+
+			assertEquals(expectedRow[0], compiledRow[0]);
+			assertEquals(String.valueOf(expectedRow[1]), String.valueOf(compiledRow[1]));
+			assertEquals(expectedRow[2], compiledRow[2]);
+		}
+
+		Boy boy = (Boy) compiled.get(1)[0];
+		assertEquals(2, boy.id);
+		assertEquals(0, boy.girlId);
+		assertEquals("Mark", boy.name);
+
+		Girl girl = (Girl) compiled.get(2)[1];
+		assertNull(girl.speciality);
+
+		// plan is reused
+		long hits = DbOomManager.getInstance().getMappingPlansCacheStats().getHitCount();
+		listBoysAndGirls();
+		assertEquals(hits + 1, DbOomManager.getInstance().getMappingPlansCacheStats().getHitCount());
+	}
+
+	@Test
+	public void testPlansClearedOnRegistration() {
+		DbOomManager dbOom = DbOomManager.getInstance();
+		dbOom.setCompiledResultSetMapper(true);
+
+		listBoysAndGirls();
+		assertEquals(1, dbOom.getTotalMappingPlans());
+
+		dbOom.reset();
+		assertEquals(0, dbOom.getTotalMappingPlans());
+
+		dbOom.registerEntity(Girl.class);
+		dbOom.registerEntity(Boy.class);
+
+		listBoysAndGirls();
+		assertEquals(1, dbOom.getTotalMappingPlans());
+
+		dbOom.registerEntity(Boy.class, true);
+		assertEquals(0, dbOom.getTotalMappingPlans());
+	}
+
+	private List<Object[]> listBoysAndGirls() {
+		DbSession session = new DbSession(cp);
+
+		List<Object[]> list = new DbOomQuery(session,
+				sql("select $C{b.*}, $C{g.*}, $g.name from $T{Boy b} left join $T{Girl g} on $b.girlId=$g.id order by $b.id"))
+				.list(Boy.class, Girl.class, String.class);
+
+		session.closeSession();
+		return list;
+	}
+}
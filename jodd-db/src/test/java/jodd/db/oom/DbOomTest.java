@@ -38,9 +38,11 @@ import org.junit.Test;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static jodd.db.oom.ColumnAliasType.COLUMN_CODE;
 import static jodd.db.oom.DbOomQuery.query;
@@ -243,6 +245,26 @@ public class DbOomTest extends DbHsqldbTestCase {
 		}
 		checkGirl3(girl);
 
+		// stream
+		int openResultSets = q.getOpenResultSetCount();
+		try (Stream<Girl> stream = q.stream(Girl.class)) {
+			assertEquals(3, stream.filter(g -> g.id > 0).count());
+		}
+		assertEquals(DbOomManager.getInstance().getStreamFetchSize(), q.getFetchSize());
+		assertEquals(openResultSets, q.getOpenResultSetCount());
+
+		try (Stream<Girl> stream = q.stream(Girl.class)) {
+			checkGirl1(stream.findFirst().get());
+			assertEquals(openResultSets + 1, q.getOpenResultSetCount());
+		}
+		assertEquals(openResultSets, q.getOpenResultSetCount());
+
+		List<Girl> girls = new ArrayList<>();
+		q.<Girl>forEach(girls::add, Girl.class);
+		assertEquals(3, girls.size());
+		checkGirl3(girls.get(2));
+		assertEquals(openResultSets, q.getOpenResultSetCount());
+
 		q.close();
 
 		// ---------------------------------------------------------------- girl2
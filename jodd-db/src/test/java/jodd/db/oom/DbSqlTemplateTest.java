@@ -325,4 +325,17 @@ public class DbSqlTemplateTest {
 		assertEquals("select bb.GIRL_ID, bb.ID, bb.NAME, bg.ID from GIRL bg join BOY bb on bg.ID=bb.GIRL_ID", st.generateQuery());
 	}
 
+	@Test
+	public void testTemplateCache() {
+		String template = "select $C{b.*} from $T{Boy b} where $b.id = :id and \\$b.name";
+
+		long hits = DbSqlBuilder.getTemplateCacheStats().getHitCount();
+
+		String sql1 = sql(template).generateQuery();
+		String sql2 = sql(template).generateQuery();
+
+		assertEquals(sql1, sql2);
+		assertTrue(DbSqlBuilder.getTemplateCacheStats().getHitCount() > hits);
+	}
+
 }
@@ -191,4 +191,53 @@ public class GenericDaoTest extends DbHsqldbTestCase {
 		session.closeSession();
 		ThreadDbSessionHolder.remove();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testBatch() {
+		DbSession session = new DbSession(cp);
+		ThreadDbSessionHolder.set(session);
+
+		GenericDao dao = new GenericDao();
+		dao.setBatchSize(7);
+
+		Girl girl = new Girl();
+		girl.setName("Emma");
+		girl.setId(Long.valueOf(1));
+		dao.save(girl);
+
+		List<Boy> boys = new ArrayList<>();
+		for (int i = 1; i <= 50; i++) {
+			Boy boy = new Boy();
+			boy.setId(i);
+			boy.setName(i % 10 == 0 ? null : "boy" + i);		// different insert
+			boy.setGirlId(1);
+			boys.add(boy);
+		}
+
+		dao.saveAll(boys);
+		assertEquals(50, dao.count(Boy.class));
+
+		Boy boyMatch = new Boy();
+		boyMatch.setName("boy13");
+		assertEquals(1, dao.find(boyMatch).size());
+
+		for (Boy boy : boys) {
+			boy.setName("x" + boy.getId());
+		}
+		dao.updateAll(boys);
+
+		boyMatch.setName("x13");
+		assertEquals(1, dao.find(boyMatch).size());
+
+		List<Boy> toDelete = new ArrayList<>(boys.subList(0, 20));
+		dao.deleteAllById(toDelete);
+
+		assertEquals(30, dao.count(Boy.class));
+		assertEquals(0, boys.get(0).getId());
+		assertEquals(0, boys.get(19).getId());
+		assertEquals(21, boys.get(20).getId());
+
+		session.closeSession();
+		ThreadDbSessionHolder.remove();
+	}
+}
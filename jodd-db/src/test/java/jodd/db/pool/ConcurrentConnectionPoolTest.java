@@ -0,0 +1,219 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.DbQuery;
+import jodd.db.DbSession;
+import jodd.db.DbSqlException;
+import jodd.log.LoggerFactory;
+import jodd.log.impl.NOPLoggerFactory;
+import jodd.util.ThreadUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentConnectionPoolTest {
+
+	private ConcurrentConnectionPool cp;
+
+	@Before
+	public void setUp() {
+		LoggerFactory.setLoggerFactory(new NOPLoggerFactory());
+
+		cp = new ConcurrentConnectionPool();
+		cp.setDriver("org.hsqldb.jdbcDriver");
+		cp.setUrl("jdbc:hsqldb:mem:pool");
+		cp.setUser("sa");
+		cp.setPassword("");
+		cp.setMinConnections(1);
+		cp.setMaxConnections(3);
+		cp.setHousekeepingPeriod(0);
+	}
+
+	@After
+	public void tearDown() {
+		cp.close();
+	}
+
+	@Test
+	public void testGetAndClose() {
+		cp.init();
+		assertEquals(1, cp.getTotalCount());
+		assertEquals(1, cp.getIdleCount());
+
+		Connection c1 = cp.getConnection();
+		Connection c2 = cp.getConnection();
+		assertNotSame(c1, c2);
+		assertEquals(2, cp.getActiveCount());
+		assertEquals(0, cp.getIdleCount());
+
+		cp.closeConnection(c1);
+		assertEquals(1, cp.getActiveCount());
+		assertEquals(1, cp.getIdleCount());
+
+		// LIFO
+		assertSame(c1, cp.getConnection());
+		assertEquals(3, cp.getAcquireCount());
+
+		try {
+			cp.closeConnection(c2);
+			cp.closeConnection(c2);
+			fail();
+		} catch (DbSqlException ignore) {
+		}
+
+		DbSession session = new DbSession(cp);
+		DbQuery query = new DbQuery(session, "select count(*) from INFORMATION_SCHEMA.SYSTEM_USERS");
+		assertTrue(query.executeCount() > 0);
+		session.closeSession();
+	}
+
+	@Test
+	public void testInitTwice() {
+		cp.init();
+		Connection c1 = cp.getConnection();
+
+		cp.init();
+		assertEquals(1, cp.getTotalCount());
+		assertEquals(1, cp.getActiveCount());
+
+		cp.closeConnection(c1);
+		assertEquals(1, cp.getTotalCount());
+		assertEquals(1, cp.getIdleCount());
+
+		cp.close();
+		try {
+			cp.init();
+			fail();
+		} catch (DbSqlException ignore) {
+		}
+	}
+
+	@Test
+	public void testTimeout() {
+		cp.setConnectionTimeout(50);
+		cp.init();
+
+		List<Connection> list = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			list.add(cp.getConnection());
+		}
+		assertEquals(3, cp.getTotalCount());
+
+		try {
+			cp.getConnection();
+			fail();
+		} catch (DbSqlException ignore) {
+		}
+		assertEquals(1, cp.getTimeoutCount());
+
+		cp.closeConnection(list.get(0));
+		assertNotNull(cp.getConnection());
+	}
+
+	@Test
+	public void testConcurrentUsage() throws InterruptedException {
+		cp.setConnectionTimeout(10000);
+		cp.init();
+
+		AtomicInteger errors = new AtomicInteger();
+		AtomicInteger maxTotal = new AtomicInteger();
+		Thread[] threads = new Thread[10];
+
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 200; j++) {
+					try {
+						Connection connection = cp.getConnection();
+						maxTotal.accumulateAndGet(cp.getTotalCount(), Math::max);
+						cp.closeConnection(connection);
+					} catch (Exception ex) {
+						errors.incrementAndGet();
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, errors.get());
+		assertTrue(maxTotal.get() <= 3);
+		assertEquals(0, cp.getActiveCount());
+		assertEquals(2000, cp.getAcquireCount());
+	}
+
+	@Test
+	public void testHousekeeping() {
+		cp.setIdleTimeout(20);
+		cp.setMaxLifetime(0);
+		cp.setLeakDetectionThreshold(20);
+		cp.init();
+
+		Connection c1 = cp.getConnection();
+		Connection c2 = cp.getConnection();
+		Connection c3 = cp.getConnection();
+		cp.closeConnection(c2);
+		cp.closeConnection(c3);
+		assertEquals(3, cp.getTotalCount());
+
+		ThreadUtil.sleep(50);
+		cp.housekeeping();
+
+		assertEquals(1, cp.getTotalCount());
+		assertEquals(1, cp.getActiveCount());
+		assertEquals(1, cp.getLeakCount());
+
+		cp.closeConnection(c1);
+		cp.housekeeping();
+		assertEquals(1, cp.getTotalCount());
+		assertEquals(1, cp.getLeakCount());
+	}
+
+	@Test
+	public void testMaxLifetime() {
+		cp.setMaxLifetime(20);
+		cp.init();
+
+		Connection c1 = cp.getConnection();
+		ThreadUtil.sleep(50);
+		cp.closeConnection(c1);
+
+		assertEquals(0, cp.getTotalCount());
+
+		Connection c2 = cp.getConnection();
+		assertNotSame(c1, c2);
+		assertEquals(1, cp.getTotalCount());
+	}
+}
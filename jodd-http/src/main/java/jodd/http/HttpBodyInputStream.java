@@ -0,0 +1,318 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streamed response body. Reads body of given content length, chunked
+ * body or body that ends when the stream ends. When body is fully read
+ * or when stream is closed, the response is notified so the connection
+ * can be reused or closed.
+ */
+class HttpBodyInputStream extends InputStream {
+
+	/**
+	 * Max number of bytes read on close, so connection can still be reused.
+	 */
+	private static final int DRAIN_LIMIT = 64 * 1024;
+
+	private final HttpResponse httpResponse;
+	private final InputStream in;
+	private final boolean chunked;
+	private long remaining;				// remaining bytes of the body or of the current chunk
+	private boolean ended;
+	private boolean closed;
+
+	private HttpProgressListener progressListener;
+	private long count;
+	private int callbackSize;
+	private long nextCallback;
+
+	/**
+	 * Creates body stream.
+	 * @param contentLength content length, <code>-1</code> if body ends with the stream.
+	 */
+	HttpBodyInputStream(HttpResponse httpResponse, InputStream in, boolean chunked, long contentLength) {
+		this.httpResponse = httpResponse;
+		this.in = in;
+		this.chunked = chunked;
+		this.remaining = chunked ? 0 : contentLength;
+		this.ended = !chunked && contentLength == 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if body is fully read.
+	 */
+	boolean isEnded() {
+		return ended;
+	}
+
+	/**
+	 * Returns number of body bytes read so far.
+	 */
+	long count() {
+		return count;
+	}
+
+	// ---------------------------------------------------------------- read
+
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+		int n = read(b, 0, 1);
+
+		return n == -1 ? -1 : b[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (ended) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+
+		if (chunked && remaining == 0) {
+			if (!nextChunk()) {
+				end(true);
+				return -1;
+			}
+		}
+
+		int toRead = remaining < 0 ? len : (int) Math.min(len, remaining);
+
+		int n;
+		try {
+			n = in.read(b, off, toRead);
+		}
+		catch (IOException ioex) {
+			end(false);
+			throw ioex;
+		}
+
+		if (n == -1) {
+			if (remaining < 0) {
+				// body ends when stream ends, connection is not reusable
+				end(false);
+				return -1;
+			}
+			end(false);
+			throw new EOFException("Unexpected end of HTTP body");
+		}
+
+		count += n;
+		progress();
+
+		if (remaining > 0) {
+			remaining -= n;
+
+			if (remaining == 0) {
+				if (chunked) {
+					readLine();		// CRLF after chunk data
+				} else {
+					end(true);
+				}
+			}
+		}
+
+		return n;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (closed || ended) {
+			return 0;
+		}
+		int available = in.available();
+
+		if (remaining < 0) {
+			return available;
+		}
+		return (int) Math.min(available, remaining);
+	}
+
+	/**
+	 * Closes the stream. Unread body is consumed up to the small limit,
+	 * so the connection can be reused, otherwise connection is closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		if (!ended) {
+			byte[] buffer = new byte[8192];
+			int drained = 0;
+
+			try {
+				while (!ended && drained < DRAIN_LIMIT) {
+					int n = read(buffer, 0, buffer.length);
+					if (n == -1) {
+						break;
+					}
+					drained += n;
+				}
+			}
+			catch (IOException ignore) {
+			}
+
+			end(false);
+		}
+
+		closed = true;
+	}
+
+	// ---------------------------------------------------------------- chunks
+
+	/**
+	 * Reads the size of the next chunk. Returns <code>false</code>
+	 * on the last chunk, after reading trailing headers.
+	 */
+	private boolean nextChunk() throws IOException {
+		String line = readLine();
+
+		if (line == null) {
+			end(false);
+			throw new EOFException("Unexpected end of HTTP chunked body");
+		}
+
+		int ndx = line.indexOf(';');		// chunk extension
+		if (ndx != -1) {
+			line = line.substring(0, ndx);
+		}
+
+		long size;
+		try {
+			size = Long.parseLong(line.trim(), 16);
+		}
+		catch (NumberFormatException nfex) {
+			end(false);
+			throw new IOException("Invalid chunk size: " + line);
+		}
+
+		if (size > 0) {
+			remaining = size;
+			return true;
+		}
+
+		// last chunk, read trailing headers
+		while (true) {
+			String header = readLine();
+
+			if (header == null || header.isEmpty()) {
+				break;
+			}
+
+			int colon = header.indexOf(':');
+			if (colon != -1) {
+				httpResponse.header(header.substring(0, colon), header.substring(colon + 1).trim());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads single ISO-8859-1 line without the line ending.
+	 * Returns <code>null</code> when stream ends.
+	 */
+	private String readLine() throws IOException {
+		StringBuilder line = new StringBuilder();
+
+		while (true) {
+			int c = in.read();
+
+			if (c == -1) {
+				return line.length() == 0 ? null : line.toString();
+			}
+			if (c == '\n') {
+				break;
+			}
+			line.append((char) c);
+		}
+
+		int length = line.length();
+		if (length > 0 && line.charAt(length - 1) == '\r') {
+			line.setLength(length - 1);
+		}
+		return line.toString();
+	}
+
+	// ---------------------------------------------------------------- end
+
+	/**
+	 * Marks the end of the body and notifies the response.
+	 */
+	private void end(boolean consumed) {
+		if (ended) {
+			return;
+		}
+		ended = true;
+
+		if (progressListener != null) {
+			progressListener.transferred(progressCount());
+		}
+
+		httpResponse.bodyStreamEnded(consumed);
+	}
+
+	// ---------------------------------------------------------------- progress
+
+	/**
+	 * Monitors the download progress.
+	 */
+	void monitor(HttpProgressListener progressListener, long contentLength) {
+		this.progressListener = progressListener;
+
+		int size = contentLength > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(contentLength, 0);
+
+		this.callbackSize = progressListener.callbackSize(size);
+		this.nextCallback = count + callbackSize;
+
+		progressListener.transferred(progressCount());
+	}
+
+	private void progress() {
+		if (progressListener == null) {
+			return;
+		}
+		if (count >= nextCallback) {
+			progressListener.transferred(progressCount());
+			nextCallback = count + callbackSize;
+		}
+	}
+
+	private int progressCount() {
+		return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+	}
+
+}
@@ -0,0 +1,274 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatcher of asynchronous requests. Requests are sent using
+ * blocking {@link HttpRequest#send()} on executor threads, but the number of
+ * requests that are executed at the same time is limited, both in total and
+ * per host. Requests over the limits wait in the queue and don't occupy
+ * any thread. Use it together with
+ * {@link jodd.http.net.PoolingHttpConnectionProvider pooling provider} to reuse
+ * connections.
+ * @see HttpRequest#sendAsync()
+ */
+public class HttpDispatcher {
+
+	protected int maxRequests = 64;
+	protected int maxRequestsPerHost = 5;
+	protected Executor executor;
+
+	protected final Deque<AsyncCall> readyCalls = new ArrayDeque<>();
+	protected final Map<String, AtomicInteger> runningPerHost = new HashMap<>();
+	protected int runningCount;
+
+	/**
+	 * Creates dispatcher with default executor that
+	 * creates daemon threads on demand.
+	 */
+	public HttpDispatcher() {
+	}
+
+	/**
+	 * Creates dispatcher with custom executor.
+	 */
+	public HttpDispatcher(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Defines max number of requests executed at the same time.
+	 */
+	public HttpDispatcher setMaxRequests(int maxRequests) {
+		synchronized (this) {
+			this.maxRequests = maxRequests;
+		}
+		promoteCalls();
+		return this;
+	}
+
+	public synchronized int getMaxRequests() {
+		return maxRequests;
+	}
+
+	/**
+	 * Defines max number of requests executed at the same time for
+	 * each host. Host is defined by protocol, host name and port.
+	 */
+	public HttpDispatcher setMaxRequestsPerHost(int maxRequestsPerHost) {
+		synchronized (this) {
+			this.maxRequestsPerHost = maxRequestsPerHost;
+		}
+		promoteCalls();
+		return this;
+	}
+
+	public synchronized int getMaxRequestsPerHost() {
+		return maxRequestsPerHost;
+	}
+
+	/**
+	 * Returns number of queued requests.
+	 */
+	public synchronized int getQueuedCount() {
+		return readyCalls.size();
+	}
+
+	/**
+	 * Returns number of running requests.
+	 */
+	public synchronized int getRunningCount() {
+		return runningCount;
+	}
+
+	/**
+	 * Returns the executor, creating the default one if needed.
+	 */
+	protected synchronized Executor executor() {
+		if (executor == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			executor = new ThreadPoolExecutor(
+				0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "jodd-http-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		}
+		return executor;
+	}
+
+	/**
+	 * Shutdowns default executor. Running requests are completed.
+	 */
+	public synchronized void shutdown() {
+		if (executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	// ---------------------------------------------------------------- dispatch
+
+	/**
+	 * Sends request asynchronously. Returned future is completed with the
+	 * response or exceptionally with {@link HttpException}. Request that
+	 * is canceled before it starts is never sent.
+	 */
+	public CompletableFuture<HttpResponse> send(HttpRequest httpRequest) {
+		AsyncCall call = new AsyncCall(httpRequest);
+
+		call.future.whenComplete((httpResponse, throwable) -> dequeue(call));
+
+		synchronized (this) {
+			readyCalls.add(call);
+		}
+		promoteCalls();
+
+		return call.future;
+	}
+
+	/**
+	 * Starts queued calls while limits allow.
+	 */
+	protected void promoteCalls() {
+		while (true) {
+			AsyncCall call = null;
+
+			synchronized (this) {
+				if (runningCount >= maxRequests) {
+					return;
+				}
+
+				Iterator<AsyncCall> iterator = readyCalls.iterator();
+				while (iterator.hasNext()) {
+					AsyncCall readyCall = iterator.next();
+
+					AtomicInteger hostCount = runningPerHost.computeIfAbsent(readyCall.host, h -> new AtomicInteger());
+
+					if (hostCount.get() < maxRequestsPerHost) {
+						iterator.remove();
+						readyCall.started = true;
+						hostCount.incrementAndGet();
+						runningCount++;
+						call = readyCall;
+						break;
+					}
+				}
+
+				if (call == null) {
+					return;
+				}
+			}
+
+			try {
+				executor().execute(call);
+			}
+			catch (RuntimeException rex) {
+				finished(call);
+				call.future.completeExceptionally(rex);
+			}
+		}
+	}
+
+	/**
+	 * Removes the call from the queue when its future is
+	 * completed (i.e. canceled) before the call is started.
+	 */
+	protected synchronized void dequeue(AsyncCall call) {
+		if (!call.started) {
+			readyCalls.remove(call);
+		}
+	}
+
+	/**
+	 * Invoked when call is finished.
+	 */
+	protected void finished(AsyncCall call) {
+		synchronized (this) {
+			runningCount--;
+
+			AtomicInteger hostCount = runningPerHost.get(call.host);
+			if (hostCount.decrementAndGet() == 0) {
+				runningPerHost.remove(call.host);
+			}
+		}
+		promoteCalls();
+	}
+
+	/**
+	 * Single asynchronous request.
+	 */
+	protected class AsyncCall implements Runnable {
+		protected final HttpRequest httpRequest;
+		protected final String host;
+		protected final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+		protected boolean started;
+
+		protected AsyncCall(HttpRequest httpRequest) {
+			this.httpRequest = httpRequest;
+			this.host = httpRequest.protocol() + "://" + httpRequest.host() + ':' + httpRequest.port();
+		}
+
+		@Override
+		public void run() {
+			HttpResponse httpResponse = null;
+			Throwable failure = null;
+
+			try {
+				if (!future.isDone()) {
+					// not canceled after being started
+					httpResponse = httpRequest.send();
+				}
+			}
+			catch (Throwable throwable) {
+				failure = throwable;
+			}
+			finally {
+				finished(this);
+			}
+
+			if (failure != null) {
+				future.completeExceptionally(failure);
+			} else {
+				future.complete(httpResponse);
+			}
+		}
+	}
+
+}
@@ -25,6 +25,7 @@
 
 package jodd.http;
 
+import jodd.http.net.PooledHttpConnection;
 import jodd.util.Base64;
 import jodd.util.StringBand;
 import jodd.util.StringPool;
@@ -37,6 +38,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static jodd.util.StringPool.CRLF;
 import static jodd.util.StringPool.SPACE;
@@ -603,6 +605,29 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		return this;
 	}
 
+	// ---------------------------------------------------------------- streaming
+
+	protected boolean streamResponse;
+
+	/**
+	 * Defines if response body is streamed. Streamed body is not read
+	 * into the memory on {@link #send()}; instead it is available
+	 * as {@link HttpResponse#bodyStream() input stream}, so bodies of
+	 * any size can be read. Connection is released after the body stream
+	 * is consumed or closed.
+	 */
+	public HttpRequest streamResponse(boolean streamResponse) {
+		this.streamResponse = streamResponse;
+		return this;
+	}
+
+	/**
+	 * Returns <code>true</code> if response body is streamed.
+	 */
+	public boolean streamResponse() {
+		return streamResponse;
+	}
+
 	// ---------------------------------------------------------------- connection properties
 
 	protected int timeout = -1;
@@ -783,12 +808,30 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 	/**
 	 * {@link #open() Opens connection} if not already open, sends request,
 	 * reads response and closes the request. If keep-alive mode is enabled
-	 * connection will not be closed.
+	 * connection will not be closed. Connections of
+	 * {@link jodd.http.net.PoolingHttpConnectionProvider pooling provider}
+	 * are released back to the pool instead.
 	 */
 	public HttpResponse send() {
 		return _send();
 	}
 
+	/**
+	 * Sends request asynchronously, using {@link JoddHttp#httpDispatcher default dispatcher}.
+	 * @see #sendAsync(HttpDispatcher)
+	 */
+	public CompletableFuture<HttpResponse> sendAsync() {
+		return sendAsync(JoddHttp.httpDispatcher);
+	}
+
+	/**
+	 * Sends request asynchronously using given {@link HttpDispatcher}.
+	 * Returned future is completed with the response once it is read.
+	 */
+	public CompletableFuture<HttpResponse> sendAsync(HttpDispatcher httpDispatcher) {
+		return httpDispatcher.send(this);
+	}
+
 	private HttpResponse _send() {
 		if (httpConnection == null) {
 			open();
@@ -803,24 +846,58 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 
 			InputStream inputStream = httpConnection.getInputStream();
 
-			httpResponse = HttpResponse.readFrom(inputStream);
+			if (streamResponse) {
+				httpResponse = HttpResponse.readStreamingFrom(inputStream);
+			} else {
+				httpResponse = HttpResponse.readFrom(inputStream);
+			}
 
 			httpResponse.assignHttpRequest(this);
 		} catch (IOException ioex) {
+			discardPooledConnection();
 			throw new HttpException(ioex);
+		} catch (RuntimeException | Error ex) {
+			// reading the response wraps IO errors into HttpException
+			discardPooledConnection();
+			throw ex;
 		}
 
-		boolean keepAlive = httpResponse.isConnectionPersistent();
+		if (httpResponse.isBodyStreaming()) {
+			// connection is released or closed when the body stream ends
+			if (httpResponse.rawBodyStream.isEnded()) {
+				httpResponse.bodyStreamEnded(true);
+			}
+			return httpResponse;
+		}
+
+		// body that ends when stream closes leaves nothing to reuse
+		boolean keepAlive = httpResponse.isConnectionPersistent() && !httpResponse.isBodyDelimitedByEof();
 
 		if (!keepAlive) {
 			// closes connection if keep alive is false, or if counter reached 0
 			httpConnection.close();
 			httpConnection = null;
 		}
+		else if (httpConnection instanceof PooledHttpConnection) {
+			// response is fully read, connection can be reused
+			((PooledHttpConnection) httpConnection).release();
+			httpConnection = null;
+		}
 
 		return httpResponse;
 	}
 
+	/**
+	 * Closes pooled connection after failed exchange, since
+	 * broken connection must not be returned to the pool.
+	 */
+	private void discardPooledConnection() {
+		if (httpConnection instanceof PooledHttpConnection) {
+			httpConnection.close();
+			httpConnection = null;
+		}
+	}
+
 	// ---------------------------------------------------------------- buffer
 
 	/**
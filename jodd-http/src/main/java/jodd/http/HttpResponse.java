@@ -25,16 +25,23 @@
 
 package jodd.http;
 
+import jodd.http.net.PooledHttpConnection;
 import jodd.io.StreamUtil;
 import jodd.util.StringPool;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 
@@ -115,6 +122,18 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 		String contentEncoding = contentEncoding();
 
 		if (contentEncoding != null && contentEncoding().equals("gzip")) {
+			if (bodyStream != null) {
+				// decompress on the fly
+				removeHeader(HEADER_CONTENT_ENCODING);
+				removeHeader(HEADER_CONTENT_LENGTH);
+				try {
+					bodyStream = new GZIPInputStream(bodyStream);
+				} catch (IOException ioex) {
+					closeBodyStream();
+					throw new HttpException(ioex);
+				}
+				return this;
+			}
 			if (body != null) {
 				removeHeader(HEADER_CONTENT_ENCODING);
 				try {
@@ -177,6 +196,77 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 		}
 		BufferedReader reader = new BufferedReader(inputStreamReader);
 
+		HttpResponse httpResponse = readHead(reader);
+
+		httpResponse.readBody(reader);
+
+		return httpResponse;
+	}
+
+	/**
+	 * Reads response status line and headers from input stream, but not the body.
+	 * Body is available as {@link #bodyStream() stream} and it is read
+	 * only when consumed, so it can be of any size.
+	 * Supports both streamed and chunked response.
+	 */
+	public static HttpResponse readStreamingFrom(InputStream in) {
+		if (!(in instanceof BufferedInputStream)) {
+			in = new BufferedInputStream(in);
+		}
+
+		byte[] head;
+		try {
+			head = readHeadBytes(in);
+		} catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+
+		BufferedReader reader;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(head), StringPool.ISO_8859_1));
+		} catch (UnsupportedEncodingException ignore) {
+			return null;
+		}
+
+		HttpResponse httpResponse = readHead(reader);
+
+		httpResponse.createBodyStream(in);
+
+		return httpResponse;
+	}
+
+	/**
+	 * Reads bytes of the status line and the headers, up to the empty line.
+	 */
+	protected static byte[] readHeadBytes(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+		int lineLength = 0;
+
+		while (true) {
+			int c = in.read();
+
+			if (c == -1) {
+				break;
+			}
+			out.write(c);
+
+			if (c == '\n') {
+				if (lineLength == 0) {
+					break;
+				}
+				lineLength = 0;
+			}
+			else if (c != '\r') {
+				lineLength++;
+			}
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Reads status line and headers.
+	 */
+	protected static HttpResponse readHead(BufferedReader reader) {
 		HttpResponse httpResponse = new HttpResponse();
 
 		// the first line
@@ -220,11 +310,162 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 		}
 
 		httpResponse.readHeaders(reader);
-		httpResponse.readBody(reader);
 
 		return httpResponse;
 	}
 
+	// ---------------------------------------------------------------- body stream
+
+	protected HttpBodyInputStream rawBodyStream;
+	protected InputStream bodyStream;
+
+	/**
+	 * Returns <code>true</code> if body has neither content length
+	 * nor chunked encoding, so it ends only when the stream closes.
+	 */
+	protected boolean isBodyDelimitedByEof() {
+		String transferEncoding = header("Transfer-Encoding");
+		if (transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked")) {
+			return false;
+		}
+		return contentLength() == null;
+	}
+
+	/**
+	 * Creates body stream from response headers.
+	 */
+	protected void createBodyStream(InputStream in) {
+		String transferEncoding = header("Transfer-Encoding");
+		boolean chunked = transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked");
+
+		long contentLength = -1;
+
+		String contentLen = contentLength();
+		if (contentLen != null && !chunked) {
+			contentLength = Long.parseLong(contentLen.trim());
+		}
+
+		rawBodyStream = new HttpBodyInputStream(this, in, chunked, contentLength);
+		bodyStream = rawBodyStream;
+	}
+
+	/**
+	 * Returns <code>true</code> if body is available only as a {@link #bodyStream() stream}.
+	 */
+	public boolean isBodyStreaming() {
+		return rawBodyStream != null;
+	}
+
+	/**
+	 * Returns body input stream of streaming response or <code>null</code>
+	 * if the body is already read. Chunked body is decoded on the fly.
+	 * Once the body is consumed, connection is released for the reuse
+	 * (or closed if connection is not persistent). Closing the stream
+	 * before the end closes the connection.
+	 * @see HttpRequest#streamResponse(boolean)
+	 */
+	public InputStream bodyStream() {
+		return bodyStream;
+	}
+
+	/**
+	 * Returns {@link #bodyStream() body stream} as a channel.
+	 */
+	public ReadableByteChannel bodyChannel() {
+		if (bodyStream == null) {
+			return null;
+		}
+		return Channels.newChannel(bodyStream);
+	}
+
+	/**
+	 * Writes streamed body to the file, without buffering the whole body in memory.
+	 * Returns number of written bytes.
+	 */
+	public long bodyToFile(File file) {
+		if (bodyStream == null) {
+			throw new HttpException("Response body is not streamed");
+		}
+
+		long position = 0;
+
+		try (FileChannel fileChannel = new FileOutputStream(file).getChannel()) {
+			ReadableByteChannel channel = Channels.newChannel(bodyStream);
+
+			while (true) {
+				long transferred = fileChannel.transferFrom(channel, position, TRANSFER_CHUNK_SIZE);
+
+				if (transferred <= 0) {
+					break;
+				}
+				position += transferred;
+			}
+		}
+		catch (IOException ioex) {
+			closeBodyStream();
+			throw new HttpException(ioex);
+		}
+
+		closeBodyStream();
+
+		return position;
+	}
+
+	protected static final int TRANSFER_CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Registers {@link jodd.http.HttpProgressListener listener} that will
+	 * monitor the download progress of the streamed body. Must be set
+	 * before body is read.
+	 */
+	public HttpResponse monitor(HttpProgressListener httpProgressListener) {
+		this.httpProgressListener = httpProgressListener;
+
+		if (rawBodyStream != null) {
+			String contentLen = contentLength();
+			long size = contentLen != null ? Long.parseLong(contentLen.trim()) : 0;
+
+			rawBodyStream.monitor(httpProgressListener, size);
+		}
+		return this;
+	}
+
+	/**
+	 * Closes the body stream, ignoring exceptions.
+	 */
+	protected void closeBodyStream() {
+		if (bodyStream != null) {
+			try {
+				bodyStream.close();
+			} catch (IOException ignore) {
+			}
+		}
+	}
+
+	/**
+	 * Invoked when streamed body ends. If body is consumed and connection
+	 * is persistent, connection can be reused, otherwise it is closed.
+	 */
+	protected void bodyStreamEnded(boolean consumed) {
+		if (httpRequest == null) {
+			return;
+		}
+		HttpConnection httpConnection = httpRequest.httpConnection;
+
+		if (httpConnection == null) {
+			return;
+		}
+
+		if (!consumed || !isConnectionPersistent()) {
+			httpConnection.close();
+			httpRequest.httpConnection = null;
+		}
+		else if (httpConnection instanceof PooledHttpConnection) {
+			((PooledHttpConnection) httpConnection).release();
+			httpRequest.httpConnection = null;
+		}
+	}
+
 	// ---------------------------------------------------------------- request
 
 	protected HttpRequest httpRequest;
@@ -249,6 +490,8 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	 * Otherwise, connection will be already closed.
 	 */
 	public HttpResponse close() {
+		closeBodyStream();
+
 		HttpConnection httpConnection = httpRequest.httpConnection;
 		if (httpConnection != null) {
 			httpConnection.close();
@@ -40,6 +40,11 @@ public class JoddHttp {
 	 */
 	public static HttpConnectionProvider httpConnectionProvider = new SocketHttpConnectionProvider();
 
+	/**
+	 * Default dispatcher of asynchronous requests.
+	 */
+	public static HttpDispatcher httpDispatcher = new HttpDispatcher();
+
 	/**
 	 * Default HTTP query parameters encoding (UTF-8).
 	 */
@@ -0,0 +1,158 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http.net;
+
+import jodd.http.HttpConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * {@link HttpConnection} leased from the {@link PoolingHttpConnectionProvider}.
+ * When response is persistent, connection is {@link #release() released}
+ * back to the pool. {@link #close() Closing} the connection closes the
+ * underlying socket and frees the slot in the pool.
+ */
+public class PooledHttpConnection implements HttpConnection {
+
+	protected final PoolingHttpConnectionProvider.RoutePool pool;
+	protected final SocketHttpConnection connection;
+	protected final long created;
+	protected long lastUsed;
+	protected boolean leased;
+
+	public PooledHttpConnection(PoolingHttpConnectionProvider.RoutePool pool, SocketHttpConnection connection) {
+		this.pool = pool;
+		this.connection = connection;
+		this.created = System.currentTimeMillis();
+		this.lastUsed = created;
+		this.leased = true;
+	}
+
+	@Override
+	public void init() throws IOException {
+		connection.init();
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		return connection.getOutputStream();
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return connection.getInputStream();
+	}
+
+	@Override
+	public void setTimeout(int milliseconds) {
+		connection.setTimeout(milliseconds);
+	}
+
+	/**
+	 * Returns <code>Socket</code> used by this connection.
+	 */
+	public Socket getSocket() {
+		return connection.getSocket();
+	}
+
+	/**
+	 * Returns <code>true</code> if connection is leased
+	 * and not yet released or closed.
+	 */
+	public boolean isLeased() {
+		return leased;
+	}
+
+	/**
+	 * Releases the connection back to the pool, so it can be reused
+	 * by next request to the same route. Response must be fully read.
+	 */
+	public void release() {
+		if (!leased) {
+			return;
+		}
+		leased = false;
+		lastUsed = System.currentTimeMillis();
+		pool.release(this);
+	}
+
+	/**
+	 * Closes the connection and removes it from the pool.
+	 */
+	@Override
+	public void close() {
+		connection.close();
+
+		if (!leased) {
+			return;
+		}
+		leased = false;
+		pool.discard();
+	}
+
+	/**
+	 * Closes the underlying socket of idle connection.
+	 */
+	void closeIdle() {
+		connection.close();
+	}
+
+	/**
+	 * Returns <code>true</code> if the connection is closed or if peer has closed
+	 * it while connection was idle. Idle connection should not receive any data,
+	 * so any received data makes the connection unusable, too.
+	 */
+	protected boolean isStale() {
+		Socket socket = connection.getSocket();
+
+		if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+			return true;
+		}
+
+		try {
+			int soTimeout = socket.getSoTimeout();
+			try {
+				socket.setSoTimeout(1);
+
+				// end of stream or unexpected data
+				socket.getInputStream().read();
+				return true;
+			}
+			catch (SocketTimeoutException ignore) {
+				return false;
+			}
+			finally {
+				socket.setSoTimeout(soTimeout);
+			}
+		}
+		catch (IOException ioex) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,370 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http.net;
+
+import jodd.http.HttpConnection;
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.ProxyInfo;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe {@link SocketHttpConnectionProvider} that keeps persistent connections
+ * in a pool, per route (protocol, host, port and proxy). Connections are
+ * used transparently by {@link HttpRequest#send()}: requests are sent as
+ * keep-alive and, when the response is persistent, connection is released
+ * back to the pool once the response is read. Pool limits the number of
+ * connections per route, closes connections that were idle for too long
+ * and checks if reused connections are stale. Since the same SSL socket
+ * factories are reused, TLS sessions are resumed on new connections.
+ * <p>
+ * Pool should be {@link #close() closed} when not used anymore.
+ */
+public class PoolingHttpConnectionProvider extends SocketHttpConnectionProvider {
+
+	protected final Map<Route, RoutePool> pools = new ConcurrentHashMap<>();
+
+	protected int maxConnectionsPerRoute = 10;
+	protected long idleTimeout = 30000;
+	protected long validateAfterInactivity = 2000;
+	protected long acquireTimeout = 30000;
+	protected volatile boolean closed;
+
+	/**
+	 * Defines max number of connections, both idle and leased, per route.
+	 */
+	public PoolingHttpConnectionProvider setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		return this;
+	}
+
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	/**
+	 * Defines time in milliseconds after which idle connection is closed.
+	 */
+	public PoolingHttpConnectionProvider setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		return this;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Defines time of inactivity in milliseconds after which idle
+	 * connection is checked if it's stale before it is reused.
+	 * Use <code>0</code> to check connections every time.
+	 */
+	public PoolingHttpConnectionProvider setValidateAfterInactivity(long validateAfterInactivity) {
+		this.validateAfterInactivity = validateAfterInactivity;
+		return this;
+	}
+
+	public long getValidateAfterInactivity() {
+		return validateAfterInactivity;
+	}
+
+	/**
+	 * Defines max time in milliseconds to wait for a connection
+	 * when all connections of the route are leased.
+	 */
+	public PoolingHttpConnectionProvider setAcquireTimeout(long acquireTimeout) {
+		this.acquireTimeout = acquireTimeout;
+		return this;
+	}
+
+	public long getAcquireTimeout() {
+		return acquireTimeout;
+	}
+
+	// ---------------------------------------------------------------- provider
+
+	/**
+	 * Leases idle connection of request route or creates a new one.
+	 * Request is marked as keep-alive.
+	 */
+	@Override
+	public HttpConnection createHttpConnection(HttpRequest httpRequest) throws IOException {
+		if (closed) {
+			throw new HttpException("Connection pool closed");
+		}
+
+		Route route = new Route(httpRequest, proxy);
+		RoutePool pool = pools.computeIfAbsent(route, r -> new RoutePool());
+
+		PooledHttpConnection pooledHttpConnection = pool.lease();
+
+		if (pooledHttpConnection != null) {
+			pooledHttpConnection.setTimeout(httpRequest.timeout());
+			pooledHttpConnection.init();
+		}
+		else {
+			// slot is reserved, create new connection
+			try {
+				SocketHttpConnection httpConnection = (SocketHttpConnection) super.createHttpConnection(httpRequest);
+
+				pooledHttpConnection = new PooledHttpConnection(pool, httpConnection);
+			}
+			catch (IOException | RuntimeException | Error ex) {
+				pool.discard();
+				throw ex;
+			}
+		}
+
+		httpRequest.connectionKeepAlive(true);
+
+		return pooledHttpConnection;
+	}
+
+	/**
+	 * Closes all idle connections.
+	 */
+	public void closeIdleConnections() {
+		for (RoutePool pool : pools.values()) {
+			pool.closeAll(pool.removeIdle(0));
+		}
+	}
+
+	/**
+	 * Closes idle connections and prevents leasing of new ones.
+	 * Leased connections are closed when released.
+	 */
+	public void close() {
+		closed = true;
+		closeIdleConnections();
+	}
+
+	/**
+	 * Returns total number of idle connections.
+	 */
+	public int getIdleCount() {
+		int count = 0;
+		for (RoutePool pool : pools.values()) {
+			count += pool.getIdleCount();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns total number of leased connections.
+	 */
+	public int getLeasedCount() {
+		int count = 0;
+		for (RoutePool pool : pools.values()) {
+			count += pool.getLeasedCount();
+		}
+		return count;
+	}
+
+	// ---------------------------------------------------------------- route
+
+	/**
+	 * Connection route.
+	 */
+	protected static final class Route {
+		private final String protocol;
+		private final String host;
+		private final int port;
+		private final ProxyInfo proxy;
+		private final boolean trustAllCertificates;
+		private final boolean verifyHttpsHost;
+		private final int hashCode;
+
+		protected Route(HttpRequest httpRequest, ProxyInfo proxy) {
+			this.protocol = httpRequest.protocol().toLowerCase();
+			this.host = httpRequest.host().toLowerCase();
+			this.port = httpRequest.port();
+			this.proxy = proxy;
+			this.trustAllCertificates = httpRequest.trustAllCertificates();
+			this.verifyHttpsHost = httpRequest.verifyHttpsHost();
+
+			int h = protocol.hashCode();
+			h = 31 * h + host.hashCode();
+			h = 31 * h + port;
+			h = 31 * h + System.identityHashCode(proxy);
+			this.hashCode = h;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Route)) {
+				return false;
+			}
+			Route route = (Route) o;
+
+			return port == route.port &&
+					proxy == route.proxy &&
+					trustAllCertificates == route.trustAllCertificates &&
+					verifyHttpsHost == route.verifyHttpsHost &&
+					protocol.equals(route.protocol) &&
+					host.equals(route.host);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	// ---------------------------------------------------------------- route pool
+
+	/**
+	 * Connections of a single route. Idle connections are reused in LIFO order,
+	 * so the most recently used connection is leased first.
+	 */
+	protected class RoutePool {
+		protected final Deque<PooledHttpConnection> idle = new ArrayDeque<>();
+		protected int leasedCount;
+
+		/**
+		 * Leases idle connection. Returns <code>null</code> when slot for the new
+		 * connection is reserved. Waits if all connections are leased.
+		 */
+		protected PooledHttpConnection lease() {
+			long deadline = System.currentTimeMillis() + acquireTimeout;
+
+			while (true) {
+				closeAll(removeIdle(idleTimeout));
+
+				PooledHttpConnection connection;
+
+				synchronized (this) {
+					connection = idle.pollFirst();
+
+					if (connection == null) {
+						if (leasedCount < maxConnectionsPerRoute) {
+							leasedCount++;
+							return null;
+						}
+
+						long wait = deadline - System.currentTimeMillis();
+						if (wait <= 0) {
+							throw new HttpException("Timeout waiting for connection");
+						}
+						try {
+							wait(wait);
+						} catch (InterruptedException iex) {
+							Thread.currentThread().interrupt();
+							throw new HttpException(iex);
+						}
+						continue;
+					}
+
+					leasedCount++;
+					connection.leased = true;
+				}
+
+				if (System.currentTimeMillis() - connection.lastUsed < validateAfterInactivity) {
+					return connection;
+				}
+				if (!connection.isStale()) {
+					return connection;
+				}
+
+				connection.close();
+			}
+		}
+
+		/**
+		 * Returns connection to the pool.
+		 */
+		protected void release(PooledHttpConnection connection) {
+			synchronized (this) {
+				leasedCount--;
+
+				if (!closed) {
+					idle.addFirst(connection);
+					notifyAll();
+					return;
+				}
+				notifyAll();
+			}
+			connection.closeIdle();
+		}
+
+		/**
+		 * Frees the slot of closed or not created connection.
+		 */
+		protected synchronized void discard() {
+			leasedCount--;
+			notifyAll();
+		}
+
+		/**
+		 * Removes connections idle longer then given timeout.
+		 * Removed connections should be closed outside of the lock.
+		 */
+		protected synchronized List<PooledHttpConnection> removeIdle(long timeout) {
+			List<PooledHttpConnection> removed = null;
+			long now = System.currentTimeMillis();
+
+			while (!idle.isEmpty()) {
+				PooledHttpConnection connection = idle.peekLast();
+
+				if (now - connection.lastUsed < timeout) {
+					break;
+				}
+				idle.pollLast();
+
+				if (removed == null) {
+					removed = new ArrayList<>();
+				}
+				removed.add(connection);
+			}
+			return removed;
+		}
+
+		protected void closeAll(List<PooledHttpConnection> connections) {
+			if (connections == null) {
+				return;
+			}
+			for (PooledHttpConnection connection : connections) {
+				connection.closeIdle();
+			}
+		}
+
+		protected synchronized int getIdleCount() {
+			return idle.size();
+		}
+
+		protected synchronized int getLeasedCount() {
+			return leasedCount;
+		}
+	}
+}
@@ -202,19 +202,28 @@ public class SocketHttpConnectionProvider implements HttpConnectionProvider {
 		return sslSocket;
 	}
 
+	protected volatile SSLSocketFactory trustAllSSLSocketFactory;
+
 	/**
 	 * Returns default SSL socket factory allowing setting trust managers.
 	 */
 	protected SSLSocketFactory getDefaultSSLSocketFactory(boolean trustAllCertificates) throws IOException {
 		if (trustAllCertificates) {
-			try {
-				SSLContext sc = SSLContext.getInstance("SSL");
-				sc.init(null, TrustManagers.TRUST_ALL_CERTS, new java.security.SecureRandom());
-				return sc.getSocketFactory();
-			}
-			catch (NoSuchAlgorithmException | KeyManagementException e) {
-				throw new IOException(e);
+			// the same factory is reused, so TLS sessions are cached and resumed
+			SSLSocketFactory sslSocketFactory = trustAllSSLSocketFactory;
+
+			if (sslSocketFactory == null) {
+				try {
+					SSLContext sc = SSLContext.getInstance("SSL");
+					sc.init(null, TrustManagers.TRUST_ALL_CERTS, new java.security.SecureRandom());
+					sslSocketFactory = sc.getSocketFactory();
+				}
+				catch (NoSuchAlgorithmException | KeyManagementException e) {
+					throw new IOException(e);
+				}
+				trustAllSSLSocketFactory = sslSocketFactory;
 			}
+			return sslSocketFactory;
 		} else {
 			return (SSLSocketFactory) SSLSocketFactory.getDefault();
 		}
@@ -0,0 +1,167 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http;
+
+import jodd.http.PoolingHttpConnectionProviderTest.KeepAliveServer;
+import jodd.http.net.PoolingHttpConnectionProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HttpDispatcherTest {
+
+	KeepAliveServer server;
+	PoolingHttpConnectionProvider provider;
+	HttpDispatcher dispatcher;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new KeepAliveServer();
+		provider = new PoolingHttpConnectionProvider();
+		dispatcher = new HttpDispatcher();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		dispatcher.shutdown();
+		provider.close();
+		server.stop();
+	}
+
+	private HttpRequest request(String path) {
+		return HttpRequest.get("http://localhost:" + server.port() + path).withConnectionProvider(provider);
+	}
+
+	@Test
+	public void testSendAsync() throws Exception {
+		CompletableFuture<HttpResponse> future = request("/hello").sendAsync(dispatcher);
+
+		HttpResponse response = future.get();
+		assertEquals(200, response.statusCode());
+		assertEquals("/hello@1", response.body());
+
+		String body = request("/hello").sendAsync(dispatcher).thenApply(HttpResponse::body).get();
+		assertEquals("/hello@1", body);
+	}
+
+	@Test
+	public void testMaxRequestsPerHost() throws Exception {
+		dispatcher.setMaxRequestsPerHost(2);
+
+		List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(request("/slow").sendAsync(dispatcher));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get();
+
+		for (CompletableFuture<HttpResponse> future : futures) {
+			assertEquals(200, future.get().statusCode());
+		}
+		assertEquals(2, server.maxActive.get());
+		assertTrue(server.connections.get() <= 2);
+		assertEquals(0, dispatcher.getRunningCount());
+		assertEquals(0, dispatcher.getQueuedCount());
+	}
+
+	@Test
+	public void testCancelQueued() throws Exception {
+		dispatcher.setMaxRequests(1);
+
+		CompletableFuture<HttpResponse> first = request("/slow").sendAsync(dispatcher);
+		CompletableFuture<HttpResponse> second = request("/slow").sendAsync(dispatcher);
+		assertEquals(1, dispatcher.getQueuedCount());
+		second.cancel(false);
+		assertEquals(0, dispatcher.getQueuedCount());
+
+		assertEquals(200, first.get().statusCode());
+		assertTrue(second.isCancelled());
+
+		assertEquals(200, request("/hello").sendAsync(dispatcher).get().statusCode());
+		assertEquals(0, dispatcher.getQueuedCount());
+	}
+
+	@Test
+	public void testCancelDispatched() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		HttpDispatcher dispatcher = new HttpDispatcher(executor).setMaxRequestsPerHost(1);
+
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			executor.execute(() -> {
+				try {
+					latch.await();
+				} catch (InterruptedException ignore) {
+				}
+			});
+
+			// dispatched to the busy executor, canceled before it runs
+			CompletableFuture<HttpResponse> first = request("/hello").sendAsync(dispatcher);
+			assertEquals(1, dispatcher.getRunningCount());
+			first.cancel(false);
+
+			CompletableFuture<HttpResponse> second = request("/hello").sendAsync(dispatcher);
+			assertEquals(1, dispatcher.getQueuedCount());
+
+			latch.countDown();
+
+			assertEquals(200, second.get(5, TimeUnit.SECONDS).statusCode());
+			assertTrue(first.isCancelled());
+			assertEquals(0, dispatcher.getQueuedCount());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		int port = server.port();
+		server.stop();
+
+		CompletableFuture<HttpResponse> future = HttpRequest.get("http://localhost:" + port + "/hello").sendAsync(dispatcher);
+
+		try {
+			future.get();
+			fail();
+		}
+		catch (ExecutionException eex) {
+			assertTrue(eex.getCause() instanceof HttpException);
+		}
+		assertEquals(0, dispatcher.getRunningCount());
+	}
+}
@@ -0,0 +1,162 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http;
+
+import jodd.http.PoolingHttpConnectionProviderTest.KeepAliveServer;
+import jodd.http.net.PoolingHttpConnectionProvider;
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class HttpResponseStreamingTest {
+
+	private static InputStream stream(String head, byte[] body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(head.getBytes("ISO-8859-1"));
+		out.write(body);
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+
+	private static String read(HttpResponse response) throws IOException {
+		return new String(StreamUtil.readBytes(response.bodyStream()), "ISO-8859-1");
+	}
+
+	@Test
+	public void testContentLength() throws IOException {
+		HttpResponse response = HttpResponse.readStreamingFrom(stream(
+				"HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n", "HelloNEXT".getBytes()));
+
+		assertEquals(200, response.statusCode());
+		assertTrue(response.isBodyStreaming());
+		assertNull(response.body());
+		assertEquals("Hello", read(response));
+	}
+
+	@Test
+	public void testChunked() throws IOException {
+		HttpResponse response = HttpResponse.readStreamingFrom(stream(
+				"HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n",
+				"5\r\nHello\r\n7;ext=1\r\n, world\r\n0\r\nX-Trailer: yes\r\n\r\nNEXT".getBytes()));
+
+		assertEquals("Hello, world", read(response));
+		assertEquals("yes", response.header("X-Trailer"));
+	}
+
+	@Test
+	public void testUntilEnd() throws IOException {
+		HttpResponse response = HttpResponse.readStreamingFrom(stream(
+				"HTTP/1.0 200 OK\n\n", "Hello".getBytes()));
+
+		assertEquals("Hello", read(response));
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+			gzip.write("Hello, zipped world".getBytes());
+		}
+		byte[] body = gzipped.toByteArray();
+
+		HttpResponse response = HttpResponse.readStreamingFrom(stream(
+				"HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nContent-Length: " + body.length + "\r\n\r\n", body));
+
+		response.unzip();
+		assertNull(response.contentEncoding());
+		assertEquals("Hello, zipped world", read(response));
+	}
+
+	@Test
+	public void testStreamingWithPooledConnection() throws IOException {
+		KeepAliveServer server = new KeepAliveServer();
+		PoolingHttpConnectionProvider provider = new PoolingHttpConnectionProvider();
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				HttpResponse response = HttpRequest.get("http://localhost:" + server.port() + "/hello")
+						.withConnectionProvider(provider)
+						.streamResponse(true)
+						.send();
+
+				assertEquals(0, provider.getIdleCount());
+				assertEquals(1, provider.getLeasedCount());
+
+				assertEquals("/hello@1", read(response));
+
+				assertEquals(1, provider.getIdleCount());
+				assertEquals(0, provider.getLeasedCount());
+			}
+
+			// download to file with progress
+			File file = FileUtil.createTempFile();
+			file.deleteOnExit();
+
+			List<Integer> progress = new ArrayList<>();
+
+			HttpResponse response = HttpRequest.get("http://localhost:" + server.port() + "/file")
+					.withConnectionProvider(provider)
+					.streamResponse(true)
+					.send()
+					.monitor(new HttpProgressListener() {
+						@Override
+						public void transferred(int len) {
+							progress.add(len);
+						}
+					});
+
+			assertEquals(7, response.bodyToFile(file));
+			assertEquals("/file@1", FileUtil.readString(file));
+			assertEquals(0, progress.get(0).intValue());
+			assertEquals(7, progress.get(progress.size() - 1).intValue());
+			assertEquals(1, provider.getIdleCount());
+
+			// closing unread small body drains it, so connection is reused
+			response = HttpRequest.get("http://localhost:" + server.port() + "/hello")
+					.withConnectionProvider(provider)
+					.streamResponse(true)
+					.send();
+
+			response.close();
+			assertEquals(0, provider.getLeasedCount());
+
+			file.delete();
+		}
+		finally {
+			provider.close();
+			server.stop();
+		}
+	}
+}
@@ -0,0 +1,262 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.http;
+
+import jodd.http.net.PoolingHttpConnectionProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PoolingHttpConnectionProviderTest {
+
+	/**
+	 * Simple keep-alive server that counts accepted connections.
+	 */
+	static class KeepAliveServer implements Runnable {
+		final ServerSocket serverSocket;
+		final AtomicInteger connections = new AtomicInteger();
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger maxActive = new AtomicInteger();
+
+		KeepAliveServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(this);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		int port() {
+			return serverSocket.getLocalPort();
+		}
+
+		public void run() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					int number = connections.incrementAndGet();
+					Thread thread = new Thread(() -> serve(socket, number));
+					thread.setDaemon(true);
+					thread.start();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+
+		void serve(Socket socket, int number) {
+			try {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "ISO-8859-1"));
+				OutputStream out = socket.getOutputStream();
+
+				while (true) {
+					String requestLine = reader.readLine();
+					if (requestLine == null) {
+						break;
+					}
+					String line;
+					while ((line = reader.readLine()) != null && !line.isEmpty()) {
+					}
+
+					String path = requestLine.split(" ")[1];
+
+					if (path.equals("/slow")) {
+						int count = active.incrementAndGet();
+						maxActive.accumulateAndGet(count, Math::max);
+						try {
+							Thread.sleep(50);
+						} catch (InterruptedException ignore) {
+						}
+						active.decrementAndGet();
+					}
+					String body = path + "@" + number;
+
+					if (path.equals("/broken")) {
+						out.write("HTTP/1.1 200 OK\r\nbroken header\r\n\r\n".getBytes("ISO-8859-1"));
+						out.flush();
+						continue;
+					}
+					if (path.equals("/eof")) {
+						out.write(("HTTP/1.1 200 OK\r\n\r\n" + body).getBytes("ISO-8859-1"));
+						out.flush();
+						break;
+					}
+					String connection = path.equals("/close") ? "Connection: close\r\n" : "";
+
+					out.write(("HTTP/1.1 200 OK\r\nContent-Length: " + body.length() + "\r\n" + connection + "\r\n" + body).getBytes("ISO-8859-1"));
+					out.flush();
+
+					if (path.equals("/close") || path.equals("/drop")) {
+						break;
+					}
+				}
+			} catch (IOException ignore) {
+			} finally {
+				try {
+					socket.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+
+		void stop() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+	KeepAliveServer server;
+	PoolingHttpConnectionProvider provider;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new KeepAliveServer();
+		provider = new PoolingHttpConnectionProvider();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		provider.close();
+		server.stop();
+	}
+
+	private HttpResponse get(String path) {
+		return HttpRequest.get("http://localhost:" + server.port() + path)
+				.withConnectionProvider(provider)
+				.send();
+	}
+
+	@Test
+	public void testReuse() {
+		for (int i = 0; i < 5; i++) {
+			HttpResponse response = get("/hello");
+			assertEquals(200, response.statusCode());
+			assertEquals("/hello@1", response.body());
+			assertNull(response.getHttpRequest().connection());
+		}
+
+		assertEquals(1, server.connections.get());
+		assertEquals(1, provider.getIdleCount());
+		assertEquals(0, provider.getLeasedCount());
+	}
+
+	@Test
+	public void testConnectionClose() {
+		assertEquals("/close@1", get("/close").body());
+		assertEquals(0, provider.getIdleCount());
+		assertEquals(0, provider.getLeasedCount());
+
+		assertEquals("/hello@2", get("/hello").body());
+		assertEquals(1, provider.getIdleCount());
+	}
+
+	@Test
+	public void testStaleConnection() throws InterruptedException {
+		provider.setValidateAfterInactivity(0);
+
+		assertEquals("/drop@1", get("/drop").body());
+		assertEquals(1, provider.getIdleCount());
+
+		Thread.sleep(100);
+
+		assertEquals("/hello@2", get("/hello").body());
+		assertEquals(1, provider.getIdleCount());
+	}
+
+	@Test
+	public void testIdleTimeout() throws InterruptedException {
+		provider.setIdleTimeout(50);
+
+		assertEquals("/hello@1", get("/hello").body());
+		Thread.sleep(100);
+		assertEquals("/hello@2", get("/hello").body());
+		assertEquals(1, provider.getIdleCount());
+	}
+
+	@Test
+	public void testBrokenResponse() {
+		provider.setMaxConnectionsPerRoute(1);
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				get("/broken");
+				fail();
+			}
+			catch (HttpException ignore) {
+			}
+			assertEquals(0, provider.getLeasedCount());
+			assertEquals(0, provider.getIdleCount());
+		}
+
+		assertEquals("/hello@4", get("/hello").body());
+		assertEquals(0, provider.getLeasedCount());
+	}
+
+	@Test
+	public void testBodyUntilEof() {
+		assertEquals("/eof@1", get("/eof").body());
+		assertEquals(0, provider.getIdleCount());
+		assertEquals(0, provider.getLeasedCount());
+
+		assertEquals("/hello@2", get("/hello").body());
+		assertEquals(1, provider.getIdleCount());
+	}
+
+	@Test
+	public void testMaxConnectionsPerRoute() throws InterruptedException {
+		provider.setMaxConnectionsPerRoute(2);
+
+		List<Thread> threads = new ArrayList<>();
+		AtomicInteger ok = new AtomicInteger();
+
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread(() -> {
+				for (int j = 0; j < 20; j++) {
+					if (get("/hello").body().startsWith("/hello@")) {
+						ok.incrementAndGet();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(160, ok.get());
+		assertTrue(server.connections.get() <= 2);
+		assertEquals(0, provider.getLeasedCount());
+	}
+}
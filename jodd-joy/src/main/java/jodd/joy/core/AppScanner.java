@@ -26,15 +26,21 @@
 package jodd.joy.core;
 
 import jodd.io.findfile.ClassFinder;
+import jodd.io.findfile.ClassPathIndex;
 import jodd.typeconverter.Convert;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 
+import java.io.File;
+
 /**
  * <code>AppScanner</code> defines entries that will be included/excluded in
  * scanning process, when configuring Jodd frameworks.
  * By default, scanning entries includes all classes that belongs
  * to the project and to the Jodd.
+ * <p>
+ * All scanners share the same {@link ClassPathIndex class path index},
+ * so the class path is listed just once.
  */
 public class AppScanner {
 
@@ -86,6 +92,52 @@ public class AppScanner {
 		this.ignoreExceptions = ignoreExceptions;
 	}
 
+	/**
+	 * Class path index cache file. When set, unchanged jars
+	 * are not scanned again on the next start.
+	 */
+	protected String indexFile;
+
+	public String getIndexFile() {
+		return indexFile;
+	}
+
+	public void setIndexFile(String indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	// ---------------------------------------------------------------- index
+
+	protected ClassPathIndex classPathIndex;
+
+	/**
+	 * Returns class path index shared by all scanners.
+	 */
+	public ClassPathIndex getClassPathIndex() {
+		if (classPathIndex == null) {
+			if (indexFile != null) {
+				classPathIndex = new ClassPathIndex(new File(indexFile));
+			} else {
+				classPathIndex = new ClassPathIndex();
+			}
+		}
+		return classPathIndex;
+	}
+
+	/**
+	 * Saves class path index to the {@link #setIndexFile(String) index file}, if set.
+	 */
+	public void saveClassPathIndex() {
+		if (classPathIndex == null || indexFile == null) {
+			return;
+		}
+		try {
+			classPathIndex.save();
+		} catch (RuntimeException rex) {
+			log.warn("Class path index not saved: " + indexFile, rex);
+		}
+	}
+
 	// ---------------------------------------------------------------- props
 
 
@@ -120,6 +172,8 @@ public class AppScanner {
 		}
 
 		classFinder.setIgnoreException(ignoreExceptions);
+
+		classFinder.setClassPathIndex(getClassPathIndex());
 	}
 
 }
\ No newline at end of file
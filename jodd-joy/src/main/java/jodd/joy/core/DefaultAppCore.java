@@ -271,6 +271,9 @@ public abstract class DefaultAppCore {
 			startProxetta();
 			startPetite();
 			startDb();
+
+			appScanner.saveClassPathIndex();
+
 			startApp();
 
 			log.info("app started");
@@ -60,7 +60,10 @@ public class BeanSerializer extends TypeJsonVisitor {
 			// metadata - classname
 			value = source.getClass().getName();
 		} else {
-			value = readProperty(source, propertyDescriptor);
+			Getter getter = currentProperty != null ?
+					currentProperty.getter : propertyDescriptor.getGetter(declared);
+
+			value = readProperty(source, getter);
 
 			if ((value == null) && jsonContext.isExcludeNulls()) {
 				return;
@@ -68,7 +71,11 @@ public class BeanSerializer extends TypeJsonVisitor {
 
 			// change name for properties
 
-			propertyName = typeData.resolveJsonName(propertyName);
+			if (currentProperty != null) {
+				propertyName = currentProperty.serializedName;
+			} else {
+				propertyName = typeData.resolveJsonName(propertyName);
+			}
 		}
 
 		onSerializableProperty(
@@ -82,7 +89,11 @@ public class BeanSerializer extends TypeJsonVisitor {
 	 * Property type is <code>null</code> for metadata class name property.
 	 */
 	protected void onSerializableProperty(String propertyName, Class propertyType, Object value) {
-		jsonContext.pushName(propertyName, count > 0);
+		if (currentProperty != null && currentProperty.serializedName.equals(propertyName)) {
+			jsonContext.pushName(propertyName, currentProperty.encodedName, count > 0);
+		} else {
+			jsonContext.pushName(propertyName, count > 0);
+		}
 
 		jsonContext.serialize(value);
 
@@ -92,11 +103,9 @@ public class BeanSerializer extends TypeJsonVisitor {
 	}
 
 	/**
-	 * Reads property using property descriptor.
+	 * Reads property using its getter.
 	 */
-	private Object readProperty(Object source, PropertyDescriptor propertyDescriptor) {
-		Getter getter = propertyDescriptor.getGetter(declared);
-
+	private Object readProperty(Object source, Getter getter) {
 		if (getter != null) {
 			try {
 				return getter.invokeGetter(source);
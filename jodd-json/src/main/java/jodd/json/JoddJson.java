@@ -71,13 +71,15 @@ public class JoddJson {
 	public static boolean useAltPathsByParser = false;
 
 	/**
-	 * List of excluded types for serialization.
+	 * List of excluded types for serialization. Assign a new array
+	 * to change it, so serializers can detect the change.
 	 */
 	public static Class[] excludedTypes = null;
 
 	/**
 	 * List of excluded types names for serialization. Type name
 	 * can contain wildcards (<code>*</code> and <code>?</code>).
+	 * Assign a new array to change it, so serializers can detect the change.
 	 */
 	public static String[] excludedTypeNames = null;
 
@@ -92,6 +94,12 @@ public class JoddJson {
 	 */
 	public static JsonAnnotationManager annotationManager = new JsonAnnotationManager();
 
+	/**
+	 * Size of the byte buffer used when serializing to an output stream.
+	 * Buffers are reused by the same thread.
+	 */
+	public static int outputBufferSize = 8192;
+
 	// ---------------------------------------------------------------- module
 
 	static {
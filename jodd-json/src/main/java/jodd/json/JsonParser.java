@@ -33,7 +33,18 @@ import jodd.util.CharUtil;
 import jodd.util.StringPool;
 import jodd.util.UnsafeUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -78,6 +89,8 @@ public class JsonParser extends JsonParserBase {
 	protected Class rootType;
 	protected MapToBean mapToBean;
 	protected boolean looseMode;
+	protected boolean lazy;
+	protected boolean lazyDecoder;
 
 	public JsonParser() {
 		text = new char[512];
@@ -121,6 +134,23 @@ public class JsonParser extends JsonParserBase {
 		return this;
 	}
 
+	/**
+	 * Enables 'lazy' mode for parsing. When 'lazy' mode is enabled, objects and
+	 * arrays are returned as lightweight <code>Map</code> and <code>List</code>
+	 * views over the input. Views decode their content (names, nested objects,
+	 * strings and numbers) only on the first access, so parsing big JSON and
+	 * reading just a few values is fast and allocates little.
+	 * <p>
+	 * Lazy mode is used only for untyped parsing without class meta-data,
+	 * mappings and value converters; it is ignored in 'loose' mode.
+	 * Content of lazy views is validated only when accessed. Views are
+	 * not thread-safe; they become ordinary collections once modified.
+	 */
+	public JsonParser lazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- mappings
 
 	protected Map<Path, Class> mappings;
@@ -269,10 +299,129 @@ public class JsonParser extends JsonParserBase {
 		return _parse(input);
 	}
 
+	/**
+	 * Parses JSON from UTF-8 encoded bytes, without creating
+	 * an intermediate string.
+	 */
+	public <T> T parse(byte[] input) {
+		char[] chars = new char[utf8CharsCount(input)];
+		CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		CoderResult result = decoder.decode(ByteBuffer.wrap(input), charBuffer, true);
+		if (!result.isOverflow()) {
+			result = decoder.flush(charBuffer);
+		}
+
+		if (result.isOverflow()) {
+			// malformed input decodes to more chars than counted
+			charBuffer = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(input));
+			return _parse(charBuffer.array(), charBuffer.limit());
+		}
+
+		return _parse(chars, charBuffer.position());
+	}
+
+	/**
+	 * Counts chars of UTF-8 encoded bytes, so they can be
+	 * decoded in the array of the exact size. Every byte that is not
+	 * a continuation byte starts a new char; 4-byte sequences
+	 * are decoded to surrogate pairs.
+	 */
+	private static int utf8CharsCount(byte[] input) {
+		int count = 0;
+		for (byte b : input) {
+			if ((b & 0xC0) != 0x80) {
+				count++;
+				if ((b & 0xF8) == 0xF0) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Parses JSON from UTF-8 encoded bytes as given type.
+	 */
+	public <T> T parse(byte[] input, Class<?> targetType) {
+		rootType = targetType;
+		return parse(input);
+	}
+
+	/**
+	 * Parses JSON read from the reader. The reader is not closed.
+	 * For large inputs that should not be loaded in the memory,
+	 * use {@link JsonReader} instead.
+	 */
+	public <T> T parse(Reader reader) {
+		char[] chars = new char[1024];
+		int len = 0;
+
+		try {
+			while (true) {
+				int count = reader.read(chars, len, chars.length - len);
+				if (count == -1) {
+					break;
+				}
+				len += count;
+				if (len == chars.length) {
+					chars = Arrays.copyOf(chars, chars.length << 1);
+				}
+			}
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+
+		return _parse(chars, len);
+	}
+
+	/**
+	 * Parses JSON read from the reader as given type.
+	 */
+	public <T> T parse(Reader reader, Class<?> targetType) {
+		rootType = targetType;
+		return parse(reader);
+	}
+
+	/**
+	 * Parses JSON read from UTF-8 encoded input stream. The stream is not closed.
+	 */
+	public <T> T parse(InputStream inputStream) {
+		return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses JSON read from UTF-8 encoded input stream as given type.
+	 */
+	public <T> T parse(InputStream inputStream, Class<?> targetType) {
+		rootType = targetType;
+		return parse(inputStream);
+	}
 
 	private <T> T _parse(char[] input) {
+		return _parse(input, input.length);
+	}
+
+	private <T> T _parse(char[] input, int total) {
+		if (input.length != total) {
+			// scanners detect the end of JSON by the end of the array
+			input = Arrays.copyOf(input, total);
+		}
+
+		if (lazy && !lazyDecoder && rootType == null && mappings == null && convs == null && classMetadataName == null && !looseMode) {
+			JsonParser decoder = new JsonParser();
+			decoder.lazyDecoder = true;
+			decoder.classMetadataName = null;
+			return decoder._parse(input, total);
+		}
+
 		this.input = input;
-		this.total = input.length;
+		this.total = total;
 
 		reset();
 
@@ -341,10 +490,16 @@ public class JsonParser extends JsonParserBase {
 
 			case '{':
 				ndx++;
+				if (lazyDecoder) {
+					return new LazyMap(this, skipContent());
+				}
 				return parseObjectContent(targetType, keyType, componentType);
 
 			case '[':
 				ndx++;
+				if (lazyDecoder) {
+					return new LazyList(this, skipContent());
+				}
 				return parseArrayContent(targetType, componentType);
 
 			case '0':
@@ -655,6 +810,13 @@ public class JsonParser extends JsonParserBase {
 
 		String value = String.valueOf(input, startIndex, ndx - startIndex);
 
+		return convertNumber(value, isDouble, isExp);
+	}
+
+	/**
+	 * Converts number string to the most appropriate number type.
+	 */
+	static Number convertNumber(String value, boolean isDouble, boolean isExp) {
 		if (isDouble) {
 			return Double.valueOf(value);
 		}
@@ -933,6 +1095,79 @@ public class JsonParser extends JsonParserBase {
 		return target;
 	}
 
+	// ---------------------------------------------------------------- skip
+
+	/**
+	 * Skips the object or array content, once when open bracket has been
+	 * consumed. Content is not validated. Returns the start index of the content.
+	 */
+	protected int skipContent() {
+		int startNdx = ndx;
+		int depth = 1;
+
+		while (true) {
+			char c = input[ndx++];
+
+			switch (c) {
+				case '"':
+					skipStringContent();
+					break;
+				case '{':
+				case '[':
+					depth++;
+					break;
+				case '}':
+				case ']':
+					depth--;
+					if (depth == 0) {
+						return startNdx;
+					}
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Skips the string content, once when starting quote has been consumed.
+	 */
+	protected void skipStringContent() {
+		while (true) {
+			char c = input[ndx++];
+
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				ndx++;
+			}
+		}
+	}
+
+	/**
+	 * Skips a value without parsing it.
+	 */
+	protected void skipValue() {
+		char c = input[ndx++];
+
+		switch (c) {
+			case '{':
+			case '[':
+				skipContent();
+				return;
+			case '"':
+				skipStringContent();
+				return;
+		}
+
+		while (!isEOF()) {
+			c = input[ndx];
+			if (c <= 32 || c == ',' || c == '}' || c == ']') {
+				return;
+			}
+			ndx++;
+		}
+	}
+
 	// ---------------------------------------------------------------- scanning tools
 
 	/**
@@ -1018,10 +1253,13 @@ public class JsonParser extends JsonParserBase {
 		}
 
 		int to = ndx + offset;
-		if (to > input.length) {
-			to = input.length;
+		if (to > total) {
+			to = total;
 			right = StringPool.EMPTY;
 		}
+		if (from > to) {
+			from = to;
+		}
 
 		String str = String.valueOf(input, from, to - from);
 
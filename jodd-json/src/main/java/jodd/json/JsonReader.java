@@ -0,0 +1,724 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.util.CharUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Streaming, pull-style JSON reader. Input is read from a <code>Reader</code>
+ * into a bounded buffer that is refilled as tokens are consumed, so the
+ * memory usage does not depend on the size of the input. Tokens are pulled
+ * with {@link #next()}. Complete values (e.g. elements of a large array) can
+ * be read with {@link #readValue(Class)}: only the text of the value is
+ * buffered and then parsed with the {@link JsonParser}, so all parser
+ * mappings and type conversions apply.
+ * <p>
+ * Reader is strict and does not support parsers 'loose' mode.
+ */
+public class JsonReader implements Closeable {
+
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_ARRAY = 2;
+	private static final int NONEMPTY_ARRAY = 3;
+	private static final int EMPTY_OBJECT = 4;
+	private static final int DANGLING_NAME = 5;
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private static final char[] T_RUE = new char[] {'r', 'u', 'e'};
+	private static final char[] F_ALSE = new char[] {'a', 'l', 's', 'e'};
+	private static final char[] N_ULL = new char[] {'u', 'l', 'l'};
+
+	protected final Reader reader;
+	protected final char[] buffer;
+	protected int pos;
+	protected int limit;
+	protected long bufferOffset;
+
+	protected int[] scopes = new int[32];
+	protected int scopesSize;
+
+	protected JsonToken peeked;
+	protected boolean valuePending;
+
+	protected char[] text = new char[64];
+	protected int textLen;
+	protected String stringValue;
+	protected boolean booleanValue;
+	protected boolean isDouble;
+	protected boolean isExp;
+
+	protected JsonParser parser;
+
+	/**
+	 * Creates reader with the default buffer size.
+	 */
+	public JsonReader(Reader reader) {
+		this(reader, 8192);
+	}
+
+	/**
+	 * Creates reader with given buffer size.
+	 */
+	public JsonReader(Reader reader, int bufferSize) {
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+		this.scopes[scopesSize++] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * Creates reader of UTF-8 encoded input stream.
+	 */
+	public JsonReader(InputStream inputStream) {
+		this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Creates reader of UTF-8 encoded bytes.
+	 */
+	public JsonReader(byte[] input) {
+		this(new ByteArrayInputStream(input));
+	}
+
+	/**
+	 * Sets the parser used for reading values. Parser may be
+	 * configured with mappings, value converters and so on.
+	 */
+	public JsonReader withParser(JsonParser parser) {
+		this.parser = parser;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- tokens
+
+	/**
+	 * Returns the type of the next token, without consuming it.
+	 */
+	public JsonToken peek() {
+		doPeek();
+
+		if (!valuePending) {
+			return peeked;
+		}
+
+		switch (peekChar()) {
+			case '{': return JsonToken.BEGIN_OBJECT;
+			case '[': return JsonToken.BEGIN_ARRAY;
+			case '"': return JsonToken.STRING;
+			case 't':
+			case 'f': return JsonToken.BOOLEAN;
+			case 'n': return JsonToken.NULL;
+			default: return JsonToken.NUMBER;
+		}
+	}
+
+	/**
+	 * Consumes and returns the next token. Value of the token is
+	 * available using {@link #getString()}, {@link #getNumber()} or
+	 * {@link #getBoolean()}.
+	 */
+	public JsonToken next() {
+		doPeek();
+
+		if (valuePending) {
+			valuePending = false;
+			return readValueToken();
+		}
+
+		JsonToken token = peeked;
+		peeked = null;
+		return token;
+	}
+
+	/**
+	 * Consumes the next token that has to be a name and returns it.
+	 */
+	public String nextName() {
+		JsonToken token = next();
+
+		if (token != JsonToken.NAME) {
+			syntaxError("Expected name, found " + token);
+		}
+		return stringValue;
+	}
+
+	/**
+	 * Returns the value of the last {@link JsonToken#NAME name},
+	 * {@link JsonToken#STRING string} or {@link JsonToken#NUMBER number}.
+	 */
+	public String getString() {
+		return stringValue;
+	}
+
+	/**
+	 * Returns the value of the last {@link JsonToken#NUMBER number}.
+	 * Number type is resolved in the same way as in {@link JsonParser}.
+	 */
+	public Number getNumber() {
+		try {
+			return JsonParser.convertNumber(stringValue, isDouble, isExp);
+		}
+		catch (NumberFormatException nfex) {
+			syntaxError("Invalid number: " + stringValue);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the value of the last {@link JsonToken#BOOLEAN boolean}.
+	 */
+	public boolean getBoolean() {
+		return booleanValue;
+	}
+
+	// ---------------------------------------------------------------- values
+
+	/**
+	 * Reads the next complete value using the {@link JsonParser}.
+	 */
+	public <T> T readValue() {
+		return readValue(null);
+	}
+
+	/**
+	 * Reads the next complete value and converts it to given type.
+	 * Only the text of this value is kept in the memory.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T readValue(Class<T> targetType) {
+		doPeek();
+
+		if (!valuePending) {
+			syntaxError("Expected value, found " + peeked);
+		}
+		valuePending = false;
+
+		captureValue(true);
+
+		if (parser == null) {
+			parser = new JsonParser();
+		}
+
+		return (T) parser.parse(Arrays.copyOf(text, textLen), targetType);
+	}
+
+	/**
+	 * Skips the next value.
+	 */
+	public void skipValue() {
+		doPeek();
+
+		if (!valuePending) {
+			syntaxError("Expected value, found " + peeked);
+		}
+		valuePending = false;
+
+		captureValue(false);
+	}
+
+	/**
+	 * Reads an array one element at a time and passes
+	 * each element to the consumer.
+	 */
+	public <T> void readArray(Class<T> componentType, Consumer<? super T> consumer) {
+		JsonToken token = next();
+
+		if (token != JsonToken.BEGIN_ARRAY) {
+			syntaxError("Expected array, found " + token);
+		}
+
+		while (peek() != JsonToken.END_ARRAY) {
+			consumer.accept(readValue(componentType));
+		}
+
+		next();
+	}
+
+	/**
+	 * Closes the underlying reader.
+	 */
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	// ---------------------------------------------------------------- scopes
+
+	/**
+	 * Resolves the next token from the current scope. If the next token
+	 * is a value, sets the <code>valuePending</code> flag and leaves the
+	 * position at the first value character. Otherwise, sets the
+	 * <code>peeked</code> token.
+	 */
+	protected void doPeek() {
+		if (peeked != null || valuePending) {
+			return;
+		}
+
+		int top = scopesSize - 1;
+		int c;
+
+		switch (scopes[top]) {
+			case EMPTY_ARRAY:
+				scopes[top] = NONEMPTY_ARRAY;
+				c = nextNonWhitespace();
+				if (c == ']') {
+					pos++;
+					scopesSize--;
+					peeked = JsonToken.END_ARRAY;
+					return;
+				}
+				break;
+
+			case NONEMPTY_ARRAY:
+				c = nextNonWhitespace();
+				if (c == ']') {
+					pos++;
+					scopesSize--;
+					peeked = JsonToken.END_ARRAY;
+					return;
+				}
+				if (c != ',') {
+					syntaxError("Invalid char: expected ] or ,");
+				}
+				pos++;
+				c = nextNonWhitespace();
+				if (c == ']') {
+					syntaxError("Trailing comma");
+				}
+				break;
+
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT:
+				c = nextNonWhitespace();
+				if (c == '}') {
+					pos++;
+					scopesSize--;
+					peeked = JsonToken.END_OBJECT;
+					return;
+				}
+				if (scopes[top] == NONEMPTY_OBJECT) {
+					if (c != ',') {
+						syntaxError("Invalid char: expected } or ,");
+					}
+					pos++;
+					c = nextNonWhitespace();
+					if (c == '}') {
+						syntaxError("Trailing comma");
+					}
+				}
+				if (c != '"') {
+					syntaxError("Invalid char: expected \"");
+				}
+				pos++;
+				stringValue = readString();
+				scopes[top] = DANGLING_NAME;
+				peeked = JsonToken.NAME;
+				return;
+
+			case DANGLING_NAME:
+				c = nextNonWhitespace();
+				if (c != ':') {
+					syntaxError("Invalid char: expected :");
+				}
+				pos++;
+				scopes[top] = NONEMPTY_OBJECT;
+				c = nextNonWhitespace();
+				break;
+
+			case EMPTY_DOCUMENT:
+				scopes[top] = NONEMPTY_DOCUMENT;
+				c = nextNonWhitespace();
+				break;
+
+			default:	// NONEMPTY_DOCUMENT
+				c = nextNonWhitespace();
+				if (c != -1) {
+					syntaxError("Trailing chars");
+				}
+				peeked = JsonToken.END_DOCUMENT;
+				return;
+		}
+
+		if (c == -1) {
+			syntaxError("End of JSON");
+		}
+
+		valuePending = true;
+	}
+
+	/**
+	 * Reads a scalar value or opens an object or an array.
+	 */
+	protected JsonToken readValueToken() {
+		int c = peekChar();
+
+		switch (c) {
+			case '{':
+				pos++;
+				push(EMPTY_OBJECT);
+				return JsonToken.BEGIN_OBJECT;
+
+			case '[':
+				pos++;
+				push(EMPTY_ARRAY);
+				return JsonToken.BEGIN_ARRAY;
+
+			case '"':
+				pos++;
+				stringValue = readString();
+				return JsonToken.STRING;
+
+			case 't':
+				pos++;
+				match(T_RUE);
+				booleanValue = true;
+				return JsonToken.BOOLEAN;
+
+			case 'f':
+				pos++;
+				match(F_ALSE);
+				booleanValue = false;
+				return JsonToken.BOOLEAN;
+
+			case 'n':
+				pos++;
+				match(N_ULL);
+				return JsonToken.NULL;
+
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				readNumber();
+				return JsonToken.NUMBER;
+		}
+
+		syntaxError("Invalid char: " + (char) c);
+		return null;
+	}
+
+	private void push(int scope) {
+		if (scopesSize == scopes.length) {
+			scopes = Arrays.copyOf(scopes, scopesSize << 1);
+		}
+		scopes[scopesSize++] = scope;
+	}
+
+	// ---------------------------------------------------------------- scanning
+
+	/**
+	 * Reads string content, once when starting quote has been consumed.
+	 */
+	protected String readString() {
+		textLen = 0;
+
+		while (true) {
+			int start = pos;
+
+			while (pos < limit) {
+				char c = buffer[pos];
+
+				if (c == '"') {
+					appendText(start, pos - start);
+					pos++;
+					return new String(text, 0, textLen);
+				}
+				if (c == '\\') {
+					break;
+				}
+				pos++;
+			}
+
+			appendText(start, pos - start);
+
+			if (pos < limit) {
+				// escape char
+				pos++;
+				appendText(readEscapedChar());
+			}
+			else if (!fill()) {
+				syntaxError("End of JSON");
+			}
+		}
+	}
+
+	/**
+	 * Reads escaped char, once when the escape char has been consumed.
+	 */
+	private char readEscapedChar() {
+		int c = read();
+
+		switch (c) {
+			case '\"' : return '\"';
+			case '\\' : return '\\';
+			case '/' : return '/';
+			case 'b' : return '\b';
+			case 'f' : return '\f';
+			case 'n' : return '\n';
+			case 'r' : return '\r';
+			case 't' : return '\t';
+			case 'u' :
+				int i0 = CharUtil.hex2int((char) read());
+				int i1 = CharUtil.hex2int((char) read());
+				int i2 = CharUtil.hex2int((char) read());
+				int i3 = CharUtil.hex2int((char) read());
+				return (char) ((i0 << 12) + (i1 << 8) + (i2 << 4) + i3);
+		}
+
+		syntaxError("Invalid escape char: " + (char) c);
+		return 0;
+	}
+
+	/**
+	 * Reads number text, until the delimiter.
+	 */
+	protected void readNumber() {
+		textLen = 0;
+		isDouble = false;
+		isExp = false;
+
+		while (true) {
+			int c = peekChar();
+
+			if (c == -1 || c <= 32 || c == ',' || c == '}' || c == ']') {
+				break;
+			}
+			if (c == '.') {
+				isDouble = true;
+			}
+			else if (c == 'e' || c == 'E') {
+				isExp = true;
+			}
+			pos++;
+			appendText((char) c);
+		}
+
+		stringValue = new String(text, 0, textLen);
+	}
+
+	/**
+	 * Copies the text of the next value into the text buffer, if needed.
+	 * The value is not parsed, only its boundaries are found.
+	 */
+	protected void captureValue(boolean store) {
+		textLen = 0;
+
+		int c = peekChar();
+
+		if (c == '{' || c == '[') {
+			int depth = 0;
+
+			while (true) {
+				c = read();
+				if (c == -1) {
+					syntaxError("End of JSON");
+				}
+				if (store) {
+					appendText((char) c);
+				}
+				if (c == '"') {
+					captureStringContent(store);
+				}
+				else if (c == '{' || c == '[') {
+					depth++;
+				}
+				else if (c == '}' || c == ']') {
+					depth--;
+					if (depth == 0) {
+						return;
+					}
+				}
+			}
+		}
+
+		if (c == '"') {
+			pos++;
+			if (store) {
+				appendText('"');
+			}
+			captureStringContent(store);
+			return;
+		}
+
+		while (true) {
+			c = peekChar();
+			if (c == -1 || c <= 32 || c == ',' || c == '}' || c == ']') {
+				return;
+			}
+			pos++;
+			if (store) {
+				appendText((char) c);
+			}
+		}
+	}
+
+	private void captureStringContent(boolean store) {
+		while (true) {
+			int c = read();
+			if (c == -1) {
+				syntaxError("End of JSON");
+			}
+			if (store) {
+				appendText((char) c);
+			}
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				c = read();
+				if (c == -1) {
+					syntaxError("End of JSON");
+				}
+				if (store) {
+					appendText((char) c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Matches next chars with the target.
+	 */
+	private void match(char[] target) {
+		for (char c : target) {
+			if (read() != c) {
+				syntaxError("Invalid literal");
+			}
+		}
+	}
+
+	/**
+	 * Skips whitespaces and returns next char, without consuming it.
+	 * Returns <code>-1</code> on the end of input.
+	 */
+	private int nextNonWhitespace() {
+		while (true) {
+			int c = peekChar();
+			if (c == -1 || c > 32) {
+				return c;
+			}
+			pos++;
+		}
+	}
+
+	// ---------------------------------------------------------------- buffers
+
+	/**
+	 * Returns the next char without consuming it or <code>-1</code>
+	 * on the end of input.
+	 */
+	private int peekChar() {
+		if (pos == limit && !fill()) {
+			return -1;
+		}
+		return buffer[pos];
+	}
+
+	/**
+	 * Consumes and returns the next char or <code>-1</code> on the end of input.
+	 */
+	private int read() {
+		if (pos == limit && !fill()) {
+			return -1;
+		}
+		return buffer[pos++];
+	}
+
+	/**
+	 * Refills the buffer, once when all chars were consumed.
+	 * Returns <code>false</code> on the end of input.
+	 */
+	protected boolean fill() {
+		bufferOffset += limit;
+		pos = 0;
+		limit = 0;
+
+		try {
+			int count;
+			do {
+				count = reader.read(buffer, 0, buffer.length);
+			} while (count == 0);
+
+			if (count == -1) {
+				return false;
+			}
+			limit = count;
+			return true;
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+	}
+
+	private void appendText(int start, int len) {
+		if (len == 0) {
+			return;
+		}
+		ensureTextCapacity(len);
+		System.arraycopy(buffer, start, text, textLen, len);
+		textLen += len;
+	}
+
+	private void appendText(char c) {
+		ensureTextCapacity(1);
+		text[textLen++] = c;
+	}
+
+	private void ensureTextCapacity(int len) {
+		int required = textLen + len;
+		if (required > text.length) {
+			text = Arrays.copyOf(text, Math.max(required, text.length << 1));
+		}
+	}
+
+	// ---------------------------------------------------------------- error
+
+	/**
+	 * Throws {@link jodd.json.JsonException} indicating a syntax error.
+	 */
+	protected void syntaxError(String message) {
+		throw new JsonException(
+				"Syntax error! " + message + "\n" +
+				"offset: " + (bufferOffset + pos));
+	}
+}
@@ -25,13 +25,17 @@
 
 package jodd.json;
 
+import jodd.io.FastByteArrayOutputStream;
 import jodd.util.ArraysUtil;
 import jodd.util.InExRules;
 import jodd.util.UnsafeUtil;
 import jodd.util.buffer.FastCharBuffer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static jodd.json.JoddJson.DEFAULT_CLASS_METADATA_NAME;
 
@@ -180,6 +184,7 @@ public class JsonSerializer {
 	 */
 	public JsonSerializer deep(boolean includeCollections) {
 		this.deep = includeCollections;
+		typePlans.clear();
 		return this;
 	}
 
@@ -195,6 +200,7 @@ public class JsonSerializer {
 		} else {
 			excludedTypeNames = ArraysUtil.join(excludedTypeNames, typeNames);
 		}
+		typePlans.clear();
 		return this;
 	}
 
@@ -207,6 +213,7 @@ public class JsonSerializer {
 		} else {
 			excludedTypes = ArraysUtil.join(excludedTypes, types);
 		}
+		typePlans.clear();
 		return this;
 	}
 
@@ -229,6 +236,38 @@ public class JsonSerializer {
 		jsonContext.serialize(source);
 	}
 
+	/**
+	 * Serializes object into the output stream as UTF-8 bytes. Characters are
+	 * encoded directly into a reusable buffer, without creating the JSON string.
+	 * Output stream is flushed, but not closed.
+	 */
+	public void serialize(Object source, OutputStream outputStream) {
+		Utf8JsonOutput utf8JsonOutput = new Utf8JsonOutput(outputStream);
+
+		try {
+			serialize(source, utf8JsonOutput);
+
+			utf8JsonOutput.flush();
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+		finally {
+			utf8JsonOutput.release();
+		}
+	}
+
+	/**
+	 * Serializes object into UTF-8 bytes.
+	 */
+	public byte[] serializeToBytes(Object source) {
+		FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+
+		serialize(source, out);
+
+		return out.toByteArray();
+	}
+
 	/**
 	 * Serializes object into source.
 	 */
@@ -240,6 +279,63 @@ public class JsonSerializer {
 		return UnsafeUtil.createString(fastCharBuffer.toArray());
 	}
 
+	// ---------------------------------------------------------------- plans
+
+	/**
+	 * Plans of serializers without own excluded types, attached to the types.
+	 * Plans differ only by the deep flag, which is used as an index.
+	 */
+	private static final ClassValue<TypeJsonPlan[]> sharedTypePlans = new ClassValue<TypeJsonPlan[]>() {
+		@Override
+		protected TypeJsonPlan[] computeValue(Class<?> type) {
+			return new TypeJsonPlan[2];
+		}
+	};
+
+	protected final Map<Class, TypeJsonPlan> typePlans = new ConcurrentHashMap<>();
+
+	/**
+	 * Lookups for {@link TypeJsonPlan serialization plan} of a type. Plans depend
+	 * on the serializer configuration. Plans of serializers without excluded types
+	 * are shared by all such serializers, e.g. the ones created just for a single
+	 * serialization. Serializers with excluded types cache plans on their own,
+	 * so reuse such serializer instance to share plans between serializations.
+	 */
+	public TypeJsonPlan lookupTypePlan(JsonContext jsonContext, Class type, boolean declared) {
+		if (declared) {
+			return new TypeJsonPlan(jsonContext, type, true);
+		}
+
+		if (excludedTypes == null && excludedTypeNames == null) {
+			TypeJsonPlan[] plans = sharedTypePlans.get(type);
+			int index = deep ? 1 : 0;
+
+			TypeJsonPlan typeJsonPlan = plans[index];
+
+			if (typeJsonPlan == null || typeJsonPlan.isOutdated()) {
+				// plans are immutable, so racing threads may just overwrite each other
+				typeJsonPlan = new TypeJsonPlan(jsonContext, type, false);
+				plans[index] = typeJsonPlan;
+			}
+			return typeJsonPlan;
+		}
+
+		TypeJsonPlan typeJsonPlan = typePlans.get(type);
+
+		if (typeJsonPlan != null && typeJsonPlan.isOutdated()) {
+			// global configuration is changed, all plans are outdated
+			typePlans.clear();
+			typeJsonPlan = null;
+		}
+
+		if (typeJsonPlan == null) {
+			typeJsonPlan = new TypeJsonPlan(jsonContext, type, false);
+			typePlans.put(type, typeJsonPlan);
+		}
+
+		return typeJsonPlan;
+	}
+
 	// ---------------------------------------------------------------- json context
 
 	/**
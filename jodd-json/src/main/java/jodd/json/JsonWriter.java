@@ -46,6 +46,7 @@ public class JsonWriter {
 	// ---------------------------------------------------------------- push
 
 	protected String pushedName;
+	protected String pushedEncodedName;
 	protected boolean pushedComma;
 	protected boolean isPushed;
 
@@ -56,10 +57,20 @@ public class JsonWriter {
 	 */
 	public void pushName(String name, boolean withComma) {
 		pushedName = name;
+		pushedEncodedName = null;
 		pushedComma = withComma;
 		isPushed = true;
 	}
 
+	/**
+	 * Stores name together with its pre-encoded form: quoted and escaped
+	 * name followed by a colon. Encoded name is written as it is, when popped.
+	 */
+	public void pushName(String name, String encodedName, boolean withComma) {
+		pushName(name, withComma);
+		pushedEncodedName = encodedName;
+	}
+
 	/**
 	 * Writes stored name to JSON string. Cleans storage.
 	 */
@@ -69,9 +80,15 @@ public class JsonWriter {
 				writeComma();
 			}
 			String name = pushedName;
+			String encodedName = pushedEncodedName;
 			pushedName = null;
+			pushedEncodedName = null;
 			isPushed = false;
-			writeName(name);
+			if (encodedName != null) {
+				write(encodedName);
+			} else {
+				writeName(name);
+			}
 		}
 	}
 
@@ -132,7 +149,8 @@ public class JsonWriter {
 	}
 
 	/**
-	 * Write a quoted and escaped value to the output.
+	 * Write a quoted and escaped value to the output. Runs of characters
+	 * that do not need escaping are appended at once.
 	 */
 	public void writeString(String value) {
 		popName();
@@ -140,10 +158,20 @@ public class JsonWriter {
 		write(StringPool.QUOTE);
 
 		int len = value.length();
+		int from = 0;
 
 		for (int i = 0; i < len; i++) {
 			char c = value.charAt(i);
 
+			if (!isEscaped(c)) {
+				continue;
+			}
+
+			if (from < i) {
+				write(value, from, i);
+			}
+			from = i + 1;
+
 			switch (c) {
 				case '"':
 					write("\\\"");
@@ -170,18 +198,33 @@ public class JsonWriter {
 					write("\\t");
 					break;
 				default:
-					if (Character.isISOControl(c)) {
-						unicode(c);
-					}
-					else {
-						write(c);
-					}
+					unicode(c);
 			}
 		}
 
+		if (from == 0) {
+			write(value);
+		}
+		else if (from < len) {
+			write(value, from, len);
+		}
+
 		write(StringPool.QUOTE);
 	}
 
+	/**
+	 * Returns <code>true</code> if character has to be escaped.
+	 */
+	protected static boolean isEscaped(char c) {
+		if (c < 0x20) {
+			return true;
+		}
+		if (c == '"' || c == '\\' || c == '/') {
+			return true;
+		}
+		return Character.isISOControl(c);
+	}
+
 	/**
 	 * Writes unicode representation of a character.
 	 */
@@ -225,6 +268,17 @@ public class JsonWriter {
 		write(number.toString());
 	}
 
+	/**
+	 * Appends a subsequence of char sequence to the buffer. Used internally.
+	 */
+	protected void write(CharSequence charSequence, int start, int end) {
+		try {
+			out.append(charSequence, start, end);
+		} catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+	}
+
 	/**
 	 * Appends char to the buffer. Used internally.
 	 */
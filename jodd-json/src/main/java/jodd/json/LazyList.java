@@ -0,0 +1,175 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lazy JSON array, a <code>List</code> view over the JSON input.
+ * Element offsets are indexed on the first access, while elements are
+ * decoded when they are accessed for the first time. Once modified,
+ * directly or through any of its views, the list is converted to
+ * an ordinary list.
+ * @see JsonParser#lazy(boolean)
+ */
+class LazyList extends AbstractList<Object> {
+
+	private final JsonParser parser;
+	private final int start;
+
+	private int size = -1;
+	private int[] offsets;
+	private Object[] values;
+	private boolean[] decoded;
+
+	private List<Object> list;
+
+	LazyList(JsonParser parser, int start) {
+		this.parser = parser;
+		this.start = start;
+	}
+
+	/**
+	 * Indexes array elements by finding their offsets.
+	 */
+	private void indexElements() {
+		if (size != -1) {
+			return;
+		}
+
+		offsets = new int[8];
+		int count = 0;
+
+		try {
+			parser.ndx = start;
+			parser.skipWhiteSpaces();
+
+			if (parser.input[parser.ndx] == ']') {
+				parser.ndx++;
+			}
+			else {
+				while (true) {
+					if (count == offsets.length) {
+						offsets = Arrays.copyOf(offsets, count << 1);
+					}
+					offsets[count++] = parser.ndx;
+
+					parser.skipValue();
+					parser.skipWhiteSpaces();
+
+					char c = parser.input[parser.ndx];
+
+					if (c == ']') {
+						break;
+					}
+					if (c != ',') {
+						parser.syntaxError("Invalid char: expected ] or ,");
+					}
+					parser.ndx++;
+					parser.skipWhiteSpaces();
+				}
+			}
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			parser.syntaxError("End of JSON");
+		}
+
+		values = new Object[count];
+		decoded = new boolean[count];
+		size = count;
+	}
+
+	/**
+	 * Converts lazy list to an ordinary list.
+	 */
+	private List<Object> list() {
+		if (list == null) {
+			indexElements();
+
+			List<Object> newList = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				newList.add(get(i));
+			}
+			list = newList;
+		}
+		return list;
+	}
+
+	// ---------------------------------------------------------------- list
+
+	@Override
+	public Object get(int i) {
+		if (list != null) {
+			return list.get(i);
+		}
+		indexElements();
+
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+
+		if (!decoded[i]) {
+			try {
+				parser.ndx = offsets[i];
+				values[i] = parser.parseValue(null, null, null);
+			}
+			catch (IndexOutOfBoundsException iofbex) {
+				parser.syntaxError("End of JSON");
+			}
+			decoded[i] = true;
+		}
+		return values[i];
+	}
+
+	@Override
+	public int size() {
+		if (list != null) {
+			return list.size();
+		}
+		indexElements();
+		return size;
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return list().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		list().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		modCount++;
+		return list().remove(index);
+	}
+}
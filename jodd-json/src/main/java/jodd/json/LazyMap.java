@@ -0,0 +1,292 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Lazy JSON object, a <code>Map</code> view over the JSON input.
+ * Object members are indexed on the first access, while values are
+ * decoded when they are accessed for the first time. Once modified,
+ * directly or through any of its views, the map is converted to
+ * an ordinary map.
+ * @see JsonParser#lazy(boolean)
+ */
+class LazyMap extends AbstractMap<String, Object> {
+
+	private final JsonParser parser;
+	private final int start;
+
+	private int size = -1;
+	private String[] keys;
+	private int[] offsets;
+	private Object[] values;
+	private boolean[] decoded;
+	private Map<String, Integer> index;
+
+	private Map<String, Object> map;
+
+	LazyMap(JsonParser parser, int start) {
+		this.parser = parser;
+		this.start = start;
+	}
+
+	/**
+	 * Indexes object members: decodes names and finds value offsets.
+	 */
+	private void indexMembers() {
+		if (size != -1) {
+			return;
+		}
+
+		keys = new String[8];
+		offsets = new int[8];
+		int count = 0;
+
+		try {
+			parser.ndx = start;
+			parser.skipWhiteSpaces();
+
+			if (parser.input[parser.ndx] == '}') {
+				parser.ndx++;
+			}
+			else {
+				while (true) {
+					String key = parser.parseString();
+					parser.skipWhiteSpaces();
+					parser.consume(':');
+					parser.skipWhiteSpaces();
+
+					if (count == keys.length) {
+						keys = Arrays.copyOf(keys, count << 1);
+						offsets = Arrays.copyOf(offsets, count << 1);
+					}
+					keys[count] = key;
+					offsets[count] = parser.ndx;
+					count++;
+
+					parser.skipValue();
+					parser.skipWhiteSpaces();
+
+					char c = parser.input[parser.ndx];
+
+					if (c == '}') {
+						break;
+					}
+					if (c != ',') {
+						parser.syntaxError("Invalid char: expected } or ,");
+					}
+					parser.ndx++;
+					parser.skipWhiteSpaces();
+				}
+			}
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			parser.syntaxError("End of JSON");
+		}
+
+		values = new Object[count];
+		decoded = new boolean[count];
+		index = new HashMap<>(count * 4 / 3 + 1);
+
+		int uniqueCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (index.put(keys[i], i) == null) {
+				uniqueCount++;
+			}
+		}
+		size = uniqueCount;
+	}
+
+	/**
+	 * Decodes value at given member index.
+	 */
+	private Object value(int i) {
+		if (!decoded[i]) {
+			try {
+				parser.ndx = offsets[i];
+				values[i] = parser.parseValue(null, null, null);
+			}
+			catch (IndexOutOfBoundsException iofbex) {
+				parser.syntaxError("End of JSON");
+			}
+			decoded[i] = true;
+		}
+		return values[i];
+	}
+
+	/**
+	 * Converts lazy map to an ordinary map.
+	 */
+	private Map<String, Object> map() {
+		if (map == null) {
+			indexMembers();
+
+			Map<String, Object> newMap = new LinkedHashMap<>(size * 4 / 3 + 1);
+			for (int i = 0; i < values.length; i++) {
+				if (index.get(keys[i]) == i) {
+					newMap.put(keys[i], value(i));
+				}
+			}
+			map = newMap;
+		}
+		return map;
+	}
+
+	// ---------------------------------------------------------------- map
+
+	@Override
+	public Object get(Object key) {
+		if (map != null) {
+			return map.get(key);
+		}
+		indexMembers();
+
+		Integer i = index.get(key);
+		if (i == null) {
+			return null;
+		}
+		return value(i);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (map != null) {
+			return map.containsKey(key);
+		}
+		indexMembers();
+		return index.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		if (map != null) {
+			return map.size();
+		}
+		indexMembers();
+		return size;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return map().put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return map().remove(key);
+	}
+
+	@Override
+	public void clear() {
+		map().clear();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		if (map != null) {
+			return map.entrySet();
+		}
+		indexMembers();
+
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				if (map != null) {
+					return map.entrySet().iterator();
+				}
+				return new Iterator<Entry<String, Object>>() {
+					private int next = nextIndex(0);
+					private String lastKey;
+
+					private int nextIndex(int i) {
+						// skip overwritten duplicates
+						while (i < values.length && index.get(keys[i]) != i) {
+							i++;
+						}
+						return i;
+					}
+
+					public boolean hasNext() {
+						return next < values.length;
+					}
+
+					public Entry<String, Object> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						int i = next;
+						next = nextIndex(i + 1);
+						lastKey = keys[i];
+						return new LazyEntry(keys[i], value(i));
+					}
+
+					public void remove() {
+						if (lastKey == null) {
+							throw new IllegalStateException();
+						}
+						map().remove(lastKey);
+						lastKey = null;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return LazyMap.this.size();
+			}
+
+			@Override
+			public void clear() {
+				LazyMap.this.clear();
+			}
+		};
+	}
+
+	/**
+	 * Entry of lazy map, writes new value to the converted map.
+	 */
+	private class LazyEntry extends SimpleEntry<String, Object> {
+
+		LazyEntry(String key, Object value) {
+			super(key, value);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			super.setValue(value);
+			return map().put(getKey(), value);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+import jodd.json.meta.JsonAnnotationManager;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serialization plan of a type. Holds serializable properties with their
+ * getters, resolved and pre-encoded JSON names and include/exclude decisions
+ * that do not depend on the current path. Plans are created once per type and
+ * {@link JsonSerializer serializer configuration}, so they are shared between
+ * all serialized instances of the same type.
+ */
+public class TypeJsonPlan {
+
+	protected final Class type;
+	protected final JsonAnnotationManager.TypeData typeData;
+	protected final Property[] properties;
+	protected final Class[] excludedTypes;
+	protected final String[] excludedTypeNames;
+
+	public TypeJsonPlan(JsonContext jsonContext, Class type, boolean declared) {
+		this.type = type;
+		this.excludedTypes = JoddJson.excludedTypes;
+		this.excludedTypeNames = JoddJson.excludedTypeNames;
+		this.typeData = JoddJson.annotationManager.lookupTypeData(type);
+
+		ClassDescriptor classDescriptor = ClassIntrospector.lookup(type);
+
+		PropertyDescriptor[] propertyDescriptors = classDescriptor.getAllPropertyDescriptors();
+
+		List<Property> list = new ArrayList<>(propertyDescriptors.length);
+
+		for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
+			Getter getter = propertyDescriptor.getGetter(declared);
+
+			if (getter == null) {
+				continue;
+			}
+
+			String propertyName = propertyDescriptor.getName();
+
+			// change name for properties
+
+			String jsonName = typeData.resolveJsonName(propertyName);
+
+			boolean include = matchRules(jsonContext, typeData, jsonName, propertyDescriptor.getType(), isTransient(propertyDescriptor));
+
+			list.add(new Property(propertyName, jsonName, typeData.resolveJsonName(jsonName), propertyDescriptor, getter, include));
+		}
+
+		this.properties = list.toArray(new Property[list.size()]);
+	}
+
+	/**
+	 * Returns <code>true</code> if property has a transient field.
+	 */
+	public static boolean isTransient(PropertyDescriptor propertyDescriptor) {
+		FieldDescriptor fieldDescriptor = propertyDescriptor.getFieldDescriptor();
+
+		if (fieldDescriptor == null) {
+			return false;
+		}
+		return Modifier.isTransient(fieldDescriptor.getField().getModifiers());
+	}
+
+	/**
+	 * Matches property against the rules that do not depend on the current path:
+	 * strict mode, transient flag, ignored property types and annotations.
+	 * Returns <code>true</code> if property should be included.
+	 */
+	public static boolean matchRules(
+			JsonContext jsonContext,
+			JsonAnnotationManager.TypeData typeData,
+			String jsonName,
+			Class propertyType,
+			boolean isTransient) {
+
+		// determine if name should be included/excluded
+
+		boolean include = !typeData.strict;
+
+		// + don't include transient fields
+
+		if (isTransient) {
+			include = false;
+		}
+
+		// + all collections are not serialized by default
+
+		include = jsonContext.matchIgnoredPropertyTypes(propertyType, true, include);
+
+		// + annotations
+
+		return typeData.rules.apply(jsonName, true, include);
+	}
+
+	/**
+	 * Returns <code>true</code> if global {@link JoddJson#excludedTypes excluded types}
+	 * or type annotations data were changed after this plan was created.
+	 */
+	public boolean isOutdated() {
+		if (excludedTypes != JoddJson.excludedTypes || excludedTypeNames != JoddJson.excludedTypeNames) {
+			return true;
+		}
+		return typeData != JoddJson.annotationManager.lookupTypeData(type);
+	}
+
+	/**
+	 * Returns planned type.
+	 */
+	public Class getType() {
+		return type;
+	}
+
+	/**
+	 * Returns type data of planned type.
+	 */
+	public JsonAnnotationManager.TypeData getTypeData() {
+		return typeData;
+	}
+
+	/**
+	 * Returns all readable properties, in the serialization order.
+	 */
+	public Property[] getProperties() {
+		return properties;
+	}
+
+	// ---------------------------------------------------------------- property
+
+	/**
+	 * Single readable property of a plan.
+	 */
+	public static class Property {
+		public final String name;
+		public final String jsonName;
+		public final String serializedName;
+		public final String encodedName;
+		public final PropertyDescriptor propertyDescriptor;
+		public final Getter getter;
+		public final boolean include;
+
+		public Property(String name, String jsonName, String serializedName, PropertyDescriptor propertyDescriptor, Getter getter, boolean include) {
+			this.name = name;
+			this.jsonName = jsonName;
+			this.serializedName = serializedName;
+			this.propertyDescriptor = propertyDescriptor;
+			this.getter = getter;
+			this.include = include;
+
+			StringBuilder sb = new StringBuilder(serializedName.length() + 3);
+			new JsonWriter(sb).writeName(serializedName);
+			this.encodedName = sb.toString();
+		}
+	}
+
+}
@@ -25,20 +25,33 @@
 
 package jodd.json;
 
-import jodd.introspector.ClassDescriptor;
-import jodd.introspector.ClassIntrospector;
-import jodd.introspector.FieldDescriptor;
-import jodd.introspector.Getter;
 import jodd.introspector.PropertyDescriptor;
 import jodd.json.meta.JsonAnnotationManager;
 
-import java.lang.reflect.Modifier;
-
 /**
  * Type's property visitor that follows JSON include/excludes rules.
  */
 public abstract class TypeJsonVisitor {
 
+	/**
+	 * Detects visitors that override {@link #onProperty(String, PropertyDescriptor, boolean)}.
+	 * Their properties are matched by the overridden method, instead of by the plan.
+	 */
+	private static final ClassValue<Boolean> onPropertyOverridden = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class c = type; c != TypeJsonVisitor.class; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("onProperty", String.class, PropertyDescriptor.class, boolean.class);
+					return Boolean.TRUE;
+				}
+				catch (NoSuchMethodException ignore) {
+				}
+			}
+			return Boolean.FALSE;
+		}
+	};
+
 	protected final JsonContext jsonContext;
 	protected final boolean declared;
 	protected final String classMetadataName;
@@ -46,6 +59,7 @@ public abstract class TypeJsonVisitor {
 
 	protected int count;
 	protected final JsonAnnotationManager.TypeData typeData;
+	protected TypeJsonPlan.Property currentProperty;
 
 	public TypeJsonVisitor(JsonContext jsonContext, Class type) {
 		this.jsonContext = jsonContext;
@@ -59,41 +73,63 @@ public abstract class TypeJsonVisitor {
 	}
 
 	/**
-	 * Visits a type.
+	 * Visits a type. Properties and their path-independent rules are taken from the
+	 * cached {@link TypeJsonPlan}, so only path queries are matched per property.
+	 * When {@link #onProperty(String, PropertyDescriptor, boolean)} is overridden,
+	 * it is invoked for each property instead.
 	 */
 	public void visit() {
-		ClassDescriptor classDescriptor = ClassIntrospector.lookup(type);
-
 		if (classMetadataName != null) {
 			// process first 'meta' fields 'class'
 			onProperty(classMetadataName, null, false);
 		}
 
-		PropertyDescriptor[] propertyDescriptors = classDescriptor.getAllPropertyDescriptors();
+		TypeJsonPlan typeJsonPlan = jsonContext.jsonSerializer.lookupTypePlan(jsonContext, type, declared);
+
+		if (onPropertyOverridden.get(getClass())) {
+			for (TypeJsonPlan.Property property : typeJsonPlan.properties) {
+				onProperty(property.name, property.propertyDescriptor, TypeJsonPlan.isTransient(property.propertyDescriptor));
+			}
+			return;
+		}
 
-		for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
+		boolean matchPaths = jsonContext.jsonSerializer.rules.hasRules();
 
-			Getter getter = propertyDescriptor.getGetter(declared);
-			if (getter != null) {
-				String propertyName = propertyDescriptor.getName();
+		Path currentPath = jsonContext.path;
 
-				boolean isTransient = false;
-				// check for transient flag
-				FieldDescriptor fieldDescriptor = propertyDescriptor.getFieldDescriptor();
+		for (TypeJsonPlan.Property property : typeJsonPlan.properties) {
+			boolean include = property.include;
 
-				if (fieldDescriptor != null) {
-					isTransient = Modifier.isTransient(fieldDescriptor.getField().getModifiers());
-				}
+			if (!include && !matchPaths) {
+				continue;
+			}
 
-				onProperty(propertyName, propertyDescriptor, isTransient);
+			currentPath.push(property.name);
+
+			// + path queries: excludes/includes
+
+			if (matchPaths) {
+				include = jsonContext.matchPathToQueries(include);
+			}
+
+			if (include) {
+				currentProperty = property;
+
+				onSerializableProperty(property.jsonName, property.propertyDescriptor);
+
+				currentProperty = null;
 			}
+
+			currentPath.pop();
 		}
 	}
 
 	/**
-	 * Invoked on each property. Properties are getting matched against the rules.
-	 * If property passes all the rules, it will be processed in
+	 * Invoked on the class meta data name and, when overridden, on each property.
+	 * Properties are getting matched against the rules. If property passes all
+	 * the rules, it will be processed in
 	 * {@link #onSerializableProperty(String, jodd.introspector.PropertyDescriptor)}.
+	 * Overriding this method disables matching of the rules by {@link TypeJsonPlan}.
 	 */
 	protected void onProperty(
 			String propertyName,
@@ -112,23 +148,7 @@ public abstract class TypeJsonVisitor {
 			propertyName = typeData.resolveJsonName(propertyName);
 		}
 
-		// determine if name should be included/excluded
-
-		boolean include = !typeData.strict;
-
-		// + don't include transient fields
-
-		if (isTransient) {
-			include = false;
-		}
-
-		// + all collections are not serialized by default
-
-		include = jsonContext.matchIgnoredPropertyTypes(propertyType, true, include);
-
-		// + annotations
-
-		include = typeData.rules.apply(propertyName, true, include);
+		boolean include = TypeJsonPlan.matchRules(jsonContext, typeData, propertyName, propertyType, isTransient);
 
 		// + path queries: excludes/includes
 
@@ -0,0 +1,223 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Appendable that encodes characters directly to UTF-8 bytes. Bytes are
+ * collected in a buffer that is reused by the same thread and written
+ * to the output stream when full or {@link #flush() flushed}. ASCII
+ * characters are copied to the buffer without any encoding.
+ * Output has to be {@link #release() released} after usage, so
+ * the buffer can be reused. Not thread-safe.
+ */
+public class Utf8JsonOutput implements Appendable, Flushable {
+
+	private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+	protected final OutputStream out;
+	protected byte[] buffer;
+	protected int size;
+	protected char highSurrogate;
+
+	public Utf8JsonOutput(OutputStream out) {
+		this(out, JoddJson.outputBufferSize);
+	}
+
+	public Utf8JsonOutput(OutputStream out, int bufferSize) {
+		this.out = out;
+
+		byte[] pooled = BUFFERS.get();
+
+		if (pooled != null && pooled.length == bufferSize) {
+			// take the buffer, so nested outputs do not share it
+			BUFFERS.set(null);
+			this.buffer = pooled;
+		}
+		else {
+			this.buffer = new byte[bufferSize];
+		}
+	}
+
+	// ---------------------------------------------------------------- appendable
+
+	@Override
+	public Appendable append(CharSequence csq) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+
+		int i = start;
+
+		while (i < end) {
+			// ASCII fast path
+
+			if (highSurrogate == 0) {
+				int limit = Math.min(end, i + buffer.length - size);
+
+				while (i < limit) {
+					char c = csq.charAt(i);
+					if (c >= 0x80) {
+						break;
+					}
+					buffer[size++] = (byte) c;
+					i++;
+				}
+
+				if (i == end) {
+					break;
+				}
+				if (size == buffer.length) {
+					flushBuffer();
+					continue;
+				}
+			}
+
+			writeChar(csq.charAt(i));
+			i++;
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) throws IOException {
+		if (c < 0x80 && highSurrogate == 0) {
+			if (size == buffer.length) {
+				flushBuffer();
+			}
+			buffer[size++] = (byte) c;
+		}
+		else {
+			writeChar(c);
+		}
+		return this;
+	}
+
+	/**
+	 * Encodes single character. Surrogate pairs are encoded into
+	 * a single code point, unpaired surrogates are replaced with <code>'?'</code>.
+	 */
+	protected void writeChar(char c) throws IOException {
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				writeCodePoint(Character.toCodePoint(high, c));
+				return;
+			}
+			writeCodePoint('?');
+		}
+
+		if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+			return;
+		}
+		if (Character.isLowSurrogate(c)) {
+			c = '?';
+		}
+
+		writeCodePoint(c);
+	}
+
+	/**
+	 * Writes UTF-8 bytes of a code point.
+	 */
+	protected void writeCodePoint(int cp) throws IOException {
+		if (buffer.length - size < 4) {
+			flushBuffer();
+		}
+
+		if (cp < 0x80) {
+			buffer[size++] = (byte) cp;
+		}
+		else if (cp < 0x800) {
+			buffer[size++] = (byte) (0xC0 | (cp >> 6));
+			buffer[size++] = (byte) (0x80 | (cp & 0x3F));
+		}
+		else if (cp < 0x10000) {
+			buffer[size++] = (byte) (0xE0 | (cp >> 12));
+			buffer[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+			buffer[size++] = (byte) (0x80 | (cp & 0x3F));
+		}
+		else {
+			buffer[size++] = (byte) (0xF0 | (cp >> 18));
+			buffer[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+			buffer[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+			buffer[size++] = (byte) (0x80 | (cp & 0x3F));
+		}
+	}
+
+	// ---------------------------------------------------------------- flush
+
+	/**
+	 * Writes buffered bytes to the output stream.
+	 */
+	protected void flushBuffer() throws IOException {
+		if (size > 0) {
+			out.write(buffer, 0, size);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Writes all buffered bytes and flushes the output stream.
+	 * Pending unpaired surrogate is written as <code>'?'</code>.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			writeCodePoint('?');
+		}
+		flushBuffer();
+		out.flush();
+	}
+
+	/**
+	 * Returns the buffer to the pool, discarding not flushed content.
+	 * Output stream is not closed. Output must not be used after releasing.
+	 */
+	public void release() {
+		if (buffer != null) {
+			size = 0;
+			BUFFERS.set(buffer);
+			buffer = null;
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.model.Account;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JsonReaderTest {
+
+	@Test
+	public void testTokens() {
+		JsonReader jsonReader = new JsonReader(new StringReader(
+			"{\"a\": [1, 2.5, -3e2, 12345678901], \"b\" : {\"c\\n\": \"x\\u0041\\\"\"}, \"d\":true, \"e\":false, \"f\":null, \"g\":[]}"), 4);
+
+		assertEquals(JsonToken.BEGIN_OBJECT, jsonReader.next());
+		assertEquals("a", jsonReader.nextName());
+		assertEquals(JsonToken.BEGIN_ARRAY, jsonReader.next());
+		assertEquals(JsonToken.NUMBER, jsonReader.peek());
+		assertEquals(JsonToken.NUMBER, jsonReader.next());
+		assertEquals(Integer.valueOf(1), jsonReader.getNumber());
+		assertEquals(JsonToken.NUMBER, jsonReader.next());
+		assertEquals(Double.valueOf(2.5), jsonReader.getNumber());
+		assertEquals(JsonToken.NUMBER, jsonReader.next());
+		assertEquals(Integer.valueOf(-300), jsonReader.getNumber());
+		assertEquals(JsonToken.NUMBER, jsonReader.next());
+		assertEquals(Long.valueOf(12345678901L), jsonReader.getNumber());
+		assertEquals(JsonToken.END_ARRAY, jsonReader.next());
+
+		assertEquals("b", jsonReader.nextName());
+		assertEquals(JsonToken.BEGIN_OBJECT, jsonReader.next());
+		assertEquals(JsonToken.NAME, jsonReader.next());
+		assertEquals("c\n", jsonReader.getString());
+		assertEquals(JsonToken.STRING, jsonReader.next());
+		assertEquals("xA\"", jsonReader.getString());
+		assertEquals(JsonToken.END_OBJECT, jsonReader.next());
+
+		assertEquals("d", jsonReader.nextName());
+		assertEquals(JsonToken.BOOLEAN, jsonReader.next());
+		assertTrue(jsonReader.getBoolean());
+		assertEquals("e", jsonReader.nextName());
+		assertEquals(JsonToken.BOOLEAN, jsonReader.next());
+		assertFalse(jsonReader.getBoolean());
+		assertEquals("f", jsonReader.nextName());
+		assertEquals(JsonToken.NULL, jsonReader.next());
+		assertEquals("g", jsonReader.nextName());
+		assertEquals(JsonToken.BEGIN_ARRAY, jsonReader.next());
+		assertEquals(JsonToken.END_ARRAY, jsonReader.next());
+
+		assertEquals(JsonToken.END_OBJECT, jsonReader.next());
+		assertEquals(JsonToken.END_DOCUMENT, jsonReader.next());
+	}
+
+	@Test
+	public void testReadValues() {
+		String json = "{\"skip\": {\"x\": [1, \"]}\"]}, \"accounts\": [" +
+			"{\"id\": 1, \"name\": \"Jo\"}, " +
+			"{\"id\": 2, \"name\": \"Do\\\"}\"}" +
+			"], \"map\": {\"k\": \"v\"}}";
+
+		JsonReader jsonReader = new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(JsonToken.BEGIN_OBJECT, jsonReader.next());
+		assertEquals("skip", jsonReader.nextName());
+		jsonReader.skipValue();
+		assertEquals("accounts", jsonReader.nextName());
+
+		List<Account> accounts = new ArrayList<>();
+		jsonReader.readArray(Account.class, accounts::add);
+
+		assertEquals(2, accounts.size());
+		assertEquals(1, accounts.get(0).getId().intValue());
+		assertEquals("Jo", accounts.get(0).getName());
+		assertEquals("Do\"}", accounts.get(1).getName());
+
+		assertEquals("map", jsonReader.nextName());
+		Map<String, Object> map = jsonReader.readValue();
+		assertEquals("v", map.get("k"));
+
+		assertEquals(JsonToken.END_OBJECT, jsonReader.next());
+		assertEquals(JsonToken.END_DOCUMENT, jsonReader.peek());
+	}
+
+	@Test
+	public void testScalarValues() {
+		JsonReader jsonReader = new JsonReader(new StringReader("[\"a\", 173, true, null]"), 3);
+
+		assertEquals(JsonToken.BEGIN_ARRAY, jsonReader.next());
+		assertEquals("a", jsonReader.readValue());
+		assertEquals(Long.valueOf(173), jsonReader.readValue(Long.class));
+		assertEquals(Boolean.TRUE, jsonReader.readValue());
+		assertNull(jsonReader.readValue());
+		assertEquals(JsonToken.END_ARRAY, jsonReader.next());
+	}
+
+	@Test
+	public void testErrors() {
+		String[] invalid = new String[] {"[1,]", "{\"a\":1,}", "{\"a\" 1}", "[1 2]", "[1", "\"abc", "tru", "[1] 2", ""};
+
+		for (String json : invalid) {
+			JsonReader jsonReader = new JsonReader(new StringReader(json));
+			try {
+				while (jsonReader.next() != JsonToken.END_DOCUMENT) {
+				}
+				fail(json);
+			}
+			catch (JsonException ignore) {
+			}
+		}
+	}
+
+	@Test
+	public void testParserEntryPoints() {
+		String json = "{\"id\": 7, \"name\": \"Žika\"}";
+
+		Account account = new JsonParser().parse(json.getBytes(StandardCharsets.UTF_8), Account.class);
+		assertEquals(7, account.getId().intValue());
+		assertEquals("Žika", account.getName());
+
+		account = new JsonParser().parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), Account.class);
+		assertEquals("Žika", account.getName());
+
+		String emoji = "[\"\uD83D\uDE00 \u20AC\"]";
+		List<String> strings = new JsonParser().parse(emoji.getBytes(StandardCharsets.UTF_8));
+		assertEquals("\uD83D\uDE00 \u20AC", strings.get(0));
+
+		byte[] malformed = {'[', '"', (byte) 0x80, (byte) 0xBF, (byte) 0xF0, '"', ']'};
+		strings = new JsonParser().parse(malformed);
+		assertEquals(new String(malformed, StandardCharsets.UTF_8), "[\"" + strings.get(0) + "\"]");
+
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(i);
+		}
+		sb.append(']');
+
+		List<Integer> list = new JsonParser().parse(new StringReader(sb.toString()));
+		assertEquals(1000, list.size());
+		assertEquals(Integer.valueOf(999), list.get(999));
+
+		try {
+			new JsonParser().parse(new StringReader("[1, 2"));
+			fail();
+		}
+		catch (JsonException ignore) {
+		}
+	}
+
+	@Test
+	public void testParserEntryPointsTruncated() {
+		String[] jsons = {"\"abc", "{\"a\":\"žžž", "[1, 2", "{\"a\": tru"};
+
+		for (String json : jsons) {
+			byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+			assertTruncated(() -> new JsonParser().parse(bytes));
+			assertTruncated(() -> new JsonParser().parse(new StringReader(json)));
+			assertTruncated(() -> new JsonParser().parse(new ByteArrayInputStream(bytes)));
+			assertTruncated(() -> new JsonParser().lazy(true).parse(new StringReader(json)));
+			assertTruncated(() -> new JsonParser().lazy(true).parse(bytes));
+		}
+	}
+
+	private void assertTruncated(Runnable parse) {
+		try {
+			parse.run();
+			fail();
+		}
+		catch (JsonException ignore) {
+		}
+	}
+}
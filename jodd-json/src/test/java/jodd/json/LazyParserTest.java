@@ -0,0 +1,196 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LazyParserTest {
+
+	@Test
+	public void testLazyObject() {
+		String json = "{\"id\": 17, \"name\": \"Jo\\\"e\", \"tags\": [\"a\", {\"b\": [1, 2.5]}, null, true], " +
+			"\"nested\": {\"x\": {}, \"y\": []}, \"id\": 18}";
+
+		Map<String, Object> map = new JsonParser().lazy(true).parse(json);
+
+		assertTrue(map instanceof LazyMap);
+		assertEquals(4, map.size());
+		assertEquals(18, map.get("id"));
+		assertEquals("Jo\"e", map.get("name"));
+		assertNull(map.get("missing"));
+		assertFalse(map.containsKey("missing"));
+
+		List<Object> tags = (List<Object>) map.get("tags");
+		assertTrue(tags instanceof LazyList);
+		assertEquals(4, tags.size());
+		assertEquals("a", tags.get(0));
+		assertEquals(2.5, ((List) ((Map) tags.get(1)).get("b")).get(1));
+		assertNull(tags.get(2));
+		assertEquals(Boolean.TRUE, tags.get(3));
+
+		Map<String, Object> nested = (Map<String, Object>) map.get("nested");
+		assertTrue(((Map) nested.get("x")).isEmpty());
+		assertTrue(((List) nested.get("y")).isEmpty());
+
+		// same content as eager parsing
+		Map<String, Object> eager = new JsonParser().parse(json);
+		assertEquals(eager, map);
+		assertEquals(eager.toString().length(), map.toString().length());
+
+		List<String> keys = new ArrayList<>(map.keySet());
+		assertEquals(4, keys.size());
+		assertEquals("name", keys.get(0));
+	}
+
+	@Test
+	public void testModification() {
+		Map<String, Object> map = new JsonParser().lazy(true).parse("{\"a\": 1, \"b\": [1, 2]}");
+
+		map.put("c", 3);
+		map.remove("a");
+
+		Map<String, Object> expected = new HashMap<>();
+		expected.put("b", new JsonParser().parse("[1, 2]"));
+		expected.put("c", 3);
+		assertEquals(expected, map);
+
+		List<Object> list = (List<Object>) map.get("b");
+		list.add(3);
+		list.remove(0);
+		assertEquals(2, list.size());
+		assertEquals(2, list.get(0));
+		assertEquals(3, list.get(1));
+	}
+
+	@Test
+	public void testModificationThroughViews() {
+		String json = "{\"a\": 1, \"b\": 2, \"c\": 3, \"a\": 4}";
+
+		Map<String, Object> map = new JsonParser().lazy(true).parse(json);
+		assertTrue(map.keySet().remove("a"));
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey("a"));
+
+		map = new JsonParser().lazy(true).parse(json);
+		assertTrue(map.entrySet().removeIf(entry -> entry.getKey().equals("b")));
+		assertEquals(2, map.size());
+		assertEquals(4, map.get("a"));
+
+		map = new JsonParser().lazy(true).parse(json);
+		assertTrue(map.values().remove(3));
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey("c"));
+
+		map = new JsonParser().lazy(true).parse(json);
+		for (Map.Entry<String, Object> entry : map.entrySet()) {
+			if (entry.getKey().equals("c")) {
+				assertEquals(3, entry.setValue(30));
+				assertEquals(30, entry.getValue());
+			}
+		}
+		assertEquals(30, map.get("c"));
+		assertEquals(3, map.size());
+
+		map = new JsonParser().lazy(true).parse(json);
+		map.replaceAll((key, value) -> key + value);
+		assertEquals("a4", map.get("a"));
+		assertEquals("b2", map.get("b"));
+		assertEquals("c3", map.get("c"));
+
+		map = new JsonParser().lazy(true).parse(json);
+		map.keySet().clear();
+		assertTrue(map.isEmpty());
+
+		// lists
+		List<Object> list = new JsonParser().lazy(true).parse("[1, 2, 3, 4]");
+		assertTrue(list.removeIf(value -> value.equals(2)));
+		assertEquals(3, list.size());
+
+		list = new JsonParser().lazy(true).parse("[1, 2, 3, 4]");
+		list.replaceAll(value -> ((Integer) value) * 10);
+		assertEquals(40, list.get(3));
+
+		list = new JsonParser().lazy(true).parse("[1, 2, 3, 4]");
+		list.subList(1, 3).clear();
+		assertEquals(2, list.size());
+		assertEquals(4, list.get(1));
+
+		list = new JsonParser().lazy(true).parse("[1, 2, 3, 4]");
+		Iterator<Object> iterator = list.iterator();
+		iterator.next();
+		iterator.remove();
+		assertEquals(3, list.size());
+		assertEquals(2, list.get(0));
+	}
+
+	@Test
+	public void testLazyIgnored() {
+		JsonParser jsonParser = new JsonParser().lazy(true);
+
+		Object value = jsonParser.parse("  \"text\" ");
+		assertEquals("text", value);
+
+		value = jsonParser.parse("{\"a\":1}", Map.class);
+		assertFalse(value instanceof LazyMap);
+
+		value = new JsonParser().lazy(true).map("a", Long.class).parse("{\"a\":1}");
+		assertFalse(value instanceof LazyMap);
+	}
+
+	@Test
+	public void testErrors() {
+		try {
+			new JsonParser().lazy(true).parse("{\"a\": [1, 2}");
+			fail();
+		}
+		catch (JsonException ignore) {
+		}
+
+		try {
+			new JsonParser().lazy(true).parse("{\"a\": 1} x");
+			fail();
+		}
+		catch (JsonException ignore) {
+		}
+
+		// content is validated on access
+		Map<String, Object> map = new JsonParser().lazy(true).parse("{\"a\": 1 \"b\": 2}");
+		try {
+			map.get("a");
+			fail();
+		}
+		catch (JsonException ignore) {
+		}
+	}
+}
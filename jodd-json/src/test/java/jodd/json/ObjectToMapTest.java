@@ -25,6 +25,7 @@
 
 package jodd.json;
 
+import jodd.introspector.PropertyDescriptor;
 import jodd.json.mock.Address;
 import jodd.json.mock.Hill;
 import jodd.json.mock.Person;
@@ -112,4 +113,32 @@ public class ObjectToMapTest {
 		assertSame(jodder.getPhones(), target.get("phones"));
 	}
 
+	@Test
+	public void testOverriddenOnProperty() {
+		Person jodder = new DataCreator().createJodder();
+
+		final Map<String, Object> target = new HashMap<>();
+
+		JsonContext jsonContext = new JsonSerializer().createJsonContext(null);
+		BeanSerializer beanSerializer = new BeanSerializer(jsonContext, jodder) {
+			@Override
+			protected void onProperty(String propertyName, PropertyDescriptor propertyDescriptor, boolean isTransient) {
+				if (propertyName.startsWith("first")) {
+					super.onProperty(propertyName, propertyDescriptor, isTransient);
+				}
+			}
+
+			@Override
+			protected void onSerializableProperty(String propertyName, Class propertyType, Object value) {
+				target.put(propertyName, value);
+			}
+		};
+
+		beanSerializer.serialize();
+		assertEquals(2, target.size());
+
+		assertSame(jodder.getFirstBaseBallGame(), target.get("firstBaseBallGame"));
+		assertSame(jodder.getFirstname(), target.get("firstname"));
+	}
+
 }
\ No newline at end of file
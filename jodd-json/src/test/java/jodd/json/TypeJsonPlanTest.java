@@ -0,0 +1,155 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.meta.JSON;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypeJsonPlanTest {
+
+	public static class Item {
+		private String name = "i\"1";
+		private transient int secret = 7;
+		private List<String> tags = new ArrayList<>();
+		private Long id = 3L;
+
+		@JSON(name = "the\\name")
+		public String getName() {
+			return name;
+		}
+
+		public int getSecret() {
+			return secret;
+		}
+
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public Long getId() {
+			return id;
+		}
+	}
+
+	private TypeJsonPlan lookupPlan(JsonSerializer jsonSerializer) {
+		return jsonSerializer.lookupTypePlan(jsonSerializer.createJsonContext(null), Item.class, false);
+	}
+
+	@Test
+	public void testPlanIsShared() {
+		JsonSerializer jsonSerializer = new JsonSerializer();
+
+		String json1 = jsonSerializer.serialize(new Item());
+		TypeJsonPlan plan = lookupPlan(jsonSerializer);
+		assertNotNull(plan);
+		assertTrue(jsonSerializer.typePlans.isEmpty());
+
+		String json2 = JsonSerializer.create().serialize(new Item());
+		assertSame(plan, lookupPlan(JsonSerializer.create()));
+		assertEquals(json1, json2);
+
+		assertEquals("{\"id\":3,\"the\\\\name\":\"i\\\"1\"}", json1);
+
+		for (TypeJsonPlan.Property property : plan.getProperties()) {
+			if (property.name.equals("name")) {
+				assertEquals("\"the\\\\name\":", property.encodedName);
+				assertTrue(property.include);
+			}
+			if (property.name.equals("secret") || property.name.equals("tags")) {
+				assertFalse(property.include);
+			}
+		}
+	}
+
+	@Test
+	public void testPlanResetOnConfigChange() {
+		JsonSerializer jsonSerializer = new JsonSerializer();
+
+		jsonSerializer.serialize(new Item());
+		TypeJsonPlan plan = lookupPlan(jsonSerializer);
+
+		jsonSerializer.deep(true);
+
+		String json = jsonSerializer.serialize(new Item());
+		assertNotSame(plan, lookupPlan(jsonSerializer));
+		assertTrue(json.contains("\"tags\":[]"));
+
+		json = jsonSerializer.excludeTypes(Long.class).serialize(new Item());
+		assertFalse(json.contains("\"id\""));
+
+		// serializer with excluded types has own plans
+		TypeJsonPlan ownPlan = jsonSerializer.typePlans.get(Item.class);
+		assertNotNull(ownPlan);
+		assertSame(ownPlan, lookupPlan(jsonSerializer));
+
+		jsonSerializer.excludeTypes(Integer.class);
+		assertNull(jsonSerializer.typePlans.get(Item.class));
+
+		assertTrue(JsonSerializer.create().deep(true).serialize(new Item()).contains("\"id\""));
+	}
+
+	@Test
+	public void testPlanResetOnGlobalExcludedTypes() {
+		JsonSerializer jsonSerializer = new JsonSerializer();
+
+		String json = jsonSerializer.serialize(new Item());
+		assertTrue(json.contains("\"id\""));
+
+		try {
+			JoddJson.excludedTypes = new Class[] {Long.class};
+			json = jsonSerializer.serialize(new Item());
+			assertFalse(json.contains("\"id\""));
+
+			JoddJson.excludedTypes = null;
+			JoddJson.excludedTypeNames = new String[] {"java.lang.Long"};
+			json = jsonSerializer.serialize(new Item());
+			assertFalse(json.contains("\"id\""));
+		}
+		finally {
+			JoddJson.excludedTypes = null;
+			JoddJson.excludedTypeNames = null;
+		}
+
+		json = jsonSerializer.serialize(new Item());
+		assertTrue(json.contains("\"id\""));
+	}
+
+	@Test
+	public void testPathQueriesWithPlan() {
+		JsonSerializer jsonSerializer = new JsonSerializer().include("tags").exclude("id");
+
+		String json = jsonSerializer.serialize(new Item());
+		assertEquals("{\"the\\\\name\":\"i\\\"1\",\"tags\":[]}", json);
+
+		json = jsonSerializer.serialize(new Item());
+		assertEquals("{\"the\\\\name\":\"i\\\"1\",\"tags\":[]}", json);
+	}
+}
@@ -0,0 +1,99 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.model.Account;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class Utf8JsonOutputTest {
+
+	@Test
+	public void testEncoding() throws IOException {
+		String text = "ascii éč € 😀 end";
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Utf8JsonOutput output = new Utf8JsonOutput(baos, 4);
+
+		output.append(text);
+		output.append('!');
+		output.append(text, 0, 5);
+		output.flush();
+		output.release();
+
+		assertEquals(text + "!ascii", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSplitSurrogatesAndUnpaired() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Utf8JsonOutput output = new Utf8JsonOutput(baos, 16);
+
+		output.append('\ud83d');
+		output.append('\ude00');
+		output.append("a\udc00b");
+		output.append('\ud83d');
+		output.flush();
+		output.release();
+
+		assertEquals("😀a?b?", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSerializeToStream() {
+		Map<String, Object> map = new HashMap<>();
+		List<Object> list = new ArrayList<>();
+		list.add("žaba \"quoted\"\n");
+		list.add(173);
+		map.put("list", list);
+		map.put("name", "Jodd ☃");
+
+		Account account = new Account();
+		account.setId(1);
+		map.put("emoji", "😀");
+		map.put("account", account);
+
+		JsonSerializer jsonSerializer = new JsonSerializer().deep(true);
+
+		String expected = jsonSerializer.serialize(map);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		jsonSerializer.serialize(map, baos);
+		assertEquals(expected, new String(baos.toByteArray(), StandardCharsets.UTF_8));
+
+		// buffer is reused
+		assertArrayEquals(baos.toByteArray(), jsonSerializer.serializeToBytes(map));
+	}
+}
@@ -25,11 +25,14 @@
 
 package jodd.csselly;
 
+import jodd.cache.CacheStats;
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.StringUtil;
 import jodd.util.UnsafeUtil;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -99,6 +102,51 @@ public class CSSelly {
 		return selectors;
 	}
 
+	/**
+	 * Parses string of selectors like {@link #parse(String)}, but caches
+	 * the result, so each query is lexed only once. Returned lists are
+	 * shared between callers and therefore unmodifiable.
+	 */
+	public static List<List<CssSelector>> parseCached(String query) {
+		List<List<CssSelector>> selectors = cache.get(query);
+
+		if (selectors == null) {
+			selectors = parse(query);
+
+			for (int i = 0; i < selectors.size(); i++) {
+				List<CssSelector> cssSelectors = selectors.get(i);
+				if (cssSelectors != null) {
+					selectors.set(i, Collections.unmodifiableList(cssSelectors));
+				}
+			}
+
+			selectors = Collections.unmodifiableList(selectors);
+			cache.put(query, selectors);
+		}
+
+		return selectors;
+	}
+
+	// ---------------------------------------------------------------- cache
+
+	protected static final int CACHE_SIZE = 1000;
+
+	protected static final ConcurrentLRUCache<String, List<List<CssSelector>>> cache = new ConcurrentLRUCache<>(CACHE_SIZE);
+
+	/**
+	 * Returns hit/miss statistics of the parsed queries cache.
+	 */
+	public static CacheStats getCacheStats() {
+		return cache.getStats();
+	}
+
+	/**
+	 * Clears the parsed queries cache.
+	 */
+	public static void clearCache() {
+		cache.clear();
+	}
+
 	// ---------------------------------------------------------------- toString
 
 	/**
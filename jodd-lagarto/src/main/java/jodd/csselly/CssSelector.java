@@ -267,6 +267,33 @@ public class CssSelector implements NodeFilter {
 	}
 
 
+	/**
+	 * Returns <code>true</code> if some of selectors depends on the node
+	 * position within current results. Such css selector can not
+	 * be matched on a single node.
+	 */
+	public boolean isPositional() {
+		int totalSelectors = selectorsCount();
+		for (int i = 0; i < totalSelectors; i++) {
+			Selector selector = getSelector(i);
+
+			switch (selector.getType()) {
+				case PSEUDO_CLASS:
+					if (((PseudoClassSelector) selector).getPseudoClass().isPositional()) {
+						return true;
+					}
+					break;
+				case PSEUDO_FUNCTION:
+					if (((PseudoFunctionSelector) selector).getPseudoFunction().isPositional()) {
+						return true;
+					}
+					break;
+				default:
+			}
+		}
+		return false;
+	}
+
 	// ---------------------------------------------------------------- post process
 
 	/**
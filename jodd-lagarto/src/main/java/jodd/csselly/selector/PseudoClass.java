@@ -410,6 +410,20 @@ public abstract class PseudoClass {
 	}
 
 
+	// ---------------------------------------------------------------- ctor
+
+	protected final boolean positional;
+
+	protected PseudoClass() {
+		boolean overridden;
+		try {
+			overridden = getClass().getMethod("match", List.class, Node.class, int.class).getDeclaringClass() != PseudoClass.class;
+		} catch (NoSuchMethodException nsmex) {
+			overridden = false;
+		}
+		this.positional = overridden;
+	}
+
 	// ---------------------------------------------------------------- interface
 
 	/**
@@ -424,6 +438,14 @@ public abstract class PseudoClass {
 		return true;
 	}
 
+	/**
+	 * Returns <code>true</code> if pseudo-class depends on node position
+	 * within current results, i.e. if it overrides the results matching.
+	 */
+	public boolean isPositional() {
+		return positional;
+	}
+
 	/**
 	 * Returns pseudo-class name from simple class name.
 	 */
@@ -260,6 +260,20 @@ public abstract class PseudoFunction<E> {
 		}
 	}
 
+	// ---------------------------------------------------------------- ctor
+
+	protected final boolean positional;
+
+	protected PseudoFunction() {
+		boolean overridden;
+		try {
+			overridden = getClass().getMethod("match", List.class, Node.class, int.class, Object.class).getDeclaringClass() != PseudoFunction.class;
+		} catch (NoSuchMethodException nsmex) {
+			overridden = false;
+		}
+		this.positional = overridden;
+	}
+
 	// ---------------------------------------------------------------- interface
 
 	/**
@@ -279,6 +293,14 @@ public abstract class PseudoFunction<E> {
 		return true;
 	}
 
+	/**
+	 * Returns <code>true</code> if pseudo-function depends on node position
+	 * within current results, i.e. if it overrides the results matching.
+	 */
+	public boolean isPositional() {
+		return positional;
+	}
+
 	/**
 	 * Returns pseudo-function name.
 	 */
@@ -31,6 +31,10 @@ import jodd.util.HtmlDecoder;
 import jodd.util.StringPool;
 import jodd.util.UnsafeUtil;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.nio.CharBuffer;
 
 import static jodd.util.CharUtil.equalsOne;
@@ -61,6 +65,14 @@ import static jodd.util.CharUtil.isDigit;
  * gives excellent performances. However, if you need more <code>Strings</code>
  * than enable it, and all text will be strings. This is faster
  * then first converting to char buffer and then to strings.
+ *
+ * <p>
+ * Parser may also read the content from a <code>Reader</code>. Then
+ * the content is read in chunks into a buffer, while visitor is invoked
+ * as soon as the content is parsed. Processed content is discarded
+ * from the buffer, so only a single token (like tag or script)
+ * has to fit into the memory. Emitted char sequences remain
+ * valid even when buffer content is discarded.
  */
 public class LagartoParser extends Scanner {
 
@@ -85,11 +97,60 @@ public class LagartoParser extends Scanner {
 		initialize(UnsafeUtil.getChars(string));
 	}
 
+	/**
+	 * Creates parser on a reader, using the {@link #DEFAULT_BUFFER_SIZE default buffer size}.
+	 * Reader is not closed after parsing.
+	 */
+	public LagartoParser(Reader reader, boolean emitStrings) {
+		this(reader, DEFAULT_BUFFER_SIZE, emitStrings);
+	}
+
+	/**
+	 * Creates parser on a reader, using buffer of given initial size.
+	 * Buffer grows only when a single token does not fit into it.
+	 * Reader is not closed after parsing.
+	 */
+	public LagartoParser(Reader reader, int bufferSize, boolean emitStrings) {
+		super(emitStrings);
+		initialize(reader, bufferSize);
+	}
+
+	/**
+	 * Creates parser on an input stream with given encoding.
+	 * Input stream is not closed after parsing.
+	 */
+	public LagartoParser(InputStream inputStream, String encoding, boolean emitStrings) {
+		this(createReader(inputStream, encoding), emitStrings);
+	}
+
+	private static Reader createReader(InputStream inputStream, String encoding) {
+		try {
+			return new InputStreamReader(inputStream, encoding);
+		} catch (UnsupportedEncodingException ueex) {
+			throw new LagartoException(ueex);
+		}
+	}
+
+	public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
 	/**
 	 * Initializes parser.
 	 */
 	protected void initialize(char[] input) {
 		super.initialize(input);
+		initialize();
+	}
+
+	/**
+	 * Initializes parser over the reader.
+	 */
+	@Override
+	protected void initialize(Reader reader, int bufferSize) {
+		super.initialize(reader, bufferSize);
+		initialize();
+	}
+
+	private void initialize() {
 		this.tag = new ParsedTag();
 		this.doctype = new ParsedDoctype();
 		this.text = new char[1024];
@@ -134,6 +195,10 @@ public class LagartoParser extends Scanner {
 		parsing = true;
 
 		while (parsing) {
+			if (state == DATA_STATE && reader != null && ndx >= (input.length >> 1)) {
+				// input before the data is not referenced anymore
+				discard(ndx + 1, config.calculatePosition);
+			}
 			state.parse();
 		}
 
@@ -161,7 +226,7 @@ public class LagartoParser extends Scanner {
 			while (true) {
 				ndx++;
 
-				if (isEOF()) {
+				if (isEOFDiscarding(config.calculatePosition)) {
 					emitText();
 					parsing = false;
 					return;
@@ -226,6 +291,7 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
+			fill(ndx + MAX_ENTITY_NAME_LENGTH);
 			String name = HtmlDecoder.detectName(input, ndx);
 
 			if (name == null) {
@@ -267,6 +333,7 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
+			fill(ndx + MAX_ENTITY_NAME_LENGTH);
 			final String name = HtmlDecoder.detectName(input, ndx);
 
 			if (name == null) {
@@ -434,7 +501,7 @@ public class LagartoParser extends Scanner {
 
 	protected State TAG_OPEN = new State() {
 		public void parse() {
-			tag.start(ndx);
+			tag.start(offset(ndx));
 
 			ndx++;
 
@@ -1066,7 +1133,7 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = BEFORE_ATTRIBUTE_NAME;
-						tag.start(rawTextEnd);
+						tag.start(offset(rawTextEnd));
 						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
 					} else {
@@ -1081,7 +1148,7 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = SELF_CLOSING_START_TAG;
-						tag.start(rawTextEnd);
+						tag.start(offset(rawTextEnd));
 						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.SELF_CLOSING);
 					} else {
@@ -1096,10 +1163,10 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = DATA_STATE;
-						tag.start(rawTextEnd);
+						tag.start(offset(rawTextEnd));
 						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
-						tag.end(ndx);
+						tag.end(offset(ndx));
 						emitTag();
 					} else {
 						state = RAWTEXT;
@@ -1213,7 +1280,7 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = BEFORE_ATTRIBUTE_NAME;
-						tag.start(rcdataTagStart);
+						tag.start(offset(rcdataTagStart));
 						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
 					} else {
@@ -1227,7 +1294,7 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = SELF_CLOSING_START_TAG;
-						tag.start(rcdataTagStart);
+						tag.start(offset(rcdataTagStart));
 						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.SELF_CLOSING);
 					} else {
@@ -1241,10 +1308,10 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = DATA_STATE;
-						tag.start(rcdataTagStart);
+						tag.start(offset(rcdataTagStart));
 						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
-						tag.end(ndx);
+						tag.end(offset(ndx));
 						emitTag();
 					} else {
 						state = RCDATA;
@@ -2856,10 +2923,10 @@ public class LagartoParser extends Scanner {
 	}
 
 	protected void emitTag() {
-		tag.end(ndx + 1);
+		tag.end(offset(ndx + 1));
 
 		if (config.calculatePosition) {
-			tag.setPosition(position(tag.getTagPosition()));
+			tag.setPosition(position(tag.getTagPosition() - offset));
 		}
 
 		if (tag.getType().isStartingTag()) {
@@ -3009,7 +3076,7 @@ public class LagartoParser extends Scanner {
 		} else {
 			message = message
 					.concat(" [@")
-					.concat(Integer.toString(ndx))
+					.concat(Integer.toString(offset(ndx)))
 					.concat(StringPool.RIGHT_SQ_BRACKET);
 		}
 
@@ -3092,6 +3159,9 @@ public class LagartoParser extends Scanner {
 
 	private static final char REPLACEMENT_CHAR = '\uFFFD';
 
+	// longest entity name and the terminating char
+	private static final int MAX_ENTITY_NAME_LENGTH = 40;
+
 	private static final char[] INVALID_CHARS = new char[] {'\u000B', '\uFFFE', '\uFFFF'};
 	//, '\u1FFFE', '\u1FFFF', '\u2FFFE', '\u2FFFF', '\u3FFFE', '\u3FFFF', '\u4FFFE,
 	//	'\u4FFFF', '\u5FFFE', '\u5FFFF', '\u6FFFE', '\u6FFFF', '\u7FFFE', '\u7FFFF', '\u8FFFE', '\u8FFFF', '\u9FFFE,
@@ -28,10 +28,14 @@ package jodd.lagarto;
 import jodd.util.CharUtil;
 import jodd.util.StringPool;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.nio.CharBuffer;
+import java.util.Arrays;
 
 /**
- * Utility scanner over a char buffer.
+ * Utility scanner over a char buffer. Char buffer may contain the whole
+ * input, or just a sliding window over the input read from a <code>Reader</code>.
  */
 class Scanner {
 
@@ -54,6 +58,112 @@ class Scanner {
 		this.total = input.length;
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	protected Reader reader;
+	protected int bufferSize;
+	protected int offset;
+
+	/**
+	 * Initializes scanner over the reader. Input is read in chunks
+	 * into the buffer of given size, when more characters are needed.
+	 */
+	protected void initialize(Reader reader, int bufferSize) {
+		this.reader = reader;
+		this.bufferSize = bufferSize;
+		this.input = new char[bufferSize];
+		this.ndx = -1;
+		this.total = 0;
+		this.offset = 0;
+	}
+
+	/**
+	 * Reads more characters from the reader and appends them to the input.
+	 * Returns <code>false</code> if there are no more characters.
+	 * Existing content is never moved, so all indexes remain valid;
+	 * when buffer is full, a bigger one is allocated.
+	 */
+	protected final boolean fill() {
+		if (reader == null) {
+			return false;
+		}
+
+		if (total == input.length) {
+			input = Arrays.copyOf(input, input.length << 1);
+		}
+
+		int read;
+		try {
+			read = reader.read(input, total, input.length - total);
+		} catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+
+		if (read == -1) {
+			reader = null;
+			return false;
+		}
+
+		total += read;
+
+		if (total < input.length) {
+			// sentinel for look-ups that are not bound to total
+			input[total] = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Ensures that input is available up to given index (exclusive),
+	 * if there is enough characters.
+	 */
+	protected final void fill(int to) {
+		while (to > total) {
+			if (!fill()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Discards all the input before given index, so the buffer can be reused.
+	 * May be invoked only when there are no references to the input
+	 * before given index. Emitted char buffers wrap the input, so in that
+	 * case a new buffer is allocated; otherwise the content is moved within
+	 * the existing buffer.
+	 */
+	protected final void discard(int from, boolean calculatePosition) {
+		if (from > total) {
+			from = total;
+		}
+
+		if (calculatePosition) {
+			position(from);
+			lastLastNewLineOffset -= from;
+			lastOffset = 0;
+			firstLine = lastLine;
+			firstNewLineOffset = lastLastNewLineOffset;
+		}
+
+		int remaining = total - from;
+
+		char[] buffer = input;
+		if (!emitStrings || (input.length > bufferSize && remaining < bufferSize >> 1)) {
+			buffer = new char[Math.max(bufferSize, remaining << 1)];
+		}
+
+		System.arraycopy(input, from, buffer, 0, remaining);
+
+		input = buffer;
+		total = remaining;
+		ndx -= from;
+		offset += from;
+
+		if (total < input.length) {
+			input[total] = 0;
+		}
+	}
+
 	// ---------------------------------------------------------------- find
 
 	/**
@@ -61,14 +171,22 @@ class Scanner {
 	 * Returns <code>-1</code> if character is not found.
 	 */
 	protected final int find(char target, int from, int end) {
-		while (from < end) {
-			if (input[from] == target) {
-				break;
+		// search till the end of input, reading more when needed
+		boolean toEnd = end == total;
+
+		while (true) {
+			while (from < end) {
+				if (input[from] == target) {
+					return from;
+				}
+				from++;
 			}
-			from++;
-		}
 
-		return (from == end) ? -1 : from;
+			if (!toEnd || (end == total && !fill())) {
+				return -1;
+			}
+			end = total;
+		}
 	}
 
 	/**
@@ -76,14 +194,22 @@ class Scanner {
 	 * Returns <code>-1</code> if character is not found.
 	 */
 	protected final int find(char[] target, int from, int end) {
-		while (from < end) {
-			if (match(target, from)) {
-				break;
+		// search till the end of input, reading more when needed
+		boolean toEnd = end == total;
+
+		while (true) {
+			while (from < end) {
+				if (match(target, from)) {
+					return from;
+				}
+				from++;
 			}
-			from++;
-		}
 
-		return (from == end) ? -1 : from;
+			if (!toEnd || (end == total && !fill())) {
+				return -1;
+			}
+			end = total;
+		}
 	}
 
 	// ---------------------------------------------------------------- match
@@ -92,6 +218,8 @@ class Scanner {
 	 * Matches char buffer with content on given location.
 	 */
 	protected final boolean match(char[] target, int ndx) {
+		fill(ndx + target.length + 1);
+
 		if (ndx + target.length >= total) {
 			return false;
 		}
@@ -119,6 +247,8 @@ class Scanner {
 	 * be converted to upper case to make case-insensitive matching.
 	 */
 	public final boolean matchUpperCase(char[] uppercaseTarget) {
+		fill(ndx + uppercaseTarget.length);
+
 		if (ndx + uppercaseTarget.length > total) {
 			return false;
 		}
@@ -158,12 +288,42 @@ class Scanner {
 	private int lastOffset = -1;
 	private int lastLine;
 	private int lastLastNewLineOffset;
+	private int firstLine = 1;
+	private int firstNewLineOffset;
 
 	/**
-	 * Returns <code>true</code> if EOF.
+	 * Returns <code>true</code> if EOF. More input
+	 * is read when the end of the buffer is reached.
 	 */
 	protected final boolean isEOF() {
-		return ndx >= total;
+		if (ndx < total) {
+			return false;
+		}
+		return !fill();
+	}
+
+	/**
+	 * Returns <code>true</code> if EOF. Unlike {@link #isEOF()}, when
+	 * the end of the buffer is reached, all the input before the current
+	 * index is discarded before reading more. Use only when
+	 * there are no references to previous input.
+	 */
+	protected final boolean isEOFDiscarding(boolean calculatePosition) {
+		if (ndx < total) {
+			return false;
+		}
+		if (reader == null) {
+			return true;
+		}
+		discard(ndx, calculatePosition);
+		return !fill();
+	}
+
+	/**
+	 * Returns the offset of the given index from the start of the input.
+	 */
+	protected final int offset(int index) {
+		return offset + index;
 	}
 
 	/**
@@ -174,10 +334,10 @@ class Scanner {
 		int offset;
 		int lastNewLineOffset;
 
-		if (position > lastOffset) {
-			line = 1;
+		if (position < lastOffset || lastOffset == -1) {
+			line = firstLine;
 			offset = 0;
-			lastNewLineOffset = 0;
+			lastNewLineOffset = firstNewLineOffset;
 		} else {
 			line = lastLine;
 			offset = lastOffset;
@@ -199,7 +359,7 @@ class Scanner {
 		lastLine = line;
 		lastLastNewLineOffset = lastNewLineOffset;
 
-		return new Position(position, line, position - lastNewLineOffset + 1);
+		return new Position(this.offset + position, line, position - lastNewLineOffset + 1);
 	}
 
 	/**
@@ -36,6 +36,7 @@ public class Attribute implements Cloneable {
 	protected final String name;
 	protected String value;
 	protected String[] splits;
+	protected Node owner;
 
 	public Attribute(String rawName, String name, String value) {
 		this.rawName = rawName;
@@ -70,10 +71,16 @@ public class Attribute implements Cloneable {
 	}
 
 	/**
-	 * Sets attribute value.
+	 * Sets attribute value. Invalidates document index
+	 * of the owner node, if there is one.
 	 */
 	public void setValue(String value) {
 		this.value = value;
+		this.splits = null;
+
+		if (owner != null) {
+			owner.invalidateIndex(name);
+		}
 	}
 
 	// ---------------------------------------------------------------- splits
@@ -37,6 +37,7 @@ public class Document extends Node {
 	protected long elapsedTime;
 	protected final LagartoDomBuilderConfig config;
 	protected List<String> errors;
+	protected final DocumentIndex index;
 
 	public Document() {
 		this(new LagartoDomBuilderConfig());
@@ -49,6 +50,7 @@ public class Document extends Node {
 		super(null, NodeType.DOCUMENT, null);
 		this.config = config;
 		this.elapsedTime = System.currentTimeMillis();
+		this.index = config.selectorIndex ? new DocumentIndex(this) : null;
 	}
 
 	@Override
@@ -103,6 +105,16 @@ public class Document extends Node {
 	public void setAttribute(String name, String value) {
 	}
 
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Returns <code>true</code> if document elements are indexed.
+	 * @see LagartoDomBuilderConfig#setSelectorIndex(boolean)
+	 */
+	public boolean isIndexed() {
+		return index != null;
+	}
+
 	// ---------------------------------------------------------------- getter
 
 	/**
@@ -0,0 +1,191 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto.dom;
+
+import jodd.util.collection.JoddArrayList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Document index of elements by id, tag name and class name.
+ * Index is built lazily, on first lookup, by walking the whole
+ * document once. Any DOM change invalidates the index, so it is
+ * rebuilt on the next lookup. Lists of elements are in the
+ * document order.
+ */
+class DocumentIndex {
+
+	private static final String ID = "id";
+	private static final String CLASS = "class";
+
+	protected final Document document;
+
+	protected volatile boolean valid;
+	protected Map<String, List<Element>> ids;
+	protected Map<String, List<Element>> tags;
+	protected Map<String, List<Element>> classes;
+
+	DocumentIndex(Document document) {
+		this.document = document;
+	}
+
+	/**
+	 * Invalidates the index after the DOM change.
+	 */
+	void invalidate() {
+		valid = false;
+	}
+
+	// ---------------------------------------------------------------- lookup
+
+	/**
+	 * Returns elements with given id.
+	 */
+	List<Element> lookupId(String id) {
+		build();
+		return lookup(ids, id);
+	}
+
+	/**
+	 * Returns elements with given tag name.
+	 */
+	List<Element> lookupTag(String tagName) {
+		build();
+		return lookup(tags, tagName);
+	}
+
+	/**
+	 * Returns elements containing given class name.
+	 */
+	List<Element> lookupClass(String className) {
+		build();
+		return lookup(classes, className);
+	}
+
+	private List<Element> lookup(Map<String, List<Element>> map, String key) {
+		List<Element> elements = map.get(key);
+		if (elements == null) {
+			return Collections.emptyList();
+		}
+		return elements;
+	}
+
+	// ---------------------------------------------------------------- build
+
+	/**
+	 * Builds the index, if it is not valid.
+	 */
+	protected void build() {
+		if (valid) {
+			return;
+		}
+		synchronized (this) {
+			if (valid) {
+				return;
+			}
+			ids = new HashMap<>();
+			tags = new HashMap<>();
+			classes = new HashMap<>();
+
+			index(document);
+
+			valid = true;
+		}
+	}
+
+	/**
+	 * Indexes all descendant elements in the document order.
+	 * Tree is walked without recursion.
+	 */
+	protected void index(Node root) {
+		JoddArrayList<Node> nodes = new JoddArrayList<>();
+		nodes.add(root);
+
+		while (!nodes.isEmpty()) {
+			Node node = nodes.removeFirst();
+
+			if (node.getNodeType() == Node.NodeType.ELEMENT) {
+				Element element = (Element) node;
+
+				add(tags, element.getNodeName(), element);
+
+				String id = element.getAttribute(ID);
+				if (id != null) {
+					add(ids, id, element);
+				}
+
+				String className = element.getAttribute(CLASS);
+				if (className != null) {
+					indexClassNames(className, element);
+				}
+			}
+
+			int childCount = node.getChildNodesCount();
+			for (int i = childCount - 1; i >= 0; i--) {
+				nodes.addFirst(node.getChild(i));
+			}
+		}
+	}
+
+	/**
+	 * Splits class attribute value on whitespaces, the same way
+	 * as {@link jodd.csselly.selector.Match#INCLUDES} does.
+	 */
+	protected void indexClassNames(String className, Element element) {
+		int len = className.length();
+		int start = -1;
+		for (int i = 0; i <= len; i++) {
+			char c = i == len ? ' ' : className.charAt(i);
+			if ((c == ' ') || (c == '\t')) {
+				if (start != -1) {
+					String name = className.substring(start, i);
+					List<Element> elements = classes.get(name);
+					// the same class name may be repeated
+					if (elements == null || elements.get(elements.size() - 1) != element) {
+						add(classes, name, element);
+					}
+					start = -1;
+				}
+			}
+			else if (start == -1) {
+				start = i;
+			}
+		}
+	}
+
+	private void add(Map<String, List<Element>> map, String key, Element element) {
+		List<Element> elements = map.get(key);
+		if (elements == null) {
+			elements = new ArrayList<>(1);
+			map.put(key, elements);
+		}
+		elements.add(element);
+	}
+
+}
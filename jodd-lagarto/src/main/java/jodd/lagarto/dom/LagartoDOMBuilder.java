@@ -27,6 +27,8 @@ package jodd.lagarto.dom;
 
 import jodd.lagarto.LagartoParser;
 
+import java.io.Reader;
+
 /**
  * Lagarto DOM builder creates DOM tree from HTML, XHTML or XML content.
  */
@@ -143,6 +145,16 @@ public class LagartoDOMBuilder implements DOMBuilder {
 		return doParse(lagartoParser);
 	}
 
+	/**
+	 * Creates DOM tree from the content read from provided reader.
+	 * Content is parsed while being read, so it is never
+	 * loaded into the memory as a whole. Reader is not closed.
+	 */
+	public Document parse(Reader reader) {
+		LagartoParser lagartoParser = new LagartoParser(reader, true);
+		return doParse(lagartoParser);
+	}
+
 	/**
 	 * Parses the content using provided lagarto parser.
 	 */
@@ -157,4 +169,4 @@ public class LagartoDOMBuilder implements DOMBuilder {
 		return domBuilderTagVisitor.getDocument();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -45,6 +45,7 @@ public class LagartoDomBuilderConfig extends LagartoParserConfig<LagartoDomBuild
 
 	protected boolean useFosterRules;
 	protected boolean unclosedTagAsOrphanCheck;
+	protected boolean selectorIndex;
 
 	protected LagartoHtmlRenderer lagartoHtmlRenderer = new LagartoHtmlRenderer();
 
@@ -156,6 +157,22 @@ public class LagartoDomBuilderConfig extends LagartoParserConfig<LagartoDomBuild
 		return this;
 	}
 
+	public boolean isSelectorIndex() {
+		return selectorIndex;
+	}
+
+	/**
+	 * Enables index of elements by id, tag name and class name
+	 * in created documents. Index speeds up selecting of nodes
+	 * when many queries are executed over a large document.
+	 * Index is rebuilt after every DOM change, so it does not pay off
+	 * when DOM is modified between the queries.
+	 */
+	public LagartoDomBuilderConfig setSelectorIndex(boolean selectorIndex) {
+		this.selectorIndex = selectorIndex;
+		return this;
+	}
+
 	/**
 	 * Returns parsing error log level.
 	 */
@@ -97,8 +97,9 @@ public abstract class Node implements Cloneable {
 		if (attributes != null) {
 			dest.attributes = new ArrayList<>(attributes.size());
 			for (int i = 0, attributesSize = attributes.size(); i < attributesSize; i++) {
-				Attribute attr = attributes.get(i);
-				dest.attributes.add(attr.clone());
+				Attribute attr = attributes.get(i).clone();
+				attr.owner = dest;
+				dest.attributes.add(attr);
 			}
 		}
 
@@ -176,6 +177,7 @@ public abstract class Node implements Cloneable {
 			parentNode.childNodes.remove(siblingIndex);
 			parentNode.reindexChildren();
 		}
+		parentNode.invalidateIndex();
 		parentNode = null;
 	}
 
@@ -189,6 +191,7 @@ public abstract class Node implements Cloneable {
 		initChildNodes(node);
 		childNodes.add(node);
 		reindexChildrenOnAdd(1);
+		invalidateIndex();
 	}
 
 	/**
@@ -206,6 +209,7 @@ public abstract class Node implements Cloneable {
 			childNodes.add(node);
 		}
 		reindexChildrenOnAdd(nodes.length);
+		invalidateIndex();
 	}
 
 	/**
@@ -221,6 +225,7 @@ public abstract class Node implements Cloneable {
 			throw new LagartoDOMException("Invalid node index: " + index);
 		}
 		reindexChildren();
+		invalidateIndex();
 	}
 
 	/**
@@ -240,6 +245,7 @@ public abstract class Node implements Cloneable {
 			}
 		}
 		reindexChildren();
+		invalidateIndex();
 	}
 
 	/**
@@ -326,6 +332,7 @@ public abstract class Node implements Cloneable {
 		childNodes = null;
 		childElementNodes = null;
 		childElementNodesCount = 0;
+		invalidateIndex();
 
 		if (removedNodes != null) {
 			for (int i = 0, removedNodesSize = removedNodes.size(); i < removedNodesSize; i++) {
@@ -450,7 +457,8 @@ public abstract class Node implements Cloneable {
 		if (index == -1) {
 			return false;
 		}
-		attributes.remove(index);
+		attributes.remove(index).owner = null;
+		invalidateIndex(name);
 		return true;
 	}
 
@@ -473,7 +481,10 @@ public abstract class Node implements Cloneable {
 				return;
 			}
 		}
-		attributes.add(new Attribute(rawAttributeName, name, value));
+		Attribute attribute = new Attribute(rawAttributeName, name, value);
+		attribute.owner = this;
+		attributes.add(attribute);
+		invalidateIndex(name);
 	}
 
 	/**
@@ -879,6 +890,27 @@ public abstract class Node implements Cloneable {
 		}
 	}
 
+	/**
+	 * Invalidates {@link DocumentIndex document index} after the DOM change.
+	 */
+	protected void invalidateIndex() {
+		Document document = nodeType == NodeType.DOCUMENT ? (Document) this : ownerDocument;
+
+		if (document != null && document.index != null) {
+			document.index.invalidate();
+		}
+	}
+
+	/**
+	 * Invalidates {@link DocumentIndex document index} after the change
+	 * of an indexed attribute.
+	 */
+	protected void invalidateIndex(String attributeName) {
+		if (attributeName.equalsIgnoreCase("id") || attributeName.equalsIgnoreCase("class")) {
+			invalidateIndex();
+		}
+	}
+
 	// ---------------------------------------------------------------- siblings index
 
 	/**
@@ -40,7 +40,7 @@ public class NodeMatcher {
 	}
 
 	public boolean match(String query) {
-		Collection<List<CssSelector>> selectorsCollection = CSSelly.parse(query);
+		Collection<List<CssSelector>> selectorsCollection = CSSelly.parseCached(query);
 		return match(selectorsCollection);
 	}
 
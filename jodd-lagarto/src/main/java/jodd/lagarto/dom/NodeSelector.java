@@ -28,6 +28,10 @@ package jodd.lagarto.dom;
 import jodd.csselly.CSSelly;
 import jodd.csselly.Combinator;
 import jodd.csselly.CssSelector;
+import jodd.csselly.Selector;
+import jodd.csselly.selector.AttributeSelector;
+import jodd.csselly.selector.Match;
+import jodd.util.StringPool;
 import jodd.util.collection.JoddArrayList;
 
 import java.util.ArrayList;
@@ -52,7 +56,7 @@ public class NodeSelector {
 	 * Selects nodes using CSS3 selector query.
 	 */
 	public List<Node> select(String query) {
-		Collection<List<CssSelector>> selectorsCollection = CSSelly.parse(query);
+		Collection<List<CssSelector>> selectorsCollection = CSSelly.parseCached(query);
 		return select(selectorsCollection);
 	}
 
@@ -127,6 +131,12 @@ public class NodeSelector {
 
 	protected List<Node> select(Node rootNode, List<CssSelector> selectors) {
 
+		// use the document index, when possible
+		List<Node> indexedNodes = selectIndexed(rootNode, selectors);
+		if (indexedNodes != null) {
+			return indexedNodes;
+		}
+
 		// start with the root node
 		List<Node> nodes = new ArrayList<>();
 		nodes.add(rootNode);
@@ -249,4 +259,133 @@ public class NodeSelector {
 		return cssSelector.accept(currentResults, node, index);
 	}
 
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Selects nodes using {@link DocumentIndex document index}. Candidates
+	 * are taken from the most selective index of the last css selector and
+	 * then matched against the rest of selectors, from right to left.
+	 * Returns <code>null</code> if index can not be used: when document is not
+	 * indexed, when selectors contain positional pseudo-classes or combinators
+	 * other than descendant one, or when last css selector is universal.
+	 * In all other cases results are the same and in the same order
+	 * as when the tree is walked.
+	 */
+	protected List<Node> selectIndexed(Node rootNode, List<CssSelector> selectors) {
+		Document document = rootNode.getNodeType() == Node.NodeType.DOCUMENT ?
+				(Document) rootNode : rootNode.getOwnerDocument();
+
+		if (document == null || document.index == null) {
+			return null;
+		}
+
+		int lastIndex = selectors.size() - 1;
+		for (int i = 0; i <= lastIndex; i++) {
+			CssSelector cssSelector = selectors.get(i);
+			if (cssSelector.isPositional()) {
+				return null;
+			}
+			if (i < lastIndex && cssSelector.getCombinator() != Combinator.DESCENDANT) {
+				return null;
+			}
+		}
+
+		List<Element> candidates = lookupCandidates(document.index, selectors.get(lastIndex));
+		if (candidates == null) {
+			return null;
+		}
+
+		List<Node> result = new ArrayList<>();
+		for (Element candidate : candidates) {
+			if (isDescendant(candidate, rootNode) && match(candidate, selectors, lastIndex, rootNode)) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the smallest list of candidate elements for given css selector,
+	 * or <code>null</code> if there is no index for it.
+	 */
+	protected List<Element> lookupCandidates(DocumentIndex documentIndex, CssSelector cssSelector) {
+		List<Element> candidates = null;
+
+		if (!cssSelector.getElement().equals(StringPool.STAR)) {
+			candidates = documentIndex.lookupTag(cssSelector.getElement());
+		}
+
+		int totalSelectors = cssSelector.selectorsCount();
+		for (int i = 0; i < totalSelectors; i++) {
+			Selector selector = cssSelector.getSelector(i);
+
+			if (selector.getType() != Selector.Type.ATTRIBUTE) {
+				continue;
+			}
+
+			AttributeSelector attributeSelector = (AttributeSelector) selector;
+			String value = attributeSelector.getValue();
+
+			if (value == null) {
+				continue;
+			}
+
+			List<Element> elements;
+			String name = attributeSelector.getName();
+
+			if (name.equals("id") && attributeSelector.getMatch() == Match.EQUALS) {
+				elements = documentIndex.lookupId(value);
+			}
+			else if (name.equals("class") && attributeSelector.getMatch() == Match.INCLUDES) {
+				elements = documentIndex.lookupClass(value);
+			}
+			else {
+				continue;
+			}
+
+			if (candidates == null || elements.size() < candidates.size()) {
+				candidates = elements;
+			}
+		}
+
+		return candidates;
+	}
+
+	/**
+	 * Returns <code>true</code> if node is a descendant of the root node.
+	 */
+	protected boolean isDescendant(Node node, Node rootNode) {
+		Node parent = node.getParentNode();
+		while (parent != null) {
+			if (parent == rootNode) {
+				return true;
+			}
+			parent = parent.getParentNode();
+		}
+		return false;
+	}
+
+	/**
+	 * Matches node against css selector at given index and then
+	 * one of its ancestors against the previous css selector, recursively.
+	 * Ancestors are matched only up to the root node.
+	 */
+	protected boolean match(Node node, List<CssSelector> selectors, int index, Node rootNode) {
+		if (!selectors.get(index).accept(node)) {
+			return false;
+		}
+		if (index == 0) {
+			return true;
+		}
+
+		Node parent = node.getParentNode();
+		while (parent != rootNode) {
+			if (match(parent, selectors, index - 1, rootNode)) {
+				return true;
+			}
+			parent = parent.getParentNode();
+		}
+		return false;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package jodd.lagarto.dom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Compares selecting nodes from a large document with and without
+ * the document index.
+ * Run:
+ * <code>
+ * gw :jodd-lagarto:perf -PNodeSelectorBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class NodeSelectorBenchmark {
+
+	private static final int ROWS = 10000;
+
+	@Param({"false", "true"})
+	public boolean indexed;
+
+	private NodeSelector nodeSelector;
+
+	@Setup
+	public void prepare() {
+		StringBuilder html = new StringBuilder();
+		html.append("<html><body><div id=\"main\"><ul class=\"list\">");
+		for (int i = 0; i < ROWS; i++) {
+			html.append("<li class=\"row r").append(i % 10).append("\">");
+			html.append("<a href=\"#").append(i).append("\" id=\"a").append(i).append("\">");
+			html.append("<span class=\"label\">").append(i).append("</span></a></li>");
+		}
+		html.append("</ul></div></body></html>");
+
+		LagartoDOMBuilder lagartoDOMBuilder = new LagartoDOMBuilder();
+		lagartoDOMBuilder.getConfig().setSelectorIndex(indexed);
+
+		nodeSelector = new NodeSelector(lagartoDOMBuilder.parse(html.toString()));
+	}
+
+	@Benchmark
+	public List<Node> selectId() {
+		return nodeSelector.select("#a5000");
+	}
+
+	@Benchmark
+	public List<Node> selectClass() {
+		return nodeSelector.select("#main li.r7 span");
+	}
+}
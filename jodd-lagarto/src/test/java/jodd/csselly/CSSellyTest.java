@@ -381,4 +381,44 @@ public class CSSellyTest {
 		assertEquals("contains", pseudoFunctionSelector.getPseudoFunction().getPseudoFunctionName());
 
 	}
+
+	@Test
+	public void testParseCache() {
+		long hits = CSSelly.getCacheStats().getHitCount();
+
+		List<List<CssSelector>> selectors = CSSelly.parseCached("div.cached > b, #cached");
+		assertEquals(2, selectors.size());
+		assertEquals("div.cached > b", CSSelly.toString(selectors.get(0)));
+
+		assertSame(selectors, CSSelly.parseCached("div.cached > b, #cached"));
+		assertEquals(hits + 1, CSSelly.getCacheStats().getHitCount());
+
+		try {
+			selectors.get(0).clear();
+			fail();
+		} catch (UnsupportedOperationException ignore) {
+		}
+
+		// plain parse is not cached and returns caller owned lists
+		List<List<CssSelector>> parsed = CSSelly.parse("div.cached > b, #cached");
+		assertNotSame(selectors, parsed);
+		assertEquals(hits + 1, CSSelly.getCacheStats().getHitCount());
+
+		parsed.get(0).clear();
+		parsed.add(null);
+		assertEquals(2, CSSelly.parseCached("div.cached > b, #cached").get(0).size());
+	}
+
+	@Test
+	public void testPositional() {
+		assertFalse(new CSSelly("div.foo").parse().get(0).isPositional());
+		assertFalse(new CSSelly("div:first-child").parse().get(0).isPositional());
+		assertFalse(new CSSelly("div:nth-child(2n+1)").parse().get(0).isPositional());
+		assertFalse(new CSSelly("div:not(':first')").parse().get(0).isPositional());
+
+		assertTrue(new CSSelly("div:first").parse().get(0).isPositional());
+		assertTrue(new CSSelly("div.foo:odd").parse().get(0).isPositional());
+		assertTrue(new CSSelly("div:eq(2)").parse().get(0).isPositional());
+		assertTrue(new CSSelly("div:gt(2)").parse().get(0).isPositional());
+	}
 }
@@ -35,7 +35,10 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 import static jodd.util.StringPool.NEWLINE;
 import static org.junit.Assert.*;
@@ -98,20 +101,24 @@ public class LagartoParserTest {
 
 				boolean isXml = file.getName().endsWith(".xml");
 
-				String[] results = _parse(content, isXml);
-				String result = results[0];		// parsing result
-				String result2 = results[1];	// tag writer
-
 				expectedResult = StringUtil.removeChars(expectedResult, '\r');
-				result = StringUtil.removeChars(result, '\r').trim();
-				result2 = StringUtil.removeChars(result2, '\r').trim();
 
-				assertEquals(expectedResult, result);
+				// parse whole content and then stream it with small buffers
+				for (int bufferSize : new int[] {0, 16, 5}) {
+					String[] results = _parse(content, isXml, bufferSize);
+					String result = results[0];		// parsing result
+					String result2 = results[1];	// tag writer
 
-				if (formatted != null) {
-					assertEquals(formatted, result2);
-				} else {
-					assertEquals(content, result2);
+					result = StringUtil.removeChars(result, '\r').trim();
+					result2 = StringUtil.removeChars(result2, '\r').trim();
+
+					assertEquals(expectedResult, result);
+
+					if (formatted != null) {
+						assertEquals(formatted, result2);
+					} else {
+						assertEquals(content, result2);
+					}
 				}
 			}
 		}
@@ -157,7 +164,7 @@ public class LagartoParserTest {
 		return errors.toString();
 	}
 
-	private String[] _parse(String content, boolean isXml) {
+	private String[] _parse(String content, boolean isXml, int bufferSize) {
 		final StringBuilder result = new StringBuilder();
 		final StringBuilder out = new StringBuilder();
 
@@ -250,7 +257,12 @@ public class LagartoParserTest {
 		};
 
 
-		LagartoParser lagartoParser = new LagartoParser(content, false);
+		LagartoParser lagartoParser;
+		if (bufferSize == 0) {
+			lagartoParser = new LagartoParser(content, false);
+		} else {
+			lagartoParser = new LagartoParser(new ChunkReader(content, 3), bufferSize, false);
+		}
 		lagartoParser.getConfig().setCalculatePosition(true);
 
 		if (isXml) {
@@ -264,4 +276,79 @@ public class LagartoParserTest {
 		return new String[]{result.toString(), out.toString()};
 	}
 
+	@Test
+	public void testStreamingCharSequences() {
+		StringBuilder html = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			html.append("<div id=\"d").append(i).append("\">text").append(i).append("</div>");
+		}
+
+		final List<CharSequence> sequences = new ArrayList<>();
+
+		LagartoParser lagartoParser = new LagartoParser(new ChunkReader(html.toString(), 100), 64, false);
+		lagartoParser.parse(new EmptyTagVisitor() {
+			@Override
+			public void tag(Tag tag) {
+				sequences.add(tag.getName());
+				if (tag.getAttributeCount() > 0) {
+					sequences.add(tag.getAttributeValue(0));
+				}
+			}
+
+			@Override
+			public void text(CharSequence text) {
+				sequences.add(text);
+			}
+		});
+
+		// all sequences are still valid after the buffer was reused
+		assertEquals(4000, sequences.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("div", sequences.get(i * 4).toString());
+			assertEquals("d" + i, sequences.get(i * 4 + 1).toString());
+			assertEquals("text" + i, sequences.get(i * 4 + 2).toString());
+			assertEquals("div", sequences.get(i * 4 + 3).toString());
+		}
+
+		// buffer is not growing
+		assertTrue(lagartoParser.input.length <= 128);
+	}
+
+	@Test
+	public void testStreamingTagPosition() {
+		String html = "<html>\n<body>\n<p>one</p>\n<p>two</b></p>\n</body>\n</html>";
+
+		final StringBuilder out = new StringBuilder();
+
+		LagartoParser lagartoParser = new LagartoParser(new StringReader(html), 8, true);
+		lagartoParser.getConfig().setCalculatePosition(true);
+		lagartoParser.parse(new EmptyTagVisitor() {
+			@Override
+			public void tag(Tag tag) {
+				if (tag.getName().equals("p")) {
+					out.append(tag.getTagPosition()).append(tag.getPosition()).append(' ');
+				}
+			}
+		});
+
+		assertEquals("14[3:1 @14] 20[3:7 @20] 25[4:1 @25] 35[4:11 @35] ", out.toString());
+	}
+
+	/**
+	 * Reader that returns content in small chunks.
+	 */
+	private static class ChunkReader extends StringReader {
+		private final int chunkSize;
+
+		ChunkReader(String content, int chunkSize) {
+			super(content);
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			return super.read(cbuf, off, Math.min(len, chunkSize));
+		}
+	}
+
 }
@@ -35,7 +35,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -377,6 +379,145 @@ public class NodeSelectorTest {
 
 	// ---------------------------------------------------------------- utils
 
+	@Test
+	public void testIndexedSelect() throws IOException {
+		String[] files = new String[] {"one.html", "Twitter.html", "Yahoo!.html"};
+
+		for (String fileName : files) {
+			String html = FileUtil.readString(new File(testDataRoot, fileName));
+
+			Document document = new LagartoDOMBuilder().parse(html);
+			Document indexedDocument = createIndexedDOMBuilder().parse(html);
+
+			assertFalse(document.isIndexed());
+			assertTrue(indexedDocument.isIndexed());
+
+			// collect queries from the document itself
+			Set<String> queries = new LinkedHashSet<>();
+			for (Node node : new NodeSelector(document).select("[id], [class]")) {
+				String id = node.getAttribute("id");
+				if (id != null && id.matches("[a-zA-Z][\\w-]*")) {
+					queries.add('#' + id);
+					queries.add("div #" + id);
+				}
+				String className = node.getAttribute("class");
+				if (className != null) {
+					for (String name : className.trim().split("\\s+")) {
+						if (name.matches("[a-zA-Z][\\w-]*")) {
+							queries.add('.' + name);
+							queries.add(node.getNodeName() + '.' + name);
+							queries.add("body div ." + name);
+						}
+					}
+				}
+			}
+			queries.add("div");
+			queries.add("div a");
+			queries.add("ul li a");
+			queries.add("li:first-child a");
+			queries.add("div:not('.hi') span");
+			queries.add("div > a");
+			queries.add("a:first");
+			queries.add("*");
+
+			for (String query : queries) {
+				List<Node> expected = new NodeSelector(document).select(query);
+				List<Node> nodes = new NodeSelector(indexedDocument).select(query);
+
+				assertEquals(query, toPaths(expected), toPaths(nodes));
+			}
+		}
+	}
+
+	@Test
+	public void testIndexedSelectAfterChange() throws IOException {
+		File file = new File(testDataRoot, "one.html");
+		String html = FileUtil.readString(file);
+		Document document = createIndexedDOMBuilder().parse(html);
+		NodeSelector nodeSelector = new NodeSelector(document);
+
+		assertEquals(2, nodeSelector.select(".k2").size());
+		assertEquals(1, nodeSelector.select("#jodd").size());
+
+		Node jodd = nodeSelector.selectFirst("#jodd");
+		jodd.setAttribute("class", "k2");
+		assertEquals(3, nodeSelector.select(".k2").size());
+		assertEquals(2, nodeSelector.select("div .k2").size());
+
+		jodd.removeAttribute("class");
+		assertEquals(2, nodeSelector.select(".k2").size());
+
+		jodd.setAttribute("id", "joddy");
+		assertEquals(0, nodeSelector.select("#jodd").size());
+		assertEquals(1, nodeSelector.select("#joddy").size());
+
+		Element element = new Element(document, "span");
+		element.setAttribute("class", "k2");
+		jodd.addChild(element);
+		assertEquals(element, nodeSelector.select("#joddy .k2").get(0));
+		assertEquals(1, new NodeSelector(jodd).select("span").size());
+
+		jodd.detachFromParent();
+		assertEquals(2, nodeSelector.select(".k2").size());
+		assertEquals(0, nodeSelector.select("#joddy").size());
+		assertEquals(0, nodeSelector.select("span.k2").size());
+
+		nodeSelector.selectFirst("#fiona").removeAllChilds();
+		assertEquals(1, nodeSelector.select(".k2").size());
+	}
+
+	@Test
+	public void testIndexedSelectAfterAttributeValueChange() throws IOException {
+		File file = new File(testDataRoot, "one.html");
+		String html = FileUtil.readString(file);
+		Document document = createIndexedDOMBuilder().parse(html);
+		NodeSelector nodeSelector = new NodeSelector(document);
+
+		assertEquals(2, nodeSelector.select(".k2").size());
+
+		Node jodd = nodeSelector.selectFirst("#jodd");
+		Attribute id = null;
+		for (int i = 0; i < jodd.getAttributesCount(); i++) {
+			if (jodd.getAttribute(i).getName().equals("id")) {
+				id = jodd.getAttribute(i);
+			}
+		}
+		assertNotNull(id);
+
+		id.setValue("joddy");
+		assertEquals(0, nodeSelector.select("#jodd").size());
+		assertEquals(1, nodeSelector.select("#joddy").size());
+
+		assertEquals(1, nodeSelector.select(".hi").size());
+		jodd.setAttribute("class", "k2");
+		assertEquals(3, nodeSelector.select(".k2").size());
+		assertEquals(0, nodeSelector.select(".hi").size());
+
+		Node clone = jodd.clone();
+		Attribute cloneId = clone.getAttribute(0);
+		assertNotSame(id, cloneId);
+		clone.setAttribute("id", "clone");
+		assertEquals("joddy", jodd.getAttribute("id"));
+	}
+
+	private LagartoDOMBuilder createIndexedDOMBuilder() {
+		LagartoDOMBuilder lagartoDOMBuilder = new LagartoDOMBuilder();
+		lagartoDOMBuilder.getConfig().setSelectorIndex(true);
+		return lagartoDOMBuilder;
+	}
+
+	private String toPaths(List<Node> nodes) {
+		StringBuilder sb = new StringBuilder();
+		for (Node node : nodes) {
+			while (node.getParentNode() != null) {
+				sb.append(node.getSiblingIndex()).append('.');
+				node = node.getParentNode();
+			}
+			sb.append(' ');
+		}
+		return sb.toString();
+	}
+
 	private NodeSelector createNodeFilter() throws IOException {
 		File file = new File(testDataRoot, "one.html");
 		String html = FileUtil.readString(file);
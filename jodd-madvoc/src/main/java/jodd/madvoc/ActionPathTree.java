@@ -0,0 +1,276 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc;
+
+import jodd.util.ArraysUtil;
+import jodd.util.StringUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tree of {@link ActionConfigSet action config sets} with macros, compiled
+ * by path segments. Static segments are matched by exact value, segments with
+ * macros are matched by their fixed head and tail. Only the sets that pass
+ * the tree are fully {@link jodd.madvoc.macro.PathMacros#match(String) matched},
+ * so lookup does not depend on the total number of actions.
+ * Sets whose macro definitions contain a path separator can not be split
+ * into segments and are matched one by one, as before.
+ * <p>
+ * Like the linear matching, the set with the most matched (non-macro) chars
+ * wins; on equal matches the set with lower action path wins.
+ */
+public class ActionPathTree {
+
+	protected final Node root = new Node(null, null);
+	protected ActionConfigSet[] unsplittable = new ActionConfigSet[0];
+	protected int size;
+
+	/**
+	 * Tree node, representing single path segment.
+	 */
+	protected static class Node {
+		protected final String head;		// fixed prefix of a macro segment
+		protected final String tail;		// fixed suffix of a macro segment
+		protected Map<String, Node> staticNodes;
+		protected Map<String, Node> macroNodes;
+		protected Node[] macroNodesArray;
+		protected ActionConfigSet set;
+
+		protected Node(String head, String tail) {
+			this.head = head;
+			this.tail = tail;
+		}
+
+		/**
+		 * Returns <code>true</code> if path segment may be matched
+		 * by this macro node.
+		 */
+		protected boolean accept(String path, int from, int to) {
+			int headLen = head.length();
+			int tailLen = tail.length();
+
+			if (to - from < headLen + tailLen) {
+				return false;
+			}
+			return path.startsWith(head, from) && path.startsWith(tail, to - tailLen);
+		}
+	}
+
+	/**
+	 * Returns number of sets in the tree.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds action config set with macros. Macro prefix and suffix are
+	 * used to split action path into static and macro segments.
+	 */
+	public void add(ActionConfigSet set, String macroPrefix, String macroSuffix) {
+		String actionPath = set.actionPath;
+
+		size++;
+
+		if (!isSplittable(actionPath, macroPrefix, macroSuffix)) {
+			unsplittable = ArraysUtil.append(unsplittable, set);
+			return;
+		}
+
+		Node node = root;
+		int from = 0;
+
+		while (true) {
+			int to = actionPath.indexOf('/', from);
+			if (to == -1) {
+				to = actionPath.length();
+			}
+
+			String segment = actionPath.substring(from, to);
+
+			int macroNdx = segment.indexOf(macroPrefix);
+
+			if (macroNdx == -1) {
+				if (node.staticNodes == null) {
+					node.staticNodes = new HashMap<>();
+				}
+				Node next = node.staticNodes.get(segment);
+				if (next == null) {
+					next = new Node(null, null);
+					node.staticNodes.put(segment, next);
+				}
+				node = next;
+			}
+			else {
+				if (node.macroNodes == null) {
+					node.macroNodes = new HashMap<>();
+				}
+				Node next = node.macroNodes.get(segment);
+				if (next == null) {
+					String head = segment.substring(0, macroNdx);
+					String tail = segment.substring(segment.lastIndexOf(macroSuffix) + macroSuffix.length());
+
+					next = new Node(head, tail);
+					node.macroNodes.put(segment, next);
+					node.macroNodesArray = node.macroNodes.values().toArray(new Node[node.macroNodes.size()]);
+				}
+				node = next;
+			}
+
+			if (to == actionPath.length()) {
+				break;
+			}
+			from = to + 1;
+		}
+
+		node.set = set;
+	}
+
+	/**
+	 * Returns <code>true</code> if no macro definition contains the path separator.
+	 */
+	protected boolean isSplittable(String actionPath, String macroPrefix, String macroSuffix) {
+		int offset = 0;
+
+		while (true) {
+			int[] ndx = StringUtil.indexOfRegion(actionPath, macroPrefix, macroSuffix, offset);
+
+			if (ndx == null) {
+				return true;
+			}
+
+			if (actionPath.lastIndexOf('/', ndx[3] - 1) >= ndx[0]) {
+				return false;
+			}
+
+			offset = ndx[3];
+		}
+	}
+
+	// ---------------------------------------------------------------- lookup
+
+	/**
+	 * Lookups the best matching set for given action path, that
+	 * has an action config for given http method.
+	 * Returns <code>null</code> if no set matches.
+	 */
+	public ActionConfigSet lookup(String actionPath, String method) {
+		Match match = new Match(actionPath, method);
+
+		match(root, 0, match);
+
+		if (unsplittable.length != 0) {
+			int actionPathDeep = StringUtil.count(actionPath, '/');
+
+			for (ActionConfigSet set : unsplittable) {
+				if (set.deep == actionPathDeep) {
+					match.offer(set);
+				}
+			}
+		}
+
+		return match.set;
+	}
+
+	/**
+	 * Walks the tree from given node and segment start.
+	 */
+	protected void match(Node node, int from, Match match) {
+		String actionPath = match.actionPath;
+
+		int to = actionPath.indexOf('/', from);
+		boolean last = to == -1;
+		if (last) {
+			to = actionPath.length();
+		}
+
+		if (node.staticNodes != null) {
+			Node next = node.staticNodes.get(actionPath.substring(from, to));
+
+			if (next != null) {
+				if (last) {
+					match.offer(next.set);
+				} else {
+					match(next, to + 1, match);
+				}
+			}
+		}
+
+		if (node.macroNodesArray != null) {
+			for (Node next : node.macroNodesArray) {
+				if (!next.accept(actionPath, from, to)) {
+					continue;
+				}
+				if (last) {
+					match.offer(next.set);
+				} else {
+					match(next, to + 1, match);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Best match holder.
+	 */
+	protected static class Match {
+		protected final String actionPath;
+		protected final String method;
+		protected ActionConfigSet set;
+		protected int matchedChars = -1;
+
+		protected Match(String actionPath, String method) {
+			this.actionPath = actionPath;
+			this.method = method;
+		}
+
+		/**
+		 * Offers a candidate set.
+		 */
+		protected void offer(ActionConfigSet candidate) {
+			if (candidate == null) {
+				return;
+			}
+			if (candidate.lookup(method) == null) {
+				return;
+			}
+
+			int chars = candidate.actionPathMacros.match(actionPath);
+
+			if (chars == -1) {
+				return;
+			}
+
+			if (chars > matchedChars ||
+				(chars == matchedChars && candidate.actionPath.compareTo(set.actionPath) < 0)) {
+				matchedChars = chars;
+				set = candidate;
+			}
+		}
+	}
+
+}
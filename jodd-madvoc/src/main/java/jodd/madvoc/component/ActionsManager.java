@@ -30,11 +30,11 @@ import jodd.introspector.MethodDescriptor;
 import jodd.madvoc.ActionConfig;
 import jodd.madvoc.ActionConfigSet;
 import jodd.madvoc.ActionDef;
+import jodd.madvoc.ActionPathTree;
 import jodd.madvoc.MadvocException;
 import jodd.madvoc.macro.PathMacros;
 import jodd.petite.meta.PetiteInject;
 import jodd.util.ClassLoaderUtil;
-import jodd.util.StringUtil;
 import jodd.util.collection.SortedArrayList;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
@@ -67,12 +67,14 @@ public class ActionsManager {
 	protected boolean asyncMode;
 	protected final HashMap<String, ActionConfigSet> map;		// map of all action paths w/o macros
 	protected final SortedArrayList<ActionConfigSet> list;		// list of all action paths with macros
+	protected final ActionPathTree tree;						// tree of all action paths with macros
 	protected final HashMap<String, ActionConfig> configs;		// another map of all action configs
 	protected Map<String, String> pathAliases;					// path aliases
 
 	public ActionsManager() {
 		this.map = new HashMap<>();
 		this.list = new SortedArrayList<>(new ActionConfigSetComparator());
+		this.tree = new ActionPathTree();
 		this.pathAliases = new HashMap<>();
 		this.configs = new HashMap<>();
 		this.asyncMode = false;
@@ -231,6 +233,9 @@ public class ActionsManager {
 			}
 			if (ndx < 0) {
 				list.add(set);
+
+				String[] separators = madvocConfig.getPathMacroSeparators();
+				tree.add(set, separators[0], separators[2]);
 			} else {
 				set = list.get(ndx);
 			}
@@ -281,8 +286,9 @@ public class ActionsManager {
 	/**
 	 * Returns action configurations for provided action path.
 	 * First it lookups for exact <code>actionPath</code>.
-	 * If action path is not registered, it is split into chunks
-	 * and match against macros.
+	 * If action path is not registered, it is matched against
+	 * the {@link ActionPathTree tree} of action paths with macros.
+	 * The best matching path that supports the http method wins.
 	 * Returns <code>null</code> if action path is not registered.
 	 * <code>method</code> must be in uppercase.
 	 */
@@ -298,47 +304,15 @@ public class ActionsManager {
 			}
 		}
 
-		// 2nd try: the list
-
-		int actionPathDeep = StringUtil.count(actionPath, '/');
-
-		int len = list.size();
-
-		int lastMatched = -1;
-		int maxMatchedChars = -1;
-
-		for (int i = 0; i < len; i++) {
-			actionConfigSet = list.get(i);
-
-			int deep = actionConfigSet.deep;
-			if (deep < actionPathDeep) {
-				continue;
-			}
-			if (deep > actionPathDeep) {
-				break;
-			}
+		// 2nd try: the tree
 
-			// same deep level, try the fully match
+		actionConfigSet = tree.lookup(actionPath, method);
 
-			int matchedChars = actionConfigSet.actionPathMacros.match(actionPath);
-
-			if (matchedChars == -1) {
-				continue;
-			}
-
-			if (matchedChars > maxMatchedChars) {
-				maxMatchedChars = matchedChars;
-				lastMatched = i;
-			}
-		}
-
-		if (lastMatched < 0) {
+		if (actionConfigSet == null) {
 			return null;
 		}
 
-		ActionConfigSet set = list.get(lastMatched);
-
-		return set.lookup(method);
+		return actionConfigSet.lookup(method);
 	}
 
 	/**
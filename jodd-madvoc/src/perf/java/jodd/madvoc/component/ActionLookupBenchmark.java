@@ -0,0 +1,97 @@
+package jodd.madvoc.component;
+
+import jodd.madvoc.ActionConfig;
+import jodd.madvoc.ActionConfigSet;
+import jodd.madvoc.ActionDef;
+import jodd.madvoc.WebApplication;
+import jodd.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares action path lookup over 1500 REST-style actions with macros:
+ * the action path tree vs. the linear matching of all sets with the same deep.
+ * Run:
+ * <code>
+ * gw :jodd-madvoc:perf -PActionLookupBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ActionLookupBenchmark {
+
+	private static final int RESOURCES_COUNT = 500;
+
+	public static class RestAction {
+		public void view() {
+		}
+	}
+
+	private ActionsManager actionsManager;
+	private String[] paths;
+	private int index;
+
+	@Setup
+	public void prepare() {
+		WebApplication webapp = new WebApplication(true);
+		webapp.registerMadvocComponents();
+		actionsManager = webapp.getComponent(ActionsManager.class);
+
+		for (int i = 0; i < RESOURCES_COUNT; i++) {
+			actionsManager.register(RestAction.class, "view", new ActionDef("/api/res" + i + "/${id}"));
+			actionsManager.register(RestAction.class, "view", new ActionDef("/api/res" + i + "/${id}/items"));
+			actionsManager.register(RestAction.class, "view", new ActionDef("/api/res" + i + "/${id}/items/${item}"));
+		}
+
+		paths = new String[] {
+			"/api/res7/123",
+			"/api/res250/123/items",
+			"/api/res499/123/items/42",
+			"/api/res100/123/unknown",
+		};
+	}
+
+	@Benchmark
+	public ActionConfig tree() {
+		return actionsManager.lookup(nextPath(), "GET");
+	}
+
+	@Benchmark
+	public ActionConfig list() {
+		String actionPath = nextPath();
+
+		int actionPathDeep = StringUtil.count(actionPath, '/');
+		int maxMatchedChars = -1;
+		ActionConfigSet matched = null;
+
+		for (ActionConfigSet set : actionsManager.list) {
+			if (set.deep < actionPathDeep) {
+				continue;
+			}
+			if (set.deep > actionPathDeep) {
+				break;
+			}
+			int matchedChars = set.actionPathMacros.match(actionPath);
+			if (matchedChars > maxMatchedChars) {
+				maxMatchedChars = matchedChars;
+				matched = set;
+			}
+		}
+		return matched == null ? null : matched.lookup("GET");
+	}
+
+	private String nextPath() {
+		index++;
+		if (index == paths.length) {
+			index = 0;
+		}
+		return paths[index];
+	}
+}
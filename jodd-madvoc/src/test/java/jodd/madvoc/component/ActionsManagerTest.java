@@ -175,4 +175,71 @@ public class ActionsManagerTest {
 		actionConfig = actionsManager.lookup("/aab", null);
 		assertNull(actionConfig);
 	}
+
+	@Test
+	public void testActionPathTreeManyActions() {
+		WebApplication webapp = new WebApplication(true);
+		webapp.registerMadvocComponents();
+		ActionsManager actionsManager = webapp.getComponent(ActionsManager.class);
+
+		for (int i = 0; i < 100; i++) {
+			actionsManager.register(FooAction.class, "one", new ActionDef("/res" + i + "/${id}"));
+			actionsManager.register(FooAction.class, "two", new ActionDef("/res" + i + "/${id}/items/${item}"));
+		}
+		actionsManager.register(FooAction.class, "three", new ActionDef("/res7/${id}/items/i-${item}"));
+
+		assertEquals(201, actionsManager.getActionsCount());
+
+		ActionConfig actionConfig = actionsManager.lookup("/res42/123", null);
+		assertEquals("one", actionConfig.actionClassMethod.getName());
+		assertEquals("/res42/${id}", actionConfig.actionPath);
+
+		actionConfig = actionsManager.lookup("/res42/123/items/7", null);
+		assertEquals("two", actionConfig.actionClassMethod.getName());
+
+		actionConfig = actionsManager.lookup("/res7/123/items/7", null);
+		assertEquals("two", actionConfig.actionClassMethod.getName());
+
+		actionConfig = actionsManager.lookup("/res7/123/items/i-7", null);
+		assertEquals("three", actionConfig.actionClassMethod.getName());	// best match!
+
+		assertNull(actionsManager.lookup("/res100/123", null));
+		assertNull(actionsManager.lookup("/res42/123/items", null));
+		assertNull(actionsManager.lookup("/res42/123/other/7", null));
+	}
+
+	@Test
+	public void testActionPathTreeHttpMethod() {
+		WebApplication webapp = new WebApplication(true);
+		webapp.registerMadvocComponents();
+		ActionsManager actionsManager = webapp.getComponent(ActionsManager.class);
+
+		actionsManager.register(FooAction.class, "one", new ActionDef("/user/${id}", "GET"));
+		actionsManager.register(FooAction.class, "two", new ActionDef("/user/${id}", "POST"));
+		actionsManager.register(FooAction.class, "three", new ActionDef("/${type}/${id}", "DELETE"));
+
+		assertEquals("one", actionsManager.lookup("/user/1", "GET").actionClassMethod.getName());
+		assertEquals("two", actionsManager.lookup("/user/1", "POST").actionClassMethod.getName());
+		assertEquals("three", actionsManager.lookup("/user/1", "DELETE").actionClassMethod.getName());
+		assertNull(actionsManager.lookup("/user/1", "PUT"));
+	}
+
+	@Test
+	public void testActionPathTreeMacroWithSlash() {
+		WebApplication webapp = new WebApplication(true);
+		webapp.registerMadvocComponents();
+		ActionsManager actionsManager = webapp.getComponent(ActionsManager.class);
+
+		MadvocConfig madvocConfig = webapp.getComponent(MadvocConfig.class);
+		madvocConfig.setPathMacroClass(WildcardPathMacros.class);
+
+		actionsManager.register(FooAction.class, "one", new ActionDef("/${path:*/*}"));
+		actionsManager.register(FooAction.class, "two", new ActionDef("/doc/${name}"));
+
+		ActionConfig actionConfig = actionsManager.lookup("/doc/a", null);
+		assertEquals("two", actionConfig.actionClassMethod.getName());
+
+		actionConfig = actionsManager.lookup("/foo/a", null);
+		assertEquals("one", actionConfig.actionClassMethod.getName());
+	}
 }
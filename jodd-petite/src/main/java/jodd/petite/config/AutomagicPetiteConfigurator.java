@@ -34,7 +34,6 @@ import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 
 import java.io.File;
-import java.io.InputStream;
 
 /**
  * Auto-magically configures Petite container by analyzing the classpath.
@@ -99,8 +98,7 @@ public class AutomagicPetiteConfigurator extends ClassFinder implements PetiteCo
 	@Override
 	protected void onEntry(EntryData entryData) {
 		String entryName = entryData.getName();
-		InputStream inputStream = entryData.openInputStream();
-		if (!isTypeSignatureInUse(inputStream, petiteBeanAnnotationBytes)) {
+		if (!isTypeSignatureInUse(entryData, petiteBeanAnnotationBytes)) {
 			return;
 		}
 		Class<?> beanClass;